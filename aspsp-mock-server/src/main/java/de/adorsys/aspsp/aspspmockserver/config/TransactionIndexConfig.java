@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.aspspmockserver.config;
+
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.IndexOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Creates indexes on transactions, so that transactions of an account booked after a given one are read
+ * by an index range scan in booking order
+ */
+@Configuration
+@Profile({"mongo", "fongo"})
+@RequiredArgsConstructor
+public class TransactionIndexConfig {
+    private static final String BOOKING_SEQUENCE = "bookingSequence";
+
+    private final MongoOperations mongoOperations;
+
+    @PostConstruct
+    public void ensureIndexes() {
+        IndexOperations indexOperations = mongoOperations.indexOps(SpiTransaction.class);
+        indexOperations.ensureIndex(new Index().on(BOOKING_SEQUENCE, Sort.Direction.ASC));
+        indexOperations.ensureIndex(new Index().on("creditorAccount.iban", Sort.Direction.ASC).on(BOOKING_SEQUENCE, Sort.Direction.ASC));
+        indexOperations.ensureIndex(new Index().on("debtorAccount.iban", Sort.Direction.ASC).on(BOOKING_SEQUENCE, Sort.Direction.ASC));
+    }
+}
@@ -15,11 +15,13 @@
  */
 package de.adorsys.aspsp.aspspmockserver.config.rest;
 
+import de.adorsys.aspsp.httpclient.PooledHttpClient;
+import de.adorsys.aspsp.httpclient.PooledHttpClientSettings;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.core.env.Environment;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
@@ -31,19 +33,20 @@ public class RestAspspProfileConfig {
     @Value("${rest-aspsp-profile.connection-timeout.ms:10000}")
     private int connectionTimeout;
 
+    @Autowired
+    private Environment environment;
+
+    @Bean(destroyMethod = "close")
+    public PooledHttpClient aspspProfileHttpClient() {
+        return new PooledHttpClient("aspsp-profile", PooledHttpClientSettings.fromEnvironment(environment, "aspsp-profile", connectionTimeout, readTimeout));
+    }
+
     @Bean(name = "aspspProfileRestTemplate")
     public RestTemplate aspspProfileRestTemplate() {
-        RestTemplate rest = new RestTemplate(clientHttpRequestFactory());
+        RestTemplate rest = new RestTemplate(aspspProfileHttpClient().requestFactory());
         rest.getMessageConverters().add(new MappingJackson2HttpMessageConverter());
         rest.getMessageConverters().add(new StringHttpMessageConverter());
         rest.setErrorHandler(new AspspProfileRestErrorHandler());
         return rest;
     }
-
-    private ClientHttpRequestFactory clientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setReadTimeout(readTimeout);
-        factory.setConnectTimeout(connectionTimeout);
-        return factory;
-    }
 }
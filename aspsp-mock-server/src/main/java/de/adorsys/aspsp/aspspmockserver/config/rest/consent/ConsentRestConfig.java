@@ -16,11 +16,13 @@
 
 package de.adorsys.aspsp.aspspmockserver.config.rest.consent;
 
+import de.adorsys.aspsp.httpclient.PooledHttpClient;
+import de.adorsys.aspsp.httpclient.PooledHttpClientSettings;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.core.env.Environment;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
@@ -34,6 +36,14 @@ public class ConsentRestConfig {
     @Value("${consent-service.baseurl:http://localhost:38080/api/v1}")
     private String consentServiceBaseUrl;
 
+    @Autowired
+    private Environment environment;
+
+    @Bean(destroyMethod = "close")
+    public PooledHttpClient consentHttpClient() {
+        return new PooledHttpClient("consent", PooledHttpClientSettings.fromEnvironment(environment, "consent", connectionTimeout, readTimeout));
+    }
+
     @Bean(name = "consentServiceBaseUrl")
     public String consentServiceBaseUrl() {
         return consentServiceBaseUrl;
@@ -41,16 +51,9 @@ public class ConsentRestConfig {
 
     @Bean(name = "consentRestTemplate")
     public RestTemplate consentRestTemplate(){
-        RestTemplate rest = new RestTemplate(clientHttpRequestFactory());
+        RestTemplate rest = new RestTemplate(consentHttpClient().requestFactory());
         rest.getMessageConverters().add(new MappingJackson2HttpMessageConverter());
         rest.getMessageConverters().add(new StringHttpMessageConverter());
         return rest;
     }
-
-    private ClientHttpRequestFactory clientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setReadTimeout(readTimeout);
-        factory.setConnectTimeout(connectionTimeout);
-        return factory;
-    }
 }
@@ -20,6 +20,7 @@ import de.adorsys.aspsp.aspspmockserver.repository.PaymentRepository;
 import de.adorsys.aspsp.aspspmockserver.repository.PsuRepository;
 import de.adorsys.aspsp.aspspmockserver.repository.TanRepository;
 import de.adorsys.aspsp.aspspmockserver.repository.TransactionRepository;
+import de.adorsys.aspsp.aspspmockserver.service.BookingSequenceService;
 import de.adorsys.aspsp.xs2a.consent.api.pis.PisPaymentType;
 import de.adorsys.aspsp.xs2a.spi.domain.account.*;
 import de.adorsys.aspsp.xs2a.spi.domain.common.SpiAmount;
@@ -55,6 +56,7 @@ public class AccountMockServerData {
     private PaymentRepository paymentRepository;
     private List<SpiAccountDetails> accountDetails;
     private List<Psu> psus;
+    private BookingSequenceService bookingSequenceService;
     private final List<String> ALLOWED_PAYMENTS = Collections.singletonList("sepa-credit-transfers");
     private final Currency EUR = Currency.getInstance("EUR");
     private final Currency USD = Currency.getInstance("USD");
@@ -63,11 +65,13 @@ public class AccountMockServerData {
     // Allowed Payments for Cucumber Test User
     private final List<String> ALLOWED_PAYMENTS_CUCUMBER_TESTUSER = Arrays.asList("sepa-credit-transfers");
 
-    public AccountMockServerData(PsuRepository psuRepository, TransactionRepository transactionRepository, TanRepository tanRepository, PaymentRepository paymentRepository) {
+    public AccountMockServerData(PsuRepository psuRepository, TransactionRepository transactionRepository, TanRepository tanRepository, PaymentRepository paymentRepository,
+                                 BookingSequenceService bookingSequenceService) {
         this.psuRepository = psuRepository;
         this.transactionRepository = transactionRepository;
         this.tanRepository = tanRepository;
         this.paymentRepository = paymentRepository;
+        this.bookingSequenceService = bookingSequenceService;
         this.accountDetails = fillAccounts();
         this.psus = fillPsu();
         fillTransactions();
@@ -124,11 +128,13 @@ public class AccountMockServerData {
     }
 
     private SpiTransaction getTransaction(String transactionId, Psu creditor, Psu debtor, BigDecimal amount, Currency currency, LocalDate bookingDate, LocalDate valueDate, String purposeCode) {
-        return new SpiTransaction(
+        SpiTransaction transaction = new SpiTransaction(
             transactionId, "", "", creditor.getId(), bookingDate, valueDate,
             new SpiAmount(currency, amount), getFirstElementName(creditor), getRef(creditor, currency), getFirstElementName(creditor),
             getFirstElementName(debtor), getRef(debtor, currency), getFirstElementName(debtor), "",
             "", purposeCode, "");
+        transaction.setBookingSequence(bookingSequenceService.getNextBookingSequence());
+        return transaction;
     }
 
     private String getFirstElementName(Psu creditor) {
@@ -5,6 +5,8 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,6 +15,8 @@ public interface PsuRepository extends MongoRepository<Psu, String> {
 
     Optional<Psu> findPsuByAccountDetailsList_Iban(String iban);
 
+    List<Psu> findPsuByAccountDetailsList_IbanIn(Collection<String> ibans);
+
     Optional<Psu> findPsuByName(String name);
 
     Optional<Psu> findPsuByAccountDetailsList_Id(String accountId);
@@ -18,6 +18,7 @@ package de.adorsys.aspsp.aspspmockserver.repository;
 
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -34,4 +35,9 @@ public interface TransactionRepository extends MongoRepository<SpiTransaction, S
 
     @Query("{$or:[{$and:[{'creditorAccount.iban':?0},{'creditorAccount.currency':?1}]},{$and:[{'debtorAccount.iban':?0},{'debtorAccount.currency':?1}]}],'transactionId':?2}")
     SpiTransaction findOneByTransactionIdAndAccount(String iban, Currency currency, String transactionId);
+
+    @Query("{$or:[{$and:[{'creditorAccount.iban':?0},{'creditorAccount.currency':?1}]},{$and:[{'debtorAccount.iban':?0},{'debtorAccount.currency':?1}]}],'bookingSequence':{$gt:?2}}")
+    List<SpiTransaction> findAllAfterBookingSequence(String iban, Currency currency, Long bookingSequence, Sort sort);
+
+    SpiTransaction findFirstByOrderByBookingSequenceDesc();
 }
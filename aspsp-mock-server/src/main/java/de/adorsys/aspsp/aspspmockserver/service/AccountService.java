@@ -23,8 +23,10 @@ import de.adorsys.aspsp.xs2a.spi.domain.psu.Psu;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -82,6 +84,24 @@ public class AccountService {
                    .orElse(Collections.emptyList());
     }
 
+    /**
+     * Returns a list of account details containing any of requested IBANs, all PSUs are read with one query
+     *
+     * @param ibans account IBANs
+     * @return list of account details grouped by IBAN in the order of requested IBANs
+     */
+    public List<SpiAccountDetails> getAccountsByIbans(Collection<String> ibans) {
+        Map<String, List<SpiAccountDetails>> accountsByIban = psuRepository.findPsuByAccountDetailsList_IbanIn(ibans).stream()
+                                                                  .flatMap(psu -> psu.getAccountDetailsList().stream())
+                                                                  .filter(aD -> ibans.contains(aD.getIban()))
+                                                                  .collect(Collectors.groupingBy(SpiAccountDetails::getIban));
+        return ibans.stream()
+                   .distinct()
+                   .map(iban -> accountsByIban.getOrDefault(iban, Collections.emptyList()))
+                   .flatMap(Collection::stream)
+                   .collect(Collectors.toList());
+    }
+
     Optional<String> getPsuIdByIban(String iban) {
         return psuRepository.findPsuByAccountDetailsList_Iban(iban)
                    .map(Psu::getId);
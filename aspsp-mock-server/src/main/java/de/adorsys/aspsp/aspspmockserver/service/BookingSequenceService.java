@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.aspspmockserver.service;
+
+import de.adorsys.aspsp.aspspmockserver.domain.Sequence;
+import de.adorsys.aspsp.aspspmockserver.repository.TransactionRepository;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Issues booking sequences of transactions by an atomic increment of a counter document, so that sequences stay
+ * unique and ordered when several mock server instances save transactions to the same database
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingSequenceService {
+    private static final String BOOKING_SEQUENCE = "bookingSequence";
+    private static final String VALUE = "value";
+
+    private final MongoOperations mongoOperations;
+    private final TransactionRepository transactionRepository;
+
+    /**
+     * Moves the counter past sequences of transactions saved before the counter existed
+     */
+    @PostConstruct
+    public void initSequence() {
+        long lastBookingSequence = Optional.ofNullable(transactionRepository.findFirstByOrderByBookingSequenceDesc())
+                                       .map(SpiTransaction::getBookingSequence)
+                                       .orElse(0L);
+        mongoOperations.findAndModify(query(where("_id").is(BOOKING_SEQUENCE)), new Update().max(VALUE, lastBookingSequence),
+                                      FindAndModifyOptions.options().upsert(true), Sequence.class);
+    }
+
+    public long getNextBookingSequence() {
+        return mongoOperations.findAndModify(query(where("_id").is(BOOKING_SEQUENCE)), new Update().inc(VALUE, 1),
+                                             FindAndModifyOptions.options().upsert(true).returnNew(true), Sequence.class)
+                   .getValue();
+    }
+}
@@ -20,6 +20,7 @@ import de.adorsys.aspsp.aspspmockserver.repository.TransactionRepository;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -32,6 +33,7 @@ import java.util.Optional;
 public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final AccountService accountService;
+    private final BookingSequenceService bookingSequenceService;
 
     public List<SpiTransaction> getAllTransactions() {
         return transactionRepository.findAll();
@@ -43,6 +45,7 @@ public class TransactionService {
     }
 
     public Optional<String> saveTransaction(SpiTransaction transaction) {
+        transaction.setBookingSequence(bookingSequenceService.getNextBookingSequence());
         return Optional.ofNullable(transactionRepository.save(transaction))
                    .map(SpiTransaction::getTransactionId);
     }
@@ -53,4 +56,10 @@ public class TransactionService {
                    .orElse(Collections.emptyList());
     }
 
+    public Optional<List<SpiTransaction>> getTransactionsAfter(String accountId, String entryReference) {
+        Optional<SpiAccountDetails> details = accountService.getAccountById(accountId);
+        return details.flatMap(det -> Optional.ofNullable(transactionRepository.findOneByTransactionIdAndAccount(det.getIban(), det.getCurrency(), entryReference))
+                                          .map(SpiTransaction::getBookingSequence)
+                                          .map(sequence -> transactionRepository.findAllAfterBookingSequence(det.getIban(), det.getCurrency(), sequence, new Sort(Sort.Direction.ASC, "bookingSequence"))));
+    }
 }
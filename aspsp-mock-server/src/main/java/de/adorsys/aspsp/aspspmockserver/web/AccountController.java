@@ -116,4 +116,16 @@ public class AccountController { //TODO: Remove unnecessary endpoints and servic
                    ? ResponseEntity.noContent().build()
                    : ResponseEntity.ok(response);
     }
+
+    @ApiOperation(value = "Returns a list of account details selected by several IBANs", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = List.class),
+        @ApiResponse(code = 204, message = "No Content")})
+    @GetMapping(path = "/ibans")
+    public ResponseEntity<List<SpiAccountDetails>> readAccountsByIbans(@RequestParam("ibans") List<String> ibans) {
+        List<SpiAccountDetails> response = accountService.getAccountsByIbans(ibans);
+        return isEmpty(response)
+                   ? ResponseEntity.noContent().build()
+                   : ResponseEntity.ok(response);
+    }
 }
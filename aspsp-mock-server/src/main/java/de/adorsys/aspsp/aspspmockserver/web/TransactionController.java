@@ -84,4 +84,19 @@ public class TransactionController {
                    ? ResponseEntity.noContent().build()
                    : ResponseEntity.ok(response);
     }
+
+    @ApiOperation(value = "Returns a list of transactions for account by its ASPSP identifier, booked after the transaction with given entry reference", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = List.class),
+        @ApiResponse(code = 204, message = "No Content"),
+        @ApiResponse(code = 404, message = "Not Found")})
+    @GetMapping(path = "/{account-id}/after/{entry-reference}")
+    public ResponseEntity<List<SpiTransaction>> readTransactionsAfter(@PathVariable("account-id") String accountId,
+                                                                      @PathVariable("entry-reference") String entryReference) {
+        return transactionService.getTransactionsAfter(accountId, entryReference)
+                   .map(response -> CollectionUtils.isEmpty(response)
+                                        ? ResponseEntity.noContent().<List<SpiTransaction>>build()
+                                        : ResponseEntity.ok(response))
+                   .orElseGet(() -> ResponseEntity.notFound().<List<SpiTransaction>>build());
+    }
 }
@@ -114,6 +114,19 @@ public class AccountServiceTest {
         assertThat(actualSpiAccountDetails).isEqualTo(expectedSpiAccountDetails);
     }
 
+    @Test
+    public void getAccountsByIbans_Success() {
+        //Given
+        List<String> ibans = Arrays.asList(WRONG_IBAN, IBAN);
+        when(psuRepository.findPsuByAccountDetailsList_IbanIn(ibans))
+            .thenReturn(Collections.singletonList(getPsuWithRightAccounts()));
+        //When
+        List<SpiAccountDetails> actualSpiAccountDetails = accountService.getAccountsByIbans(ibans);
+
+        //Then
+        assertThat(actualSpiAccountDetails).isEqualTo(getAccounts());
+    }
+
     @Test
     public void getAccountByIban_WrongIban() {
         //When
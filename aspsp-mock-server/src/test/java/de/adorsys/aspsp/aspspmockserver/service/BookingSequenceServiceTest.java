@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.aspspmockserver.service;
+
+import de.adorsys.aspsp.aspspmockserver.domain.Sequence;
+import de.adorsys.aspsp.aspspmockserver.repository.TransactionRepository;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BookingSequenceServiceTest {
+    @InjectMocks
+    private BookingSequenceService bookingSequenceService;
+    @Mock
+    private MongoOperations mongoOperations;
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Test
+    public void getNextBookingSequence_incrementsCounterAtomically() {
+        //Given
+        Sequence sequence = new Sequence();
+        sequence.setValue(42L);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> optionsCaptor = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        when(mongoOperations.findAndModify(any(Query.class), updateCaptor.capture(), optionsCaptor.capture(), eq(Sequence.class)))
+            .thenReturn(sequence);
+
+        //When
+        long bookingSequence = bookingSequenceService.getNextBookingSequence();
+
+        //Then
+        assertThat(bookingSequence).isEqualTo(42L);
+        assertThat(updateCaptor.getValue().getUpdateObject().get("$inc").toString()).contains("value");
+        assertThat(optionsCaptor.getValue().isUpsert()).isTrue();
+        assertThat(optionsCaptor.getValue().isReturnNew()).isTrue();
+    }
+
+    @Test
+    public void initSequence_movesCounterPastSavedTransactions() {
+        //Given
+        SpiTransaction lastTransaction = mock(SpiTransaction.class);
+        when(lastTransaction.getBookingSequence()).thenReturn(15L);
+        when(transactionRepository.findFirstByOrderByBookingSequenceDesc()).thenReturn(lastTransaction);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+
+        //When
+        bookingSequenceService.initSequence();
+
+        //Then
+        verify(mongoOperations).findAndModify(any(Query.class), updateCaptor.capture(), any(FindAndModifyOptions.class), eq(Sequence.class));
+        assertThat(updateCaptor.getValue().getUpdateObject().get("$max").toString()).contains("15");
+    }
+}
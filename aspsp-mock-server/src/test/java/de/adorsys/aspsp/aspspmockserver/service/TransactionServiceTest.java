@@ -27,6 +27,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -36,6 +37,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -55,6 +58,8 @@ public class TransactionServiceTest {
     TransactionRepository transactionRepository;
     @Mock
     AccountService accountService;
+    @Mock
+    BookingSequenceService bookingSequenceService;
 
     @Before
     public void setUp() {
@@ -70,6 +75,8 @@ public class TransactionServiceTest {
             .thenReturn(Optional.of(getDetails()));
         when(accountService.getAccountById(WRONG_ACCOUNT_ID))
             .thenReturn(Optional.empty());
+        when(bookingSequenceService.getNextBookingSequence())
+            .thenReturn(7L);
     }
 
     @Test
@@ -101,11 +108,15 @@ public class TransactionServiceTest {
 
     @Test
     public void saveTransaction_Success() {
+        //Given
+        SpiTransaction transaction = getTransaction();
+
         //When
-        Optional<String> respondedTransactionId = transactionService.saveTransaction(getTransaction());
+        Optional<String> respondedTransactionId = transactionService.saveTransaction(transaction);
 
         //Then
         assertThat(respondedTransactionId.get()).isEqualTo(TRANSACTION_ID);
+        assertThat(transaction.getBookingSequence()).isEqualTo(7L);
     }
 
     @Test
@@ -126,6 +137,25 @@ public class TransactionServiceTest {
         assertThat(respondedTransaction).isEmpty();
     }
 
+    @Test
+    public void getTransactionsAfter_readsByBookingSequenceOfReference() {
+        //Given
+        SpiTransaction reference = getTransaction();
+        reference.setBookingSequence(5L);
+        when(transactionRepository.findOneByTransactionIdAndAccount(IBAN, EUR, TRANSACTION_ID))
+            .thenReturn(reference);
+        when(transactionRepository.findAllAfterBookingSequence(eq(IBAN), eq(EUR), eq(5L), any(Sort.class)))
+            .thenReturn(Collections.singletonList(getTransaction()));
+
+        //When
+        Optional<List<SpiTransaction>> transactions = transactionService.getTransactionsAfter(ACCOUNT_ID, TRANSACTION_ID);
+        Optional<List<SpiTransaction>> unknownReference = transactionService.getTransactionsAfter(ACCOUNT_ID, WRONG_TRANSACTION_ID);
+
+        //Then
+        assertThat(transactions).isEqualTo(Optional.of(Collections.singletonList(getTransaction())));
+        assertThat(unknownReference).isEqualTo(Optional.empty());
+    }
+
     private SpiTransaction getTransaction() {
         return new SpiTransaction(TRANSACTION_ID, null, null, "Creditor_id", DATE, DATE, new SpiAmount(EUR, BigDecimal.valueOf(1000)), "Creditor",
             new SpiAccountReference(IBAN, null, null, null, null, EUR), "Ult Creditor", "Debtor",
@@ -75,6 +75,10 @@ public class AccountControllerTest {
             .thenReturn(accountList);
         when(accountService.getAccountsByIban(WRONG_IBAN))
             .thenReturn(Collections.emptyList());
+        when(accountService.getAccountsByIbans(Arrays.asList(IBAN, WRONG_IBAN)))
+            .thenReturn(accountList);
+        when(accountService.getAccountsByIbans(Collections.singletonList(WRONG_IBAN)))
+            .thenReturn(Collections.emptyList());
         when(accountService.getAccountsByPsuId(PSU_ID))
             .thenReturn(accountList);
         when(accountService.getAccountsByPsuId(WRONG_PSU_ID))
@@ -236,6 +240,26 @@ public class AccountControllerTest {
         assertThat(response.getBody()).isNullOrEmpty();
     }
 
+    @Test
+    public void readAccountsByIbans() {
+        //When:
+        ResponseEntity<List<SpiAccountDetails>> actualResponse = accountController.readAccountsByIbans(Arrays.asList(IBAN, WRONG_IBAN));
+
+        //Then:
+        assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(actualResponse.getBody()).isEqualTo(accountList);
+    }
+
+    @Test
+    public void readAccountsByIbans_wrongIbans() {
+        //When:
+        ResponseEntity<List<SpiAccountDetails>> actualResponse = accountController.readAccountsByIbans(Collections.singletonList(WRONG_IBAN));
+
+        //Then:
+        assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(actualResponse.getBody()).isNull();
+    }
+
     private SpiAccountDetails getSpiAccountDetails_1() {
         return new SpiAccountDetails(ACCOUNT_ID, IBAN, null, "1111222233334444",
             "111122xxxxxx44", null, CURRENCY, "Jack", "GIRO",
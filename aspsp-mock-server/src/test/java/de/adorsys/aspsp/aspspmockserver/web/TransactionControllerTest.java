@@ -63,6 +63,8 @@ public class TransactionControllerTest {
         when(transactionService.saveTransaction(getTransaction())).thenReturn(Optional.of(TRANSACTION_ID));
         when(transactionService.getTransactionsByPeriod(ACCOUNT_ID, DATE, DATE)).thenReturn(Collections.singletonList(getTransaction()));
         when(transactionService.getTransactionsByPeriod(WRONG_ACCOUNT_ID, DATE, DATE)).thenReturn(Collections.emptyList());
+        when(transactionService.getTransactionsAfter(ACCOUNT_ID, TRANSACTION_ID)).thenReturn(Optional.of(Collections.singletonList(getTransaction())));
+        when(transactionService.getTransactionsAfter(ACCOUNT_ID, WRONG_TRANSACTION_ID)).thenReturn(Optional.empty());
     }
 
     @Test
@@ -114,6 +116,18 @@ public class TransactionControllerTest {
         assertThat(expectedResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
 
+    @Test
+    public void readTransactionsAfter() {
+        //When:
+        ResponseEntity expectedResponse = transactionController.readTransactionsAfter(ACCOUNT_ID, TRANSACTION_ID);
+        ResponseEntity unknownReferenceResponse = transactionController.readTransactionsAfter(ACCOUNT_ID, WRONG_TRANSACTION_ID);
+
+        //Then:
+        assertThat(expectedResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(expectedResponse.getBody()).isEqualTo(Collections.singletonList(getTransaction()));
+        assertThat(unknownReferenceResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
     private SpiTransaction getTransaction() {
         return new SpiTransaction(TRANSACTION_ID, null, null, "Creditor_id", DATE, DATE, new SpiAmount(EUR, BigDecimal.valueOf(1000)), "Creditor",
             new SpiAccountReference(IBAN, null, null, null, null, EUR), "Ult Creditor", "Debtor",
@@ -18,8 +18,13 @@ package de.adorsys.aspsp.xs2a.service;
 
 import de.adorsys.aspsp.xs2a.config.ProfileConfiguration;
 import de.adorsys.aspsp.xs2a.domain.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
 import java.util.List;
 
@@ -29,6 +34,10 @@ import static de.adorsys.aspsp.xs2a.domain.SupportedAccountReferenceField.IBAN;
 @Service
 @RequiredArgsConstructor
 public class AspspProfileService {
+    private static final ObjectWriter SETTINGS_WRITER = new ObjectMapper()
+                                                            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                                                            .writer();
+
     private final ProfileConfiguration profileConfiguration;
 
     /**
@@ -58,6 +67,21 @@ public class AspspProfileService {
             profileConfiguration.getAuthorisationStartType());
     }
 
+    /**
+     * Reads version of aspsp settings. The version is derived from the content of the settings, so it is the same for
+     * the same settings on every instance of the profile service and after its restart, and changes with every update
+     *
+     * @param settings aspsp settings
+     * @return version of given aspsp settings
+     */
+    public String getVersion(AspspSettings settings) {
+        try {
+            return DigestUtils.md5DigestAsHex(SETTINGS_WRITER.writeValueAsBytes(settings));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize aspsp settings", e);
+        }
+    }
+
     /**
      * Reads sca approach method
      *
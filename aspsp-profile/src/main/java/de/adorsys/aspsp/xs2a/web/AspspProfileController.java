@@ -21,6 +21,7 @@ import de.adorsys.aspsp.xs2a.service.AspspProfileService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -37,10 +38,16 @@ public class AspspProfileController {
     private final AspspProfileService aspspProfileService;
 
     @GetMapping
-    @ApiOperation(value = "Reads aspsp specific settings")
-    @ApiResponse(code = 200, message = "Ok", response = AspspSettings.class)
+    @ApiOperation(value = "Reads aspsp specific settings", notes = "Response contains version of the settings as ETag, " +
+                                                                       "a request with actual version in If-None-Match header is answered with 304 Not Modified")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "Ok", response = AspspSettings.class),
+        @ApiResponse(code = 304, message = "Not Modified")})
     public ResponseEntity<AspspSettings> getAspspSettings() {
-        return new ResponseEntity<>(aspspProfileService.getAspspSettings(), HttpStatus.OK);
+        AspspSettings settings = aspspProfileService.getAspspSettings();
+        return ResponseEntity.status(HttpStatus.OK)
+                   .eTag(aspspProfileService.getVersion(settings))
+                   .body(settings);
     }
 
     @GetMapping(path = "/sca-approach")
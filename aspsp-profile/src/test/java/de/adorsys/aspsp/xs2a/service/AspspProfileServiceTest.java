@@ -113,6 +113,30 @@ public class AspspProfileServiceTest {
         assertThat(actualResponse).isEqualTo(SCA_APPROACH);
     }
 
+    @Test
+    public void getVersion_sameForEqualSettings() {
+        //When:
+        String first = aspspProfileService.getVersion(buildAspspSettings());
+        String second = aspspProfileService.getVersion(aspspProfileService.getAspspSettings());
+
+        //Then:
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    public void getVersion_changesWithSettings() {
+        //Given:
+        String version = aspspProfileService.getVersion(buildAspspSettings());
+        when(profileConfiguration.getConsentLifetime())
+            .thenReturn(CONSENT_LIFETIME + 1);
+
+        //When:
+        String actualVersion = aspspProfileService.getVersion(aspspProfileService.getAspspSettings());
+
+        //Then:
+        assertThat(actualVersion).isNotEqualTo(version);
+    }
+
     private static AspspSettings buildAspspSettings() {
         return new AspspSettings(
             FREQUENCY_PER_DAY,
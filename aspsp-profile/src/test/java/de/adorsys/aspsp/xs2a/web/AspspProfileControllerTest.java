@@ -16,6 +16,7 @@
 
 package de.adorsys.aspsp.xs2a.web;
 
+import de.adorsys.aspsp.xs2a.config.ProfileConfiguration;
 import de.adorsys.aspsp.xs2a.domain.*;
 import de.adorsys.aspsp.xs2a.service.AspspProfileService;
 import org.junit.Before;
@@ -24,9 +25,13 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -35,7 +40,11 @@ import java.util.List;
 import static de.adorsys.aspsp.xs2a.domain.BookingStatus.*;
 import static de.adorsys.aspsp.xs2a.domain.SupportedAccountReferenceField.IBAN;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest
@@ -55,6 +64,7 @@ public class AspspProfileControllerTest {
     private static final boolean ALL_PSD_2_SUPPORT = false;
     private static final boolean BANK_OFFERED_CONSENT_SUPPORT = false;
     private static final AuthorisationStartType AUTHORIZATION_START_TYPE = AuthorisationStartType.IMPLICIT;
+    private static final String VERSION = "5d41402abc4b2a76b9719d911017c592";
 
     @Autowired
     private AspspProfileController aspspProfileController;
@@ -83,6 +93,52 @@ public class AspspProfileControllerTest {
         assertThat(actualResponse.getBody()).isEqualTo(buildAspspSettings());
     }
 
+    @Test
+    public void getAspspSettings_versionAsETag() {
+        //Given:
+        when(aspspProfileService.getVersion(any(AspspSettings.class)))
+            .thenReturn(VERSION);
+
+        //When:
+        ResponseEntity<AspspSettings> actualResponse = aspspProfileController.getAspspSettings();
+
+        //Then:
+        assertThat(actualResponse.getHeaders().getETag()).isEqualTo("\"" + VERSION + "\"");
+    }
+
+    @Test
+    public void getAspspSettings_changedSettingsAfterRestart() throws Exception {
+        //Given:
+        MockMvc profileBeforeRestart = buildProfileMockMvc(buildProfileConfiguration(FREQUENCY_PER_DAY));
+        String version = profileBeforeRestart.perform(get("/aspsp-profile"))
+                             .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        MockMvc profileAfterRestart = buildProfileMockMvc(buildProfileConfiguration(FREQUENCY_PER_DAY + 1));
+
+        //When:
+        MvcResult actualResult = profileAfterRestart.perform(get("/aspsp-profile").header(HttpHeaders.IF_NONE_MATCH, version))
+                                     .andExpect(status().isOk())
+                                     .andExpect(jsonPath("$.frequencyPerDay").value(FREQUENCY_PER_DAY + 1))
+                                     .andReturn();
+
+        //Then:
+        assertThat(actualResult.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(version);
+    }
+
+    @Test
+    public void getAspspSettings_sameSettingsAfterRestartNotModified() throws Exception {
+        //Given:
+        MockMvc profileBeforeRestart = buildProfileMockMvc(buildProfileConfiguration(FREQUENCY_PER_DAY));
+        String version = profileBeforeRestart.perform(get("/aspsp-profile"))
+                             .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        MockMvc profileAfterRestart = buildProfileMockMvc(buildProfileConfiguration(FREQUENCY_PER_DAY));
+
+        //When:
+        profileAfterRestart.perform(get("/aspsp-profile").header(HttpHeaders.IF_NONE_MATCH, version))
+
+            //Then:
+            .andExpect(status().isNotModified());
+    }
+
     @Test
     public void getScaApproach() {
         //Given:
@@ -115,6 +171,25 @@ public class AspspProfileControllerTest {
             AUTHORIZATION_START_TYPE);
     }
 
+    private static MockMvc buildProfileMockMvc(ProfileConfiguration profileConfiguration) {
+        return MockMvcBuilders.standaloneSetup(new AspspProfileController(new AspspProfileService(profileConfiguration)))
+                   .build();
+    }
+
+    private static ProfileConfiguration buildProfileConfiguration(int frequencyPerDay) {
+        ProfileConfiguration profileConfiguration = new ProfileConfiguration();
+        profileConfiguration.setFrequencyPerDay(frequencyPerDay);
+        profileConfiguration.setAvailablePaymentProducts(AVAILABLE_PAYMENT_PRODUCTS);
+        profileConfiguration.setAvailablePaymentTypes(AVAILABLE_PAYMENT_TYPES);
+        profileConfiguration.setPisRedirectUrlToAspsp(PIS_REDIRECT_LINK);
+        profileConfiguration.setAisRedirectUrlToAspsp(AIS_REDIRECT_LINK);
+        profileConfiguration.setMulticurrencyAccountLevel(MULTICURRENCY_ACCOUNT_LEVEL);
+        profileConfiguration.setAvailableBookingStatuses(AVAILABLE_BOOKING_STATUSES);
+        profileConfiguration.setSupportedAccountReferenceFields(SUPPORTED_ACCOUNT_REFERENCE_FIELDS);
+        profileConfiguration.setAuthorisationStartType(AUTHORIZATION_START_TYPE);
+        return profileConfiguration;
+    }
+
     private static List<SupportedAccountReferenceField> getSupportedAccountReferenceFields() {
         return Collections.singletonList(IBAN);
     }
@@ -21,6 +21,7 @@ import de.adorsys.aspsp.cmsclient.cms.model.ais.*;
 import de.adorsys.aspsp.cmsclient.cms.model.pis.CreatePaymentConsentMethod;
 import de.adorsys.aspsp.cmsclient.cms.model.pis.GetPaymentConsentByIdMethod;
 import de.adorsys.aspsp.cmsclient.cms.model.pis.GetPaymentConsentStatusByIdMethod;
+import de.adorsys.aspsp.cmsclient.cms.model.pis.GetPaymentConsentStatusesByIdsMethod;
 import de.adorsys.aspsp.cmsclient.cms.model.pis.UpdatePaymentConsentStatusMethod;
 import de.adorsys.aspsp.cmsclient.core.Configuration;
 import de.adorsys.aspsp.cmsclient.core.util.HttpUriParams;
@@ -62,6 +63,7 @@ public class CmsExecutor {
         createAisConsent(cmsServiceInvoker);
         getAisConsentById(cmsServiceInvoker);
         getConsentStatusById(cmsServiceInvoker);
+        getConsentStatusesByIds(cmsServiceInvoker);
         saveConsentActionLog(cmsServiceInvoker);
         updateConsentAccess(cmsServiceInvoker);
         updateConsentBlob(cmsServiceInvoker);
@@ -70,6 +72,7 @@ public class CmsExecutor {
         createPaymentConsent(cmsServiceInvoker);
         getPaymentConsentById(cmsServiceInvoker);
         getPaymentConsentStatusById(cmsServiceInvoker);
+        getPaymentConsentStatusesByIds(cmsServiceInvoker);
         updatePaymentConsentStatus(cmsServiceInvoker);
     }
 
@@ -99,6 +102,11 @@ public class CmsExecutor {
         consentStatusResponse.ifPresent(status -> logger.info("Status of the consent: " + status.getConsentStatus().name()));
     }
 
+    private static void getConsentStatusesByIds(CmsServiceInvoker cmsServiceInvoker) throws IOException, URISyntaxException {
+        Optional<AisConsentStatusesResponse> consentStatusesResponse = Optional.ofNullable(cmsServiceInvoker.invoke(new GetConsentStatusesByIdsMethod(singletonList(consentId))));
+        consentStatusesResponse.ifPresent(response -> logger.info("Statuses of the consents: " + response.getConsentStatuses()));
+    }
+
     private static void updateConsentAccess(CmsServiceInvoker cmsServiceInvoker) throws IOException, URISyntaxException {
         HttpUriParams uriParams = HttpUriParams.builder()
                                       .addPathVariable("consent-id", consentId)
@@ -170,6 +178,11 @@ public class CmsExecutor {
         consentStatusResponse.ifPresent(response -> logger.info("Status of the consent: " + response.getConsentStatus().name()));
     }
 
+    private static void getPaymentConsentStatusesByIds(CmsServiceInvoker cmsServiceInvoker) throws IOException, URISyntaxException {
+        Optional<PisConsentStatusesResponse> consentStatusesResponse = Optional.ofNullable(cmsServiceInvoker.invoke(new GetPaymentConsentStatusesByIdsMethod(singletonList(consentId))));
+        consentStatusesResponse.ifPresent(response -> logger.info("Statuses of the consents: " + response.getConsentStatuses()));
+    }
+
     private static void updatePaymentConsentStatus(CmsServiceInvoker cmsServiceInvoker) throws IOException, URISyntaxException {
         HttpUriParams uriParams = HttpUriParams.builder()
                                       .addPathVariable("consent-id", consentId)
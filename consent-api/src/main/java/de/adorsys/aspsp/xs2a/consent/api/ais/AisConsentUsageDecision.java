@@ -0,0 +1,26 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.consent.api.ais;
+
+public enum AisConsentUsageDecision {
+    VALID,               //Access is granted and one usage of the consent is consumed
+    EXPIRED,             //Consent is expired, by date or by the consent schedule task
+    INVALID,             //Consent is neither VALID nor EXPIRED, e.g. not yet authorised, rejected or revoked
+    ACCESS_EXCEEDED,     //The daily access limit of the consent is exceeded
+    ACCOUNT_NOT_COVERED  //The requested access to the account is not given by the consent
+}
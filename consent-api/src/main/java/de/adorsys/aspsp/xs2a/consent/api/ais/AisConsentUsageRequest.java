@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.consent.api.ais;
+
+import de.adorsys.aspsp.xs2a.consent.api.CmsAccountReference;
+import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ApiModel(description = "Request to authorise access to an account with the consent and to count the usage", value = "AisConsentUsageRequest")
+public class AisConsentUsageRequest {
+    @ApiModelProperty(value = "ID of the corresponding TPP.", required = true, example = "testTPP")
+    private String tppId;
+
+    @ApiModelProperty(value = "Type of the requested access: account, balance or transaction", required = true, example = "BALANCE")
+    private TypeAccess typeAccess;
+
+    @ApiModelProperty(value = "Reference of the requested account", required = true)
+    private CmsAccountReference account;
+}
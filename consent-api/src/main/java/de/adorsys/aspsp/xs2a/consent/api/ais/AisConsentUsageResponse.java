@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.consent.api.ais;
+
+import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ApiModel(description = "Decision on the account access with the consent", value = "AisConsentUsageResponse")
+public class AisConsentUsageResponse {
+    @ApiModelProperty(value = "Decision on the requested access", required = true, example = "VALID")
+    private AisConsentUsageDecision decision;
+
+    @ApiModelProperty(value = "Actual status of the consent", required = true, example = "VALID")
+    private CmsConsentStatus consentStatus;
+
+    @ApiModelProperty(value = "Number of usages of the consent left for today", required = true, example = "3")
+    private int usagesLeft;
+
+    @ApiModelProperty(value = "Accounts accessible with the consent", required = true)
+    private AisAccountAccess access;
+}
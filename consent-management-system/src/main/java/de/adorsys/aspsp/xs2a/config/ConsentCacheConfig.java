@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.config;
+
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountConsent;
+import de.adorsys.aspsp.xs2a.consent.api.pis.proto.PisConsentResponse;
+import de.adorsys.aspsp.xs2a.service.cache.ConsentCacheClusterHook;
+import de.adorsys.aspsp.xs2a.service.cache.ConsentReadCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+
+@Configuration
+public class ConsentCacheConfig {
+    @Value("${consent-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${consent-cache.ttl.ms:30000}")
+    private long ttlMs;
+
+    @Value("${consent-cache.load-chunk-size:1000}")
+    private int loadChunkSize;
+
+    @Bean
+    public ConsentReadCache<AisAccountConsent> aisConsentReadCache(Optional<ConsentCacheClusterHook> clusterHook) {
+        return new ConsentReadCache<>("ais-consent", maxSize, ttlMs, loadChunkSize, clusterHook.orElse(null));
+    }
+
+    @Bean
+    public ConsentReadCache<PisConsentResponse> pisConsentReadCache(Optional<ConsentCacheClusterHook> clusterHook) {
+        return new ConsentReadCache<>("pis-consent", maxSize, ttlMs, loadChunkSize, clusterHook.orElse(null));
+    }
+}
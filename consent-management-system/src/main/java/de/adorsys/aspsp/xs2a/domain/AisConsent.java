@@ -18,23 +18,24 @@ package de.adorsys.aspsp.xs2a.domain;
 
 import de.adorsys.aspsp.xs2a.consent.api.AisConsentRequestType;
 import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
+import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.Data;
 import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.Type;
 
 import javax.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 import static de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus.EXPIRED;
 
 @Data
 @ToString(exclude = "accesses")
+@DynamicUpdate
 @Entity(name = "ais_consent")
 @ApiModel(description = "Ais consent entity", value = "AisConsent")
 public class AisConsent {
@@ -132,11 +133,34 @@ public class AisConsent {
         return consentStatus != EXPIRED;
     }
 
+    /**
+     * @return status of the consent, EXPIRED if the consent is out of date but its status is not yet updated
+     */
+    public CmsConsentStatus getActualConsentStatus() {
+        return isExpiredByDate()
+                   ? EXPIRED
+                   : consentStatus;
+    }
+
     public boolean hasUsagesAvailable() {
         return usageCounter > 0;
     }
 
+    public boolean isAccessible(TypeAccess typeAccess, String iban, Currency currency) {
+        return iban != null
+                   && accesses.stream()
+                          .anyMatch(access -> access.getTypeAccess() == typeAccess
+                                                  && normalizeIban(iban).equals(normalizeIban(access.getIban()))
+                                                  && Objects.equals(currency, access.getCurrency()));
+    }
+
     public void addAccountAccess(Set<AccountAccess> accountAccesses) {
         accesses = new ArrayList<>(accountAccesses);
     }
+
+    private static String normalizeIban(String iban) {
+        return iban == null
+                   ? null
+                   : iban.replaceAll("\\s", "").toUpperCase(Locale.ROOT);
+    }
 }
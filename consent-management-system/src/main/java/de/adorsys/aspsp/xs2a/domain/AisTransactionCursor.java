@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.domain;
+
+import lombok.Data;
+
+import javax.persistence.*;
+
+@Data
+@Entity(name = "ais_transaction_cursor")
+public class AisTransactionCursor {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ais_transaction_cursor_generator")
+    @SequenceGenerator(name = "ais_transaction_cursor_generator", sequenceName = "ais_transaction_cursor_id_seq")
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "consent_id", nullable = false)
+    private AisConsent consent;
+
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+
+    @Column(name = "entry_reference", nullable = false)
+    private String entryReference;
+}
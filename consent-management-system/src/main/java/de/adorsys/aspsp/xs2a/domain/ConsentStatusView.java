@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.domain;
+
+import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+import static de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus.EXPIRED;
+
+/**
+ * Status columns of a consent row, read by projection queries instead of the whole consent aggregate
+ */
+@Value
+@AllArgsConstructor
+public class ConsentStatusView {
+    private String externalId;
+    private CmsConsentStatus consentStatus;
+    private LocalDate expireDate;
+
+    public ConsentStatusView(String externalId, CmsConsentStatus consentStatus) {
+        this(externalId, consentStatus, null);
+    }
+
+    /**
+     * @return status of the consent, EXPIRED if the consent is out of date but its status is not yet updated
+     */
+    public CmsConsentStatus getActualConsentStatus() {
+        return expireDate != null && LocalDate.now().compareTo(expireDate) >= 0
+                   ? EXPIRED
+                   : consentStatus;
+    }
+}
@@ -50,7 +50,7 @@ public class PisConsent {
     @ApiModelProperty(value = "List of single payments ", required = true)
     private List<PisPaymentData> payments = new ArrayList<>();
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "tpp_info_id")
     @ApiModelProperty(value = "Information about TPP", required = true)
     private PisTppInfo pisTppInfo;
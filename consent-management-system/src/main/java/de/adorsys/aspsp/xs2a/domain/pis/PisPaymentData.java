@@ -44,7 +44,7 @@ public class PisPaymentData {
     private String endToEndIdentification;
 
     @PrimaryKeyJoinColumn
-    @ManyToOne(cascade = CascadeType.ALL)
+    @ManyToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @ApiModelProperty(value = "Debtor account", required = true)
     private PisAccountReference debtorAccount;
 
@@ -61,7 +61,7 @@ public class PisPaymentData {
     private BigDecimal amount;
 
     @PrimaryKeyJoinColumn
-    @ManyToOne(cascade = CascadeType.ALL)
+    @ManyToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @ApiModelProperty(value = "Creditor account", required = true)
     private PisAccountReference creditorAccount;
 
@@ -73,7 +73,7 @@ public class PisPaymentData {
     @ApiModelProperty(value = "Name of the creditor", required = true, example = "Telekom")
     private String creditorName;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @ApiModelProperty(value = "Creditor Address")
     @JoinColumn(name = "address_id")
     private PisAddress creditorAddress;
@@ -82,7 +82,7 @@ public class PisPaymentData {
     @ApiModelProperty(value = "remittance information unstructured", example = "Ref. Number TELEKOM-1222")
     private String remittanceInformationUnstructured;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @ApiModelProperty(value = "remittance information structured")
     @JoinColumn(name = "remittance_id")
     private PisRemittance remittanceInformationStructured;
@@ -18,16 +18,59 @@ package de.adorsys.aspsp.xs2a.repository;
 
 import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
 import de.adorsys.aspsp.xs2a.domain.AisConsent;
+import de.adorsys.aspsp.xs2a.domain.ConsentStatusView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 public interface AisConsentRepository extends CrudRepository<AisConsent, Long> {
-    List<AisConsent> findByConsentStatusIn(Set<CmsConsentStatus> statuses);
+    @Query("SELECT c.id FROM ais_consent c WHERE c.consentStatus IN :statuses AND c.id > :lastId ORDER BY c.id")
+    List<Long> findIdsByConsentStatusIn(@Param("statuses") Set<CmsConsentStatus> statuses, @Param("lastId") long lastId, Pageable pageable);
+
+    List<AisConsent> findByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE ais_consent c " +
+               "SET c.expectedFrequencyPerDay = CASE WHEN ABS(c.tppFrequencyPerDay) < :frequencyPerDay THEN ABS(c.tppFrequencyPerDay) ELSE :frequencyPerDay END, " +
+               "c.usageCounter = CASE WHEN ABS(c.tppFrequencyPerDay) < :frequencyPerDay THEN ABS(c.tppFrequencyPerDay) ELSE :frequencyPerDay END " +
+               "WHERE c.consentStatus IN :statuses AND c.id BETWEEN :fromId AND :toId " +
+               "AND (c.usageCounter <> CASE WHEN ABS(c.tppFrequencyPerDay) < :frequencyPerDay THEN ABS(c.tppFrequencyPerDay) ELSE :frequencyPerDay END " +
+               "OR c.expectedFrequencyPerDay <> CASE WHEN ABS(c.tppFrequencyPerDay) < :frequencyPerDay THEN ABS(c.tppFrequencyPerDay) ELSE :frequencyPerDay END)")
+    int resetUsageCounters(@Param("statuses") Set<CmsConsentStatus> statuses, @Param("fromId") long fromId, @Param("toId") long toId, @Param("frequencyPerDay") int frequencyPerDay);
+
+    @Modifying
+    @Query("UPDATE ais_consent c SET c.consentStatus = :expiredStatus, c.expireDate = :today, c.lastActionDate = :today " +
+               "WHERE c.consentStatus IN :statuses AND c.id BETWEEN :fromId AND :toId AND c.expireDate <= :today")
+    int expireByDate(@Param("statuses") Set<CmsConsentStatus> statuses, @Param("fromId") long fromId, @Param("toId") long toId, @Param("today") LocalDate today, @Param("expiredStatus") CmsConsentStatus expiredStatus);
 
     Optional<AisConsent> findByExternalId(String externalId);
 
+    @EntityGraph(attributePaths = "accesses")
+    Optional<AisConsent> findWithAccessesByExternalId(String externalId);
+
+    @EntityGraph(attributePaths = "accesses")
+    List<AisConsent> findWithAccessesByExternalIdIn(Collection<String> externalIds);
+
+    @Query("SELECT new de.adorsys.aspsp.xs2a.domain.ConsentStatusView(c.externalId, c.consentStatus, c.expireDate) " +
+               "FROM ais_consent c WHERE c.externalId IN :externalIds")
+    List<ConsentStatusView> findStatusesByExternalIdIn(@Param("externalIds") Collection<String> externalIds);
+
+    @Modifying
+    @Query("UPDATE ais_consent c SET c.usageCounter = c.usageCounter - 1, c.lastActionDate = :lastActionDate " +
+               "WHERE c.externalId = :externalId AND c.usageCounter > 0")
+    int decrementUsageCounter(@Param("externalId") String externalId, @Param("lastActionDate") LocalDate lastActionDate);
+
+    @Query("SELECT c.usageCounter FROM ais_consent c WHERE c.externalId = :externalId")
+    Integer findUsageCounterByExternalId(@Param("externalId") String externalId);
+
     Optional<AisConsent> findByExternalIdAndConsentStatusIn(String externalId, Set<CmsConsentStatus> statuses);
 }
@@ -17,10 +17,17 @@
 package de.adorsys.aspsp.xs2a.repository;
 
 import de.adorsys.aspsp.xs2a.domain.pis.PisConsentAuthorization;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface PisConsentAuthorizationRepository extends CrudRepository<PisConsentAuthorization, Long> {
     Optional<PisConsentAuthorization> findByExternalId(String externalId);
+
+    @Query("SELECT DISTINCT a FROM pis_consent_authorization a JOIN FETCH a.consent c LEFT JOIN FETCH c.payments p " +
+               "LEFT JOIN FETCH p.debtorAccount LEFT JOIN FETCH p.creditorAccount LEFT JOIN FETCH p.creditorAddress LEFT JOIN FETCH p.remittanceInformationStructured " +
+               "WHERE a.externalId = :externalId")
+    Optional<PisConsentAuthorization> findWithPaymentsByExternalId(@Param("externalId") String externalId);
 }
@@ -17,14 +17,33 @@
 package de.adorsys.aspsp.xs2a.repository;
 
 import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
+import de.adorsys.aspsp.xs2a.domain.ConsentStatusView;
 import de.adorsys.aspsp.xs2a.domain.pis.PisConsent;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 public interface PisConsentRepository extends CrudRepository<PisConsent, Long> {
     Optional<PisConsent> findByExternalId(String externalId);
 
+    @Query("SELECT DISTINCT c FROM pis_consent c LEFT JOIN FETCH c.pisTppInfo LEFT JOIN FETCH c.payments p " +
+               "LEFT JOIN FETCH p.debtorAccount LEFT JOIN FETCH p.creditorAccount LEFT JOIN FETCH p.creditorAddress LEFT JOIN FETCH p.remittanceInformationStructured " +
+               "WHERE c.externalId = :externalId")
+    Optional<PisConsent> findWithPaymentsByExternalId(@Param("externalId") String externalId);
+
+    @Query("SELECT DISTINCT c FROM pis_consent c LEFT JOIN FETCH c.pisTppInfo LEFT JOIN FETCH c.payments p " +
+               "LEFT JOIN FETCH p.debtorAccount LEFT JOIN FETCH p.creditorAccount LEFT JOIN FETCH p.creditorAddress LEFT JOIN FETCH p.remittanceInformationStructured " +
+               "WHERE c.externalId IN :externalIds")
+    List<PisConsent> findWithPaymentsByExternalIdIn(@Param("externalIds") Collection<String> externalIds);
+
+    @Query("SELECT new de.adorsys.aspsp.xs2a.domain.ConsentStatusView(c.externalId, c.consentStatus) " +
+               "FROM pis_consent c WHERE c.externalId IN :externalIds")
+    List<ConsentStatusView> findStatusesByExternalIdIn(@Param("externalIds") Collection<String> externalIds);
+
     Optional<PisConsent> findByExternalIdAndConsentStatusIn(String externalId, Set<CmsConsentStatus> statuses);
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.repository;
+
+import de.adorsys.aspsp.xs2a.domain.SchedulerLock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Queries of scheduler_lock table. Lock periods are computed from the clock of the database, so that nodes with
+ * skewed clocks agree on when a lock is over.
+ * Queries are native PostgreSQL ones ({@code ON CONFLICT}, {@code interval}), so CMS requires a PostgreSQL database
+ * (9.5 or newer).
+ */
+public interface SchedulerLockRepository extends CrudRepository<SchedulerLock, String> {
+    @Modifying
+    @Query(value = "UPDATE scheduler_lock SET locked_until = now() + :lockAtMostForMillis * interval '1 millisecond', locked_by = :lockedBy " +
+                       "WHERE name = :name AND locked_until <= now()", nativeQuery = true)
+    int acquire(@Param("name") String name, @Param("lockedBy") String lockedBy, @Param("lockAtMostForMillis") long lockAtMostForMillis);
+
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_lock (name, locked_until, locked_by) " +
+                       "VALUES (:name, now() + :lockAtMostForMillis * interval '1 millisecond', :lockedBy) ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    int create(@Param("name") String name, @Param("lockedBy") String lockedBy, @Param("lockAtMostForMillis") long lockAtMostForMillis);
+
+    @Modifying
+    @Query(value = "UPDATE scheduler_lock SET locked_until = now() WHERE name = :name AND locked_by = :lockedBy", nativeQuery = true)
+    int release(@Param("name") String name, @Param("lockedBy") String lockedBy);
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.schedule;
+
+import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
+import de.adorsys.aspsp.xs2a.domain.AisConsent;
+import de.adorsys.aspsp.xs2a.domain.profile.AspspSettings;
+import de.adorsys.aspsp.xs2a.repository.AisConsentRepository;
+import de.adorsys.aspsp.xs2a.service.AspspProfileService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Updates one chunk of consents of the consent schedule task in its own transaction
+ */
+@Component
+@RequiredArgsConstructor
+public class ConsentChunkProcessor {
+    private final AisConsentRepository aisConsentRepository;
+    private final AspspProfileService profileService;
+
+    /**
+     * Resets usage counters of given consents and expires the consents that are out of date. Expired consents get
+     * the current date as expire and last action date, like consents expired on access
+     *
+     * @param consentIds ids of consents in the chunk
+     * @param settings   ASPSP settings resolved for the whole run
+     * @return numbers of processed, reset and expired consents
+     */
+    @Transactional
+    public ConsentChunkResult process(List<Long> consentIds, AspspSettings settings) {
+        List<AisConsent> consents = aisConsentRepository.findByIdIn(consentIds);
+        consents.forEach(consent -> updateConsentParameters(consent, settings));
+        aisConsentRepository.save(consents);
+        int expirations = (int) consents.stream()
+                                    .filter(consent -> consent.getConsentStatus() == CmsConsentStatus.EXPIRED)
+                                    .count();
+        return new ConsentChunkResult(consents.size(), consents.size(), expirations);
+    }
+
+    /**
+     * Does the same as {@link #process(List, AspspSettings)} by bulk updates of all consents with given statuses within
+     * the id range of the chunk, without loading the consents. Consents already having actual counters are not written
+     *
+     * @param consentIds ids of consents in the chunk, ordered by id
+     * @param statuses   statuses of consents processed by the task
+     * @param settings   ASPSP settings resolved for the whole run
+     * @return numbers of processed, reset and expired consents
+     */
+    @Transactional
+    public ConsentChunkResult processSetBased(List<Long> consentIds, Set<CmsConsentStatus> statuses, AspspSettings settings) {
+        long fromId = consentIds.get(0);
+        long toId = consentIds.get(consentIds.size() - 1);
+        int counterResets = aisConsentRepository.resetUsageCounters(statuses, fromId, toId, settings.getFrequencyPerDay());
+        int expirations = aisConsentRepository.expireByDate(statuses, fromId, toId, LocalDate.now(), CmsConsentStatus.EXPIRED);
+        return new ConsentChunkResult(consentIds.size(), counterResets, expirations);
+    }
+
+    private void updateConsentParameters(AisConsent consent, AspspSettings settings) {
+        int minFrequencyPerDay = profileService.getMinFrequencyPerDay(consent.getTppFrequencyPerDay(), settings);
+        consent.setExpectedFrequencyPerDay(minFrequencyPerDay);
+        consent.setUsageCounter(minFrequencyPerDay);
+        if (consent.isExpiredByDate()) {
+            expire(consent);
+        }
+    }
+
+    private void expire(AisConsent consent) {
+        consent.setConsentStatus(CmsConsentStatus.EXPIRED);
+        consent.setExpireDate(LocalDate.now());
+        consent.setLastActionDate(LocalDate.now());
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.schedule;
+
+public enum ConsentMaintenanceMode {
+    /**
+     * Consents of a chunk are loaded as entities, updated and saved. Default mode
+     */
+    ENTITY,
+    /**
+     * Consents of a chunk are updated by bulk update statements without loading them. To be enabled explicitly
+     * once verified against the production database
+     */
+    SET_BASED
+}
@@ -17,56 +17,170 @@
 package de.adorsys.aspsp.xs2a.schedule;
 
 import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
-import de.adorsys.aspsp.xs2a.domain.AisConsent;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountConsent;
+import de.adorsys.aspsp.xs2a.domain.profile.AspspSettings;
 import de.adorsys.aspsp.xs2a.repository.AisConsentRepository;
 import de.adorsys.aspsp.xs2a.service.AspspProfileService;
-import lombok.RequiredArgsConstructor;
+import de.adorsys.aspsp.xs2a.service.SchedulerLockService;
+import de.adorsys.aspsp.xs2a.service.cache.ConsentReadCache;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
-import java.util.EnumSet;
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus.RECEIVED;
 import static de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus.VALID;
 
+/**
+ * Nightly maintenance of AIS consents. Consents are read by keyset pagination over their ids and processed in chunks,
+ * each chunk in its own transaction, by a bounded number of parallel workers, so that memory usage does not depend on
+ * the number of consents. Only the CMS node holding the scheduler lock runs the task. Consents are changed by bulk updates,
+ * so the whole AIS consent read cache is invalidated after the run.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class ConsentScheduleTask {
+public class ConsentScheduleTask implements PublicMetrics {
+    static final String LOCK_NAME = "consent-schedule-task";
+    private static final String METRIC_PREFIX = "consent-job.";
+    private static final Set<CmsConsentStatus> AVAILABLE_STATUSES = Collections.unmodifiableSet(EnumSet.of(RECEIVED, VALID));
+
     private final AisConsentRepository aisConsentRepository;
     private final AspspProfileService profileService;
+    private final ConsentChunkProcessor consentChunkProcessor;
+    private final SchedulerLockService schedulerLockService;
+    private final ConsentReadCache<AisAccountConsent> aisConsentReadCache;
+    private final int chunkSize;
+    private final int parallelism;
+    private final Duration lockAtMostFor;
+    private final ConsentMaintenanceMode mode;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong counterResets = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong processedChunks = new AtomicLong();
+    private final AtomicLong failedChunks = new AtomicLong();
+    private final AtomicLong skippedRuns = new AtomicLong();
+    private final AtomicLong lastDurationMs = new AtomicLong();
+    private final AtomicLong lastProcessed = new AtomicLong();
+
+    public ConsentScheduleTask(AisConsentRepository aisConsentRepository,
+                               AspspProfileService profileService,
+                               ConsentChunkProcessor consentChunkProcessor,
+                               SchedulerLockService schedulerLockService,
+                               ConsentReadCache<AisAccountConsent> aisConsentReadCache,
+                               @Value("${consent.job.chunk-size:1000}") int chunkSize,
+                               @Value("${consent.job.parallelism:4}") int parallelism,
+                               @Value("${consent.job.lock-at-most-for.ms:3600000}") long lockAtMostForMs,
+                               @Value("${consent.job.mode:ENTITY}") ConsentMaintenanceMode mode) {
+        this.aisConsentRepository = aisConsentRepository;
+        this.profileService = profileService;
+        this.consentChunkProcessor = consentChunkProcessor;
+        this.schedulerLockService = schedulerLockService;
+        this.aisConsentReadCache = aisConsentReadCache;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.lockAtMostFor = Duration.ofMillis(lockAtMostForMs);
+        this.mode = mode;
+    }
 
     @Scheduled(cron = "${consent.cron.expression}")
     public void checkConsentStatus() {
+        if (!schedulerLockService.tryLock(LOCK_NAME, lockAtMostFor)) {
+            log.info("Consent schedule task is run by another node");
+            skippedRuns.incrementAndGet();
+            return;
+        }
         log.info("Consent schedule task is run!");
-
-        List<AisConsent> availableConsents = Optional.ofNullable(aisConsentRepository.findByConsentStatusIn(EnumSet.of(RECEIVED, VALID)))
-                                                 .orElse(Collections.emptyList());
-        aisConsentRepository.save(updateConsent(availableConsents));
+        running.set(true);
+        long start = System.currentTimeMillis();
+        try {
+            processConsents();
+        } finally {
+            aisConsentReadCache.invalidateAll();
+            lastDurationMs.set(System.currentTimeMillis() - start);
+            lastProcessed.set(processed.get());
+            running.set(false);
+            schedulerLockService.unlock(LOCK_NAME);
+            log.info("Consent schedule task processed {} consents in {} ms: {} counters reset, {} consents expired",
+                lastProcessed.get(), lastDurationMs.get(), counterResets.get(), expirations.get());
+        }
     }
 
-    private List<AisConsent> updateConsent(List<AisConsent> availableConsents) {
-        return availableConsents.stream()
-                   .map(this::updateConsentParameters)
-                   .collect(Collectors.toList());
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(METRIC_PREFIX + "running", running.get() ? 1 : 0));
+        metrics.add(new Metric<>(METRIC_PREFIX + "progress.processed", processed.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "progress.counter-resets", counterResets.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "progress.expirations", expirations.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "progress.chunks", processedChunks.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "progress.failed-chunks", failedChunks.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "last.processed", lastProcessed.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "last.duration.ms", lastDurationMs.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "skipped", skippedRuns.get()));
+        return metrics;
     }
 
-    private AisConsent updateConsentParameters(AisConsent consent) {
-        int minFrequencyPerDay = profileService.getMinFrequencyPerDay(consent.getTppFrequencyPerDay());
-        consent.setExpectedFrequencyPerDay(minFrequencyPerDay);
-        consent.setUsageCounter(minFrequencyPerDay);
-        consent.setConsentStatus(updateConsentStatus(consent));
-        return consent;
+    private void processConsents() {
+        processed.set(0);
+        counterResets.set(0);
+        expirations.set(0);
+        processedChunks.set(0);
+        failedChunks.set(0);
+        AspspSettings settings = profileService.getAspspSettings();
+
+        AtomicInteger workerNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, r -> new Thread(r, "consent-job-worker-" + workerNumber.incrementAndGet()));
+        Semaphore permits = new Semaphore(parallelism);
+        try {
+            long lastId = 0;
+            List<Long> chunk;
+            while (!(chunk = aisConsentRepository.findIdsByConsentStatusIn(AVAILABLE_STATUSES, lastId, new PageRequest(0, chunkSize))).isEmpty()) {
+                lastId = chunk.get(chunk.size() - 1);
+                permits.acquire();
+                List<Long> consentIds = chunk;
+                workers.execute(() -> {
+                    try {
+                        processChunk(consentIds, settings);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+            permits.acquire(parallelism);
+        } catch (InterruptedException e) {
+            log.warn("Consent schedule task was interrupted");
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdown();
+        }
     }
 
-    private CmsConsentStatus updateConsentStatus(AisConsent consent) {
-        return consent.isExpiredByDate()
-                   ? CmsConsentStatus.EXPIRED
-                   : consent.getConsentStatus();
+    private void processChunk(List<Long> consentIds, AspspSettings settings) {
+        try {
+            ConsentChunkResult result = mode == ConsentMaintenanceMode.SET_BASED
+                                            ? consentChunkProcessor.processSetBased(consentIds, AVAILABLE_STATUSES, settings)
+                                            : consentChunkProcessor.process(consentIds, settings);
+            processed.addAndGet(result.getProcessed());
+            counterResets.addAndGet(result.getCounterResets());
+            expirations.addAndGet(result.getExpirations());
+            processedChunks.incrementAndGet();
+        } catch (RuntimeException e) {
+            failedChunks.incrementAndGet();
+            log.error("Failed to process chunk of {} consents starting with id {}: {}", consentIds.size(), consentIds.get(0), e.getMessage());
+        }
     }
 }
@@ -19,16 +19,22 @@ package de.adorsys.aspsp.xs2a.service;
 import de.adorsys.aspsp.xs2a.account.AccountAccessHolder;
 import de.adorsys.aspsp.xs2a.consent.api.ActionStatus;
 import de.adorsys.aspsp.xs2a.consent.api.AisConsentRequestType;
+import de.adorsys.aspsp.xs2a.consent.api.CmsAccountReference;
 import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
 import de.adorsys.aspsp.xs2a.consent.api.ConsentActionRequest;
+import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
 import de.adorsys.aspsp.xs2a.consent.api.ais.*;
 import de.adorsys.aspsp.xs2a.domain.AccountAccess;
 import de.adorsys.aspsp.xs2a.domain.AisConsent;
 import de.adorsys.aspsp.xs2a.domain.AisConsentAction;
 import de.adorsys.aspsp.xs2a.domain.AisConsentAuthorization;
+import de.adorsys.aspsp.xs2a.domain.AisTransactionCursor;
+import de.adorsys.aspsp.xs2a.domain.ConsentStatusView;
 import de.adorsys.aspsp.xs2a.repository.AisConsentActionRepository;
 import de.adorsys.aspsp.xs2a.repository.AisConsentAuthorizationRepository;
 import de.adorsys.aspsp.xs2a.repository.AisConsentRepository;
+import de.adorsys.aspsp.xs2a.repository.AisTransactionCursorRepository;
+import de.adorsys.aspsp.xs2a.service.cache.ConsentReadCache;
 import de.adorsys.aspsp.xs2a.service.mapper.AisConsentMapper;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.collections4.CollectionUtils;
@@ -37,10 +43,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.EnumSet;
-import java.util.Optional;
-import java.util.Set;
-import java.util.UUID;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import static de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus.*;
 import static de.adorsys.aspsp.xs2a.consent.api.TypeAccess.*;
@@ -51,8 +55,10 @@ public class AisConsentService {
     private final AisConsentRepository aisConsentRepository;
     private final AisConsentActionRepository aisConsentActionRepository;
     private final AisConsentAuthorizationRepository aisConsentAuthorizationRepository;
+    private final AisTransactionCursorRepository aisTransactionCursorRepository;
     private final AisConsentMapper consentMapper;
     private final AspspProfileService profileService;
+    private final ConsentReadCache<AisAccountConsent> aisConsentReadCache;
 
     /**
      * Create AIS consent
@@ -71,15 +77,16 @@ public class AisConsentService {
     }
 
     /**
-     * Read status of consent by id
+     * Read status of consent by id. Consent out of date is reported as expired, its status is stored by the consent schedule task.
+     * Status is taken from the cached consent
      *
      * @param consentId
      * @return ConsentStatus
      */
+    @Transactional(readOnly = true)
     public Optional<CmsConsentStatus> getConsentStatusById(String consentId) {
-        return getAisConsentById(consentId)
-                   .map(this::checkAndUpdateOnExpiration)
-                   .map(AisConsent::getConsentStatus);
+        return getAisAccountConsentById(consentId)
+                   .map(AisAccountConsent::getConsentStatus);
     }
 
     /**
@@ -96,15 +103,43 @@ public class AisConsentService {
     }
 
     /**
-     * Read full information of consent by id
+     * Read full information of consent by id. Consent out of date is reported as expired, its status is stored by the consent schedule task.
+     * Consent is read through the consent read cache
      *
      * @param consentId
      * @return AisAccountConsent
      */
+    @Transactional(readOnly = true)
     public Optional<AisAccountConsent> getAisAccountConsentById(String consentId) {
-        return getAisConsentById(consentId)
-                   .map(this::checkAndUpdateOnExpiration)
-                   .map(consentMapper::mapToAisAccountConsent);
+        return aisConsentReadCache.get(consentId, id -> getAisConsentWithAccessesById(id)
+                                                            .map(consentMapper::mapToAisAccountConsent));
+    }
+
+    /**
+     * Read full information of several consents by ids. Consents missing in the consent read cache are read by IN-queries
+     * in chunks of configured size
+     *
+     * @param consentIds ids of the consents
+     * @return Map of consents by consent id, unknown consents are omitted
+     */
+    @Transactional(readOnly = true)
+    public Map<String, AisAccountConsent> getAisAccountConsentsByIds(Collection<String> consentIds) {
+        return aisConsentReadCache.getAll(consentIds, ids -> aisConsentRepository.findWithAccessesByExternalIdIn(ids).stream()
+                                                                 .collect(Collectors.toMap(AisConsent::getExternalId, consentMapper::mapToAisAccountConsent, (first, second) -> first)));
+    }
+
+    /**
+     * Read statuses of several consents by ids. Statuses are taken from the consents present in the consent read cache,
+     * statuses of the other consents are read by projection IN-queries in chunks of configured size without loading the consents
+     *
+     * @param consentIds ids of the consents
+     * @return Map of consent statuses by consent id, unknown consents are omitted
+     */
+    @Transactional(readOnly = true)
+    public Map<String, CmsConsentStatus> getConsentStatusesByIds(Collection<String> consentIds) {
+        return aisConsentReadCache.getAllProjected(consentIds, AisAccountConsent::getConsentStatus,
+            ids -> aisConsentRepository.findStatusesByExternalIdIn(ids).stream()
+                       .collect(Collectors.toMap(ConsentStatusView::getExternalId, ConsentStatusView::getActualConsentStatus, (first, second) -> first)));
     }
 
     /**
@@ -117,10 +152,54 @@ public class AisConsentService {
         AisConsent consent = getAisConsentById(request.getConsentId())
                                  .orElse(null);
         checkAndUpdateOnExpiration(consent);
-        updateAisConsentCounter(consent);
+        consumeUsage(consent);
         logConsentAction(request.getConsentId(), resolveConsentActionStatus(request, consent), request.getTppId());
     }
 
+    /**
+     * Save information about uses of several consents in one transaction. Every consent is read only once per call
+     *
+     * @param requests needed parameters for logging usages of AIS consents
+     */
+    @Transactional
+    public void checkConsentsAndSaveActionLogs(List<ConsentActionRequest> requests) {
+        Map<String, Optional<AisConsent>> consents = new HashMap<>();
+        List<AisConsentAction> actions = requests.stream()
+                                             .map(request -> {
+                                                 AisConsent consent = consents.computeIfAbsent(request.getConsentId(), this::getAisConsentById)
+                                                                          .orElse(null);
+                                                 checkAndUpdateOnExpiration(consent);
+                                                 consumeUsage(consent);
+                                                 return buildConsentAction(request.getConsentId(), resolveConsentActionStatus(request, consent), request.getTppId());
+                                             })
+                                             .collect(Collectors.toList());
+        aisConsentActionRepository.save(actions);
+    }
+
+    /**
+     * Authorises access to the account with the consent and counts the usage in one transaction: checks expiration and
+     * account access of the consent, consumes one usage if access is granted and saves the consent action log
+     *
+     * @param consentId id of the consent
+     * @param request   TPP id, requested access type and account reference
+     * @return AisConsentUsageResponse decision with remaining usages and account access of the consent, empty if consent is unknown
+     */
+    @Transactional
+    public Optional<AisConsentUsageResponse> authoriseConsentUsage(String consentId, AisConsentUsageRequest request) {
+        AisConsent consent = getAisConsentWithAccessesById(consentId)
+                                 .filter(con -> Objects.equals(con.getTppId(), request.getTppId()))
+                                 .orElse(null);
+        if (consent == null) {
+            logConsentAction(consentId, ActionStatus.CONSENT_NOT_FOUND, request.getTppId());
+            return Optional.empty();
+        }
+        checkAndUpdateOnExpiration(consent);
+        AisConsentUsageDecision decision = decideConsentUsage(consent, request);
+        logConsentAction(consentId, mapToActionStatus(decision, request.getTypeAccess()), request.getTppId());
+        return Optional.of(new AisConsentUsageResponse(decision, consent.getConsentStatus(), getUsagesLeft(consent, decision),
+            consentMapper.mapToAisAccountAccess(consent.getAccesses())));
+    }
+
     /**
      * Update AIS consent account access by id
      *
@@ -133,6 +212,7 @@ public class AisConsentService {
         return getActualAisConsent(consentId)
                    .map(consent -> {
                        consent.addAccountAccess(readAccountAccess(request));
+                       aisConsentReadCache.invalidate(consentId);
                        return aisConsentRepository.save(consent)
                                   .getExternalId();
                    });
@@ -171,6 +251,7 @@ public class AisConsentService {
      * @param authorizationId
      * @return AisConsentAuthorizationResponse
      */
+    @Transactional(readOnly = true)
     public Optional<AisConsentAuthorizationResponse> getAccountConsentAuthorizationById(String authorizationId, String consentId) {
         return aisConsentRepository.findByExternalIdAndConsentStatusIn(consentId, EnumSet.of(RECEIVED, VALID)).isPresent()
                    ? aisConsentAuthorizationRepository.findByExternalId(authorizationId)
@@ -193,6 +274,39 @@ public class AisConsentService {
                    : Optional.of(false);
     }
 
+    /**
+     * Read entry reference of the last transaction reported to TPP for the account within the consent
+     *
+     * @param consentId id of the consent
+     * @param accountId id of the account
+     * @return String entry reference
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getTransactionCursor(String consentId, String accountId) {
+        return aisTransactionCursorRepository.findByConsentExternalIdAndAccountId(consentId, accountId)
+                   .map(AisTransactionCursor::getEntryReference);
+    }
+
+    /**
+     * Store entry reference of the last transaction reported to TPP for the account within the consent
+     *
+     * @param consentId      id of the consent
+     * @param accountId      id of the account
+     * @param entryReference entry reference of the last reported transaction
+     * @return String entry reference
+     */
+    @Transactional
+    public Optional<String> updateTransactionCursor(String consentId, String accountId, String entryReference) {
+        return getActualAisConsent(consentId)
+                   .map(consent -> {
+                       AisTransactionCursor cursor = aisTransactionCursorRepository.findByConsentExternalIdAndAccountId(consentId, accountId)
+                                                         .orElseGet(() -> newTransactionCursor(consent, accountId));
+                       cursor.setEntryReference(entryReference);
+                       return aisTransactionCursorRepository.save(cursor)
+                                  .getEntryReference();
+                   });
+    }
+
     private Set<AccountAccess> readAccountAccess(AisAccountAccessInfo access) {
         AccountAccessHolder holder = new AccountAccessHolder();
         holder.fillAccess(access.getAccounts(), ACCOUNT);
@@ -201,8 +315,16 @@ public class AisConsentService {
         return holder.getAccountAccesses();
     }
 
+    private AisTransactionCursor newTransactionCursor(AisConsent consent, String accountId) {
+        AisTransactionCursor cursor = new AisTransactionCursor();
+        cursor.setConsent(consent);
+        cursor.setAccountId(accountId);
+        return cursor;
+    }
+
     private String updateConsentAspspData(UpdateAisConsentAspspDataRequest request, AisConsent consent) {
         consent.setAspspConsentData(request.getAspspConsentData());
+        aisConsentReadCache.invalidate(consent.getExternalId());
         AisConsent savedConsent = aisConsentRepository.save(consent);
         return savedConsent.getExternalId();
     }
@@ -251,23 +373,89 @@ public class AisConsentService {
                    : request.getActionStatus();
     }
 
-    private void updateAisConsentCounter(AisConsent consent) {
-        if (consent != null && consent.hasUsagesAvailable()) {
-            int usageCounter = consent.getUsageCounter();
-            int newUsageCounter = --usageCounter;
-            consent.setUsageCounter(newUsageCounter);
-            consent.setLastActionDate(LocalDate.now());
-            aisConsentRepository.save(consent);
+    private AisConsentUsageDecision decideConsentUsage(AisConsent consent, AisConsentUsageRequest request) {
+        if (consent.getConsentStatus() == EXPIRED) {
+            return AisConsentUsageDecision.EXPIRED;
+        }
+        if (consent.getConsentStatus() != VALID) {
+            return AisConsentUsageDecision.INVALID;
+        }
+        CmsAccountReference account = request.getAccount();
+        if (account == null || !consent.isAccessible(request.getTypeAccess(), account.getIban(), account.getCurrency())) {
+            return AisConsentUsageDecision.ACCOUNT_NOT_COVERED;
+        }
+        return consumeUsage(consent)
+                   ? AisConsentUsageDecision.VALID
+                   : AisConsentUsageDecision.ACCESS_EXCEEDED;
+    }
+
+    private int getUsagesLeft(AisConsent consent, AisConsentUsageDecision decision) {
+        switch (decision) {
+            case VALID:
+                return aisConsentRepository.findUsageCounterByExternalId(consent.getExternalId());
+            case ACCESS_EXCEEDED:
+                return 0;
+            default:
+                return consent.getUsageCounter();
+        }
+    }
+
+    private ActionStatus mapToActionStatus(AisConsentUsageDecision decision, TypeAccess typeAccess) {
+        switch (decision) {
+            case VALID:
+                return ActionStatus.SUCCESS;
+            case EXPIRED:
+            case INVALID:
+                return ActionStatus.CONSENT_INVALID_STATUS;
+            case ACCESS_EXCEEDED:
+                return ActionStatus.CONSENT_LIMIT_EXCEEDED;
+            default:
+                return typeAccess == BALANCE
+                           ? ActionStatus.FAILURE_BALANCE
+                           : typeAccess == TRANSACTION
+                                 ? ActionStatus.FAILURE_TRANSACTION
+                                 : ActionStatus.FAILURE_ACCOUNT;
+        }
+    }
+
+    /**
+     * Decrements usage counter of the consent by a conditional update, so that concurrent usages of one consent are
+     * neither lost nor granted beyond the counter and the rest of the consent row is not rewritten.
+     * Usage decisions always read the counter from the database, so a cached consent is updated in place instead of
+     * being invalidated on every usage.
+     *
+     * @return true if a usage was available and granted
+     */
+    private boolean consumeUsage(AisConsent consent) {
+        if (consent == null) {
+            return false;
         }
+        LocalDate actionDate = LocalDate.now();
+        boolean consumed = aisConsentRepository.decrementUsageCounter(consent.getExternalId(), actionDate) > 0;
+        if (consumed) {
+            aisConsentReadCache.update(consent.getExternalId(), cached -> withUsageConsumed(cached, actionDate));
+        }
+        return consumed;
+    }
+
+    private AisAccountConsent withUsageConsumed(AisAccountConsent consent, LocalDate actionDate) {
+        return new AisAccountConsent(consent.getId(), consent.getAccess(), consent.isRecurringIndicator(), consent.getValidUntil(),
+            Math.max(consent.getFrequencyPerDay() - 1, 0), actionDate, consent.getConsentStatus(), consent.isWithBalance(),
+            consent.isTppRedirectPreferred(), consent.getAspspConsentData(), consent.getAisConsentRequestType(),
+            consent.getPsuId(), consent.getTppId());
     }
 
     private void logConsentAction(String requestedConsentId, ActionStatus actionStatus, String tppId) {
+        aisConsentActionRepository.save(buildConsentAction(requestedConsentId, actionStatus, tppId));
+    }
+
+    private AisConsentAction buildConsentAction(String requestedConsentId, ActionStatus actionStatus, String tppId) {
         AisConsentAction action = new AisConsentAction();
         action.setActionStatus(actionStatus);
         action.setRequestedConsentId(requestedConsentId);
         action.setTppId(tppId);
         action.setRequestDate(LocalDate.now());
-        aisConsentActionRepository.save(action);
+        return action;
     }
 
     private Optional<AisConsent> getActualAisConsent(String consentId) {
@@ -280,11 +468,17 @@ public class AisConsentService {
                    .flatMap(aisConsentRepository::findByExternalId);
     }
 
+    private Optional<AisConsent> getAisConsentWithAccessesById(String consentId) {
+        return Optional.ofNullable(consentId)
+                   .flatMap(aisConsentRepository::findWithAccessesByExternalId);
+    }
+
     private AisConsent checkAndUpdateOnExpiration(AisConsent consent) {
         if (consent != null && consent.isExpiredByDate() && consent.isStatusNotExpired()) {
             consent.setConsentStatus(EXPIRED);
             consent.setExpireDate(LocalDate.now());
             consent.setLastActionDate(LocalDate.now());
+            aisConsentReadCache.invalidate(consent.getExternalId());
             aisConsentRepository.save(consent);
         }
         return consent;
@@ -293,6 +487,7 @@ public class AisConsentService {
     private AisConsent setStatusAndSaveConsent(AisConsent consent, CmsConsentStatus status) {
         consent.setLastActionDate(LocalDate.now());
         consent.setConsentStatus(status);
+        aisConsentReadCache.invalidate(consent.getExternalId());
         return aisConsentRepository.save(consent);
     }
 
@@ -16,34 +16,55 @@
 
 package de.adorsys.aspsp.xs2a.service;
 
-
-import de.adorsys.aspsp.xs2a.config.rest.ASPSPProfileRemoteUrls;
 import de.adorsys.aspsp.xs2a.domain.profile.AspspSettings;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.log4j.Log4j;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.http.HttpMethod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-@Log4j
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AspspProfileService {
-    @Qualifier("aspspProfileRestTemplate")
-    private final RestTemplate aspspProfileRestTemplate;
-    private final ASPSPProfileRemoteUrls aspspProfileRemoteUrls;
+    private final AspspSettingsSnapshot aspspSettingsSnapshot;
+
+    /**
+     * Reads current snapshot of ASPSP settings, which is kept up to date in background
+     *
+     * @return ASPSP settings
+     */
+    public AspspSettings getAspspSettings() {
+        return aspspSettingsSnapshot.getSettings();
+    }
 
     public int getMinFrequencyPerDay(int tppFrequency) {
-        return Math.min(Math.abs(tppFrequency), getFrequencyPerDay());
+        return getMinFrequencyPerDay(tppFrequency, getAspspSettings());
     }
 
-    private Integer getFrequencyPerDay() {
-        return readAspspSettings().getFrequencyPerDay();
+    /**
+     * Calculates frequency per day of the consent against given ASPSP settings, so that settings can be resolved
+     * once for many consents
+     *
+     * @param tppFrequency frequency per day requested by TPP
+     * @param settings     ASPSP settings
+     * @return minimum of TPP and ASPSP frequency per day
+     */
+    public int getMinFrequencyPerDay(int tppFrequency, AspspSettings settings) {
+        return Math.min(Math.abs(tppFrequency), settings.getFrequencyPerDay());
     }
 
-    private AspspSettings readAspspSettings() {
-        return aspspProfileRestTemplate.exchange(
-            aspspProfileRemoteUrls.getAspspSettingsUrl(), HttpMethod.GET, null, AspspSettings.class).getBody();
+    /**
+     * Announces a changed ASPSP frequency per day. New consents use it at once, usage counters of existing consents
+     * are adjusted by the next run of the consent schedule task
+     *
+     * @param event notification about new ASPSP settings
+     */
+    @EventListener
+    public void onAspspSettingsChanged(AspspSettingsChangedEvent event) {
+        AspspSettings previous = event.getPreviousSettings();
+        if (previous != null && previous.getFrequencyPerDay() != event.getSettings().getFrequencyPerDay()) {
+            log.info("ASPSP frequency per day changed from {} to {}, usage counters of existing consents are adjusted by the next consent schedule task run",
+                previous.getFrequencyPerDay(), event.getSettings().getFrequencyPerDay());
+        }
     }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.service;
+
+import de.adorsys.aspsp.xs2a.domain.profile.AspspSettings;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when a new version of ASPSP settings was read from ASPSP profile service
+ */
+public class AspspSettingsChangedEvent extends ApplicationEvent {
+    private final AspspSettings previousSettings;
+    private final AspspSettings settings;
+
+    public AspspSettingsChangedEvent(Object source, AspspSettings previousSettings, AspspSettings settings) {
+        super(source);
+        this.previousSettings = previousSettings;
+        this.settings = settings;
+    }
+
+    /**
+     * @return settings of the previous snapshot, null if the first snapshot was loaded
+     */
+    public AspspSettings getPreviousSettings() {
+        return previousSettings;
+    }
+
+    public AspspSettings getSettings() {
+        return settings;
+    }
+}
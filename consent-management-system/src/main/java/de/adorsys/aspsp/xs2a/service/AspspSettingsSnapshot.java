@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service;
+
+import de.adorsys.aspsp.snapshot.VersionedResourceSnapshot;
+import de.adorsys.aspsp.xs2a.config.rest.ASPSPProfileRemoteUrls;
+import de.adorsys.aspsp.xs2a.domain.profile.AspspSettings;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Snapshot of ASPSP settings read from ASPSP profile service, refreshed by the CMS scheduler.
+ * Listeners are notified with {@link AspspSettingsChangedEvent} when a new version is loaded.
+ */
+@Component
+public class AspspSettingsSnapshot extends VersionedResourceSnapshot<AspspSettings> {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AspspSettingsSnapshot(@Qualifier("aspspProfileRestTemplate") RestTemplate aspspProfileRestTemplate,
+                                 ASPSPProfileRemoteUrls aspspProfileRemoteUrls,
+                                 ApplicationEventPublisher eventPublisher) {
+        super("aspsp-profile", aspspProfileRestTemplate, aspspProfileRemoteUrls.getAspspSettingsUrl(), AspspSettings.class);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Scheduled(initialDelay = 0, fixedDelayString = "${aspsp-profile.refresh-interval.ms:5000}")
+    public void refreshSafely() {
+        super.refreshSafely();
+    }
+
+    /**
+     * Returns current snapshot of ASPSP settings. Settings are read synchronously only if no snapshot was loaded yet
+     *
+     * @return ASPSP settings
+     */
+    public AspspSettings getSettings() {
+        return get();
+    }
+
+    @Override
+    protected void onUpdate(AspspSettings previous, AspspSettings current) {
+        eventPublisher.publishEvent(new AspspSettingsChangedEvent(this, previous, current));
+    }
+}
@@ -25,19 +25,25 @@ import de.adorsys.aspsp.xs2a.consent.api.pis.authorisation.UpdatePisConsentPsuDa
 import de.adorsys.aspsp.xs2a.consent.api.pis.proto.CreatePisConsentResponse;
 import de.adorsys.aspsp.xs2a.consent.api.pis.proto.PisConsentRequest;
 import de.adorsys.aspsp.xs2a.consent.api.pis.proto.PisConsentResponse;
+import de.adorsys.aspsp.xs2a.domain.ConsentStatusView;
 import de.adorsys.aspsp.xs2a.domain.pis.PisConsent;
 import de.adorsys.aspsp.xs2a.domain.pis.PisConsentAuthorization;
 import de.adorsys.aspsp.xs2a.repository.PisConsentAuthorizationRepository;
 import de.adorsys.aspsp.xs2a.repository.PisConsentRepository;
 import de.adorsys.aspsp.xs2a.repository.PisPaymentDataRepository;
+import de.adorsys.aspsp.xs2a.service.cache.ConsentReadCache;
 import de.adorsys.aspsp.xs2a.service.mapper.PisConsentMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.EnumSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus.RECEIVED;
 import static de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus.VALID;
@@ -51,6 +57,7 @@ public class PisConsentService {
     private final PisConsentMapper pisConsentMapper;
     private final PisConsentAuthorizationRepository pisConsentAuthorizationRepository;
     private final PisPaymentDataRepository pisPaymentDataRepository;
+    private final ConsentReadCache<PisConsentResponse> pisConsentReadCache;
 
     /**
      * Creates new pis consent with full information about payment
@@ -65,25 +72,57 @@ public class PisConsentService {
     }
 
     /**
-     * Retrieves consent status from pis consent by consent identifier
+     * Retrieves consent status from pis consent by consent identifier. Status is taken from the cached consent
      *
      * @param consentId String representation of pis consent identifier
      * @return Information about the status of a consent
      */
+    @Transactional(readOnly = true)
     public Optional<CmsConsentStatus> getConsentStatusById(String consentId) {
-        return getPisConsentById(consentId)
-                   .map(PisConsent::getConsentStatus);
+        return getConsentById(consentId)
+                   .map(PisConsentResponse::getConsentStatus);
     }
 
     /**
-     * Reads full information of pis consent by consent identifier
+     * Reads full information of pis consent by consent identifier through the consent read cache
      *
      * @param consentId String representation of pis consent identifier
      * @return Response containing full information about pis consent
      */
+    @Transactional(readOnly = true)
     public Optional<PisConsentResponse> getConsentById(String consentId) {
-        return getPisConsentById(consentId)
-                   .flatMap(pisConsentMapper::mapToPisConsentResponse);
+        return pisConsentReadCache.get(consentId, id -> pisConsentRepository.findWithPaymentsByExternalId(id)
+                                                            .flatMap(pisConsentMapper::mapToPisConsentResponse));
+    }
+
+    /**
+     * Reads full information of several pis consents by consent identifiers. Consents missing in the consent read cache are
+     * read by IN-queries in chunks of configured size
+     *
+     * @param consentIds String representations of pis consent identifiers
+     * @return Map of pis consents by consent identifier, unknown consents are omitted
+     */
+    @Transactional(readOnly = true)
+    public Map<String, PisConsentResponse> getConsentsByIds(Collection<String> consentIds) {
+        return pisConsentReadCache.getAll(consentIds, ids -> pisConsentRepository.findWithPaymentsByExternalIdIn(ids).stream()
+                                                                 .map(pisConsentMapper::mapToPisConsentResponse)
+                                                                 .filter(Optional::isPresent)
+                                                                 .map(Optional::get)
+                                                                 .collect(Collectors.toMap(PisConsentResponse::getExternalId, Function.identity(), (first, second) -> first)));
+    }
+
+    /**
+     * Retrieves statuses of several pis consents by consent identifiers. Statuses are taken from the consents present in
+     * the consent read cache, statuses of the other consents are read by projection IN-queries without loading payments
+     *
+     * @param consentIds String representations of pis consent identifiers
+     * @return Map of consent statuses by consent identifier, unknown consents are omitted
+     */
+    @Transactional(readOnly = true)
+    public Map<String, CmsConsentStatus> getConsentStatusesByIds(Collection<String> consentIds) {
+        return pisConsentReadCache.getAllProjected(consentIds, PisConsentResponse::getConsentStatus,
+            ids -> pisConsentRepository.findStatusesByExternalIdIn(ids).stream()
+                       .collect(Collectors.toMap(ConsentStatusView::getExternalId, ConsentStatusView::getConsentStatus, (first, second) -> first)));
     }
 
     /**
@@ -99,13 +138,9 @@ public class PisConsentService {
                    .map(con -> con.getConsentStatus() == status);
     }
 
-    private Optional<PisConsent> getPisConsentById(String consentId) {
-        return Optional.ofNullable(consentId)
-                   .flatMap(pisConsentRepository::findByExternalId);
-    }
-
     private PisConsent setStatusAndSaveConsent(PisConsent consent, CmsConsentStatus status) {
         consent.setConsentStatus(status);
+        pisConsentReadCache.invalidate(consent.getExternalId());
         return pisConsentRepository.save(consent);
     }
 
@@ -150,8 +185,9 @@ public class PisConsentService {
                    }).map(pisConsentMapper::mapToUpdatePisConsentPsuDataResponse);
     }
 
+    @Transactional(readOnly = true)
     public Optional<GetPisConsentAuthorisationResponse> getPisConsentAuthorizationById(String authorizationId) {
-        return pisConsentAuthorizationRepository.findByExternalId(authorizationId)
+        return pisConsentAuthorizationRepository.findWithPaymentsByExternalId(authorizationId)
                    .map(pisConsentMapper::mapToGetPisConsentAuthorizationResponse);
     }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.service;
+
+import de.adorsys.aspsp.xs2a.repository.SchedulerLockRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Lock of scheduled jobs shared by all CMS nodes, based on one row per job in scheduler_lock table.
+ * A node holds the lock until it releases it or until the lock period is over, so that a crashed node does not block
+ * the job forever. Lock periods are measured by the database clock, not by the clocks of the nodes.
+ */
+@Service
+@RequiredArgsConstructor
+public class SchedulerLockService {
+    private static final String INSTANCE_ID = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    /**
+     * Acquires lock with given name for this node, if it is not held by another node
+     *
+     * @param name          name of the lock
+     * @param lockAtMostFor period, after which the lock is released even if the node did not release it
+     * @return true if the lock was acquired, false otherwise
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryLock(String name, Duration lockAtMostFor) {
+        long lockAtMostForMillis = lockAtMostFor.toMillis();
+        if (schedulerLockRepository.acquire(name, INSTANCE_ID, lockAtMostForMillis) > 0) {
+            return true;
+        }
+        return schedulerLockRepository.create(name, INSTANCE_ID, lockAtMostForMillis) > 0;
+    }
+
+    /**
+     * Releases lock with given name, if it is held by this node
+     *
+     * @param name name of the lock
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void unlock(String name) {
+        schedulerLockRepository.release(name, INSTANCE_ID);
+    }
+}
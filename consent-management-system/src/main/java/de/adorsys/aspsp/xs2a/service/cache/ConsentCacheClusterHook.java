@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.service.cache;
+
+/**
+ * Hook for multi-node CMS: propagates invalidations of consent read caches to the other nodes, e.g. via a message
+ * broker or PostgreSQL NOTIFY. Receiving nodes are expected to call {@link ConsentReadCache#invalidateLocally(String)}
+ * or {@link ConsentReadCache#invalidateAllLocally()} of the cache with the given name. Without a hook bean each node
+ * relies on the TTL of its own cache for changes made by other nodes.
+ */
+public interface ConsentCacheClusterHook {
+    /**
+     * Called after a consent has been changed on this node
+     *
+     * @param cacheName name of the cache
+     * @param consentId external id of the changed consent
+     */
+    void consentInvalidated(String cacheName, String consentId);
+
+    /**
+     * Called after consents have been changed in bulk on this node
+     *
+     * @param cacheName name of the cache
+     */
+    void allInvalidated(String cacheName);
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.service.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded read cache of consent aggregates of one kind, keyed by external consent id.
+ * Entries live at most for the configured TTL and are not served after the day they were loaded, as consents expire by date.
+ * Services invalidate entries on every change of the consent aggregate. Invalidation is repeated after commit of the
+ * surrounding transaction, and values loaded while an invalidation happened are not cached, so that concurrent reads
+ * can't put the state before the change back into the cache. Invalidations are passed to {@link ConsentCacheClusterHook}
+ * if one is configured. Frequent changes of a single field, like usage counters, may update cached entries in place instead,
+ * which keeps the original load time of the entry. Several consents missing in the cache are loaded in chunks of the configured size.
+ *
+ * @param <V> type of the cached consent aggregate
+ */
+@Slf4j
+public class ConsentReadCache<V> implements PublicMetrics {
+    private static final String METRIC_PREFIX = "cache.consent.";
+
+    private final String name;
+    private final Cache<String, CachedValue<V>> cache;
+    private final ConsentCacheClusterHook clusterHook;
+    private final long ttlMs;
+    private final int loadChunkSize;
+    private final Object lock = new Object();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ConsentReadCache(String name, long maxSize, long ttlMs, int loadChunkSize, ConsentCacheClusterHook clusterHook) {
+        this.name = name;
+        this.clusterHook = clusterHook;
+        this.ttlMs = ttlMs;
+        this.loadChunkSize = loadChunkSize;
+        this.cache = CacheBuilder.newBuilder()
+                         .maximumSize(maxSize)
+                         .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                         .recordStats()
+                         .build();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns consent aggregate from the cache or loads it with given loader. Empty results of the loader are not cached
+     *
+     * @param consentId external id of the consent
+     * @param loader    function reading consent aggregate from the database
+     * @return consent aggregate, empty if consent is unknown
+     */
+    public Optional<V> get(String consentId, Function<String, Optional<V>> loader) {
+        if (consentId == null) {
+            return Optional.empty();
+        }
+        CachedValue<V> cached = cache.getIfPresent(consentId);
+        if (isCurrent(cached)) {
+            hits.incrementAndGet();
+            return Optional.of(cached.getValue());
+        }
+        misses.incrementAndGet();
+        long invalidationStamp = invalidations.get();
+        Optional<V> loaded = loader.apply(consentId);
+        loaded.ifPresent(value -> {
+            synchronized (lock) {
+                if (invalidations.get() == invalidationStamp) {
+                    cache.put(consentId, new CachedValue<>(value));
+                }
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Returns several consent aggregates from the cache and loads the missing ones with given loader, one call per chunk of ids
+     *
+     * @param consentIds external ids of the consents
+     * @param loader     function reading consent aggregates of a chunk of ids from the database, mapped by consent id
+     * @return consent aggregates mapped by consent id, unknown consents are omitted
+     */
+    public Map<String, V> getAll(Collection<String> consentIds, Function<List<String>, Map<String, V>> loader) {
+        Map<String, V> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String consentId : new LinkedHashSet<>(consentIds)) {
+            if (consentId == null) {
+                continue;
+            }
+            CachedValue<V> cached = cache.getIfPresent(consentId);
+            if (isCurrent(cached)) {
+                result.put(consentId, cached.getValue());
+            } else {
+                missing.add(consentId);
+            }
+        }
+        hits.addAndGet(result.size());
+        misses.addAndGet(missing.size());
+        for (List<String> chunk : Lists.partition(missing, loadChunkSize)) {
+            long invalidationStamp = invalidations.get();
+            Map<String, V> loaded = loader.apply(chunk);
+            synchronized (lock) {
+                if (invalidations.get() == invalidationStamp) {
+                    loaded.forEach((consentId, value) -> cache.put(consentId, new CachedValue<>(value)));
+                }
+            }
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a projection of several consents. It is taken from the consent aggregates present in the cache, the projection
+     * of the missing consents is read with given reader, one call per chunk of ids, and is not cached
+     *
+     * @param consentIds external ids of the consents
+     * @param projection function extracting the projection from a cached consent aggregate
+     * @param reader     function reading the projection of a chunk of consents from the database, mapped by consent id
+     * @param <T>        type of the projection
+     * @return projections mapped by consent id, unknown consents are omitted
+     */
+    public <T> Map<String, T> getAllProjected(Collection<String> consentIds, Function<V, T> projection,
+                                              Function<List<String>, Map<String, T>> reader) {
+        Map<String, T> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String consentId : new LinkedHashSet<>(consentIds)) {
+            if (consentId == null) {
+                continue;
+            }
+            CachedValue<V> cached = cache.getIfPresent(consentId);
+            if (isCurrent(cached)) {
+                result.put(consentId, projection.apply(cached.getValue()));
+            } else {
+                missing.add(consentId);
+            }
+        }
+        hits.addAndGet(result.size());
+        misses.addAndGet(missing.size());
+        for (List<String> chunk : Lists.partition(missing, loadChunkSize)) {
+            result.putAll(reader.apply(chunk));
+        }
+        return result;
+    }
+
+    /**
+     * Removes consent from the cache of this node immediately and after commit of the current transaction and notifies other nodes
+     *
+     * @param consentId external id of the changed consent
+     */
+    public void invalidate(String consentId) {
+        if (consentId == null) {
+            return;
+        }
+        invalidateLocally(consentId);
+        afterCommit(() -> {
+            invalidateLocally(consentId);
+            if (clusterHook != null) {
+                clusterHook.consentInvalidated(name, consentId);
+            }
+        });
+    }
+
+    /**
+     * Removes all consents from the cache of this node immediately and after commit of the current transaction and notifies other nodes
+     */
+    public void invalidateAll() {
+        invalidateAllLocally();
+        afterCommit(() -> {
+            invalidateAllLocally();
+            if (clusterHook != null) {
+                clusterHook.allInvalidated(name);
+            }
+        });
+    }
+
+    /**
+     * Replaces cached consent of this node with the result of given updater after commit of the current transaction.
+     * Nothing is loaded if the consent is not cached, values loaded meanwhile are not cached and other nodes are not notified,
+     * so that their entries stay as loaded until the TTL expires. To be used only for changes not relevant for the decisions
+     * based on cached consents.
+     *
+     * @param consentId external id of the changed consent
+     * @param updater   function applying the change to the cached consent aggregate
+     */
+    public void update(String consentId, UnaryOperator<V> updater) {
+        if (consentId == null) {
+            return;
+        }
+        afterCommit(() -> updateLocally(consentId, updater));
+    }
+
+    /**
+     * Removes consent from the cache of this node only, to be called on invalidations received from other nodes
+     *
+     * @param consentId external id of the changed consent
+     */
+    public void invalidateLocally(String consentId) {
+        synchronized (lock) {
+            invalidations.incrementAndGet();
+            cache.invalidate(consentId);
+        }
+    }
+
+    /**
+     * Removes all consents from the cache of this node only, to be called on invalidations received from other nodes
+     */
+    public void invalidateAllLocally() {
+        synchronized (lock) {
+            invalidations.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        String prefix = METRIC_PREFIX + name + '.';
+        long hitCount = hits.get();
+        long requestCount = hitCount + misses.get();
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(prefix + "size", cache.size()));
+        metrics.add(new Metric<>(prefix + "hit", hitCount));
+        metrics.add(new Metric<>(prefix + "miss", misses.get()));
+        metrics.add(new Metric<>(prefix + "hit.ratio", requestCount == 0 ? 1.0 : (double) hitCount / requestCount));
+        metrics.add(new Metric<>(prefix + "eviction", cache.stats().evictionCount()));
+        metrics.add(new Metric<>(prefix + "invalidation", invalidations.get()));
+        return metrics;
+    }
+
+    private void updateLocally(String consentId, UnaryOperator<V> updater) {
+        synchronized (lock) {
+            invalidations.incrementAndGet();
+            CachedValue<V> cached = cache.getIfPresent(consentId);
+            if (isCurrent(cached)) {
+                cache.put(consentId, cached.withValue(updater.apply(cached.getValue())));
+            }
+        }
+    }
+
+    private boolean isCurrent(CachedValue<V> cached) {
+        return cached != null
+                   && cached.isLoadedToday()
+                   && System.currentTimeMillis() - cached.getLoadedAt() < ttlMs;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static class CachedValue<V> {
+        private final V value;
+        private final LocalDate loadedOn;
+        private final long loadedAt;
+
+        CachedValue(V value) {
+            this(value, LocalDate.now(), System.currentTimeMillis());
+        }
+
+        private CachedValue(V value, LocalDate loadedOn, long loadedAt) {
+            this.value = value;
+            this.loadedOn = loadedOn;
+            this.loadedAt = loadedAt;
+        }
+
+        CachedValue<V> withValue(V newValue) {
+            return new CachedValue<>(newValue, loadedOn, loadedAt);
+        }
+
+        V getValue() {
+            return value;
+        }
+
+        long getLoadedAt() {
+            return loadedAt;
+        }
+
+        boolean isLoadedToday() {
+            return loadedOn.equals(LocalDate.now());
+        }
+    }
+}
@@ -41,7 +41,7 @@ public class AisConsentMapper {
             consent.getExpireDate(),
             consent.getUsageCounter(),
             consent.getLastActionDate(),
-            consent.getConsentStatus(),
+            consent.getActualConsentStatus(),
             false,
             consent.isTppRedirectPreferred(),
             consent.getAspspConsentData(),
@@ -67,7 +67,7 @@ public class AisConsentMapper {
                    .orElse(null);
     }
 
-    private AisAccountAccess mapToAisAccountAccess(List<AccountAccess> accountAccesses) {
+    public AisAccountAccess mapToAisAccountAccess(List<AccountAccess> accountAccesses) {
         return new AisAccountAccess(mapToCmsAccountReference(accountAccesses, TypeAccess.ACCOUNT),
             mapToCmsAccountReference(accountAccesses, TypeAccess.BALANCE),
             mapToCmsAccountReference(accountAccesses, TypeAccess.TRANSACTION));
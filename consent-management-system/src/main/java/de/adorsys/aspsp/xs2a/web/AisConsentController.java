@@ -17,6 +17,7 @@
 package de.adorsys.aspsp.xs2a.web;
 
 import de.adorsys.aspsp.xs2a.consent.api.AisConsentStatusResponse;
+import de.adorsys.aspsp.xs2a.consent.api.AisConsentStatusesResponse;
 import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
 import de.adorsys.aspsp.xs2a.consent.api.ConsentActionRequest;
 import de.adorsys.aspsp.xs2a.consent.api.ais.*;
@@ -27,6 +28,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "api/v1/ais/consent")
@@ -52,6 +55,13 @@ public class AisConsentController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping(path = "/actions")
+    @ApiOperation(value = "Save information about uses of consents in bulk")
+    public ResponseEntity<Void> saveConsentActionLogs(@RequestBody List<ConsentActionRequest> requests) {
+        aisConsentService.checkConsentsAndSaveActionLogs(requests);
+        return ResponseEntity.ok().build();
+    }
+
     @GetMapping(path = "/{consent-id}")
     @ApiOperation(value = "Read account consent by given consent id.")
     @ApiResponses(value = {
@@ -65,6 +75,36 @@ public class AisConsentController {
                    .orElseGet(() -> new ResponseEntity<>(HttpStatus.NO_CONTENT));
     }
 
+    @PostMapping(path = "/bulk")
+    @ApiOperation(value = "Read account consents by given consent ids. Unknown consents are omitted from the response.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = AisAccountConsentsResponse.class)})
+    public ResponseEntity<AisAccountConsentsResponse> getConsentsByIds(@RequestBody List<String> consentIds) {
+        return new ResponseEntity<>(new AisAccountConsentsResponse(aisConsentService.getAisAccountConsentsByIds(consentIds)), HttpStatus.OK);
+    }
+
+    @PostMapping(path = "/bulk/status")
+    @ApiOperation(value = "Read statuses of account consents by given consent ids. Unknown consents are omitted from the response.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = AisConsentStatusesResponse.class)})
+    public ResponseEntity<AisConsentStatusesResponse> getConsentStatusesByIds(@RequestBody List<String> consentIds) {
+        return new ResponseEntity<>(new AisConsentStatusesResponse(aisConsentService.getConsentStatusesByIds(consentIds)), HttpStatus.OK);
+    }
+
+    @PostMapping(path = "/{consent-id}/usage")
+    @ApiOperation(value = "Authorise access to the account with the consent identified by given consent id and count the usage of the consent.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = AisConsentUsageResponse.class),
+        @ApiResponse(code = 204, message = "No Content")})
+    public ResponseEntity<AisConsentUsageResponse> authoriseConsentUsage(
+        @ApiParam(name = "consent-id", value = "The account consent identification assigned to the created account consent.", example = "bf489af6-a2cb-4b75-b71d-d66d58b934d7")
+        @PathVariable("consent-id") String consentId,
+        @RequestBody AisConsentUsageRequest request) {
+        return aisConsentService.authoriseConsentUsage(consentId, request)
+                   .map(response -> new ResponseEntity<>(response, HttpStatus.OK))
+                   .orElseGet(() -> new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+
     @PutMapping(path = "/{consent-id}/access")
     @ApiOperation(value = "Update AccountAccess in the consent identified by given consent id.")
     @ApiResponses(value = {
@@ -121,6 +161,37 @@ public class AisConsentController {
                    .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    @GetMapping(path = "/{consent-id}/accounts/{account-id}/transaction-cursor")
+    @ApiOperation(value = "Read entry reference of the last transaction reported for the account within the consent.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = AisTransactionCursorInfo.class),
+        @ApiResponse(code = 204, message = "No Content")})
+    public ResponseEntity<AisTransactionCursorInfo> getTransactionCursor(
+        @ApiParam(name = "consent-id", value = "The account consent identification assigned to the created account consent.", example = "bf489af6-a2cb-4b75-b71d-d66d58b934d7")
+        @PathVariable("consent-id") String consentId,
+        @ApiParam(name = "account-id", value = "The account identification used in the transaction report request.", example = "11111-999999999")
+        @PathVariable("account-id") String accountId) {
+        return aisConsentService.getTransactionCursor(consentId, accountId)
+                   .map(entryReference -> new ResponseEntity<>(new AisTransactionCursorInfo(entryReference), HttpStatus.OK))
+                   .orElseGet(() -> new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+
+    @PutMapping(path = "/{consent-id}/accounts/{account-id}/transaction-cursor")
+    @ApiOperation(value = "Update entry reference of the last transaction reported for the account within the consent.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK"),
+        @ApiResponse(code = 404, message = "Not Found")})
+    public ResponseEntity<AisTransactionCursorInfo> updateTransactionCursor(
+        @ApiParam(name = "consent-id", value = "The account consent identification assigned to the created account consent.", example = "bf489af6-a2cb-4b75-b71d-d66d58b934d7")
+        @PathVariable("consent-id") String consentId,
+        @ApiParam(name = "account-id", value = "The account identification used in the transaction report request.", example = "11111-999999999")
+        @PathVariable("account-id") String accountId,
+        @RequestBody AisTransactionCursorInfo request) {
+        return aisConsentService.updateTransactionCursor(consentId, accountId, request.getEntryReference())
+                   .map(entryReference -> new ResponseEntity<>(new AisTransactionCursorInfo(entryReference), HttpStatus.OK))
+                   .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
     @PostMapping(path = "/{consent-id}/authorizations")
     @ApiOperation(value = "Create consent authorization for given consent id.")
     @ApiResponses(value = {
@@ -18,6 +18,7 @@ package de.adorsys.aspsp.xs2a.web;
 
 import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
 import de.adorsys.aspsp.xs2a.consent.api.PisConsentStatusResponse;
+import de.adorsys.aspsp.xs2a.consent.api.PisConsentStatusesResponse;
 import de.adorsys.aspsp.xs2a.consent.api.pis.authorisation.CreatePisConsentAuthorisationResponse;
 import de.adorsys.aspsp.xs2a.consent.api.pis.authorisation.GetPisConsentAuthorisationResponse;
 import de.adorsys.aspsp.xs2a.consent.api.pis.authorisation.UpdatePisConsentPsuDataRequest;
@@ -25,6 +26,7 @@ import de.adorsys.aspsp.xs2a.consent.api.pis.authorisation.UpdatePisConsentPsuDa
 import de.adorsys.aspsp.xs2a.consent.api.pis.proto.CreatePisConsentResponse;
 import de.adorsys.aspsp.xs2a.consent.api.pis.proto.PisConsentRequest;
 import de.adorsys.aspsp.xs2a.consent.api.pis.proto.PisConsentResponse;
+import de.adorsys.aspsp.xs2a.consent.api.pis.proto.PisConsentsResponse;
 import de.adorsys.aspsp.xs2a.service.PisConsentService;
 import io.swagger.annotations.*;
 import lombok.RequiredArgsConstructor;
@@ -32,6 +34,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "api/v1/pis/consent")
@@ -75,6 +79,22 @@ public class PisConsentController {
                    .orElse(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
     }
 
+    @PostMapping(path = "/bulk")
+    @ApiOperation(value = "Read payment consents by given consent ids. Unknown consents are omitted from the response.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = PisConsentsResponse.class)})
+    public ResponseEntity<PisConsentsResponse> getConsentsByIds(@RequestBody List<String> consentIds) {
+        return new ResponseEntity<>(new PisConsentsResponse(pisConsentService.getConsentsByIds(consentIds)), HttpStatus.OK);
+    }
+
+    @PostMapping(path = "/bulk/status")
+    @ApiOperation(value = "Read statuses of payment consents by given consent ids. Unknown consents are omitted from the response.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = PisConsentStatusesResponse.class)})
+    public ResponseEntity<PisConsentStatusesResponse> getConsentStatusesByIds(@RequestBody List<String> consentIds) {
+        return new ResponseEntity<>(new PisConsentStatusesResponse(pisConsentService.getConsentStatusesByIds(consentIds)), HttpStatus.OK);
+    }
+
     @PutMapping(path = "/{consent-id}/status/{status}")
     @ApiOperation(value = "")
     @ApiResponses(value = {
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.repository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Stress test of the conditional usage counter update of {@link AisConsentRepository#decrementUsageCounter}:
+ * concurrent usages of one consent must be granted exactly as many times as the counter allows.
+ * Runs against a PostgreSQL database migrated with liquibase, given by the same system properties as
+ * {@link CmsSchemaQueryPlanTest}, and is skipped if no database is given. Achieved throughput is logged.
+ */
+public class AisConsentUsageCounterConcurrencyTest {
+    private static final String DECREMENT_USAGE_COUNTER = "UPDATE ais_consent SET usage_counter = usage_counter - 1, last_action_date = ? " +
+                                                              "WHERE external_id = ? AND usage_counter > 0";
+    private static final int USAGE_COUNTER = 500;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+
+    private String url;
+    private String externalId;
+
+    @Before
+    public void setUp() throws Exception {
+        url = System.getProperty("cms.schema-test.url");
+        assumeTrue(url != null);
+        externalId = UUID.randomUUID().toString();
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement(
+                 "INSERT INTO ais_consent (id, external_id, recurring_indicator, tpp_redirect_preferred, combined_service_indicator, " +
+                     "request_date_time, expire_date, tpp_id, consent_status, consent_type, expected_frequency_per_day, " +
+                     "tpp_frequency_per_day, usage_counter, ais_consent_request_type) " +
+                     "VALUES (nextval('ais_consent_id_seq'), ?, true, false, false, ?, ?, 'tpp-id', 'VALID', 'AIS', ?, ?, ?, 'GLOBAL')")) {
+            statement.setString(1, externalId);
+            statement.setBytes(2, serialize(LocalDateTime.now()));
+            statement.setBytes(3, serialize(LocalDate.now().plusDays(1)));
+            statement.setInt(4, USAGE_COUNTER);
+            statement.setInt(5, USAGE_COUNTER);
+            statement.setInt(6, USAGE_COUNTER);
+            statement.executeUpdate();
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        if (externalId != null) {
+            try (Connection connection = connect();
+                 PreparedStatement statement = connection.prepareStatement("DELETE FROM ais_consent WHERE external_id = ?")) {
+                statement.setString(1, externalId);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    @Test
+    public void decrementUsageCounter_grantsExactlyAvailableUsages() throws Exception {
+        //Given:
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            workers.add(executor.submit(() -> {
+                try (Connection connection = connect();
+                     PreparedStatement statement = connection.prepareStatement(DECREMENT_USAGE_COUNTER)) {
+                    start.await();
+                    for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                        statement.setBytes(1, serialize(LocalDate.now()));
+                        statement.setString(2, externalId);
+                        granted.addAndGet(statement.executeUpdate());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        //When:
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        long durationNs = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        //Then:
+        assertThat(granted.get()).isEqualTo(USAGE_COUNTER);
+        assertThat(readUsageCounter()).isEqualTo(0);
+        System.out.printf("%d usage updates in %d ms, %.0f updates/s%n", THREADS * ATTEMPTS_PER_THREAD, durationNs / 1_000_000,
+            THREADS * ATTEMPTS_PER_THREAD * 1e9 / durationNs);
+    }
+
+    private int readUsageCounter() throws SQLException {
+        try (Connection connection = connect();
+             PreparedStatement statement = connection.prepareStatement("SELECT usage_counter FROM ais_consent WHERE external_id = ?")) {
+            statement.setString(1, externalId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, System.getProperty("cms.schema-test.username"), System.getProperty("cms.schema-test.password"));
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.repository;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks that lookups done by CMS on every request are served by indexes of the schema created by cms-db-schema.
+ * Runs against a PostgreSQL database migrated with liquibase, given by system properties, e.g.
+ * <pre>
+ * mvn test -Dtest=CmsSchemaQueryPlanTest -Dcms.schema-test.url=jdbc:postgresql://localhost/consent?currentSchema=consent
+ *     -Dcms.schema-test.username=cms -Dcms.schema-test.password=cms
+ * </pre>
+ * and is skipped if no database is given. Sequential scans are disabled for the session, so that the planner
+ * chooses an index whenever one is usable, independent of the amount of test data.
+ */
+public class CmsSchemaQueryPlanTest {
+    private static final String URL_PROPERTY = "cms.schema-test.url";
+
+    private static Connection connection;
+
+    @BeforeClass
+    public static void connect() throws SQLException {
+        String url = System.getProperty(URL_PROPERTY);
+        assumeTrue(url != null);
+        connection = DriverManager.getConnection(url, System.getProperty("cms.schema-test.username"), System.getProperty("cms.schema-test.password"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterClass
+    public static void disconnect() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void aisConsent_findByExternalId() throws SQLException {
+        assertIndexScan("SELECT * FROM ais_consent WHERE external_id = 'consent-id'");
+    }
+
+    @Test
+    public void aisConsent_findByExternalIdAndConsentStatusIn() throws SQLException {
+        assertIndexScan("SELECT * FROM ais_consent WHERE external_id = 'consent-id' AND consent_status IN ('RECEIVED', 'VALID')");
+    }
+
+    @Test
+    public void pisConsent_findByExternalId() throws SQLException {
+        assertIndexScan("SELECT * FROM pis_consent WHERE external_id = 'consent-id'");
+    }
+
+    @Test
+    public void pisConsent_findByExternalIdAndConsentStatusIn() throws SQLException {
+        assertIndexScan("SELECT * FROM pis_consent WHERE external_id = 'consent-id' AND consent_status IN ('RECEIVED', 'VALID')");
+    }
+
+    @Test
+    public void aisConsentAuthorization_findByExternalId() throws SQLException {
+        assertIndexScan("SELECT * FROM ais_consent_authorization WHERE external_id = 'authorization-id'");
+    }
+
+    @Test
+    public void pisConsentAuthorization_findByExternalId() throws SQLException {
+        assertIndexScan("SELECT * FROM pis_consent_authorization WHERE external_id = 'authorization-id'");
+    }
+
+    @Test
+    public void pisPaymentData_findByPaymentIdAndConsentStatus() throws SQLException {
+        assertIndexScan("SELECT p.* FROM pis_payment_data p JOIN pis_consent c ON p.consent_id = c.id " +
+                            "WHERE p.payment_id = 'payment-id' AND c.consent_status = 'VALID'");
+    }
+
+    @Test
+    public void aisConsent_findIdsByConsentStatusIn() throws SQLException {
+        assertIndexScan("SELECT id FROM ais_consent WHERE consent_status IN ('RECEIVED', 'VALID') AND id > 0 ORDER BY id LIMIT 1000");
+    }
+
+    @Test
+    public void aisAccountAccess_findByConsentId() throws SQLException {
+        assertIndexScan("SELECT * FROM ais_account_access WHERE consent_id = 1");
+    }
+
+    private void assertIndexScan(String query) throws SQLException {
+        String plan = String.join("\n", explain(query));
+        assertThat(plan).as("Plan of %s", query)
+            .contains("Index")
+            .doesNotContain("Seq Scan");
+    }
+
+    private List<String> explain(String query) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + query)) {
+            while (resultSet.next()) {
+                plan.add(resultSet.getString(1));
+            }
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.repository;
+
+import de.adorsys.aspsp.xs2a.domain.SchedulerLock;
+import org.hibernate.SessionFactory;
+import org.hibernate.type.TimestampType;
+import org.junit.Test;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that temporal columns used in comparisons by the database are mapped to SQL temporal types and not serialized.
+ */
+public class CmsTemporalMappingTest {
+
+    @Test
+    public void schedulerLock_lockedUntilIsMappedAsTimestamp() {
+        //Given:
+        EntityManagerFactory entityManagerFactory = CmsTestDatabase.createMappingOnlyEntityManagerFactory();
+        try {
+            //When:
+            Object type = entityManagerFactory.unwrap(SessionFactory.class)
+                              .getClassMetadata(SchedulerLock.class)
+                              .getPropertyType("lockedUntil");
+            //Then:
+            assertThat(type).isInstanceOf(TimestampType.class);
+        } finally {
+            entityManagerFactory.close();
+        }
+    }
+}
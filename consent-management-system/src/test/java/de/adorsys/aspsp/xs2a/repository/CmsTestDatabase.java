@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.repository;
+
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Properties;
+
+/**
+ * Entity manager factory of the database tests, mapped like the CMS application and with Hibernate statistics enabled.
+ * The database is given by the system properties cms.schema-test.url, cms.schema-test.username and cms.schema-test.password.
+ */
+final class CmsTestDatabase {
+    private CmsTestDatabase() {
+    }
+
+    static EntityManagerFactory createEntityManagerFactory(String url) {
+        return createEntityManagerFactory(url, new Properties());
+    }
+
+    /**
+     * Creates entity manager factory without connecting to a database, to check entity mappings only
+     */
+    static EntityManagerFactory createMappingOnlyEntityManagerFactory() {
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQL94Dialect");
+        properties.setProperty("hibernate.temp.use_jdbc_metadata_defaults", "false");
+        return createEntityManagerFactory("jdbc:postgresql://localhost/mapping-only", properties);
+    }
+
+    private static EntityManagerFactory createEntityManagerFactory(String url, Properties properties) {
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(new DriverManagerDataSource(url, System.getProperty("cms.schema-test.username"), System.getProperty("cms.schema-test.password")));
+        factoryBean.setPackagesToScan("de.adorsys.aspsp.xs2a.domain");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        properties.setProperty("hibernate.generate_statistics", "true");
+        properties.setProperty("hibernate.id.new_generator_mappings", "false");
+        properties.setProperty("hibernate.implicit_naming_strategy", "org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy");
+        properties.setProperty("hibernate.physical_naming_strategy", "org.springframework.boot.orm.jpa.hibernate.SpringPhysicalNamingStrategy");
+        factoryBean.setJpaProperties(properties);
+        factoryBean.afterPropertiesSet();
+        return factoryBean.getObject();
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.repository;
+
+import de.adorsys.aspsp.xs2a.consent.api.*;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountConsent;
+import de.adorsys.aspsp.xs2a.consent.api.pis.PisPayment;
+import de.adorsys.aspsp.xs2a.consent.api.pis.PisPaymentProduct;
+import de.adorsys.aspsp.xs2a.consent.api.pis.PisPaymentType;
+import de.adorsys.aspsp.xs2a.consent.api.pis.authorisation.GetPisConsentAuthorisationResponse;
+import de.adorsys.aspsp.xs2a.consent.api.pis.proto.PisConsentRequest;
+import de.adorsys.aspsp.xs2a.consent.api.pis.proto.PisConsentResponse;
+import de.adorsys.aspsp.xs2a.domain.AccountAccess;
+import de.adorsys.aspsp.xs2a.domain.AisConsent;
+import de.adorsys.aspsp.xs2a.service.AisConsentService;
+import de.adorsys.aspsp.xs2a.service.PisConsentService;
+import de.adorsys.aspsp.xs2a.service.cache.ConsentReadCache;
+import de.adorsys.aspsp.xs2a.service.mapper.AisConsentMapper;
+import de.adorsys.aspsp.xs2a.service.mapper.PisConsentMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Caps the number of SQL statements issued by CMS consent reads, so that fetch plans of the repositories do not
+ * silently fall back to lazy loading of associations row by row. Statements are counted by Hibernate statistics.
+ * Runs against a PostgreSQL database migrated with liquibase, given by the same system properties as
+ * {@link CmsSchemaQueryPlanTest}, and is skipped if no database is given.
+ */
+@Slf4j
+public class ConsentFetchPlanStatisticsTest {
+    private static final int PAYMENTS = 500;
+    private static final int BULK_CONSENTS = 10000;
+    private static final int LOAD_CHUNK_SIZE = 1000;
+    private static final String TPP_ID = "fetch-plan-tpp";
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static TransactionTemplate transactionTemplate;
+    private static Statistics statistics;
+    private static AisConsentRepository aisConsentRepository;
+    private static PisConsentAuthorizationRepository pisConsentAuthorizationRepository;
+    private static AisConsentService aisConsentService;
+    private static PisConsentService pisConsentService;
+
+    private static String aisConsentId;
+    private static String pisConsentId;
+    private static String pisAuthorizationId;
+
+    @BeforeClass
+    public static void setUp() {
+        String url = System.getProperty("cms.schema-test.url");
+        assumeTrue(url != null);
+        entityManagerFactory = CmsTestDatabase.createEntityManagerFactory(url);
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory));
+        aisConsentRepository = repositoryFactory.getRepository(AisConsentRepository.class);
+        pisConsentAuthorizationRepository = repositoryFactory.getRepository(PisConsentAuthorizationRepository.class);
+        aisConsentService = new AisConsentService(aisConsentRepository, repositoryFactory.getRepository(AisConsentActionRepository.class),
+            repositoryFactory.getRepository(AisConsentAuthorizationRepository.class), repositoryFactory.getRepository(AisTransactionCursorRepository.class),
+            new AisConsentMapper(), null, new ConsentReadCache<>("ais-consent", 0, 1, LOAD_CHUNK_SIZE, null));
+        pisConsentService = new PisConsentService(repositoryFactory.getRepository(PisConsentRepository.class), new PisConsentMapper(),
+            pisConsentAuthorizationRepository, repositoryFactory.getRepository(PisPaymentDataRepository.class), new ConsentReadCache<>("pis-consent", 0, 1, LOAD_CHUNK_SIZE, null));
+
+        aisConsentId = inTransaction(() -> aisConsentRepository.save(buildAisConsent()).getExternalId());
+        PisConsentRequest pisConsentRequest = buildPisConsentRequest();
+        pisConsentId = inTransaction(() -> pisConsentService.createPaymentConsent(pisConsentRequest).get().getConsentId());
+        pisAuthorizationId = inTransaction(() -> pisConsentService.createAuthorization(pisConsentRequest.getPayments().get(0).getPaymentId()).get().getAuthorizationId());
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (entityManagerFactory != null) {
+            inTransaction(() -> {
+                aisConsentRepository.findByExternalId(aisConsentId).ifPresent(aisConsentRepository::delete);
+                pisConsentAuthorizationRepository.findByExternalId(pisAuthorizationId).ifPresent(pisConsentAuthorizationRepository::delete);
+                return null;
+            });
+            entityManagerFactory.close();
+        }
+    }
+
+    @Before
+    public void clearStatistics() {
+        statistics.clear();
+    }
+
+    @Test
+    public void getAisAccountConsentById_readsConsentWithAccessesInOneStatement() {
+        //When:
+        Optional<AisAccountConsent> consent = inTransaction(() -> aisConsentService.getAisAccountConsentById(aisConsentId));
+
+        //Then:
+        assertThat(consent.get().getAccess().getAccounts()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getConsentById_readsBulkPaymentConsentInOneStatement() {
+        //When:
+        Optional<PisConsentResponse> consent = inTransaction(() -> pisConsentService.getConsentById(pisConsentId));
+
+        //Then:
+        assertThat(consent.get().getPayments()).hasSize(PAYMENTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getPisConsentAuthorizationById_readsPaymentsInOneStatement() {
+        //When:
+        Optional<GetPisConsentAuthorisationResponse> authorization = inTransaction(() -> pisConsentService.getPisConsentAuthorizationById(pisAuthorizationId));
+
+        //Then:
+        assertThat(authorization.get().getPayments()).hasSize(PAYMENTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getConsentStatusesByIds_readsConsentsInChunks() {
+        //Given:
+        List<AisConsent> consents = IntStream.range(0, BULK_CONSENTS)
+                                        .mapToObj(i -> buildAisConsent())
+                                        .collect(Collectors.toList());
+        inTransaction(() -> aisConsentRepository.save(consents));
+        List<String> consentIds = consents.stream()
+                                      .map(AisConsent::getExternalId)
+                                      .collect(Collectors.toList());
+        statistics.clear();
+        try {
+            //When:
+            long start = System.currentTimeMillis();
+            Map<String, CmsConsentStatus> statuses = inTransaction(() -> aisConsentService.getConsentStatusesByIds(consentIds));
+            log.info("Read statuses of {} consents in {} ms", BULK_CONSENTS, System.currentTimeMillis() - start);
+
+            //Then:
+            assertThat(statuses).hasSize(BULK_CONSENTS);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(BULK_CONSENTS / LOAD_CHUNK_SIZE);
+        } finally {
+            inTransaction(() -> {
+                aisConsentRepository.delete(aisConsentRepository.findWithAccessesByExternalIdIn(consentIds));
+                return null;
+            });
+        }
+    }
+
+    private static <T> T inTransaction(Supplier<T> action) {
+        return transactionTemplate.execute(status -> action.get());
+    }
+
+    private static AisConsent buildAisConsent() {
+        AisConsent consent = new AisConsent();
+        consent.setExternalId(UUID.randomUUID().toString());
+        consent.setRequestDateTime(LocalDateTime.now());
+        consent.setExpireDate(LocalDate.now().plusDays(1));
+        consent.setTppId(TPP_ID);
+        consent.setConsentStatus(CmsConsentStatus.VALID);
+        consent.setExpectedFrequencyPerDay(4);
+        consent.setTppFrequencyPerDay(4);
+        consent.setUsageCounter(4);
+        consent.setAisConsentRequestType(AisConsentRequestType.DEDICATED_ACCOUNTS);
+        consent.addAccountAccess(new HashSet<>(Arrays.asList(
+            new AccountAccess("DE89370400440532013000", Currency.getInstance("EUR"), TypeAccess.ACCOUNT),
+            new AccountAccess("DE89370400440532013001", Currency.getInstance("EUR"), TypeAccess.ACCOUNT),
+            new AccountAccess("DE89370400440532013000", Currency.getInstance("EUR"), TypeAccess.BALANCE))));
+        return consent;
+    }
+
+    private static PisConsentRequest buildPisConsentRequest() {
+        CmsTppInfo tppInfo = new CmsTppInfo();
+        tppInfo.setRegistrationNumber("registration-number");
+        tppInfo.setTppName(TPP_ID);
+        tppInfo.setTppRole("PISP");
+        tppInfo.setNationalCompetentAuthority("authority");
+        tppInfo.setRedirectUri("redirect-uri");
+        tppInfo.setNokRedirectUri("nok-redirect-uri");
+
+        PisConsentRequest request = new PisConsentRequest();
+        request.setPayments(IntStream.range(0, PAYMENTS)
+                                .mapToObj(i -> buildPayment())
+                                .collect(Collectors.toList()));
+        request.setPaymentProduct(PisPaymentProduct.SCT);
+        request.setPaymentType(PisPaymentType.BULK);
+        request.setTppInfo(tppInfo);
+        return request;
+    }
+
+    private static PisPayment buildPayment() {
+        CmsAddress address = new CmsAddress();
+        address.setStreet("Herrnstraße");
+        address.setBuildingNumber("123-34");
+        address.setCity("Nürnberg");
+        address.setPostalCode("90431");
+        address.setCountry("DE");
+
+        CmsRemittance remittance = new CmsRemittance();
+        remittance.setReference("reference");
+        remittance.setReferenceType("type");
+        remittance.setReferenceIssuer("issuer");
+
+        PisPayment payment = new PisPayment();
+        payment.setPaymentId(UUID.randomUUID().toString());
+        payment.setDebtorAccount(new CmsAccountReference("DE89370400440532013000", Currency.getInstance("EUR")));
+        payment.setUltimateDebtor("Mueller");
+        payment.setCurrency(Currency.getInstance("EUR"));
+        payment.setAmount(BigDecimal.TEN);
+        payment.setCreditorAccount(new CmsAccountReference("DE89370400440532013001", Currency.getInstance("EUR")));
+        payment.setCreditorAgent("Telekom");
+        payment.setCreditorName("Telekom");
+        payment.setCreditorAddress(address);
+        payment.setRemittanceInformationStructured(remittance);
+        payment.setRequestedExecutionDate(LocalDate.now());
+        payment.setRequestedExecutionTime(LocalDateTime.now());
+        return payment;
+    }
+}
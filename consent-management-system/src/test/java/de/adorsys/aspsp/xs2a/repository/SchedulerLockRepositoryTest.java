@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.repository;
+
+import de.adorsys.aspsp.xs2a.service.SchedulerLockService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Acquires and releases scheduler locks on the TIMESTAMP column of scheduler_lock table.
+ * Runs against a PostgreSQL database migrated with liquibase, given by the same system properties as
+ * {@link CmsSchemaQueryPlanTest}, and is skipped if no database is given.
+ */
+public class SchedulerLockRepositoryTest {
+    private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(10);
+
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transactionTemplate;
+    private SchedulerLockRepository schedulerLockRepository;
+    private SchedulerLockService schedulerLockService;
+    private String lockName;
+
+    @Before
+    public void setUp() {
+        String url = System.getProperty("cms.schema-test.url");
+        assumeTrue(url != null);
+        entityManagerFactory = CmsTestDatabase.createEntityManagerFactory(url);
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        schedulerLockRepository = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory))
+                                      .getRepository(SchedulerLockRepository.class);
+        schedulerLockService = new SchedulerLockService(schedulerLockRepository);
+        lockName = "test-lock-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @After
+    public void tearDown() {
+        if (entityManagerFactory != null) {
+            inTransaction(() -> {
+                if (schedulerLockRepository.exists(lockName)) {
+                    schedulerLockRepository.delete(lockName);
+                }
+                return null;
+            });
+            entityManagerFactory.close();
+        }
+    }
+
+    @Test
+    public void tryLock_createsAcquiresAndReleasesLock() {
+        //When:
+        boolean created = inTransaction(() -> schedulerLockService.tryLock(lockName, LOCK_AT_MOST_FOR));
+        boolean acquiredWhileHeld = inTransaction(() -> schedulerLockService.tryLock(lockName, LOCK_AT_MOST_FOR));
+        inTransaction(() -> {
+            schedulerLockService.unlock(lockName);
+            return null;
+        });
+        boolean acquiredAfterRelease = inTransaction(() -> schedulerLockService.tryLock(lockName, LOCK_AT_MOST_FOR));
+        //Then:
+        assertThat(created).isTrue();
+        assertThat(acquiredWhileHeld).isFalse();
+        assertThat(acquiredAfterRelease).isTrue();
+        assertThat(schedulerLockRepository.findOne(lockName).getLockedUntil()).isAfter(new Date());
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return transactionTemplate.execute(status -> action.get());
+    }
+}
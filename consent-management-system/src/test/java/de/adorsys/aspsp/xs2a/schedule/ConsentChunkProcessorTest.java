@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.schedule;
+
+import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
+import de.adorsys.aspsp.xs2a.domain.AisConsent;
+import de.adorsys.aspsp.xs2a.domain.profile.AspspSettings;
+import de.adorsys.aspsp.xs2a.repository.AisConsentRepository;
+import de.adorsys.aspsp.xs2a.service.AspspProfileService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConsentChunkProcessorTest {
+    private static final Set<CmsConsentStatus> STATUSES = EnumSet.of(CmsConsentStatus.RECEIVED, CmsConsentStatus.VALID);
+
+    @Mock
+    private AisConsentRepository aisConsentRepository;
+    @Mock
+    private AspspProfileService profileService;
+    @InjectMocks
+    private ConsentChunkProcessor consentChunkProcessor;
+
+    private final AspspSettings aspspSettings = new AspspSettings(5, false, Collections.emptyList(), Collections.emptyList(), false,
+        null, null, null, false, Collections.emptyList(), Collections.emptyList(), 0, 0, false, null);
+
+    @Test
+    public void process_expiresOutdatedConsentLikeOnAccess() {
+        //Given:
+        AisConsent outdated = getConsent(LocalDate.now().minusDays(2));
+        AisConsent actual = getConsent(LocalDate.now().plusDays(2));
+        List<Long> consentIds = Arrays.asList(1L, 2L);
+        when(aisConsentRepository.findByIdIn(consentIds)).thenReturn(Arrays.asList(outdated, actual));
+        when(profileService.getMinFrequencyPerDay(anyInt(), eq(aspspSettings))).thenReturn(4);
+        //When:
+        ConsentChunkResult result = consentChunkProcessor.process(consentIds, aspspSettings);
+        //Then:
+        assertThat(result.getExpirations()).isEqualTo(1);
+        assertThat(outdated.getConsentStatus()).isEqualTo(CmsConsentStatus.EXPIRED);
+        assertThat(outdated.getExpireDate()).isEqualTo(LocalDate.now());
+        assertThat(outdated.getLastActionDate()).isEqualTo(LocalDate.now());
+        assertThat(actual.getConsentStatus()).isEqualTo(CmsConsentStatus.VALID);
+        assertThat(actual.getExpireDate()).isEqualTo(LocalDate.now().plusDays(2));
+        assertThat(actual.getUsageCounter()).isEqualTo(4);
+    }
+
+    @Test
+    public void processSetBased_expiresWithCurrentDate() {
+        //Given:
+        List<Long> consentIds = Arrays.asList(1L, 5L);
+        when(aisConsentRepository.expireByDate(STATUSES, 1L, 5L, LocalDate.now(), CmsConsentStatus.EXPIRED)).thenReturn(1);
+        //When:
+        ConsentChunkResult result = consentChunkProcessor.processSetBased(consentIds, STATUSES, aspspSettings);
+        //Then:
+        assertThat(result.getExpirations()).isEqualTo(1);
+        verify(aisConsentRepository).resetUsageCounters(STATUSES, 1L, 5L, 5);
+    }
+
+    private AisConsent getConsent(LocalDate expireDate) {
+        AisConsent consent = new AisConsent();
+        consent.setConsentStatus(CmsConsentStatus.VALID);
+        consent.setExpireDate(expireDate);
+        consent.setLastActionDate(LocalDate.now().minusDays(3));
+        return consent;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.schedule;
+
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountConsent;
+import de.adorsys.aspsp.xs2a.domain.profile.AspspSettings;
+import de.adorsys.aspsp.xs2a.repository.AisConsentRepository;
+import de.adorsys.aspsp.xs2a.service.AspspProfileService;
+import de.adorsys.aspsp.xs2a.service.SchedulerLockService;
+import de.adorsys.aspsp.xs2a.service.cache.ConsentReadCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConsentScheduleTaskTest {
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private AisConsentRepository aisConsentRepository;
+    @Mock
+    private AspspProfileService profileService;
+    @Mock
+    private ConsentChunkProcessor consentChunkProcessor;
+    @Mock
+    private SchedulerLockService schedulerLockService;
+    @Mock
+    private ConsentReadCache<AisAccountConsent> aisConsentReadCache;
+    private final AspspSettings aspspSettings = new AspspSettings(5, false, Collections.emptyList(), Collections.emptyList(), false,
+        null, null, null, false, Collections.emptyList(), Collections.emptyList(), 0, 0, false, null);
+
+    private ConsentScheduleTask consentScheduleTask;
+
+    @Before
+    public void setUp() {
+        consentScheduleTask = getTask(ConsentMaintenanceMode.ENTITY);
+        when(profileService.getAspspSettings()).thenReturn(aspspSettings);
+    }
+
+    @Test
+    public void checkConsentStatus_processesKeysetChunks() {
+        //Given:
+        when(schedulerLockService.tryLock(eq(ConsentScheduleTask.LOCK_NAME), any(Duration.class))).thenReturn(true);
+        when(aisConsentRepository.findIdsByConsentStatusIn(any(Set.class), eq(0L), any(Pageable.class))).thenReturn(Arrays.asList(1L, 2L));
+        when(aisConsentRepository.findIdsByConsentStatusIn(any(Set.class), eq(2L), any(Pageable.class))).thenReturn(Collections.singletonList(5L));
+        when(aisConsentRepository.findIdsByConsentStatusIn(any(Set.class), eq(5L), any(Pageable.class))).thenReturn(Collections.emptyList());
+        when(consentChunkProcessor.process(Arrays.asList(1L, 2L), aspspSettings)).thenReturn(new ConsentChunkResult(2, 2, 0));
+        when(consentChunkProcessor.process(Collections.singletonList(5L), aspspSettings)).thenReturn(new ConsentChunkResult(1, 1, 1));
+        //When:
+        consentScheduleTask.checkConsentStatus();
+        //Then:
+        verify(profileService, times(1)).getAspspSettings();
+        verify(consentChunkProcessor).process(Arrays.asList(1L, 2L), aspspSettings);
+        verify(consentChunkProcessor).process(Collections.singletonList(5L), aspspSettings);
+        verify(schedulerLockService).unlock(ConsentScheduleTask.LOCK_NAME);
+        verify(aisConsentReadCache).invalidateAll();
+        assertThat(consentScheduleTask.metrics().stream()
+                       .anyMatch(m -> m.getName().equals("consent-job.last.processed") && m.getValue().longValue() == 3)).isTrue();
+    }
+
+    @Test
+    public void checkConsentStatus_setBasedUpdatesIdRanges() {
+        //Given:
+        consentScheduleTask = getTask(ConsentMaintenanceMode.SET_BASED);
+        when(schedulerLockService.tryLock(eq(ConsentScheduleTask.LOCK_NAME), any(Duration.class))).thenReturn(true);
+        when(aisConsentRepository.findIdsByConsentStatusIn(any(Set.class), eq(0L), any(Pageable.class))).thenReturn(Arrays.asList(1L, 2L));
+        when(aisConsentRepository.findIdsByConsentStatusIn(any(Set.class), eq(2L), any(Pageable.class))).thenReturn(Collections.emptyList());
+        when(consentChunkProcessor.processSetBased(eq(Arrays.asList(1L, 2L)), any(Set.class), eq(aspspSettings))).thenReturn(new ConsentChunkResult(2, 1, 1));
+        //When:
+        consentScheduleTask.checkConsentStatus();
+        //Then:
+        verify(consentChunkProcessor, never()).process(anyListOf(Long.class), any(AspspSettings.class));
+        assertThat(consentScheduleTask.metrics().stream()
+                       .anyMatch(m -> m.getName().equals("consent-job.progress.expirations") && m.getValue().longValue() == 1)).isTrue();
+    }
+
+    @Test
+    public void checkConsentStatus_skippedWithoutLock() {
+        //Given:
+        when(schedulerLockService.tryLock(eq(ConsentScheduleTask.LOCK_NAME), any(Duration.class))).thenReturn(false);
+        //When:
+        consentScheduleTask.checkConsentStatus();
+        //Then:
+        verify(aisConsentRepository, never()).findIdsByConsentStatusIn(any(Set.class), anyLong(), any(Pageable.class));
+        verify(schedulerLockService, never()).unlock(anyString());
+    }
+
+    private ConsentScheduleTask getTask(ConsentMaintenanceMode mode) {
+        return new ConsentScheduleTask(aisConsentRepository, profileService, consentChunkProcessor, schedulerLockService, aisConsentReadCache, CHUNK_SIZE, 2, 60000, mode);
+    }
+}
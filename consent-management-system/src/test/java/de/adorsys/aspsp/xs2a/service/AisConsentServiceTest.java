@@ -17,23 +17,42 @@
 package de.adorsys.aspsp.xs2a.service;
 
 import de.adorsys.aspsp.xs2a.consent.api.AccountInfo;
+import de.adorsys.aspsp.xs2a.consent.api.ActionStatus;
+import de.adorsys.aspsp.xs2a.consent.api.CmsAccountReference;
+import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
+import de.adorsys.aspsp.xs2a.consent.api.ConsentActionRequest;
+import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
 import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountAccessInfo;
 import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountConsent;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentUsageDecision;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentUsageRequest;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentUsageResponse;
 import de.adorsys.aspsp.xs2a.consent.api.ais.CreateAisConsentRequest;
 import de.adorsys.aspsp.xs2a.consent.api.ais.UpdateAisConsentAspspDataRequest;
+import de.adorsys.aspsp.xs2a.domain.AccountAccess;
 import de.adorsys.aspsp.xs2a.domain.AisConsent;
+import de.adorsys.aspsp.xs2a.domain.AisConsentAction;
+import de.adorsys.aspsp.xs2a.domain.AisTransactionCursor;
+import de.adorsys.aspsp.xs2a.domain.ConsentStatusView;
+import de.adorsys.aspsp.xs2a.repository.AisConsentActionRepository;
 import de.adorsys.aspsp.xs2a.repository.AisConsentRepository;
+import de.adorsys.aspsp.xs2a.repository.AisTransactionCursorRepository;
+import de.adorsys.aspsp.xs2a.service.cache.ConsentReadCache;
 import de.adorsys.aspsp.xs2a.service.mapper.AisConsentMapper;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.time.LocalDate;
 import java.util.*;
 
+import static de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus.EXPIRED;
 import static de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus.RECEIVED;
 import static de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus.VALID;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -43,6 +62,10 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -55,12 +78,25 @@ public class AisConsentServiceTest {
     private AisConsentMapper consentMapper;
     @Mock
     private AisConsentRepository aisConsentRepository;
+    @Mock
+    private AisConsentActionRepository aisConsentActionRepository;
+    @Mock
+    private AisTransactionCursorRepository aisTransactionCursorRepository;
+    @Spy
+    private ConsentReadCache<AisAccountConsent> aisConsentReadCache = new ConsentReadCache<>("ais-consent", 100, 60000, 1000, null);
+    @Captor
+    private ArgumentCaptor<List<AisConsentAction>> actionsCaptor;
 
 
     private AisConsent aisConsent;
     private final long CONSENT_ID = 1;
     private final String EXTERNAL_CONSENT_ID = "4b112130-6a96-4941-a220-2da8a4af2c65";
     private final String EXTERNAL_CONSENT_ID_NOT_EXIST = "4b112130-6a96-4941-a220-2da8a4af2c63";
+    private final String ACCOUNT_ID = "33333-999999999";
+    private final String ENTRY_REFERENCE = "0005";
+    private final String TPP_ID = "tpp-id-1";
+    private final String IBAN = "DE89370400440532013000";
+    private final Currency EUR = Currency.getInstance("EUR");
 
     @Before
     public void setUp() {
@@ -70,7 +106,7 @@ public class AisConsentServiceTest {
     @Test
     public void shouldReturnAisConsent_whenGetConsentByIdIsCalled() {
         // When
-        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.ofNullable(aisConsent));
+        when(aisConsentRepository.findWithAccessesByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.ofNullable(aisConsent));
         when(consentMapper.mapToAisAccountConsent(aisConsent)).thenReturn(buildSpiAccountConsent());
 
         // Then
@@ -81,6 +117,129 @@ public class AisConsentServiceTest {
         assertThat(retrievedConsent.get().getId(), is(equalTo(aisConsent.getId().toString())));
     }
 
+    @Test
+    public void getAisAccountConsentById_readsConsentOnceUntilItIsChanged() {
+        // When
+        when(aisConsentRepository.findWithAccessesByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+        when(aisConsentRepository.findByExternalIdAndConsentStatusIn(EXTERNAL_CONSENT_ID, EnumSet.of(RECEIVED, VALID))).thenReturn(Optional.of(aisConsent));
+        when(aisConsentRepository.save(any(AisConsent.class))).thenReturn(aisConsent);
+        when(consentMapper.mapToAisAccountConsent(aisConsent)).thenReturn(buildSpiAccountConsent());
+
+        // Then
+        aisConsentService.getAisAccountConsentById(EXTERNAL_CONSENT_ID);
+        aisConsentService.getConsentStatusById(EXTERNAL_CONSENT_ID);
+        aisConsentService.updateConsentStatusById(EXTERNAL_CONSENT_ID, CmsConsentStatus.REVOKED_BY_PSU);
+        aisConsentService.getAisAccountConsentById(EXTERNAL_CONSENT_ID);
+
+        // Assert
+        verify(aisConsentRepository, times(2)).findWithAccessesByExternalId(EXTERNAL_CONSENT_ID);
+        verify(aisConsentReadCache).invalidate(EXTERNAL_CONSENT_ID);
+    }
+
+    @Test
+    public void getAisAccountConsentById_keepsConsentCachedOnUsage() {
+        // When
+        aisConsent.setConsentStatus(VALID);
+        aisConsent.setExpireDate(LocalDate.now().plusDays(1));
+        aisConsent.setUsageCounter(5);
+        when(aisConsentRepository.findWithAccessesByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+        when(aisConsentRepository.decrementUsageCounter(eq(EXTERNAL_CONSENT_ID), any(LocalDate.class))).thenReturn(1);
+        when(consentMapper.mapToAisAccountConsent(aisConsent)).thenAnswer(invocation -> new AisConsentMapper().mapToAisAccountConsent(aisConsent));
+        ConsentActionRequest usage = new ConsentActionRequest(TPP_ID, EXTERNAL_CONSENT_ID, ActionStatus.SUCCESS);
+
+        // Then
+        aisConsentService.getAisAccountConsentById(EXTERNAL_CONSENT_ID);
+        aisConsentService.checkConsentAndSaveActionLog(usage);
+        aisConsentService.getAisAccountConsentById(EXTERNAL_CONSENT_ID);
+        aisConsentService.checkConsentAndSaveActionLog(usage);
+        Optional<AisAccountConsent> consent = aisConsentService.getAisAccountConsentById(EXTERNAL_CONSENT_ID);
+
+        // Assert
+        verify(aisConsentRepository, times(1)).findWithAccessesByExternalId(EXTERNAL_CONSENT_ID);
+        verify(aisConsentRepository, times(2)).decrementUsageCounter(eq(EXTERNAL_CONSENT_ID), any(LocalDate.class));
+        verify(aisConsentReadCache, never()).invalidate(EXTERNAL_CONSENT_ID);
+        assertThat(consent.get().getFrequencyPerDay(), is(equalTo(3)));
+        assertThat(consent.get().getLastActionDate(), is(equalTo(LocalDate.now())));
+    }
+
+    @Test
+    public void getAisAccountConsentById_keepsCachedCounterOnRejectedUsage() {
+        // When
+        aisConsent.setConsentStatus(VALID);
+        aisConsent.setExpireDate(LocalDate.now().plusDays(1));
+        aisConsent.setUsageCounter(0);
+        when(aisConsentRepository.findWithAccessesByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+        when(aisConsentRepository.decrementUsageCounter(eq(EXTERNAL_CONSENT_ID), any(LocalDate.class))).thenReturn(0);
+        when(consentMapper.mapToAisAccountConsent(aisConsent)).thenAnswer(invocation -> new AisConsentMapper().mapToAisAccountConsent(aisConsent));
+
+        // Then
+        aisConsentService.getAisAccountConsentById(EXTERNAL_CONSENT_ID);
+        aisConsentService.checkConsentAndSaveActionLog(new ConsentActionRequest(TPP_ID, EXTERNAL_CONSENT_ID, ActionStatus.SUCCESS));
+        Optional<AisAccountConsent> consent = aisConsentService.getAisAccountConsentById(EXTERNAL_CONSENT_ID);
+
+        // Assert
+        verify(aisConsentRepository, times(1)).findWithAccessesByExternalId(EXTERNAL_CONSENT_ID);
+        assertThat(consent.get().getFrequencyPerDay(), is(equalTo(0)));
+    }
+
+    @Test
+    public void getConsentStatusesByIds_readsOnlyConsentsMissingInCache() {
+        // When
+        aisConsent.setConsentStatus(VALID);
+        aisConsent.setExpireDate(LocalDate.now().plusDays(1));
+        when(aisConsentRepository.findWithAccessesByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+        when(aisConsentRepository.findStatusesByExternalIdIn(Collections.singletonList(EXTERNAL_CONSENT_ID_NOT_EXIST))).thenReturn(Collections.emptyList());
+        when(consentMapper.mapToAisAccountConsent(aisConsent)).thenAnswer(invocation -> new AisConsentMapper().mapToAisAccountConsent(aisConsent));
+        aisConsentService.getAisAccountConsentById(EXTERNAL_CONSENT_ID);
+
+        // Then
+        Map<String, CmsConsentStatus> statuses = aisConsentService.getConsentStatusesByIds(Arrays.asList(EXTERNAL_CONSENT_ID, EXTERNAL_CONSENT_ID_NOT_EXIST));
+
+        // Assert
+        assertThat(statuses.size(), is(equalTo(1)));
+        assertThat(statuses.get(EXTERNAL_CONSENT_ID), is(equalTo(VALID)));
+        verify(aisConsentRepository).findStatusesByExternalIdIn(Collections.singletonList(EXTERNAL_CONSENT_ID_NOT_EXIST));
+        verify(aisConsentRepository, never()).findWithAccessesByExternalIdIn(any());
+    }
+
+    @Test
+    public void getConsentStatusesByIds_readsStatusesOfUncachedConsentsWithoutCachingThem() {
+        // When
+        List<String> consentIds = Arrays.asList(EXTERNAL_CONSENT_ID, EXTERNAL_CONSENT_ID_NOT_EXIST);
+        when(aisConsentRepository.findStatusesByExternalIdIn(consentIds)).thenReturn(Arrays.asList(
+            new ConsentStatusView(EXTERNAL_CONSENT_ID, VALID, LocalDate.now().plusDays(1)),
+            new ConsentStatusView(EXTERNAL_CONSENT_ID_NOT_EXIST, VALID, LocalDate.now())));
+
+        // Then
+        Map<String, CmsConsentStatus> statuses = aisConsentService.getConsentStatusesByIds(consentIds);
+        aisConsentService.getConsentStatusesByIds(consentIds);
+
+        // Assert
+        assertThat(statuses.get(EXTERNAL_CONSENT_ID), is(equalTo(VALID)));
+        assertThat(statuses.get(EXTERNAL_CONSENT_ID_NOT_EXIST), is(equalTo(EXPIRED)));
+        verify(aisConsentRepository, times(2)).findStatusesByExternalIdIn(consentIds);
+        verify(aisConsentRepository, never()).findWithAccessesByExternalIdIn(any());
+    }
+
+    @Test
+    public void getConsentStatusById_reportsOutOfDateConsentAsExpiredWithoutSaving() {
+        // When
+        aisConsent.setConsentStatus(VALID);
+        aisConsent.setExpireDate(LocalDate.now().minusDays(1));
+        when(aisConsentRepository.findWithAccessesByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+        when(consentMapper.mapToAisAccountConsent(aisConsent)).thenAnswer(invocation -> new AisConsentMapper().mapToAisAccountConsent(aisConsent));
+
+        // Then
+        Optional<CmsConsentStatus> status = aisConsentService.getConsentStatusById(EXTERNAL_CONSENT_ID);
+
+        // Assert
+        assertThat(status.get(), is(equalTo(EXPIRED)));
+        assertThat(aisConsent.getConsentStatus(), is(equalTo(VALID)));
+        verify(aisConsentRepository, never()).save(any(AisConsent.class));
+    }
+
     @Test
     public void shouldReturnExternalId_WhenCreateConsentIsCalled() {
         // When
@@ -149,6 +308,160 @@ public class AisConsentServiceTest {
         assertFalse(consentId_notExists.isPresent());
     }
 
+    @Test
+    public void checkConsentsAndSaveActionLogs_readsEveryConsentOnceAndSavesAllActions() {
+        // When
+        aisConsent.setExpireDate(LocalDate.now().plusDays(1));
+        aisConsent.setUsageCounter(5);
+        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID_NOT_EXIST)).thenReturn(Optional.empty());
+        when(aisConsentRepository.decrementUsageCounter(eq(EXTERNAL_CONSENT_ID), any(LocalDate.class))).thenReturn(1);
+
+        // Then
+        aisConsentService.checkConsentsAndSaveActionLogs(Arrays.asList(
+            new ConsentActionRequest("tpp-id-1", EXTERNAL_CONSENT_ID, ActionStatus.SUCCESS),
+            new ConsentActionRequest("tpp-id-1", EXTERNAL_CONSENT_ID, ActionStatus.SUCCESS),
+            new ConsentActionRequest("tpp-id-1", EXTERNAL_CONSENT_ID_NOT_EXIST, ActionStatus.SUCCESS)
+        ));
+
+        // Assert
+        verify(aisConsentRepository, times(1)).findByExternalId(EXTERNAL_CONSENT_ID);
+        verify(aisConsentActionRepository).save(actionsCaptor.capture());
+        List<AisConsentAction> actions = actionsCaptor.getValue();
+        assertThat(actions.size(), is(equalTo(3)));
+        assertThat(actions.get(2).getActionStatus(), is(equalTo(ActionStatus.BAD_PAYLOAD)));
+        verify(aisConsentRepository, times(2)).decrementUsageCounter(eq(EXTERNAL_CONSENT_ID), any(LocalDate.class));
+        verify(aisConsentRepository, never()).decrementUsageCounter(eq(EXTERNAL_CONSENT_ID_NOT_EXIST), any(LocalDate.class));
+    }
+
+    @Test
+    public void updateTransactionCursor_createsCursorForActualConsent() {
+        // When
+        when(aisConsentRepository.findByExternalIdAndConsentStatusIn(EXTERNAL_CONSENT_ID, EnumSet.of(RECEIVED, VALID))).thenReturn(Optional.of(aisConsent));
+        when(aisConsentRepository.findByExternalIdAndConsentStatusIn(EXTERNAL_CONSENT_ID_NOT_EXIST, EnumSet.of(RECEIVED, VALID))).thenReturn(Optional.empty());
+        when(aisTransactionCursorRepository.findByConsentExternalIdAndAccountId(EXTERNAL_CONSENT_ID, ACCOUNT_ID)).thenReturn(Optional.empty());
+        when(aisTransactionCursorRepository.save(any(AisTransactionCursor.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+
+        // Then
+        Optional<String> entryReference = aisConsentService.updateTransactionCursor(EXTERNAL_CONSENT_ID, ACCOUNT_ID, ENTRY_REFERENCE);
+        Optional<String> entryReference_notExist = aisConsentService.updateTransactionCursor(EXTERNAL_CONSENT_ID_NOT_EXIST, ACCOUNT_ID, ENTRY_REFERENCE);
+
+        // Assert
+        ArgumentCaptor<AisTransactionCursor> cursorCaptor = ArgumentCaptor.forClass(AisTransactionCursor.class);
+        verify(aisTransactionCursorRepository).save(cursorCaptor.capture());
+        assertThat(cursorCaptor.getValue().getConsent(), is(equalTo(aisConsent)));
+        assertThat(cursorCaptor.getValue().getAccountId(), is(equalTo(ACCOUNT_ID)));
+        assertThat(entryReference.get(), is(equalTo(ENTRY_REFERENCE)));
+        assertFalse(entryReference_notExist.isPresent());
+    }
+
+    @Test
+    public void authoriseConsentUsage_consumesUsageForCoveredAccount() {
+        // When
+        aisConsent.setExpireDate(LocalDate.now().plusDays(1));
+        aisConsent.setConsentStatus(VALID);
+        aisConsent.setTppId(TPP_ID);
+        aisConsent.setUsageCounter(3);
+        aisConsent.addAccountAccess(Collections.singleton(new AccountAccess(IBAN, EUR, TypeAccess.BALANCE)));
+        when(aisConsentRepository.findWithAccessesByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+        when(aisConsentRepository.decrementUsageCounter(eq(EXTERNAL_CONSENT_ID), any(LocalDate.class))).thenReturn(1);
+        when(aisConsentRepository.findUsageCounterByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(2);
+
+        // Then
+        Optional<AisConsentUsageResponse> response = aisConsentService.authoriseConsentUsage(EXTERNAL_CONSENT_ID, buildUsageRequest(TypeAccess.BALANCE, IBAN));
+
+        // Assert
+        assertThat(response.get().getDecision(), is(equalTo(AisConsentUsageDecision.VALID)));
+        assertThat(response.get().getUsagesLeft(), is(equalTo(2)));
+        assertThat(getLoggedActionStatus(), is(equalTo(ActionStatus.SUCCESS)));
+    }
+
+    @Test
+    public void authoriseConsentUsage_rejectsAccountNotCoveredWithoutConsumingUsage() {
+        // When
+        aisConsent.setExpireDate(LocalDate.now().plusDays(1));
+        aisConsent.setConsentStatus(VALID);
+        aisConsent.setTppId(TPP_ID);
+        aisConsent.setUsageCounter(3);
+        aisConsent.addAccountAccess(Collections.singleton(new AccountAccess(IBAN, EUR, TypeAccess.ACCOUNT)));
+        when(aisConsentRepository.findWithAccessesByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+
+        // Then
+        Optional<AisConsentUsageResponse> response = aisConsentService.authoriseConsentUsage(EXTERNAL_CONSENT_ID, buildUsageRequest(TypeAccess.TRANSACTION, IBAN));
+
+        // Assert
+        assertThat(response.get().getDecision(), is(equalTo(AisConsentUsageDecision.ACCOUNT_NOT_COVERED)));
+        assertThat(response.get().getUsagesLeft(), is(equalTo(3)));
+        assertThat(getLoggedActionStatus(), is(equalTo(ActionStatus.FAILURE_TRANSACTION)));
+        verify(aisConsentRepository, never()).decrementUsageCounter(any(String.class), any(LocalDate.class));
+    }
+
+    @Test
+    public void authoriseConsentUsage_reportsExceededAccessAndExpiredConsent() {
+        // When
+        aisConsent.setExpireDate(LocalDate.now().plusDays(1));
+        aisConsent.setConsentStatus(VALID);
+        aisConsent.setTppId(TPP_ID);
+        aisConsent.addAccountAccess(Collections.singleton(new AccountAccess(IBAN, EUR, TypeAccess.ACCOUNT)));
+        when(aisConsentRepository.findWithAccessesByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+        when(aisConsentRepository.decrementUsageCounter(eq(EXTERNAL_CONSENT_ID), any(LocalDate.class))).thenReturn(0);
+
+        // Then
+        Optional<AisConsentUsageResponse> exceeded = aisConsentService.authoriseConsentUsage(EXTERNAL_CONSENT_ID, buildUsageRequest(TypeAccess.ACCOUNT, IBAN));
+        aisConsent.setExpireDate(LocalDate.now());
+        Optional<AisConsentUsageResponse> expired = aisConsentService.authoriseConsentUsage(EXTERNAL_CONSENT_ID, buildUsageRequest(TypeAccess.ACCOUNT, IBAN));
+
+        // Assert
+        assertThat(exceeded.get().getDecision(), is(equalTo(AisConsentUsageDecision.ACCESS_EXCEEDED)));
+        assertThat(exceeded.get().getUsagesLeft(), is(equalTo(0)));
+        assertThat(expired.get().getDecision(), is(equalTo(AisConsentUsageDecision.EXPIRED)));
+        assertThat(expired.get().getConsentStatus(), is(equalTo(EXPIRED)));
+    }
+
+    @Test
+    public void authoriseConsentUsage_reportsNotAuthorisedConsentAsInvalid() {
+        // When
+        aisConsent.setExpireDate(LocalDate.now().plusDays(1));
+        aisConsent.setConsentStatus(RECEIVED);
+        aisConsent.setTppId(TPP_ID);
+        aisConsent.setUsageCounter(3);
+        aisConsent.addAccountAccess(Collections.singleton(new AccountAccess(IBAN, EUR, TypeAccess.ACCOUNT)));
+        when(aisConsentRepository.findWithAccessesByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+
+        // Then
+        Optional<AisConsentUsageResponse> response = aisConsentService.authoriseConsentUsage(EXTERNAL_CONSENT_ID, buildUsageRequest(TypeAccess.ACCOUNT, IBAN));
+
+        // Assert
+        assertThat(response.get().getDecision(), is(equalTo(AisConsentUsageDecision.INVALID)));
+        assertThat(response.get().getConsentStatus(), is(equalTo(RECEIVED)));
+        assertThat(getLoggedActionStatus(), is(equalTo(ActionStatus.CONSENT_INVALID_STATUS)));
+        verify(aisConsentRepository, never()).decrementUsageCounter(any(String.class), any(LocalDate.class));
+    }
+
+    @Test
+    public void authoriseConsentUsage_unknownConsentOfOtherTpp() {
+        // When
+        aisConsent.setTppId("other-tpp-id");
+        when(aisConsentRepository.findWithAccessesByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+
+        // Then
+        Optional<AisConsentUsageResponse> response = aisConsentService.authoriseConsentUsage(EXTERNAL_CONSENT_ID, buildUsageRequest(TypeAccess.ACCOUNT, IBAN));
+
+        // Assert
+        assertFalse(response.isPresent());
+        assertThat(getLoggedActionStatus(), is(equalTo(ActionStatus.CONSENT_NOT_FOUND)));
+    }
+
+    private AisConsentUsageRequest buildUsageRequest(TypeAccess typeAccess, String iban) {
+        return new AisConsentUsageRequest(TPP_ID, typeAccess, new CmsAccountReference(iban, EUR));
+    }
+
+    private ActionStatus getLoggedActionStatus() {
+        ArgumentCaptor<AisConsentAction> actionCaptor = ArgumentCaptor.forClass(AisConsentAction.class);
+        verify(aisConsentActionRepository).save(actionCaptor.capture());
+        return actionCaptor.getValue().getActionStatus();
+    }
+
     private AisConsent buildConsent() {
         AisConsent aisConsent = new AisConsent();
         aisConsent.setId(CONSENT_ID);
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service;
+
+import de.adorsys.aspsp.xs2a.config.rest.ASPSPProfileRemoteUrls;
+import de.adorsys.aspsp.xs2a.domain.profile.AspspSettings;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AspspSettingsSnapshotTest {
+    private static final String URL = "http://localhost:48080/api/v1/aspsp-profile";
+    private static final AspspSettings FIRST_SETTINGS = buildSettings(5);
+    private static final AspspSettings SECOND_SETTINGS = buildSettings(3);
+
+    @Mock
+    private RestTemplate restTemplate;
+    @Mock
+    private ASPSPProfileRemoteUrls aspspProfileRemoteUrls;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Captor
+    private ArgumentCaptor<AspspSettingsChangedEvent> eventCaptor;
+
+    private AspspSettingsSnapshot snapshot;
+
+    @Before
+    public void setUp() {
+        when(aspspProfileRemoteUrls.getAspspSettingsUrl()).thenReturn(URL);
+        when(restTemplate.exchange(eq(URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(AspspSettings.class)))
+            .thenReturn(ResponseEntity.ok().eTag("\"1\"").body(FIRST_SETTINGS))
+            .thenReturn(new ResponseEntity<>(HttpStatus.NOT_MODIFIED))
+            .thenReturn(ResponseEntity.ok().eTag("\"2\"").body(SECOND_SETTINGS));
+        snapshot = new AspspSettingsSnapshot(restTemplate, aspspProfileRemoteUrls, eventPublisher);
+    }
+
+    @Test
+    public void refresh_publishesEventOnNewVersion() {
+        // When
+        snapshot.refresh();
+        snapshot.refresh();
+        snapshot.refresh();
+
+        // Then
+        verify(eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+        List<AspspSettingsChangedEvent> events = eventCaptor.getAllValues();
+        // Assert
+        assertThat(events.get(0).getPreviousSettings(), is(nullValue()));
+        assertThat(events.get(0).getSettings(), is(FIRST_SETTINGS));
+        assertThat(events.get(1).getPreviousSettings(), is(FIRST_SETTINGS));
+        assertThat(events.get(1).getSettings(), is(SECOND_SETTINGS));
+    }
+
+    private static AspspSettings buildSettings(int frequencyPerDay) {
+        return new AspspSettings(frequencyPerDay, false, null, null, false, null, null, null, false, null, null, 0, 0, false, null);
+    }
+}
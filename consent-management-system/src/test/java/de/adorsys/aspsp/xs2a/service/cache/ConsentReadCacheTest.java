@@ -0,0 +1,261 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@Slf4j
+public class ConsentReadCacheTest {
+    private static final String CACHE_NAME = "ais-consent";
+    private static final int LOAD_CHUNK_SIZE = 2;
+    private static final String CONSENT_ID = "consent id";
+    private static final String WRONG_CONSENT_ID = "wrong consent id";
+
+    private ConsentCacheClusterHook clusterHook;
+    private ConsentReadCache<String> cache;
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() {
+        clusterHook = mock(ConsentCacheClusterHook.class);
+        cache = new ConsentReadCache<>(CACHE_NAME, 100, 60000, LOAD_CHUNK_SIZE, clusterHook);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void get_loadsConsentOnce() {
+        //When:
+        Optional<String> first = cache.get(CONSENT_ID, this::load);
+        Optional<String> second = cache.get(CONSENT_ID, this::load);
+        //Then:
+        assertThat(first).isEqualTo(Optional.of("consent 1"));
+        assertThat(second).isEqualTo(Optional.of("consent 1"));
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(getMetric("hit")).isEqualTo(1);
+        assertThat(getMetric("miss")).isEqualTo(1);
+    }
+
+    @Test
+    public void get_doesNotCacheUnknownConsent() {
+        //When:
+        cache.get(WRONG_CONSENT_ID, this::load);
+        Optional<String> actual = cache.get(WRONG_CONSENT_ID, this::load);
+        //Then:
+        assertThat(actual).isEqualTo(Optional.empty());
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void invalidate_reloadsConsentAndNotifiesCluster() {
+        //Given:
+        cache.get(CONSENT_ID, this::load);
+        //When:
+        cache.invalidate(CONSENT_ID);
+        Optional<String> actual = cache.get(CONSENT_ID, this::load);
+        //Then:
+        assertThat(actual).isEqualTo(Optional.of("consent 2"));
+        verify(clusterHook).consentInvalidated(CACHE_NAME, CONSENT_ID);
+    }
+
+    @Test
+    public void invalidateLocally_doesNotNotifyCluster() {
+        //Given:
+        cache.get(CONSENT_ID, this::load);
+        //When:
+        cache.invalidateAllLocally();
+        cache.get(CONSENT_ID, this::load);
+        //Then:
+        assertThat(loads.get()).isEqualTo(2);
+        verify(clusterHook, never()).allInvalidated(CACHE_NAME);
+    }
+
+    @Test
+    public void get_doesNotCacheConsentLoadedDuringInvalidation() {
+        //When:
+        cache.get(CONSENT_ID, id -> {
+            Optional<String> stale = load(id);
+            cache.invalidate(id);
+            return stale;
+        });
+        Optional<String> actual = cache.get(CONSENT_ID, this::load);
+        //Then:
+        assertThat(actual).isEqualTo(Optional.of("consent 2"));
+    }
+
+    @Test
+    public void update_replacesCachedConsentWithoutReloading() {
+        //Given:
+        cache.get(CONSENT_ID, this::load);
+        //When:
+        cache.update(CONSENT_ID, consent -> consent + " used");
+        Optional<String> actual = cache.get(CONSENT_ID, this::load);
+        //Then:
+        assertThat(actual).isEqualTo(Optional.of("consent 1 used"));
+        assertThat(loads.get()).isEqualTo(1);
+        verify(clusterHook, never()).consentInvalidated(CACHE_NAME, CONSENT_ID);
+    }
+
+    @Test
+    public void update_doesNotLoadConsentMissingInCache() {
+        //When:
+        cache.update(CONSENT_ID, consent -> consent + " used");
+        Optional<String> actual = cache.get(CONSENT_ID, this::load);
+        //Then:
+        assertThat(actual).isEqualTo(Optional.of("consent 1"));
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_doesNotCacheConsentLoadedDuringUpdate() {
+        //When:
+        cache.get(CONSENT_ID, id -> {
+            Optional<String> stale = load(id);
+            cache.update(id, consent -> consent + " used");
+            return stale;
+        });
+        Optional<String> actual = cache.get(CONSENT_ID, this::load);
+        //Then:
+        assertThat(actual).isEqualTo(Optional.of("consent 2"));
+    }
+
+    @Test
+    public void getAll_loadsMissingConsentsInChunks() {
+        //Given:
+        cache.get(CONSENT_ID, this::load);
+        List<List<String>> chunks = new ArrayList<>();
+        //When:
+        Map<String, String> actual = cache.getAll(Arrays.asList(CONSENT_ID, "a", "b", "c", WRONG_CONSENT_ID, "a"), ids -> {
+            chunks.add(ids);
+            return ids.stream()
+                       .filter(id -> !id.equals(WRONG_CONSENT_ID))
+                       .collect(Collectors.toMap(Function.identity(), id -> "loaded " + id));
+        });
+        Optional<String> cached = cache.get("c", this::load);
+        //Then:
+        assertThat(chunks).containsExactly(Arrays.asList("a", "b"), Arrays.asList("c", WRONG_CONSENT_ID));
+        assertThat(actual).hasSize(4)
+            .containsEntry(CONSENT_ID, "consent 1")
+            .containsEntry("c", "loaded c")
+            .doesNotContainKey(WRONG_CONSENT_ID);
+        assertThat(cached).isEqualTo(Optional.of("loaded c"));
+    }
+
+    @Test
+    public void getAllProjected_readsProjectionOfMissingConsentsWithoutCachingThem() {
+        //Given:
+        cache.get(CONSENT_ID, this::load);
+        List<List<String>> chunks = new ArrayList<>();
+        Function<List<String>, Map<String, Integer>> reader = ids -> {
+            chunks.add(ids);
+            return ids.stream()
+                       .filter(id -> !id.equals(WRONG_CONSENT_ID))
+                       .collect(Collectors.toMap(Function.identity(), String::length));
+        };
+        //When:
+        Map<String, Integer> actual = cache.getAllProjected(Arrays.asList(CONSENT_ID, "a", "bb", WRONG_CONSENT_ID), String::length, reader);
+        cache.getAllProjected(Collections.singletonList("a"), String::length, reader);
+        //Then:
+        assertThat(actual).hasSize(3)
+            .containsEntry(CONSENT_ID, "consent 1".length())
+            .containsEntry("bb", 2)
+            .doesNotContainKey(WRONG_CONSENT_ID);
+        assertThat(chunks).containsExactly(Arrays.asList("a", "bb"), Collections.singletonList(WRONG_CONSENT_ID), Collections.singletonList("a"));
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_reducesConsentReadsUnderConcurrentLoad() throws Exception {
+        //Given:
+        int threads = 16;
+        int requestsPerThread = 20000;
+        int consents = 500;
+        ConsentReadCache<String> loadCache = new ConsentReadCache<>(CACHE_NAME, 10000, 60000, LOAD_CHUNK_SIZE, null);
+        AtomicLong reads = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        //When:
+        long begin = System.nanoTime();
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    awaitQuietly(start);
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        String consentId = "consent-" + random.nextInt(consents);
+                        if (random.nextInt(100) == 0) {
+                            loadCache.invalidate(consentId);
+                        } else {
+                            loadCache.get(consentId, id -> {
+                                reads.incrementAndGet();
+                                return Optional.of(id);
+                            });
+                        }
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        //Then:
+        long requests = (long) threads * requestsPerThread;
+        log.info("{} consent requests with 1% writes caused {} consent reads in {} ms", requests, reads.get(), elapsedMs);
+        assertThat(reads.get()).isLessThan(requests / 10);
+    }
+
+    private Optional<String> load(String consentId) {
+        int number = loads.incrementAndGet();
+        return CONSENT_ID.equals(consentId)
+                   ? Optional.of("consent " + number)
+                   : Optional.empty();
+    }
+
+    private long getMetric(String name) {
+        return cache.metrics().stream()
+                   .filter(m -> m.getName().equals("cache.consent." + CACHE_NAME + "." + name))
+                   .map(Metric::getValue)
+                   .findFirst()
+                   .map(Number::longValue)
+                   .orElse(-1L);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
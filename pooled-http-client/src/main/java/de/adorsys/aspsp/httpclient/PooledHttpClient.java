@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.httpclient;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Apache HttpClient with its own pool of keep-alive connections to one downstream service.
+ * Connections are reused until the keep-alive duration announced by the server (capped by configured keep-alive) or
+ * the configured time to live elapses. Idle and expired connections are closed by a background evictor.
+ * Responses compressed with gzip or deflate are transparently decompressed, if enabled.
+ * If declared as a bean, state of the pool is published with actuator metrics.
+ */
+public class PooledHttpClient implements PublicMetrics, Closeable {
+    private static final String METRIC_PREFIX = "http-client.pool.";
+    private static final int VALIDATE_AFTER_INACTIVITY_MS = 2000;
+
+    private final String name;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+
+    public PooledHttpClient(String name, PooledHttpClientSettings settings) {
+        this(name, settings, SSLConnectionSocketFactory.getSocketFactory());
+    }
+
+    public PooledHttpClient(String name, PooledHttpClientSettings settings, SSLConnectionSocketFactory sslSocketFactory) {
+        this.name = name;
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                                                                      .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                                                                      .register("https", sslSocketFactory)
+                                                                      .build();
+        this.connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry, null, null, null, settings.getTimeToLiveMs(), TimeUnit.MILLISECONDS);
+        this.connectionManager.setMaxTotal(settings.getMaxTotal());
+        this.connectionManager.setDefaultMaxPerRoute(settings.getMaxPerRoute());
+        this.connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MS);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                                          .setConnectTimeout(settings.getConnectTimeoutMs())
+                                          .setSocketTimeout(settings.getReadTimeoutMs())
+                                          .setConnectionRequestTimeout(settings.getConnectionRequestTimeoutMs())
+                                          .build();
+        HttpClientBuilder builder = HttpClients.custom()
+                                        .setConnectionManager(connectionManager)
+                                        .setDefaultRequestConfig(requestConfig)
+                                        .setKeepAliveStrategy(keepAliveStrategy(settings.getKeepAliveMs()))
+                                        .evictExpiredConnections()
+                                        .evictIdleConnections(settings.getIdleEvictionMs(), TimeUnit.MILLISECONDS);
+        if (!settings.isGzip()) {
+            builder.disableContentCompression();
+        }
+        this.httpClient = builder.build();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Creates request factory for rest template, sending requests through the pool
+     *
+     * @return request factory backed by pooled client
+     */
+    public ClientHttpRequestFactory requestFactory() {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    /**
+     * Returns actual state of the pool. The pool is saturated if there are pending requests waiting for a connection
+     *
+     * @return number of leased, available, pending and max connections and utilization of the pool
+     */
+    @Override
+    public Collection<Metric<?>> metrics() {
+        PoolStats stats = connectionManager.getTotalStats();
+        String prefix = METRIC_PREFIX + name + ".";
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(prefix + "leased", stats.getLeased()));
+        metrics.add(new Metric<>(prefix + "available", stats.getAvailable()));
+        metrics.add(new Metric<>(prefix + "pending", stats.getPending()));
+        metrics.add(new Metric<>(prefix + "max", stats.getMax()));
+        metrics.add(new Metric<>(prefix + "utilization", stats.getMax() == 0 ? 0 : (double) stats.getLeased() / stats.getMax()));
+        return metrics;
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long keepAliveMs) {
+        return (response, context) -> {
+            long serverKeepAliveMs = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAliveMs > 0
+                       ? Math.min(serverKeepAliveMs, keepAliveMs)
+                       : keepAliveMs;
+        };
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.httpclient;
+
+import lombok.Data;
+import org.springframework.core.env.PropertyResolver;
+
+/**
+ * Settings of one pool of HTTP connections. Every property can be set globally with {@code http-client.pool.<property>}
+ * and overridden for one downstream with {@code http-client.pool.<pool-name>.<property>}
+ */
+@Data
+public class PooledHttpClientSettings {
+    private static final String PREFIX = "http-client.pool.";
+
+    private int maxTotal = 100;
+    private int maxPerRoute = 50;
+    private int connectTimeoutMs = 10000;
+    private int readTimeoutMs = 10000;
+    private int connectionRequestTimeoutMs = 2000;
+    private long keepAliveMs = 30000;
+    private long idleEvictionMs = 30000;
+    private long timeToLiveMs = 300000;
+    private boolean gzip = true;
+
+    /**
+     * Reads pool settings of given downstream, falling back to global pool settings and to defaults
+     *
+     * @param propertyResolver environment of the application
+     * @param poolName         name of the downstream, e.g. "consent" or "aspsp-profile"
+     * @return settings of the pool
+     */
+    public static PooledHttpClientSettings fromEnvironment(PropertyResolver propertyResolver, String poolName) {
+        PooledHttpClientSettings settings = new PooledHttpClientSettings();
+        settings.setMaxTotal(getProperty(propertyResolver, poolName, "max-total", Integer.class, settings.getMaxTotal()));
+        settings.setMaxPerRoute(getProperty(propertyResolver, poolName, "max-per-route", Integer.class, settings.getMaxPerRoute()));
+        settings.setConnectionRequestTimeoutMs(getProperty(propertyResolver, poolName, "connection-request-timeout.ms", Integer.class, settings.getConnectionRequestTimeoutMs()));
+        settings.setKeepAliveMs(getProperty(propertyResolver, poolName, "keep-alive.ms", Long.class, settings.getKeepAliveMs()));
+        settings.setIdleEvictionMs(getProperty(propertyResolver, poolName, "idle-eviction.ms", Long.class, settings.getIdleEvictionMs()));
+        settings.setTimeToLiveMs(getProperty(propertyResolver, poolName, "time-to-live.ms", Long.class, settings.getTimeToLiveMs()));
+        settings.setGzip(getProperty(propertyResolver, poolName, "gzip", Boolean.class, settings.isGzip()));
+        return settings;
+    }
+
+    /**
+     * Reads pool settings of given downstream and applies timeouts configured for the downstream
+     *
+     * @param propertyResolver environment of the application
+     * @param poolName         name of the downstream, e.g. "consent" or "aspsp-profile"
+     * @param connectTimeoutMs connection timeout in milliseconds
+     * @param readTimeoutMs    read timeout in milliseconds
+     * @return settings of the pool
+     */
+    public static PooledHttpClientSettings fromEnvironment(PropertyResolver propertyResolver, String poolName, int connectTimeoutMs, int readTimeoutMs) {
+        PooledHttpClientSettings settings = fromEnvironment(propertyResolver, poolName);
+        settings.setConnectTimeoutMs(connectTimeoutMs);
+        settings.setReadTimeoutMs(readTimeoutMs);
+        return settings;
+    }
+
+    private static <T> T getProperty(PropertyResolver propertyResolver, String poolName, String property, Class<T> type, T defaultValue) {
+        T globalValue = propertyResolver.getProperty(PREFIX + property, type, defaultValue);
+        return propertyResolver.getProperty(PREFIX + poolName + "." + property, type, globalValue);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.httpclient;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PooledHttpClientTest {
+    private static final String POOL_NAME = "consent";
+
+    @Test
+    public void fromEnvironment_defaults() {
+        //When:
+        PooledHttpClientSettings settings = PooledHttpClientSettings.fromEnvironment(new MockEnvironment(), POOL_NAME);
+        //Then:
+        assertThat(settings).isEqualTo(new PooledHttpClientSettings());
+    }
+
+    @Test
+    public void fromEnvironment_poolOverridesGlobal() {
+        //Given:
+        MockEnvironment environment = new MockEnvironment()
+                                          .withProperty("http-client.pool.max-total", "20")
+                                          .withProperty("http-client.pool.max-per-route", "10")
+                                          .withProperty("http-client.pool.consent.max-per-route", "15")
+                                          .withProperty("http-client.pool.aspsp.max-per-route", "5")
+                                          .withProperty("http-client.pool.consent.gzip", "false");
+        //When:
+        PooledHttpClientSettings settings = PooledHttpClientSettings.fromEnvironment(environment, POOL_NAME);
+        //Then:
+        assertThat(settings.getMaxTotal()).isEqualTo(20);
+        assertThat(settings.getMaxPerRoute()).isEqualTo(15);
+        assertThat(settings.isGzip()).isFalse();
+    }
+
+    @Test
+    public void metrics_emptyPool() throws Exception {
+        //Given:
+        PooledHttpClientSettings settings = new PooledHttpClientSettings();
+        settings.setMaxTotal(7);
+        //When:
+        try (PooledHttpClient client = new PooledHttpClient(POOL_NAME, settings)) {
+            Map<String, Number> metrics = client.metrics().stream()
+                                              .collect(Collectors.toMap(Metric::getName, Metric::getValue));
+            //Then:
+            assertThat(metrics.get("http-client.pool.consent.max")).isEqualTo(7);
+            assertThat(metrics.get("http-client.pool.consent.leased")).isEqualTo(0);
+            assertThat(metrics.get("http-client.pool.consent.pending")).isEqualTo(0);
+        }
+    }
+}
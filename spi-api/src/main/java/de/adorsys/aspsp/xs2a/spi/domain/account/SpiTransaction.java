@@ -18,11 +18,13 @@ package de.adorsys.aspsp.xs2a.spi.domain.account;
 
 import de.adorsys.aspsp.xs2a.spi.domain.common.SpiAmount;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import org.springframework.data.annotation.Id;
 
 import java.time.LocalDate;
 
 @Data
+@EqualsAndHashCode(exclude = "bookingSequence")
 public class SpiTransaction {
     @Id
     private final String transactionId;
@@ -42,4 +44,8 @@ public class SpiTransaction {
     private final String remittanceInformationStructured;
     private final String purposeCode;
     private final String bankTransactionCodeCode;
+    /**
+     * Position of the transaction in the booking order of ASPSP, used to read transactions booked after a given one
+     */
+    private Long bookingSequence;
 }
@@ -24,9 +24,13 @@ import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
 import de.adorsys.aspsp.xs2a.spi.domain.psu.SpiScaMethod;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 public interface AccountSpi {
     /**
@@ -41,6 +45,70 @@ public interface AccountSpi {
      */
     SpiResponse<List<SpiTransaction>> readTransactionsByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, AspspConsentData aspspConsentData);
 
+    /**
+     * Queries ASPSP to get transactions dependant on period and accountId and pushes them one by one to given consumer,
+     * so that the caller does not need to hold the whole period in memory. Default implementation reads the list with
+     * {@link #readTransactionsByPeriod(String, LocalDate, LocalDate, AspspConsentData)}, connectors able to page or
+     * stream transactions should override it.
+     *
+     * @param accountId           String representation of ASPSP account primary identifier
+     * @param dateFrom            Date representing the beginning of the search period
+     * @param dateTo              Date representing the ending of the search period
+     * @param transactionConsumer Consumer called for every transaction of the period
+     * @param aspspConsentData    Encrypted data that may stored in the consent management system in the consent linked to a request.<br>
+     *                            May be null if consent does not contain such data, or request isn't done from a workflow with a consent
+     * @return Response without payload
+     */
+    default SpiResponse<Void> streamTransactionsByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, Consumer<SpiTransaction> transactionConsumer, AspspConsentData aspspConsentData) {
+        SpiResponse<List<SpiTransaction>> response = readTransactionsByPeriod(accountId, dateFrom, dateTo, aspspConsentData);
+        response.getPayload().forEach(transactionConsumer);
+        return new SpiResponse<>(null, response.getAspspConsentData());
+    }
+
+    /**
+     * Queries ASPSP to get transactions of the account booked after the transaction with given entry reference,
+     * in booking order. Used to build delta reports, so that only transactions not yet reported to TPP are read.
+     * Default implementation reads the transaction with given entry reference and then all transactions since its booking date,
+     * dropping the ones booked up to the referenced transaction. Connectors able to query by entry reference should override it
+     *
+     * @param accountId        String representation of ASPSP account primary identifier
+     * @param entryReference   String representation of ASPSP primary identifier of the last already reported transaction
+     * @param aspspConsentData Encrypted data that may stored in the consent management system in the consent linked to a request.<br>
+     *                         May be null if consent does not contain such data, or request isn't done from a workflow with a consent
+     * @return List of transactions, payload is null if there is no transaction with given entry reference
+     */
+    default SpiResponse<List<SpiTransaction>> readTransactionsAfter(String accountId, String entryReference, AspspConsentData aspspConsentData) {
+        SpiResponse<Optional<SpiTransaction>> referenceResponse = readTransactionById(entryReference, accountId, aspspConsentData);
+        Optional<SpiTransaction> reference = Optional.ofNullable(referenceResponse.getPayload())
+                                                 .orElseGet(Optional::empty);
+        if (!reference.isPresent()) {
+            return new SpiResponse<>(null, referenceResponse.getAspspConsentData());
+        }
+
+        SpiTransaction referenceTransaction = reference.get();
+        LocalDate dateFrom = Optional.ofNullable(referenceTransaction.getBookingDate())
+                                 .orElseGet(() -> Optional.ofNullable(referenceTransaction.getValueDate())
+                                                      .orElseGet(LocalDate::now));
+        SpiResponse<List<SpiTransaction>> response = readTransactionsByPeriod(accountId, dateFrom, LocalDate.now(), referenceResponse.getAspspConsentData());
+        List<SpiTransaction> transactions = Optional.ofNullable(response.getPayload())
+                                                .orElseGet(Collections::emptyList);
+
+        Long referenceSequence = referenceTransaction.getBookingSequence();
+        List<SpiTransaction> transactionsAfter;
+        if (referenceSequence != null) {
+            transactionsAfter = transactions.stream()
+                                    .filter(t -> t.getBookingSequence() != null && t.getBookingSequence() > referenceSequence)
+                                    .collect(Collectors.toList());
+        } else {
+            int referenceIndex = transactions.stream()
+                                     .map(SpiTransaction::getTransactionId)
+                                     .collect(Collectors.toList())
+                                     .indexOf(entryReference);
+            transactionsAfter = new ArrayList<>(transactions.subList(referenceIndex + 1, transactions.size()));
+        }
+        return new SpiResponse<>(transactionsAfter, response.getAspspConsentData());
+    }
+
     /**
      * Queries ASPSP to (GET) transaction by its primary identifier and account identifier
      *
@@ -92,6 +160,27 @@ public interface AccountSpi {
      */
     SpiResponse<List<SpiAccountDetails>> readAccountDetailsByIbans(Collection<String> ibans, AspspConsentData aspspConsentData);
 
+    /**
+     * Queries ASPSP to (GET) account details for each of given account references. An account matches a reference if both
+     * IBAN and currency are equal. Default implementation reads accounts reference by reference with
+     * {@link #readAccountDetailsByIban(String, AspspConsentData)}, connectors able to read several accounts at once should override it.
+     *
+     * @param references       a list of account references
+     * @param aspspConsentData Encrypted data that may stored in the consent management system in the consent linked to a request.<br>
+     *                         May be null if consent does not contain such data, or request isn't done from a workflow with a consent
+     * @return List of account details in the order of given references. References without matching account are omitted
+     */
+    default SpiResponse<List<SpiAccountDetails>> readAccountDetailsByReferences(List<SpiAccountReference> references, AspspConsentData aspspConsentData) {
+        List<SpiAccountDetails> accountDetails = new ArrayList<>();
+        for (SpiAccountReference reference : references) {
+            readAccountDetailsByIban(reference.getIban(), aspspConsentData).getPayload().stream()
+                .filter(details -> details.getCurrency() == reference.getCurrency())
+                .findFirst()
+                .ifPresent(accountDetails::add);
+        }
+        return new SpiResponse<>(accountDetails, aspspConsentData);
+    }
+
     /**
      * Queries ASPSP to (GET) list of allowed payment products for current PSU by its account reference
      *
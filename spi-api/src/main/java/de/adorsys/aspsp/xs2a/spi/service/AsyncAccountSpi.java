@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.spi.service;
+
+import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import de.adorsys.aspsp.xs2a.spi.domain.psu.SpiScaMethod;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous counterpart of {@link AccountSpi}. Every method returns immediately, the future is completed with the response
+ * of ASPSP or exceptionally with the error of the connector. Implementations must not block the calling thread.
+ * Connectors providing only {@link AccountSpi} can be exposed with {@link de.adorsys.aspsp.xs2a.spi.service.async.AccountSpiAsyncAdapter}.
+ */
+public interface AsyncAccountSpi {
+    /**
+     * For detailed description see {@link AccountSpi#readTransactionsByPeriod(String, LocalDate, LocalDate, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<List<SpiTransaction>>> readTransactionsByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link AccountSpi#readTransactionsAfter(String, String, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<List<SpiTransaction>>> readTransactionsAfter(String accountId, String entryReference, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link AccountSpi#readTransactionById(String, String, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<Optional<SpiTransaction>>> readTransactionById(String transactionId, String accountId, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link AccountSpi#readAccountDetails(String, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<SpiAccountDetails>> readAccountDetails(String accountId, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link AccountSpi#readAccountsByPsuId(String, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<List<SpiAccountDetails>>> readAccountsByPsuId(String psuId, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link AccountSpi#readAccountDetailsByIban(String, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<List<SpiAccountDetails>>> readAccountDetailsByIban(String iban, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link AccountSpi#readAccountDetailsByIbans(Collection, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<List<SpiAccountDetails>>> readAccountDetailsByIbans(Collection<String> ibans, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link AccountSpi#readAccountDetailsByReferences(List, AspspConsentData)}.
+     * Default implementation reads all references concurrently with {@link #readAccountDetailsByIban(String, AspspConsentData)}
+     */
+    default CompletableFuture<SpiResponse<List<SpiAccountDetails>>> readAccountDetailsByReferences(List<SpiAccountReference> references, AspspConsentData aspspConsentData) {
+        List<CompletableFuture<Optional<SpiAccountDetails>>> futures = references.stream()
+                                                                           .map(ref -> readAccountDetailsByIban(ref.getIban(), aspspConsentData)
+                                                                                           .thenApply(response -> response.getPayload().stream()
+                                                                                                                      .filter(details -> details.getCurrency() == ref.getCurrency())
+                                                                                                                      .findFirst()))
+                                                                           .collect(Collectors.toList());
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                   .thenApply(v -> new SpiResponse<>(futures.stream()
+                                                         .map(CompletableFuture::join)
+                                                         .filter(Optional::isPresent)
+                                                         .map(Optional::get)
+                                                         .collect(Collectors.toList()), aspspConsentData));
+    }
+
+    /**
+     * For detailed description see {@link AccountSpi#readPsuAllowedPaymentProductList(SpiAccountReference, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<List<String>>> readPsuAllowedPaymentProductList(SpiAccountReference reference, AspspConsentData aspspConsentData);
+
+    CompletableFuture<SpiResponse<List<SpiScaMethod>>> readAvailableScaMethods(String psuId, String password);
+}
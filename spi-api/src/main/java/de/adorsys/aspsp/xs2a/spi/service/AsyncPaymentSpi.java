@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.spi.service;
+
+import de.adorsys.aspsp.xs2a.consent.api.pis.PisPayment;
+import de.adorsys.aspsp.xs2a.consent.api.pis.PisPaymentType;
+import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
+import de.adorsys.aspsp.xs2a.spi.domain.authorisation.SpiAuthorisationStatus;
+import de.adorsys.aspsp.xs2a.spi.domain.common.SpiTransactionStatus;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import de.adorsys.aspsp.xs2a.spi.domain.payment.*;
+import de.adorsys.aspsp.xs2a.spi.domain.psu.SpiScaMethod;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous counterpart of {@link PaymentSpi}. Every method returns immediately, the future is completed with the response
+ * of ASPSP or exceptionally with the error of the connector. Implementations must not block the calling thread.
+ * Connectors providing only {@link PaymentSpi} can be exposed with {@link de.adorsys.aspsp.xs2a.spi.service.async.PaymentSpiAsyncAdapter}.
+ */
+public interface AsyncPaymentSpi {
+    /**
+     * For detailed description see {@link PaymentSpi#createPaymentInitiation(SpiSinglePayment, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<SpiPaymentInitialisationResponse>> createPaymentInitiation(SpiSinglePayment spiSinglePayment, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link PaymentSpi#initiatePeriodicPayment(SpiPeriodicPayment, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<SpiPaymentInitialisationResponse>> initiatePeriodicPayment(SpiPeriodicPayment periodicPayment, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link PaymentSpi#createBulkPayments(List, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<List<SpiPaymentInitialisationResponse>>> createBulkPayments(List<SpiSinglePayment> payments, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link PaymentSpi#getPaymentStatusById(String, SpiPaymentType, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<SpiTransactionStatus>> getPaymentStatusById(String paymentId, SpiPaymentType paymentType, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link PaymentSpi#getSinglePaymentById(SpiPaymentType, String, String, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<SpiSinglePayment>> getSinglePaymentById(SpiPaymentType paymentType, String paymentProduct, String paymentId, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link PaymentSpi#getPeriodicPaymentById(SpiPaymentType, String, String, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<SpiPeriodicPayment>> getPeriodicPaymentById(SpiPaymentType paymentType, String paymentProduct, String paymentId, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link PaymentSpi#getBulkPaymentById(SpiPaymentType, String, String, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<List<SpiSinglePayment>>> getBulkPaymentById(SpiPaymentType paymentType, String paymentProduct, String paymentId, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link PaymentSpi#authorisePsu(String, String, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<SpiAuthorisationStatus>> authorisePsu(String psuId, String password, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link PaymentSpi#readAvailableScaMethod(AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<List<SpiScaMethod>>> readAvailableScaMethod(AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link PaymentSpi#executePayment(PisPaymentType, List, AspspConsentData)}
+     */
+    CompletableFuture<SpiResponse<String>> executePayment(PisPaymentType pisPaymentType, List<PisPayment> pisPayments, AspspConsentData aspspConsentData);
+
+    /**
+     * For detailed description see {@link PaymentSpi#performStrongUserAuthorisation(AspspConsentData)}
+     */
+    CompletableFuture<Void> performStrongUserAuthorisation(AspspConsentData aspspConsentData);
+
+    CompletableFuture<Void> applyStrongUserAuthorisation(SpiPaymentConfirmation spiPaymentConfirmation, AspspConsentData aspspConsentData);
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.spi.service.async;
+
+import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import de.adorsys.aspsp.xs2a.spi.domain.psu.SpiScaMethod;
+import de.adorsys.aspsp.xs2a.spi.service.AccountSpi;
+import de.adorsys.aspsp.xs2a.spi.service.AsyncAccountSpi;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Exposes synchronous {@link AccountSpi} as {@link AsyncAccountSpi}. Calls of the connector are executed by given executor,
+ * which should be bounded and propagate request context required by the connector
+ */
+public class AccountSpiAsyncAdapter implements AsyncAccountSpi {
+    private final AccountSpi accountSpi;
+    private final Executor executor;
+
+    public AccountSpiAsyncAdapter(AccountSpi accountSpi, Executor executor) {
+        this.accountSpi = accountSpi;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiTransaction>>> readTransactionsByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> accountSpi.readTransactionsByPeriod(accountId, dateFrom, dateTo, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiTransaction>>> readTransactionsAfter(String accountId, String entryReference, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> accountSpi.readTransactionsAfter(accountId, entryReference, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<Optional<SpiTransaction>>> readTransactionById(String transactionId, String accountId, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> accountSpi.readTransactionById(transactionId, accountId, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<SpiAccountDetails>> readAccountDetails(String accountId, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> accountSpi.readAccountDetails(accountId, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiAccountDetails>>> readAccountsByPsuId(String psuId, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> accountSpi.readAccountsByPsuId(psuId, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiAccountDetails>>> readAccountDetailsByIban(String iban, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> accountSpi.readAccountDetailsByIban(iban, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiAccountDetails>>> readAccountDetailsByIbans(Collection<String> ibans, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> accountSpi.readAccountDetailsByIbans(ibans, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiAccountDetails>>> readAccountDetailsByReferences(List<SpiAccountReference> references, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> accountSpi.readAccountDetailsByReferences(references, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<List<String>>> readPsuAllowedPaymentProductList(SpiAccountReference reference, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> accountSpi.readPsuAllowedPaymentProductList(reference, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiScaMethod>>> readAvailableScaMethods(String psuId, String password) {
+        return CompletableFuture.supplyAsync(() -> accountSpi.readAvailableScaMethods(psuId, password), executor);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.spi.service.async;
+
+import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import de.adorsys.aspsp.xs2a.spi.domain.psu.SpiScaMethod;
+import de.adorsys.aspsp.xs2a.spi.service.AccountSpi;
+import de.adorsys.aspsp.xs2a.spi.service.AsyncAccountSpi;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static de.adorsys.aspsp.xs2a.spi.service.async.SpiFutures.join;
+
+/**
+ * Exposes {@link AsyncAccountSpi} as synchronous {@link AccountSpi} for callers not migrated to asynchronous SPI yet.
+ * Every call waits for the future, errors of the connector are rethrown unwrapped
+ */
+public class AsyncAccountSpiSyncAdapter implements AccountSpi {
+    private final AsyncAccountSpi asyncAccountSpi;
+
+    public AsyncAccountSpiSyncAdapter(AsyncAccountSpi asyncAccountSpi) {
+        this.asyncAccountSpi = asyncAccountSpi;
+    }
+
+    @Override
+    public SpiResponse<List<SpiTransaction>> readTransactionsByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, AspspConsentData aspspConsentData) {
+        return join(asyncAccountSpi.readTransactionsByPeriod(accountId, dateFrom, dateTo, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<List<SpiTransaction>> readTransactionsAfter(String accountId, String entryReference, AspspConsentData aspspConsentData) {
+        return join(asyncAccountSpi.readTransactionsAfter(accountId, entryReference, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<Optional<SpiTransaction>> readTransactionById(String transactionId, String accountId, AspspConsentData aspspConsentData) {
+        return join(asyncAccountSpi.readTransactionById(transactionId, accountId, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<SpiAccountDetails> readAccountDetails(String accountId, AspspConsentData aspspConsentData) {
+        return join(asyncAccountSpi.readAccountDetails(accountId, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<List<SpiAccountDetails>> readAccountsByPsuId(String psuId, AspspConsentData aspspConsentData) {
+        return join(asyncAccountSpi.readAccountsByPsuId(psuId, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<List<SpiAccountDetails>> readAccountDetailsByIban(String iban, AspspConsentData aspspConsentData) {
+        return join(asyncAccountSpi.readAccountDetailsByIban(iban, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<List<SpiAccountDetails>> readAccountDetailsByIbans(Collection<String> ibans, AspspConsentData aspspConsentData) {
+        return join(asyncAccountSpi.readAccountDetailsByIbans(ibans, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<List<SpiAccountDetails>> readAccountDetailsByReferences(List<SpiAccountReference> references, AspspConsentData aspspConsentData) {
+        return join(asyncAccountSpi.readAccountDetailsByReferences(references, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<List<String>> readPsuAllowedPaymentProductList(SpiAccountReference reference, AspspConsentData aspspConsentData) {
+        return join(asyncAccountSpi.readPsuAllowedPaymentProductList(reference, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<List<SpiScaMethod>> readAvailableScaMethods(String psuId, String password) {
+        return join(asyncAccountSpi.readAvailableScaMethods(psuId, password));
+    }
+}
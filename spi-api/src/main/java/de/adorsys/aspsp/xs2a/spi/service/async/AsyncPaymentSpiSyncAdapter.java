@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.spi.service.async;
+
+import de.adorsys.aspsp.xs2a.consent.api.pis.PisPayment;
+import de.adorsys.aspsp.xs2a.consent.api.pis.PisPaymentType;
+import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
+import de.adorsys.aspsp.xs2a.spi.domain.authorisation.SpiAuthorisationStatus;
+import de.adorsys.aspsp.xs2a.spi.domain.common.SpiTransactionStatus;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import de.adorsys.aspsp.xs2a.spi.domain.payment.*;
+import de.adorsys.aspsp.xs2a.spi.domain.psu.SpiScaMethod;
+import de.adorsys.aspsp.xs2a.spi.service.AsyncPaymentSpi;
+import de.adorsys.aspsp.xs2a.spi.service.PaymentSpi;
+
+import java.util.List;
+
+import static de.adorsys.aspsp.xs2a.spi.service.async.SpiFutures.join;
+
+/**
+ * Exposes {@link AsyncPaymentSpi} as synchronous {@link PaymentSpi} for callers not migrated to asynchronous SPI yet.
+ * Every call waits for the future, errors of the connector are rethrown unwrapped
+ */
+public class AsyncPaymentSpiSyncAdapter implements PaymentSpi {
+    private final AsyncPaymentSpi asyncPaymentSpi;
+
+    public AsyncPaymentSpiSyncAdapter(AsyncPaymentSpi asyncPaymentSpi) {
+        this.asyncPaymentSpi = asyncPaymentSpi;
+    }
+
+    @Override
+    public SpiResponse<SpiPaymentInitialisationResponse> createPaymentInitiation(SpiSinglePayment spiSinglePayment, AspspConsentData aspspConsentData) {
+        return join(asyncPaymentSpi.createPaymentInitiation(spiSinglePayment, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<SpiPaymentInitialisationResponse> initiatePeriodicPayment(SpiPeriodicPayment periodicPayment, AspspConsentData aspspConsentData) {
+        return join(asyncPaymentSpi.initiatePeriodicPayment(periodicPayment, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<List<SpiPaymentInitialisationResponse>> createBulkPayments(List<SpiSinglePayment> payments, AspspConsentData aspspConsentData) {
+        return join(asyncPaymentSpi.createBulkPayments(payments, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<SpiTransactionStatus> getPaymentStatusById(String paymentId, SpiPaymentType paymentType, AspspConsentData aspspConsentData) {
+        return join(asyncPaymentSpi.getPaymentStatusById(paymentId, paymentType, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<SpiSinglePayment> getSinglePaymentById(SpiPaymentType paymentType, String paymentProduct, String paymentId, AspspConsentData aspspConsentData) {
+        return join(asyncPaymentSpi.getSinglePaymentById(paymentType, paymentProduct, paymentId, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<SpiPeriodicPayment> getPeriodicPaymentById(SpiPaymentType paymentType, String paymentProduct, String paymentId, AspspConsentData aspspConsentData) {
+        return join(asyncPaymentSpi.getPeriodicPaymentById(paymentType, paymentProduct, paymentId, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<List<SpiSinglePayment>> getBulkPaymentById(SpiPaymentType paymentType, String paymentProduct, String paymentId, AspspConsentData aspspConsentData) {
+        return join(asyncPaymentSpi.getBulkPaymentById(paymentType, paymentProduct, paymentId, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<SpiAuthorisationStatus> authorisePsu(String psuId, String password, AspspConsentData aspspConsentData) {
+        return join(asyncPaymentSpi.authorisePsu(psuId, password, aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<List<SpiScaMethod>> readAvailableScaMethod(AspspConsentData aspspConsentData) {
+        return join(asyncPaymentSpi.readAvailableScaMethod(aspspConsentData));
+    }
+
+    @Override
+    public SpiResponse<String> executePayment(PisPaymentType pisPaymentType, List<PisPayment> pisPayments, AspspConsentData aspspConsentData) {
+        return join(asyncPaymentSpi.executePayment(pisPaymentType, pisPayments, aspspConsentData));
+    }
+
+    @Override
+    public void performStrongUserAuthorisation(AspspConsentData aspspConsentData) {
+        join(asyncPaymentSpi.performStrongUserAuthorisation(aspspConsentData));
+    }
+
+    @Override
+    public void applyStrongUserAuthorisation(SpiPaymentConfirmation spiPaymentConfirmation, AspspConsentData aspspConsentData) {
+        join(asyncPaymentSpi.applyStrongUserAuthorisation(spiPaymentConfirmation, aspspConsentData));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.spi.service.async;
+
+import de.adorsys.aspsp.xs2a.consent.api.pis.PisPayment;
+import de.adorsys.aspsp.xs2a.consent.api.pis.PisPaymentType;
+import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
+import de.adorsys.aspsp.xs2a.spi.domain.authorisation.SpiAuthorisationStatus;
+import de.adorsys.aspsp.xs2a.spi.domain.common.SpiTransactionStatus;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import de.adorsys.aspsp.xs2a.spi.domain.payment.*;
+import de.adorsys.aspsp.xs2a.spi.domain.psu.SpiScaMethod;
+import de.adorsys.aspsp.xs2a.spi.service.AsyncPaymentSpi;
+import de.adorsys.aspsp.xs2a.spi.service.PaymentSpi;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Exposes synchronous {@link PaymentSpi} as {@link AsyncPaymentSpi}. Calls of the connector are executed by given executor,
+ * which should be bounded and propagate request context required by the connector
+ */
+public class PaymentSpiAsyncAdapter implements AsyncPaymentSpi {
+    private final PaymentSpi paymentSpi;
+    private final Executor executor;
+
+    public PaymentSpiAsyncAdapter(PaymentSpi paymentSpi, Executor executor) {
+        this.paymentSpi = paymentSpi;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<SpiPaymentInitialisationResponse>> createPaymentInitiation(SpiSinglePayment spiSinglePayment, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> paymentSpi.createPaymentInitiation(spiSinglePayment, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<SpiPaymentInitialisationResponse>> initiatePeriodicPayment(SpiPeriodicPayment periodicPayment, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> paymentSpi.initiatePeriodicPayment(periodicPayment, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiPaymentInitialisationResponse>>> createBulkPayments(List<SpiSinglePayment> payments, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> paymentSpi.createBulkPayments(payments, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<SpiTransactionStatus>> getPaymentStatusById(String paymentId, SpiPaymentType paymentType, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> paymentSpi.getPaymentStatusById(paymentId, paymentType, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<SpiSinglePayment>> getSinglePaymentById(SpiPaymentType paymentType, String paymentProduct, String paymentId, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> paymentSpi.getSinglePaymentById(paymentType, paymentProduct, paymentId, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<SpiPeriodicPayment>> getPeriodicPaymentById(SpiPaymentType paymentType, String paymentProduct, String paymentId, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> paymentSpi.getPeriodicPaymentById(paymentType, paymentProduct, paymentId, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiSinglePayment>>> getBulkPaymentById(SpiPaymentType paymentType, String paymentProduct, String paymentId, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> paymentSpi.getBulkPaymentById(paymentType, paymentProduct, paymentId, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<SpiAuthorisationStatus>> authorisePsu(String psuId, String password, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> paymentSpi.authorisePsu(psuId, password, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiScaMethod>>> readAvailableScaMethod(AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> paymentSpi.readAvailableScaMethod(aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<SpiResponse<String>> executePayment(PisPaymentType pisPaymentType, List<PisPayment> pisPayments, AspspConsentData aspspConsentData) {
+        return CompletableFuture.supplyAsync(() -> paymentSpi.executePayment(pisPaymentType, pisPayments, aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> performStrongUserAuthorisation(AspspConsentData aspspConsentData) {
+        return CompletableFuture.runAsync(() -> paymentSpi.performStrongUserAuthorisation(aspspConsentData), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> applyStrongUserAuthorisation(SpiPaymentConfirmation spiPaymentConfirmation, AspspConsentData aspspConsentData) {
+        return CompletableFuture.runAsync(() -> paymentSpi.applyStrongUserAuthorisation(spiPaymentConfirmation, aspspConsentData), executor);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.spi.service;
+
+import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class AccountSpiTest {
+    private static final String ACCOUNT_ID = "account id";
+    private static final LocalDate BOOKING_DATE = LocalDate.of(2018, 3, 3);
+    private static final AspspConsentData ASPSP_CONSENT_DATA = new AspspConsentData();
+
+    private AccountSpi accountSpi;
+
+    @Before
+    public void setUp() {
+        accountSpi = mock(DateBasedAccountSpi.class, CALLS_REAL_METHODS);
+    }
+
+    @Test
+    public void readTransactionsAfter_bySequenceOfReference() {
+        //Given:
+        SpiTransaction reference = transaction("0002", 2L);
+        doReturn(new SpiResponse<>(Optional.of(reference), ASPSP_CONSENT_DATA)).when(accountSpi).readTransactionById("0002", ACCOUNT_ID, ASPSP_CONSENT_DATA);
+        doReturn(new SpiResponse<>(Arrays.asList(transaction("0001", 1L), reference, transaction("0003", 3L)), ASPSP_CONSENT_DATA))
+            .when(accountSpi).readTransactionsByPeriod(ACCOUNT_ID, BOOKING_DATE, LocalDate.now(), ASPSP_CONSENT_DATA);
+        //When:
+        SpiResponse<List<SpiTransaction>> response = accountSpi.readTransactionsAfter(ACCOUNT_ID, "0002", ASPSP_CONSENT_DATA);
+        //Then:
+        assertThat(response.getPayload()).extracting(SpiTransaction::getTransactionId).containsExactly("0003");
+    }
+
+    @Test
+    public void readTransactionsAfter_byPositionOfReference() {
+        //Given:
+        SpiTransaction reference = transaction("0002", null);
+        doReturn(new SpiResponse<>(Optional.of(reference), ASPSP_CONSENT_DATA)).when(accountSpi).readTransactionById("0002", ACCOUNT_ID, ASPSP_CONSENT_DATA);
+        doReturn(new SpiResponse<>(Arrays.asList(transaction("0001", null), reference, transaction("0003", null), transaction("0004", null)), ASPSP_CONSENT_DATA))
+            .when(accountSpi).readTransactionsByPeriod(ACCOUNT_ID, BOOKING_DATE, LocalDate.now(), ASPSP_CONSENT_DATA);
+        //When:
+        SpiResponse<List<SpiTransaction>> response = accountSpi.readTransactionsAfter(ACCOUNT_ID, "0002", ASPSP_CONSENT_DATA);
+        //Then:
+        assertThat(response.getPayload()).extracting(SpiTransaction::getTransactionId).containsExactly("0003", "0004");
+    }
+
+    @Test
+    public void readTransactionsAfter_unknownReference() {
+        //Given:
+        doReturn(new SpiResponse<>(Optional.empty(), ASPSP_CONSENT_DATA)).when(accountSpi).readTransactionById("0002", ACCOUNT_ID, ASPSP_CONSENT_DATA);
+        //When:
+        SpiResponse<List<SpiTransaction>> response = accountSpi.readTransactionsAfter(ACCOUNT_ID, "0002", ASPSP_CONSENT_DATA);
+        //Then:
+        assertThat(response.getPayload()).isNull();
+        verify(accountSpi, never()).readTransactionsByPeriod(any(), any(), any(), any());
+    }
+
+    private static SpiTransaction transaction(String transactionId, Long bookingSequence) {
+        SpiTransaction transaction = new SpiTransaction(transactionId, null, null, null, BOOKING_DATE, BOOKING_DATE, null, null,
+            null, null, null, null, null, null, null, null, null);
+        transaction.setBookingSequence(bookingSequence);
+        return transaction;
+    }
+
+    private abstract static class DateBasedAccountSpi implements AccountSpi {
+    }
+}
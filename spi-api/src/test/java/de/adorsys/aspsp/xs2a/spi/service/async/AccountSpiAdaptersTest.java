@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.spi.service.async;
+
+import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import de.adorsys.aspsp.xs2a.spi.service.AccountSpi;
+import de.adorsys.aspsp.xs2a.spi.service.AsyncAccountSpi;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AccountSpiAdaptersTest {
+    private static final String ACCOUNT_ID = "account id";
+    private static final LocalDate DATE_FROM = LocalDate.of(2018, 1, 1);
+    private static final LocalDate DATE_TO = LocalDate.of(2018, 1, 31);
+    private static final AspspConsentData ASPSP_CONSENT_DATA = new AspspConsentData();
+
+    @Mock
+    private AccountSpi accountSpi;
+    @Mock
+    private AsyncAccountSpi asyncAccountSpi;
+
+    private final AtomicInteger executedTasks = new AtomicInteger();
+    private final Executor executor = command -> {
+        executedTasks.incrementAndGet();
+        command.run();
+    };
+
+    private AccountSpiAsyncAdapter accountSpiAsyncAdapter;
+    private AsyncAccountSpiSyncAdapter asyncAccountSpiSyncAdapter;
+
+    @Before
+    public void setUp() {
+        accountSpiAsyncAdapter = new AccountSpiAsyncAdapter(accountSpi, executor);
+        asyncAccountSpiSyncAdapter = new AsyncAccountSpiSyncAdapter(asyncAccountSpi);
+    }
+
+    @Test
+    public void accountSpiAsyncAdapter_readAccountDetails_executedByExecutor() {
+        //Given:
+        SpiResponse<SpiAccountDetails> response = new SpiResponse<>(mock(SpiAccountDetails.class), ASPSP_CONSENT_DATA);
+        when(accountSpi.readAccountDetails(ACCOUNT_ID, ASPSP_CONSENT_DATA)).thenReturn(response);
+        //When:
+        CompletableFuture<SpiResponse<SpiAccountDetails>> future = accountSpiAsyncAdapter.readAccountDetails(ACCOUNT_ID, ASPSP_CONSENT_DATA);
+        //Then:
+        assertThat(future.join()).isSameAs(response);
+        assertThat(executedTasks.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void accountSpiAsyncAdapter_connectorException_completesFutureExceptionally() {
+        //Given:
+        IllegalStateException exception = new IllegalStateException("connector failed");
+        when(accountSpi.readTransactionsByPeriod(ACCOUNT_ID, DATE_FROM, DATE_TO, ASPSP_CONSENT_DATA)).thenThrow(exception);
+        //When:
+        CompletableFuture<SpiResponse<List<SpiTransaction>>> future = accountSpiAsyncAdapter.readTransactionsByPeriod(ACCOUNT_ID, DATE_FROM, DATE_TO, ASPSP_CONSENT_DATA);
+        //Then:
+        assertThat(future.isCompletedExceptionally()).isTrue();
+        assertThat(catchThrowable(() -> SpiFutures.join(future))).isSameAs(exception);
+    }
+
+    @Test
+    public void asyncAccountSpiSyncAdapter_readTransactionsByPeriod_joinsFuture() {
+        //Given:
+        SpiResponse<List<SpiTransaction>> response = new SpiResponse<>(Collections.emptyList(), ASPSP_CONSENT_DATA);
+        when(asyncAccountSpi.readTransactionsByPeriod(ACCOUNT_ID, DATE_FROM, DATE_TO, ASPSP_CONSENT_DATA)).thenReturn(CompletableFuture.completedFuture(response));
+        //When:
+        SpiResponse<List<SpiTransaction>> actual = asyncAccountSpiSyncAdapter.readTransactionsByPeriod(ACCOUNT_ID, DATE_FROM, DATE_TO, ASPSP_CONSENT_DATA);
+        //Then:
+        assertThat(actual).isSameAs(response);
+    }
+
+    @Test
+    public void asyncAccountSpiSyncAdapter_failedFuture_rethrowsConnectorException() {
+        //Given:
+        IllegalStateException exception = new IllegalStateException("connector failed");
+        CompletableFuture<SpiResponse<SpiAccountDetails>> future = new CompletableFuture<>();
+        future.completeExceptionally(exception);
+        when(asyncAccountSpi.readAccountDetails(ACCOUNT_ID, ASPSP_CONSENT_DATA)).thenReturn(future);
+        //When:
+        Throwable thrown = catchThrowable(() -> asyncAccountSpiSyncAdapter.readAccountDetails(ACCOUNT_ID, ASPSP_CONSENT_DATA));
+        //Then:
+        assertThat(thrown).isSameAs(exception);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.spi.service.async;
+
+import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
+import de.adorsys.aspsp.xs2a.spi.domain.common.SpiTransactionStatus;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import de.adorsys.aspsp.xs2a.spi.domain.payment.SpiPaymentType;
+import de.adorsys.aspsp.xs2a.spi.service.AsyncPaymentSpi;
+import de.adorsys.aspsp.xs2a.spi.service.PaymentSpi;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PaymentSpiAdaptersTest {
+    private static final String PAYMENT_ID = "payment id";
+    private static final AspspConsentData ASPSP_CONSENT_DATA = new AspspConsentData();
+
+    @Mock
+    private PaymentSpi paymentSpi;
+    @Mock
+    private AsyncPaymentSpi asyncPaymentSpi;
+
+    private final AtomicInteger executedTasks = new AtomicInteger();
+    private final Executor executor = command -> {
+        executedTasks.incrementAndGet();
+        command.run();
+    };
+
+    private PaymentSpiAsyncAdapter paymentSpiAsyncAdapter;
+    private AsyncPaymentSpiSyncAdapter asyncPaymentSpiSyncAdapter;
+
+    @Before
+    public void setUp() {
+        paymentSpiAsyncAdapter = new PaymentSpiAsyncAdapter(paymentSpi, executor);
+        asyncPaymentSpiSyncAdapter = new AsyncPaymentSpiSyncAdapter(asyncPaymentSpi);
+    }
+
+    @Test
+    public void paymentSpiAsyncAdapter_getPaymentStatusById_executedByExecutor() {
+        //Given:
+        SpiResponse<SpiTransactionStatus> response = new SpiResponse<>(SpiTransactionStatus.ACCP, ASPSP_CONSENT_DATA);
+        when(paymentSpi.getPaymentStatusById(PAYMENT_ID, SpiPaymentType.SINGLE, ASPSP_CONSENT_DATA)).thenReturn(response);
+        //When:
+        CompletableFuture<SpiResponse<SpiTransactionStatus>> future = paymentSpiAsyncAdapter.getPaymentStatusById(PAYMENT_ID, SpiPaymentType.SINGLE, ASPSP_CONSENT_DATA);
+        //Then:
+        assertThat(future.join()).isSameAs(response);
+        assertThat(executedTasks.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void paymentSpiAsyncAdapter_performStrongUserAuthorisation_executedByExecutor() {
+        //When:
+        paymentSpiAsyncAdapter.performStrongUserAuthorisation(ASPSP_CONSENT_DATA).join();
+        //Then:
+        verify(paymentSpi).performStrongUserAuthorisation(ASPSP_CONSENT_DATA);
+        assertThat(executedTasks.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void paymentSpiAsyncAdapter_connectorException_completesFutureExceptionally() {
+        //Given:
+        IllegalStateException exception = new IllegalStateException("connector failed");
+        doThrow(exception).when(paymentSpi).performStrongUserAuthorisation(ASPSP_CONSENT_DATA);
+        //When:
+        CompletableFuture<Void> future = paymentSpiAsyncAdapter.performStrongUserAuthorisation(ASPSP_CONSENT_DATA);
+        //Then:
+        assertThat(catchThrowable(() -> SpiFutures.join(future))).isSameAs(exception);
+    }
+
+    @Test
+    public void asyncPaymentSpiSyncAdapter_getPaymentStatusById_joinsFuture() {
+        //Given:
+        SpiResponse<SpiTransactionStatus> response = new SpiResponse<>(SpiTransactionStatus.ACCP, ASPSP_CONSENT_DATA);
+        when(asyncPaymentSpi.getPaymentStatusById(PAYMENT_ID, SpiPaymentType.SINGLE, ASPSP_CONSENT_DATA)).thenReturn(CompletableFuture.completedFuture(response));
+        //When:
+        SpiResponse<SpiTransactionStatus> actual = asyncPaymentSpiSyncAdapter.getPaymentStatusById(PAYMENT_ID, SpiPaymentType.SINGLE, ASPSP_CONSENT_DATA);
+        //Then:
+        assertThat(actual).isSameAs(response);
+    }
+
+    @Test
+    public void asyncPaymentSpiSyncAdapter_performStrongUserAuthorisation_rethrowsConnectorException() {
+        //Given:
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        IllegalStateException exception = new IllegalStateException("connector failed");
+        future.completeExceptionally(exception);
+        when(asyncPaymentSpi.performStrongUserAuthorisation(ASPSP_CONSENT_DATA)).thenReturn(future);
+        //When:
+        Throwable thrown = catchThrowable(() -> asyncPaymentSpiSyncAdapter.performStrongUserAuthorisation(ASPSP_CONSENT_DATA));
+        //Then:
+        assertThat(thrown).isSameAs(exception);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.spi.service.async;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class SpiFuturesTest {
+
+    @Test
+    public void join_completed() {
+        //When:
+        String result = SpiFutures.join(CompletableFuture.completedFuture("result"));
+        //Then:
+        assertThat(result).isEqualTo("result");
+    }
+
+    @Test
+    public void join_runtimeExceptionIsUnwrapped() {
+        //Given:
+        IllegalStateException exception = new IllegalStateException("connector failed");
+        //When:
+        Throwable thrown = catchThrowable(() -> SpiFutures.join(failedFuture(exception)));
+        //Then:
+        assertThat(thrown).isSameAs(exception);
+    }
+
+    @Test
+    public void join_errorIsUnwrapped() {
+        //Given:
+        AssertionError error = new AssertionError("connector failed");
+        //When:
+        Throwable thrown = catchThrowable(() -> SpiFutures.join(failedFuture(error)));
+        //Then:
+        assertThat(thrown).isSameAs(error);
+    }
+
+    @Test
+    public void join_checkedExceptionStaysWrapped() {
+        //Given:
+        IOException exception = new IOException("connector failed");
+        //When:
+        Throwable thrown = catchThrowable(() -> SpiFutures.join(failedFuture(exception)));
+        //Then:
+        assertThat(thrown).isInstanceOf(CompletionException.class);
+        assertThat(thrown.getCause()).isSameAs(exception);
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable throwable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+}
@@ -62,6 +62,15 @@ public class AspspRemoteUrls {
         return spiMockBaseUrl + "/account/iban/{iban}";
     }
 
+    /**
+     * Returns URL-string to ASPSP-Mock endpoint that GETs AccountDetails by several IBANs at once
+     *
+     * @return URL with comma separated IBANs as query parameter
+     */
+    public String getAccountDetailsByIbans() {
+        return spiMockBaseUrl + "/account/ibans?ibans={ibans}";
+    }
+
     //Payments urls
     public String createPayment() {
         return spiMockBaseUrl + "/payments/";
@@ -99,6 +108,15 @@ public class AspspRemoteUrls {
         return spiMockBaseUrl + "/transaction/{account-id}";
     }
 
+    /**
+     * Returns URL-string to ASPSP-Mock endpoint that GETs Transactions list by accountId booked after the transaction with given entry reference
+     *
+     * @return URL with path parameters
+     */
+    public String readTransactionsAfter() {
+        return spiMockBaseUrl + "/transaction/{account-id}/after/{entry-reference}";
+    }
+
     /**
      * Returns URL-string to ASPSP-Mock endpoint that Creates a new Transaction with body SpiTransaction
      *
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.spi.config;
+
+import de.adorsys.aspsp.httpclient.PooledHttpClient;
+import de.adorsys.aspsp.xs2a.config.rest.aspsp.AspspRestErrorHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.AsyncRestTemplate;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Asynchronous SPI of the mock connector. Account calls are sent with async rest template through the pooled ASPSP http client.
+ * Blocking I/O runs on its own bounded pool, so the calling thread is not blocked as long as the pool and its queue have capacity,
+ * otherwise the request is sent by the calling thread.
+ */
+@Configuration
+public class AsyncSpiConfig {
+    @Value("${xs2a.spi-async.io-pool-size:50}")
+    private int ioPoolSize;
+    @Value("${xs2a.spi-async.io-queue-capacity:100}")
+    private int ioQueueCapacity;
+
+    @Bean(name = "aspspAsyncIoExecutor")
+    public ThreadPoolTaskExecutor aspspAsyncIoExecutor() {
+        ThreadPoolTaskExecutor ioExecutor = new ThreadPoolTaskExecutor();
+        ioExecutor.setCorePoolSize(ioPoolSize);
+        ioExecutor.setMaxPoolSize(ioPoolSize);
+        ioExecutor.setQueueCapacity(ioQueueCapacity);
+        ioExecutor.setThreadNamePrefix("aspsp-async-");
+        ioExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return ioExecutor;
+    }
+
+    @Bean(name = "aspspAsyncRestTemplate")
+    public AsyncRestTemplate aspspAsyncRestTemplate(@Qualifier("aspspHttpClient") PooledHttpClient aspspHttpClient) {
+        ClientHttpRequestFactory requestFactory = aspspHttpClient.requestFactory();
+        AsyncRestTemplate rest = new AsyncRestTemplate(new ExecutorAsyncClientHttpRequestFactory(requestFactory, aspspAsyncIoExecutor()), requestFactory);
+        rest.getMessageConverters().removeIf(m -> m.getClass().getName().equals(MappingJackson2XmlHttpMessageConverter.class.getName()));
+        rest.setErrorHandler(new AspspRestErrorHandler());
+        return rest;
+    }
+}
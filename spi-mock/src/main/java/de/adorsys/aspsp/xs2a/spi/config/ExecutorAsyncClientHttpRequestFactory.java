@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.spi.config;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.AsyncClientHttpRequest;
+import org.springframework.http.client.AsyncClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * Async request factory executing blocking requests of the given request factory on a task executor.
+ * Allows async rest template to send requests through a pooled http client, so connections to ASPSP are reused.
+ */
+public class ExecutorAsyncClientHttpRequestFactory implements AsyncClientHttpRequestFactory {
+    private final ClientHttpRequestFactory requestFactory;
+    private final AsyncListenableTaskExecutor taskExecutor;
+
+    public ExecutorAsyncClientHttpRequestFactory(ClientHttpRequestFactory requestFactory, AsyncListenableTaskExecutor taskExecutor) {
+        this.requestFactory = requestFactory;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public AsyncClientHttpRequest createAsyncRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        return new ExecutorAsyncClientHttpRequest(requestFactory.createRequest(uri, httpMethod), taskExecutor);
+    }
+
+    private static class ExecutorAsyncClientHttpRequest implements AsyncClientHttpRequest {
+        private final ClientHttpRequest request;
+        private final AsyncListenableTaskExecutor taskExecutor;
+
+        ExecutorAsyncClientHttpRequest(ClientHttpRequest request, AsyncListenableTaskExecutor taskExecutor) {
+            this.request = request;
+            this.taskExecutor = taskExecutor;
+        }
+
+        @Override
+        public ListenableFuture<ClientHttpResponse> executeAsync() {
+            return taskExecutor.submitListenable(request::execute);
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return request.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return request.getURI();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return request.getHeaders();
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return request.getBody();
+        }
+    }
+}
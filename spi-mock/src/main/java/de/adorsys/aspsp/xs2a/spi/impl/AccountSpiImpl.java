@@ -16,6 +16,10 @@
 
 package de.adorsys.aspsp.xs2a.spi.impl;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.aspsp.xs2a.exception.RestException;
 import de.adorsys.aspsp.xs2a.spi.config.AspspRemoteUrls;
 import de.adorsys.aspsp.xs2a.spi.domain.ObjectHolder;
 import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
@@ -31,12 +35,16 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Component
 @AllArgsConstructor
@@ -81,6 +89,57 @@ public class AccountSpiImpl implements AccountSpi {
         return new SpiResponse<>(response, new AspspConsentData()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
     }
 
+    /**
+     * For detailed description see {@link AccountSpi#streamTransactionsByPeriod(String, LocalDate, LocalDate, Consumer, AspspConsentData)}
+     */
+    @Override
+    public SpiResponse<Void> streamTransactionsByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, Consumer<SpiTransaction> transactionConsumer, AspspConsentData aspspConsentData) {
+        Map<String, String> uriParams = new ObjectHolder<String, String>()
+                                            .addValue("account-id", accountId)
+                                            .getValues();
+
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(remoteSpiUrls.readTransactionsByPeriod())
+                                           .queryParam("dateFrom", dateFrom)
+                                           .queryParam("dateTo", dateTo);
+
+        ObjectMapper objectMapper = getObjectMapper();
+        aspspRestTemplate.execute(builder.buildAndExpand(uriParams).toUriString(), HttpMethod.GET, null, response -> {
+            try (JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    return null;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    transactionConsumer.accept(objectMapper.readValue(parser, SpiTransaction.class));
+                }
+            }
+            return null;
+        });
+        return new SpiResponse<>(null, new AspspConsentData()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+    }
+
+    /**
+     * For detailed description see {@link AccountSpi#readTransactionsAfter(String, String, AspspConsentData)}
+     */
+    @Override
+    public SpiResponse<List<SpiTransaction>> readTransactionsAfter(String accountId, String entryReference, AspspConsentData aspspConsentData) {
+        Map<String, String> uriParams = new ObjectHolder<String, String>()
+                                            .addValue("account-id", accountId)
+                                            .addValue("entry-reference", entryReference)
+                                            .getValues();
+
+        try {
+            List<SpiTransaction> response = aspspRestTemplate.exchange(
+                remoteSpiUrls.readTransactionsAfter(), HttpMethod.GET, null, new ParameterizedTypeReference<List<SpiTransaction>>() {
+                }, uriParams).getBody();
+            return new SpiResponse<>(Optional.ofNullable(response).orElseGet(Collections::emptyList), new AspspConsentData()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        } catch (RestException e) {
+            if (e.getHttpStatus() == HttpStatus.NOT_FOUND) {
+                return new SpiResponse<>(null, new AspspConsentData()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+            }
+            throw e;
+        }
+    }
+
     /**
      * For detailed description see {@link AccountSpi#readTransactionById(String, String, AspspConsentData)}
      */
@@ -116,18 +175,35 @@ public class AccountSpiImpl implements AccountSpi {
      */
     @Override
     public SpiResponse<List<SpiAccountDetails>> readAccountDetailsByIbans(Collection<String> ibans, AspspConsentData aspspConsentData) {
-        List<SpiAccountDetails> accountDetails = new ArrayList<>();
-        for (String iban : ibans) {
-            List<SpiAccountDetails> det = readAccountDetailsByIban(iban, aspspConsentData).getPayload();
-            if (CollectionUtils.isEmpty(det)) {
-                return new SpiResponse<>(Collections.emptyList(), new AspspConsentData()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
-            }
-            accountDetails.addAll(det);
+        List<SpiAccountDetails> accountDetails = readAccountDetailsByIbans(ibans);
+        Set<String> foundIbans = accountDetails.stream()
+                                     .map(SpiAccountDetails::getIban)
+                                     .collect(Collectors.toSet());
+        if (!foundIbans.containsAll(ibans)) {
+            return new SpiResponse<>(Collections.emptyList(), new AspspConsentData()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
         }
 
         return new SpiResponse<>(accountDetails, new AspspConsentData()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
     }
 
+    /**
+     * For detailed description see {@link AccountSpi#readAccountDetailsByReferences(List, AspspConsentData)}
+     */
+    @Override
+    public SpiResponse<List<SpiAccountDetails>> readAccountDetailsByReferences(List<SpiAccountReference> references, AspspConsentData aspspConsentData) {
+        List<SpiAccountDetails> accountDetails = readAccountDetailsByIbans(references.stream()
+                                                                               .map(SpiAccountReference::getIban)
+                                                                               .collect(Collectors.toList()));
+        List<SpiAccountDetails> response = references.stream()
+                                               .map(ref -> accountDetails.stream()
+                                                               .filter(acc -> acc.getIban().equals(ref.getIban()) && acc.getCurrency() == ref.getCurrency())
+                                                               .findFirst())
+                                               .filter(Optional::isPresent)
+                                               .map(Optional::get)
+                                               .collect(Collectors.toList());
+        return new SpiResponse<>(response, new AspspConsentData()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+    }
+
     /**
      * For detailed description see {@link AccountSpi#readPsuAllowedPaymentProductList(SpiAccountReference, AspspConsentData)}
      */
@@ -143,4 +219,27 @@ public class AccountSpiImpl implements AccountSpi {
     public SpiResponse<List<SpiScaMethod>> readAvailableScaMethods(String psuId, String password) {
         return null;
     }
+
+    private ObjectMapper getObjectMapper() {
+        return aspspRestTemplate.getMessageConverters().stream()
+                   .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                   .map(converter -> ((MappingJackson2HttpMessageConverter) converter).getObjectMapper())
+                   .findFirst()
+                   .orElseGet(ObjectMapper::new);
+    }
+
+    private List<SpiAccountDetails> readAccountDetailsByIbans(Collection<String> ibans) {
+        if (CollectionUtils.isEmpty(ibans)) {
+            return Collections.emptyList();
+        }
+        return Optional.ofNullable(
+            aspspRestTemplate.exchange(
+                remoteSpiUrls.getAccountDetailsByIbans(),
+                HttpMethod.GET,
+                new HttpEntity<>(null), new ParameterizedTypeReference<List<SpiAccountDetails>>() {
+                }, String.join(",", ibans))
+                .getBody()
+        )
+                   .orElse(Collections.emptyList());
+    }
 }
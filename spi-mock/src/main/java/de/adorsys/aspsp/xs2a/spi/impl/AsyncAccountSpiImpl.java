@@ -0,0 +1,233 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.spi.impl;
+
+import de.adorsys.aspsp.xs2a.config.rest.BearerToken;
+import de.adorsys.aspsp.xs2a.exception.RestException;
+import de.adorsys.aspsp.xs2a.spi.config.AspspRemoteUrls;
+import de.adorsys.aspsp.xs2a.spi.domain.ObjectHolder;
+import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import de.adorsys.aspsp.xs2a.spi.domain.psu.SpiScaMethod;
+import de.adorsys.aspsp.xs2a.spi.service.AccountSpi;
+import de.adorsys.aspsp.xs2a.spi.service.AsyncAccountSpi;
+import lombok.AllArgsConstructor;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.client.AsyncRestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import static de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant.AUTHORIZATION_HEADER;
+import static de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant.BEARER_TOKEN_PREFIX;
+
+/**
+ * Non-blocking implementation of {@link AsyncAccountSpi} calling ASPSP mock server with async rest template.
+ * Bearer token of the current request is resolved by the calling thread, when the call is started.
+ * Marked as primary to take precedence over the default adapter of the synchronous {@link AccountSpi} registered by XS2A.
+ */
+@Primary
+@Component
+@AllArgsConstructor
+public class AsyncAccountSpiImpl implements AsyncAccountSpi {
+    private static final ParameterizedTypeReference<List<SpiAccountDetails>> ACCOUNT_DETAILS_LIST = new ParameterizedTypeReference<List<SpiAccountDetails>>() {
+    };
+    private static final ParameterizedTypeReference<List<SpiTransaction>> TRANSACTION_LIST = new ParameterizedTypeReference<List<SpiTransaction>>() {
+    };
+    private static final ParameterizedTypeReference<List<SpiScaMethod>> SCA_METHOD_LIST = new ParameterizedTypeReference<List<SpiScaMethod>>() {
+    };
+
+    private final AspspRemoteUrls remoteSpiUrls;
+    @Qualifier("aspspAsyncRestTemplate")
+    private final AsyncRestTemplate aspspAsyncRestTemplate;
+    private final BearerToken bearerToken;
+
+    /**
+     * For detailed description see {@link AccountSpi#readTransactionsByPeriod(String, LocalDate, LocalDate, AspspConsentData)}
+     */
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiTransaction>>> readTransactionsByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, AspspConsentData aspspConsentData) {
+        Map<String, String> uriParams = new ObjectHolder<String, String>()
+                                            .addValue("account-id", accountId)
+                                            .getValues();
+
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(remoteSpiUrls.readTransactionsByPeriod())
+                                           .queryParam("dateFrom", dateFrom)
+                                           .queryParam("dateTo", dateTo);
+
+        return toCompletableFuture(aspspAsyncRestTemplate.exchange(builder.buildAndExpand(uriParams).toUriString(), HttpMethod.GET, authorizedEntity(), TRANSACTION_LIST))
+                   .thenApply(response -> new SpiResponse<>(response, new AspspConsentData())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+    }
+
+    /**
+     * For detailed description see {@link AccountSpi#readTransactionsAfter(String, String, AspspConsentData)}
+     */
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiTransaction>>> readTransactionsAfter(String accountId, String entryReference, AspspConsentData aspspConsentData) {
+        Map<String, String> uriParams = new ObjectHolder<String, String>()
+                                            .addValue("account-id", accountId)
+                                            .addValue("entry-reference", entryReference)
+                                            .getValues();
+
+        CompletableFuture<SpiResponse<List<SpiTransaction>>> result = new CompletableFuture<>();
+        toCompletableFuture(aspspAsyncRestTemplate.exchange(remoteSpiUrls.readTransactionsAfter(), HttpMethod.GET, authorizedEntity(), TRANSACTION_LIST, uriParams))
+            .whenComplete((response, e) -> {
+                if (e == null) {
+                    result.complete(new SpiResponse<>(Optional.ofNullable(response).orElseGet(Collections::emptyList), new AspspConsentData())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+                } else if (isNotFound(e)) {
+                    result.complete(new SpiResponse<>(null, new AspspConsentData())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+                } else {
+                    result.completeExceptionally(e);
+                }
+            });
+        return result;
+    }
+
+    /**
+     * For detailed description see {@link AccountSpi#readTransactionById(String, String, AspspConsentData)}
+     */
+    @Override
+    public CompletableFuture<SpiResponse<Optional<SpiTransaction>>> readTransactionById(String transactionId, String accountId, AspspConsentData aspspConsentData) {
+        return toCompletableFuture(aspspAsyncRestTemplate.exchange(remoteSpiUrls.readTransactionById(), HttpMethod.GET, authorizedEntity(), SpiTransaction.class, transactionId, accountId))
+                   .thenApply(response -> new SpiResponse<>(Optional.ofNullable(response), new AspspConsentData())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+    }
+
+    /**
+     * For detailed description see {@link AccountSpi#readAccountDetails(String, AspspConsentData)}
+     */
+    @Override
+    public CompletableFuture<SpiResponse<SpiAccountDetails>> readAccountDetails(String accountId, AspspConsentData aspspConsentData) {
+        return toCompletableFuture(aspspAsyncRestTemplate.exchange(remoteSpiUrls.getAccountDetailsById(), HttpMethod.GET, authorizedEntity(), SpiAccountDetails.class, accountId))
+                   .thenApply(response -> new SpiResponse<>(response, new AspspConsentData())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+    }
+
+    /**
+     * For detailed description see {@link AccountSpi#readAccountsByPsuId(String, AspspConsentData)}
+     */
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiAccountDetails>>> readAccountsByPsuId(String psuId, AspspConsentData aspspConsentData) {
+        return toCompletableFuture(aspspAsyncRestTemplate.exchange(remoteSpiUrls.getAccountDetailsByPsuId(), HttpMethod.GET, authorizedEntity(), ACCOUNT_DETAILS_LIST, psuId))
+                   .thenApply(response -> new SpiResponse<>(Optional.ofNullable(response).orElse(Collections.emptyList()), new AspspConsentData())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+    }
+
+    /**
+     * For detailed description see {@link AccountSpi#readAccountDetailsByIban(String, AspspConsentData)}
+     */
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiAccountDetails>>> readAccountDetailsByIban(String iban, AspspConsentData aspspConsentData) {
+        return toCompletableFuture(aspspAsyncRestTemplate.exchange(remoteSpiUrls.getAccountDetailsByIban(), HttpMethod.GET, authorizedEntity(), ACCOUNT_DETAILS_LIST, iban))
+                   .thenApply(response -> new SpiResponse<>(Optional.ofNullable(response).orElse(Collections.emptyList()), new AspspConsentData())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+    }
+
+    /**
+     * For detailed description see {@link AccountSpi#readAccountDetailsByIbans(Collection, AspspConsentData)}
+     */
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiAccountDetails>>> readAccountDetailsByIbans(Collection<String> ibans, AspspConsentData aspspConsentData) {
+        return readAccountDetailsByIbans(ibans)
+                   .thenApply(accountDetails -> {
+                       Set<String> foundIbans = accountDetails.stream()
+                                                    .map(SpiAccountDetails::getIban)
+                                                    .collect(Collectors.toSet());
+                       return foundIbans.containsAll(ibans)
+                                  ? new SpiResponse<>(accountDetails, new AspspConsentData()) // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+                                  : new SpiResponse<>(Collections.<SpiAccountDetails>emptyList(), new AspspConsentData());
+                   });
+    }
+
+    /**
+     * For detailed description see {@link AccountSpi#readAccountDetailsByReferences(List, AspspConsentData)}
+     */
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiAccountDetails>>> readAccountDetailsByReferences(List<SpiAccountReference> references, AspspConsentData aspspConsentData) {
+        return readAccountDetailsByIbans(references.stream()
+                                             .map(SpiAccountReference::getIban)
+                                             .collect(Collectors.toList()))
+                   .thenApply(accountDetails -> references.stream()
+                                                    .map(ref -> accountDetails.stream()
+                                                                    .filter(acc -> acc.getIban().equals(ref.getIban()) && acc.getCurrency() == ref.getCurrency())
+                                                                    .findFirst())
+                                                    .filter(Optional::isPresent)
+                                                    .map(Optional::get)
+                                                    .collect(Collectors.toList()))
+                   .thenApply(response -> new SpiResponse<>(response, new AspspConsentData())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+    }
+
+    /**
+     * For detailed description see {@link AccountSpi#readPsuAllowedPaymentProductList(SpiAccountReference, AspspConsentData)}
+     */
+    @Override
+    public CompletableFuture<SpiResponse<List<String>>> readPsuAllowedPaymentProductList(SpiAccountReference reference, AspspConsentData aspspConsentData) {
+        return toCompletableFuture(aspspAsyncRestTemplate.exchange(remoteSpiUrls.getAllowedPaymentProducts(), HttpMethod.GET, authorizedEntity(), new ParameterizedTypeReference<List<String>>() {
+        }, reference.getIban()))
+                   .thenApply(response -> new SpiResponse<>(Optional.ofNullable(response).orElse(Collections.emptyList()), new AspspConsentData())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+    }
+
+    /**
+     * Reads SCA methods of the PSU the bearer token of the current request was issued to
+     */
+    @Override
+    public CompletableFuture<SpiResponse<List<SpiScaMethod>>> readAvailableScaMethods(String psuId, String password) {
+        return toCompletableFuture(aspspAsyncRestTemplate.exchange(remoteSpiUrls.getScaMethods(), HttpMethod.GET, authorizedEntity(), SCA_METHOD_LIST))
+                   .thenApply(response -> new SpiResponse<>(Optional.ofNullable(response).orElse(Collections.emptyList()), new AspspConsentData())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+    }
+
+    private CompletableFuture<List<SpiAccountDetails>> readAccountDetailsByIbans(Collection<String> ibans) {
+        if (CollectionUtils.isEmpty(ibans)) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        return toCompletableFuture(aspspAsyncRestTemplate.exchange(remoteSpiUrls.getAccountDetailsByIbans(), HttpMethod.GET, authorizedEntity(), ACCOUNT_DETAILS_LIST, String.join(",", ibans)))
+                   .thenApply(response -> Optional.ofNullable(response).orElse(Collections.emptyList()));
+    }
+
+    private HttpEntity<Void> authorizedEntity() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(AUTHORIZATION_HEADER, BEARER_TOKEN_PREFIX + bearerToken.getToken());
+        return new HttpEntity<>(headers);
+    }
+
+    private boolean isNotFound(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException
+                              ? throwable.getCause()
+                              : throwable;
+        return cause instanceof RestException && ((RestException) cause).getHttpStatus() == HttpStatus.NOT_FOUND;
+    }
+
+    private <T> CompletableFuture<T> toCompletableFuture(ListenableFuture<ResponseEntity<T>> future) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.addCallback(response -> result.complete(response.getBody()), result::completeExceptionally);
+        return result;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.*;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds immutable snapshot of a resource read from a remote service together with its version (ETag).
+ * The snapshot is refreshed by conditional requests, which are answered by the service with 304 Not Modified as long as
+ * the resource stays unchanged, so callers read the resource from memory only. Scheduling of refreshes is left to subclasses,
+ * as well as notification about new versions of the resource.
+ * If declared as a bean, state of the snapshot is published with actuator metrics.
+ *
+ * @param <T> type of the resource
+ */
+@Slf4j
+public class VersionedResourceSnapshot<T> implements PublicMetrics {
+    private final String name;
+    private final String metricPrefix;
+    private final RestTemplate restTemplate;
+    private final String url;
+    private final Class<T> resourceType;
+
+    private volatile VersionedResource<T> current;
+
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public VersionedResourceSnapshot(String name, RestTemplate restTemplate, String url, Class<T> resourceType) {
+        this.name = name;
+        this.metricPrefix = name + ".snapshot.";
+        this.restTemplate = restTemplate;
+        this.url = url;
+        this.resourceType = resourceType;
+    }
+
+    /**
+     * Returns current snapshot of the resource. The resource is read synchronously only if no snapshot was loaded yet
+     *
+     * @return resource
+     */
+    public T get() {
+        VersionedResource<T> resource = current;
+        if (resource == null) {
+            resource = loadInitial();
+        }
+        return resource.getResource();
+    }
+
+    /**
+     * Returns version of current snapshot as provided by the remote service
+     *
+     * @return ETag of the current snapshot or null if no snapshot was loaded yet
+     */
+    public String getVersion() {
+        VersionedResource<T> resource = current;
+        return resource == null
+                   ? null
+                   : resource.getETag();
+    }
+
+    /**
+     * Reads the resource from the remote service, if it was changed since the current snapshot was loaded
+     */
+    public synchronized void refresh() {
+        VersionedResource<T> previous = current;
+        HttpHeaders headers = new HttpHeaders();
+        if (previous != null && previous.getETag() != null) {
+            headers.setIfNoneMatch(previous.getETag());
+        }
+        ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), resourceType);
+
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && previous != null) {
+            notModified.incrementAndGet();
+            return;
+        }
+        current = new VersionedResource<>(response.getBody(), response.getHeaders().getETag());
+        updates.incrementAndGet();
+        if (previous != null) {
+            log.info("{} changed from version {} to {}", name, previous.getETag(), current.getETag());
+        }
+        onUpdate(previous == null ? null : previous.getResource(), current.getResource());
+    }
+
+    /**
+     * Refreshes the snapshot, failures are logged and counted, current snapshot is kept in this case
+     */
+    public void refreshSafely() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.error("Failed to refresh {}: {}", name, e.getMessage());
+        }
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        VersionedResource<T> resource = current;
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(metricPrefix + "update", updates.get()));
+        metrics.add(new Metric<>(metricPrefix + "not-modified", notModified.get()));
+        metrics.add(new Metric<>(metricPrefix + "failed", failed.get()));
+        metrics.add(new Metric<>(metricPrefix + "age.ms", resource == null ? 0 : System.currentTimeMillis() - resource.getLoadedAt()));
+        return metrics;
+    }
+
+    /**
+     * Called after a new version of the resource was loaded, including the first one
+     *
+     * @param previous resource of the previous snapshot, null if the first snapshot was loaded
+     * @param current  resource of the new snapshot
+     */
+    protected void onUpdate(T previous, T current) {
+    }
+
+    private synchronized VersionedResource<T> loadInitial() {
+        if (current == null) {
+            refresh();
+        }
+        return current;
+    }
+
+    private static class VersionedResource<T> {
+        private final T resource;
+        private final String eTag;
+        private final long loadedAt = System.currentTimeMillis();
+
+        VersionedResource(T resource, String eTag) {
+            this.resource = resource;
+            this.eTag = eTag;
+        }
+
+        T getResource() {
+            return resource;
+        }
+
+        String getETag() {
+            return eTag;
+        }
+
+        long getLoadedAt() {
+            return loadedAt;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.snapshot;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.*;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class VersionedResourceSnapshotTest {
+    private static final String NAME = "aspsp-profile";
+    private static final String URL = "http://localhost:48080/api/v1/aspsp-profile";
+    private static final String FIRST_VERSION = "\"1\"";
+    private static final String SECOND_VERSION = "\"2\"";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private VersionedResourceSnapshot<String> snapshot;
+
+    @Before
+    public void setUp() {
+        snapshot = new VersionedResourceSnapshot<>(NAME, restTemplate, URL, String.class);
+    }
+
+    @Test
+    public void get_loadsOnce() {
+        //Given:
+        when(restTemplate.exchange(eq(URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+            .thenReturn(ResponseEntity.ok().eTag(FIRST_VERSION).body("first"));
+        //When:
+        String first = snapshot.get();
+        String second = snapshot.get();
+        //Then:
+        assertThat(second).isSameAs(first);
+        assertThat(snapshot.getVersion()).isEqualTo(FIRST_VERSION);
+        verify(restTemplate, times(1)).exchange(eq(URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class));
+    }
+
+    @Test
+    public void refresh_sendsVersionAndKeepsSnapshotIfNotModified() {
+        //Given:
+        when(restTemplate.exchange(eq(URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+            .thenReturn(ResponseEntity.ok().eTag(FIRST_VERSION).body("first"))
+            .thenReturn(new ResponseEntity<>(HttpStatus.NOT_MODIFIED));
+        String first = snapshot.get();
+        //When:
+        snapshot.refresh();
+        //Then:
+        ArgumentCaptor<HttpEntity> requestCaptor = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(2)).exchange(eq(URL), eq(HttpMethod.GET), requestCaptor.capture(), eq(String.class));
+        assertThat(requestCaptor.getValue().getHeaders().getIfNoneMatch()).containsExactly(FIRST_VERSION);
+        assertThat(snapshot.get()).isSameAs(first);
+        assertThat(getMetrics()).containsEntry(NAME + ".snapshot.update", 1L).containsEntry(NAME + ".snapshot.not-modified", 1L);
+    }
+
+    @Test
+    public void refresh_replacesSnapshotOnNewVersion() {
+        //Given:
+        when(restTemplate.exchange(eq(URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+            .thenReturn(ResponseEntity.ok().eTag(FIRST_VERSION).body("first"))
+            .thenReturn(ResponseEntity.ok().eTag(SECOND_VERSION).body("second"));
+        snapshot.get();
+        //When:
+        snapshot.refresh();
+        //Then:
+        assertThat(snapshot.get()).isEqualTo("second");
+        assertThat(snapshot.getVersion()).isEqualTo(SECOND_VERSION);
+    }
+
+    @Test
+    public void refresh_notifiesOnlyAboutNewVersions() {
+        //Given:
+        List<String> updates = new ArrayList<>();
+        snapshot = new VersionedResourceSnapshot<String>(NAME, restTemplate, URL, String.class) {
+            @Override
+            protected void onUpdate(String previous, String current) {
+                updates.add(previous + "->" + current);
+            }
+        };
+        when(restTemplate.exchange(eq(URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+            .thenReturn(ResponseEntity.ok().eTag(FIRST_VERSION).body("first"))
+            .thenReturn(new ResponseEntity<>(HttpStatus.NOT_MODIFIED))
+            .thenReturn(ResponseEntity.ok().eTag(SECOND_VERSION).body("second"));
+        snapshot.get();
+        //When:
+        snapshot.refresh();
+        snapshot.refresh();
+        //Then:
+        assertThat(updates).containsExactly("null->first", "first->second");
+    }
+
+    @Test
+    public void refreshSafely_keepsSnapshotOnFailure() {
+        //Given:
+        when(restTemplate.exchange(eq(URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+            .thenReturn(ResponseEntity.ok().eTag(FIRST_VERSION).body("first"))
+            .thenThrow(new ResourceAccessException("Connection refused"));
+        snapshot.get();
+        //When:
+        snapshot.refreshSafely();
+        //Then:
+        assertThat(snapshot.get()).isEqualTo("first");
+        assertThat(getMetrics()).containsEntry(NAME + ".snapshot.failed", 1L);
+    }
+
+    private Map<String, Number> getMetrics() {
+        return snapshot.metrics().stream()
+                   .collect(Collectors.toMap(Metric::getName, Metric::getValue));
+    }
+}
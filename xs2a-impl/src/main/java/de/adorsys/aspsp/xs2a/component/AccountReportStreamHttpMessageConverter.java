@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.component;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.adorsys.aspsp.xs2a.domain.Transactions;
+import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountReportStream;
+import de.adorsys.aspsp.xs2a.exception.ResponseStreamAbortedException;
+import de.adorsys.aspsp.xs2a.service.mapper.AccountModelMapper;
+import de.adorsys.psd2.model.TransactionDetails;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes streamed account report directly to the response body with Jackson streaming API.
+ * Booked and pending transactions are read from separate sources and written as soon as they are read from ASPSP,
+ * so no list of transactions is held in memory. Empty lists are omitted, like for a regular account report.
+ * The completion callback of the report is called only after the report has been written completely. If reading or writing
+ * fails, the JSON document is left unfinished and {@link ResponseStreamAbortedException} is thrown to abort the connection.
+ */
+public class AccountReportStreamHttpMessageConverter extends AbstractHttpMessageConverter<Xs2aAccountReportStream> {
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter transactionWriter;
+
+    public AccountReportStreamHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON_UTF8, MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.objectMapper = objectMapper;
+        this.transactionWriter = objectMapper.writerFor(TransactionDetails.class)
+                                     .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Xs2aAccountReportStream.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Xs2aAccountReportStream readInternal(Class<? extends Xs2aAccountReportStream> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Account report stream can't be read");
+    }
+
+    @Override
+    protected void writeInternal(Xs2aAccountReportStream report, HttpOutputMessage outputMessage) {
+        try {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputMessage.getBody(), JsonEncoding.UTF8);
+            generator.writeStartObject();
+            writeTransactions(generator, "booked", report.getBooked());
+            writeTransactions(generator, "pending", report.getPending());
+            if (report.getLinks() != null) {
+                generator.writeFieldName("_links");
+                objectMapper.writeValue(generator, report.getLinks());
+            }
+            generator.writeEndObject();
+            generator.flush();
+        } catch (IOException | RuntimeException e) {
+            throw new ResponseStreamAbortedException("Account report stream can't be written completely", e);
+        }
+        report.getCompletionCallback().run();
+    }
+
+    private void writeTransactions(JsonGenerator generator, String fieldName, Xs2aAccountReportStream.TransactionSource source) throws IOException {
+        TransactionArrayWriter arrayWriter = new TransactionArrayWriter(generator, fieldName);
+        try {
+            source.forEach(arrayWriter::write);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        arrayWriter.close();
+    }
+
+    private class TransactionArrayWriter {
+        private final JsonGenerator generator;
+        private final String fieldName;
+        private boolean started;
+
+        TransactionArrayWriter(JsonGenerator generator, String fieldName) {
+            this.generator = generator;
+            this.fieldName = fieldName;
+        }
+
+        void write(Transactions transaction) {
+            try {
+                if (!started) {
+                    generator.writeArrayFieldStart(fieldName);
+                    started = true;
+                }
+                transactionWriter.writeValue(generator, AccountModelMapper.mapToTransaction(transaction));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void close() throws IOException {
+            if (started) {
+                generator.writeEndArray();
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded executor used to run XS2A request handling outside of servlet container threads when async mode is enabled.
+ * Request attributes and security context are bound to the worker by Spring MVC async support.
+ * If the pool and its queue are exhausted the request is handled by the calling container thread.
+ */
+@Configuration
+public class RequestExecutorConfig {
+    private static final String METRIC_PREFIX = "executor.request.";
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Value("${xs2a.request-executor.pool-size:200}")
+    private int poolSize;
+    @Value("${xs2a.request-executor.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Bean(name = "requestExecutor")
+    public ThreadPoolTaskExecutor requestExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("xs2a-request-");
+        executor.setRejectedExecutionHandler((runnable, pool) -> {
+            rejected.incrementAndGet();
+            new ThreadPoolExecutor.CallerRunsPolicy().rejectedExecution(runnable, pool);
+        });
+        return executor;
+    }
+
+    @Bean
+    public PublicMetrics requestExecutorMetrics(@Qualifier("requestExecutor") ThreadPoolTaskExecutor requestExecutor) {
+        return () -> {
+            ThreadPoolExecutor pool = requestExecutor.getThreadPoolExecutor();
+            List<Metric<?>> metrics = new ArrayList<>();
+            metrics.add(new Metric<>(METRIC_PREFIX + "active", pool.getActiveCount()));
+            metrics.add(new Metric<>(METRIC_PREFIX + "pool.size", pool.getPoolSize()));
+            metrics.add(new Metric<>(METRIC_PREFIX + "queue.size", pool.getQueue().size()));
+            metrics.add(new Metric<>(METRIC_PREFIX + "completed", pool.getCompletedTaskCount()));
+            metrics.add(new Metric<>(METRIC_PREFIX + "rejected", rejected.get()));
+            return metrics;
+        };
+    }
+}
@@ -22,7 +22,7 @@ import de.adorsys.aspsp.xs2a.service.authorization.ais.*;
 import de.adorsys.aspsp.xs2a.service.authorization.pis.*;
 import de.adorsys.aspsp.xs2a.service.consent.AisConsentService;
 import de.adorsys.aspsp.xs2a.service.consent.PisConsentService;
-import de.adorsys.aspsp.xs2a.service.keycloak.KeycloakInvokerService;
+import de.adorsys.aspsp.xs2a.service.keycloak.KeycloakTokenManager;
 import de.adorsys.aspsp.xs2a.service.mapper.PaymentMapper;
 import de.adorsys.aspsp.xs2a.service.mapper.consent.Xs2aAisConsentMapper;
 import de.adorsys.aspsp.xs2a.service.mapper.consent.Xs2aPisConsentMapper;
@@ -49,7 +49,7 @@ import static de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant.AU
 @RequiredArgsConstructor
 public class ScaAuthorizationConfig {
     private final AspspProfileService aspspProfileService;
-    private final KeycloakInvokerService keycloakInvokerService;
+    private final KeycloakTokenManager keycloakTokenManager;
 
     @Bean
     @Scope(scopeName = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
@@ -63,7 +63,7 @@ public class ScaAuthorizationConfig {
         if (OAUTH == scaApproach) {
             accessToken = obtainAccessTokenFromHeader(request);
         } else if (EnumSet.of(REDIRECT, EMBEDDED).contains(scaApproach)) {
-            accessToken = keycloakInvokerService.obtainAccessToken();
+            accessToken = keycloakTokenManager.getAccessToken();
         }
         return Optional.ofNullable(accessToken)
                    .orElseThrow(IllegalArgumentException::new);
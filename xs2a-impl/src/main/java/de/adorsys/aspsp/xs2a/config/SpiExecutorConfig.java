@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.config;
+
+import de.adorsys.aspsp.xs2a.spi.service.AccountSpi;
+import de.adorsys.aspsp.xs2a.spi.service.AsyncAccountSpi;
+import de.adorsys.aspsp.xs2a.spi.service.async.AccountSpiAsyncAdapter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded executor used to call ASPSP connector in parallel within one XS2A request.
+ * Request attributes and security context of the calling thread are propagated to the worker,
+ * so request scoped beans (e.g. bearer token of the ASPSP rest template) keep working.
+ * If the pool and its queue are exhausted the task is executed by the calling thread.
+ */
+@Configuration
+public class SpiExecutorConfig {
+    @Value("${xs2a.spi-executor.pool-size:8}")
+    private int poolSize;
+    @Value("${xs2a.spi-executor.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Bean(name = "spiExecutor")
+    public ThreadPoolTaskExecutor spiExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("xs2a-spi-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        return executor;
+    }
+
+    /**
+     * Default asynchronous account SPI for connectors implementing only {@link AccountSpi}. Calls of the connector are executed by the SPI executor.
+     * Connectors providing their own {@link AsyncAccountSpi} have to mark it as {@link org.springframework.context.annotation.Primary}
+     */
+    @Bean(name = "accountSpiAsyncAdapter")
+    public AsyncAccountSpi accountSpiAsyncAdapter(AccountSpi accountSpi, @Qualifier("spiExecutor") Executor spiExecutor) {
+        return new AccountSpiAsyncAdapter(accountSpi, spiExecutor);
+    }
+
+    private static class RequestContextTaskDecorator implements TaskDecorator {
+        @Override
+        public Runnable decorate(Runnable runnable) {
+            RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+            SecurityContext securityContext = SecurityContextHolder.getContext();
+            return () -> {
+                RequestAttributes previousRequestAttributes = RequestContextHolder.getRequestAttributes();
+                SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                SecurityContextHolder.setContext(securityContext);
+                try {
+                    runnable.run();
+                } finally {
+                    RequestContextHolder.setRequestAttributes(previousRequestAttributes);
+                    SecurityContextHolder.setContext(previousSecurityContext);
+                }
+            };
+        }
+    }
+}
@@ -23,21 +23,26 @@ import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 import static de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant.AUTHORIZATION_HEADER;
 import static de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant.BEARER_TOKEN_PREFIX;
 
+/**
+ * Adds bearer token to every outgoing request. The token is resolved by given supplier for each request,
+ * so that one interceptor (and one rest template) can serve all incoming requests
+ */
 public class BearerTokenInterceptor implements ClientHttpRequestInterceptor {
-    private String bearerToken;
+    private final Supplier<String> bearerTokenSupplier;
 
-    public BearerTokenInterceptor(String bearerToken) {
-        this.bearerToken = bearerToken;
+    public BearerTokenInterceptor(Supplier<String> bearerTokenSupplier) {
+        this.bearerTokenSupplier = bearerTokenSupplier;
     }
 
     @Override
     public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
         HttpHeaders headers = request.getHeaders();
-        headers.add(AUTHORIZATION_HEADER, BEARER_TOKEN_PREFIX + this.bearerToken);
+        headers.add(AUTHORIZATION_HEADER, BEARER_TOKEN_PREFIX + bearerTokenSupplier.get());
         return execution.execute(request, body);
     }
 }
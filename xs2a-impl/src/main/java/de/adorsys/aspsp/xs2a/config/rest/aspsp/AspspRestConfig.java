@@ -15,19 +15,17 @@
  */
 package de.adorsys.aspsp.xs2a.config.rest.aspsp;
 
+import de.adorsys.aspsp.httpclient.PooledHttpClient;
+import de.adorsys.aspsp.httpclient.PooledHttpClientSettings;
 import de.adorsys.aspsp.xs2a.config.rest.BearerToken;
 import de.adorsys.aspsp.xs2a.config.rest.BearerTokenInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Scope;
-import org.springframework.context.annotation.ScopedProxyMode;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.core.env.Environment;
 import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.context.WebApplicationContext;
 
 @Configuration
 public class AspspRestConfig {
@@ -39,20 +37,24 @@ public class AspspRestConfig {
     @Autowired
     private BearerToken bearerToken;
 
+    @Autowired
+    private Environment environment;
+
+    @Bean(destroyMethod = "close")
+    public PooledHttpClient aspspHttpClient() {
+        return new PooledHttpClient("aspsp", PooledHttpClientSettings.fromEnvironment(environment, "aspsp", connectionTimeout, readTimeout));
+    }
+
+    /**
+     * Rest template shared by all requests. Bearer token is taken from the request scoped token of the current request,
+     * when a call to ASPSP is sent
+     */
     @Bean(name = "aspspRestTemplate")
-    @Scope(scopeName = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
     public RestTemplate restTemplate(){
-        RestTemplate rest = new RestTemplate(clientHttpRequestFactory());
+        RestTemplate rest = new RestTemplate(aspspHttpClient().requestFactory());
         rest.getMessageConverters().removeIf(m -> m.getClass().getName().equals(MappingJackson2XmlHttpMessageConverter.class.getName()));
-        rest.getInterceptors().add(new BearerTokenInterceptor(bearerToken.getToken()));
+        rest.getInterceptors().add(new BearerTokenInterceptor(bearerToken::getToken));
         rest.setErrorHandler(new AspspRestErrorHandler());
         return rest;
     }
-
-    private ClientHttpRequestFactory clientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setReadTimeout(readTimeout);
-        factory.setConnectTimeout(connectionTimeout);
-        return factory;
-    }
 }
@@ -69,6 +69,25 @@ public class AisConsentRemoteUrls {
         return consentServiceBaseUrl + "/ais/consent/action";
     }
 
+    /**
+     * @return VOID
+     * Method: POST
+     * Body: List of ConsentActionRequest consentActionRequests
+     */
+    public String consentActionLogs() {
+        return consentServiceBaseUrl + "/ais/consent/actions";
+    }
+
+    /**
+     * @return AisConsentUsageResponse decision
+     * Method: POST
+     * PathVariables: String consentId
+     * Body: AisConsentUsageRequest request
+     */
+    public String authoriseConsentUsage() {
+        return consentServiceBaseUrl + "/ais/consent/{consent-id}/usage";
+    }
+
     /**
      * @return String consentId
      * Method: POST
@@ -95,4 +114,13 @@ public class AisConsentRemoteUrls {
     public String getAisConsentAuthorizationById() {
         return consentServiceBaseUrl + "/ais/consent/{consent-id}/authorizations/{authorization-id}";
     }
+
+    /**
+     * @return AisTransactionCursorInfo cursor
+     * Method: GET, PUT
+     * PathVariables: String consentId, String accountId
+     */
+    public String transactionCursor() {
+        return consentServiceBaseUrl + "/ais/consent/{consent-id}/accounts/{account-id}/transaction-cursor";
+    }
 }
@@ -16,11 +16,13 @@
 
 package de.adorsys.aspsp.xs2a.config.rest.consent;
 
+import de.adorsys.aspsp.httpclient.PooledHttpClient;
+import de.adorsys.aspsp.httpclient.PooledHttpClientSettings;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.core.env.Environment;
 import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
@@ -31,18 +33,19 @@ public class ConsentRestConfig {
     @Value("${rest-consent-config.connection-timeout.ms:10000}")
     private int connectionTimeout;
 
+    @Autowired
+    private Environment environment;
+
+    @Bean(destroyMethod = "close")
+    public PooledHttpClient consentHttpClient() {
+        return new PooledHttpClient("consent", PooledHttpClientSettings.fromEnvironment(environment, "consent", connectionTimeout, readTimeout));
+    }
+
     @Bean
     public RestTemplate consentRestTemplate() {
-        RestTemplate rest = new RestTemplate(clientHttpRequestFactory());
+        RestTemplate rest = new RestTemplate(consentHttpClient().requestFactory());
         rest.getMessageConverters().removeIf(m -> m.getClass().getName().equals(MappingJackson2XmlHttpMessageConverter.class.getName()));
         rest.setErrorHandler(new ConsentRestErrorHandler());
         return rest;
     }
-
-    private ClientHttpRequestFactory clientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setReadTimeout(readTimeout);
-        factory.setConnectTimeout(connectionTimeout);
-        return factory;
-    }
 }
@@ -16,15 +16,16 @@
 
 package de.adorsys.aspsp.xs2a.config.rest.keycloak;
 
+import de.adorsys.aspsp.httpclient.PooledHttpClient;
+import de.adorsys.aspsp.httpclient.PooledHttpClientSettings;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.ssl.TrustStrategy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.core.env.Environment;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
@@ -39,30 +40,36 @@ import java.security.cert.X509Certificate;
 public class KeycloakRestConfig {
     @Value("${skip.ssl.certificate.verification}")
     private boolean skipSslCertificateVerification;
+    @Value("${http-client.read-timeout.ms:10000}")
+    private int readTimeout;
+    @Value("${http-client.connection-timeout.ms:10000}")
+    private int connectionTimeout;
+
+    @Autowired
+    private Environment environment;
+
+    @Bean(destroyMethod = "close")
+    public PooledHttpClient keycloakHttpClient() throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
+        PooledHttpClientSettings settings = PooledHttpClientSettings.fromEnvironment(environment, "keycloak", connectionTimeout, readTimeout);
+        return skipSslCertificateVerification
+                   ? new PooledHttpClient("keycloak", settings, buildSocketFactoryWithoutSSLVerification())
+                   : new PooledHttpClient("keycloak", settings);
+    }
 
     @Bean(name = "keycloakRestTemplate")
     public RestTemplate keycloakRestTemplate() throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
-        RestTemplate rest = skipSslCertificateVerification
-                                ? new RestTemplate(buildHttpRequestFactoryWithoutSSLVerification())
-                                : new RestTemplate();
+        RestTemplate rest = new RestTemplate(keycloakHttpClient().requestFactory());
         rest.getMessageConverters().add(new MappingJackson2HttpMessageConverter());
         rest.getMessageConverters().add(new StringHttpMessageConverter());
         rest.setErrorHandler(new KeycloakRestErrorHandler());
         return rest;
     }
 
-    private HttpComponentsClientHttpRequestFactory buildHttpRequestFactoryWithoutSSLVerification() throws NoSuchAlgorithmException, KeyManagementException, KeyStoreException {
+    private SSLConnectionSocketFactory buildSocketFactoryWithoutSSLVerification() throws NoSuchAlgorithmException, KeyManagementException, KeyStoreException {
         TrustStrategy acceptingTrustStrategy = (X509Certificate[] chain, String authType) -> true;
         SSLContext sslContext = org.apache.http.ssl.SSLContexts.custom()
                                     .loadTrustMaterial(null, acceptingTrustStrategy)
                                     .build();
-        SSLConnectionSocketFactory csf = new SSLConnectionSocketFactory(sslContext);
-        CloseableHttpClient httpClient = HttpClients.custom()
-                                             .setSSLSocketFactory(csf)
-                                             .setSSLHostnameVerifier(new NoopHostnameVerifier())
-                                             .build();
-        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
-        requestFactory.setHttpClient(httpClient);
-        return requestFactory;
+        return new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
     }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.domain.account;
+
+import de.adorsys.aspsp.xs2a.domain.Links;
+import de.adorsys.aspsp.xs2a.domain.Transactions;
+import lombok.Data;
+
+import java.util.function.Consumer;
+
+/**
+ * Account report whose transactions are not held in memory, but are read from ASPSP and pushed one by one
+ * to the consumer while the response is being written. Booked and pending transactions are provided by separate sources,
+ * so that both lists can be written one after another without buffering any of them
+ */
+@Data
+public class Xs2aAccountReportStream {
+    public static final TransactionSource EMPTY = consumer -> {
+    };
+
+    private final TransactionSource booked;
+    private final TransactionSource pending;
+    /**
+     * Called once the report has been written completely, e.g. to log the usage of the consent
+     */
+    private final Runnable completionCallback;
+    private Links links;
+
+    @FunctionalInterface
+    public interface TransactionSource {
+        /**
+         * Reads transactions of the report and passes each of them to the consumer
+         *
+         * @param consumer consumer of mapped transactions, called in the order transactions are provided by ASPSP
+         */
+        void forEach(Consumer<Transactions> consumer);
+    }
+}
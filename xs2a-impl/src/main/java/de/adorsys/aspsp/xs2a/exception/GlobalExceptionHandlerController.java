@@ -66,6 +66,12 @@ public class GlobalExceptionHandlerController {
         return new ResponseEntity<>(UNSUPPORTED_MEDIA_TYPE.getReasonPhrase(), UNSUPPORTED_MEDIA_TYPE);
     }
 
+    @ExceptionHandler(value = ResponseStreamAbortedException.class)
+    public void responseStreamAbortedException(ResponseStreamAbortedException ex, HandlerMethod handlerMethod) {
+        log.warn("Response stream aborted in Controller: {}, message: {}", handlerMethod.getMethod().getDeclaringClass().getSimpleName(), ex.getMessage());
+        throw ex; // response is already committed, the servlet container has to abort the connection
+    }
+
     @ExceptionHandler(value = {Exception.class})
     public ResponseEntity exception(Exception ex, HandlerMethod handlerMethod) {
         log.warn("Uncatched exception handled in Controller: {}, message: {}, stackTrace: {}", handlerMethod.getMethod().getDeclaringClass().getSimpleName(), ex.getMessage(), ex);
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.exception;
+
+/**
+ * Thrown if a response, that is already being streamed to the client, can't be written completely.
+ * The response must not be finished with an error body, instead the exception is passed on to the servlet container,
+ * so that the connection is aborted and the client can't take the truncated response for a complete one
+ */
+public class ResponseStreamAbortedException extends RuntimeException {
+    public ResponseStreamAbortedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
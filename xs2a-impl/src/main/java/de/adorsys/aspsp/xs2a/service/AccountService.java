@@ -18,16 +18,23 @@ package de.adorsys.aspsp.xs2a.service;
 
 import de.adorsys.aspsp.xs2a.consent.api.ActionStatus;
 import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentUsageDecision;
 import de.adorsys.aspsp.xs2a.domain.*;
 import de.adorsys.aspsp.xs2a.domain.account.AccountReference;
 import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountDetails;
 import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountReport;
+import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountReportStream;
 import de.adorsys.aspsp.xs2a.domain.consent.Xs2aAccountAccess;
 import de.adorsys.aspsp.xs2a.exception.MessageError;
+import de.adorsys.aspsp.xs2a.service.account.AccountDetailsBulkReader;
+import de.adorsys.aspsp.xs2a.service.account.AccountDetailsCache;
+import de.adorsys.aspsp.xs2a.service.account.TransactionReportDownloadService;
+import de.adorsys.aspsp.xs2a.service.account.TransactionReportDownloadService.TransactionReportFile;
 import de.adorsys.aspsp.xs2a.service.consent.AisConsentService;
 import de.adorsys.aspsp.xs2a.service.mapper.AccountMapper;
 import de.adorsys.aspsp.xs2a.service.mapper.consent.Xs2aAisConsentMapper;
 import de.adorsys.aspsp.xs2a.service.validator.ValueValidatorService;
+import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountConsent;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
@@ -42,10 +49,10 @@ import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import static de.adorsys.aspsp.xs2a.domain.MessageErrorCode.CONSENT_INVALID;
-import static de.adorsys.aspsp.xs2a.domain.MessageErrorCode.RESOURCE_UNKNOWN_404;
+import static de.adorsys.aspsp.xs2a.domain.MessageErrorCode.*;
 import static de.adorsys.aspsp.xs2a.exception.MessageCategory.ERROR;
 
 @Slf4j
@@ -59,6 +66,10 @@ public class AccountService {
     private final ConsentService consentService;
     private final AisConsentService aisConsentService;
     private final Xs2aAisConsentMapper consentMapper;
+    private final AccountDetailsBulkReader accountDetailsBulkReader;
+    private final AccountDetailsCache accountDetailsCache;
+    private final TransactionReportDownloadService transactionReportDownloadService;
+    private final static Comparator<SpiTransaction> BOOKING_ORDER = Comparator.comparing(SpiTransaction::getBookingSequence);
     private final static String TPP_ID = "This is a test TppId"; //TODO v1.1 add corresponding request header Task #149 https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/149
 
     /**
@@ -94,6 +105,7 @@ public class AccountService {
     /**
      * Gets AccountDetails based on accountId, details get checked with provided AIS-consent, depending on withBalance variable and
      * AccountAccess in AIS-consent Balances are passed along with AccountDetails.
+     * ASPSP is asked for account details only after the consent has been validated by CMS.
      *
      * @param consentId   String representing an AccountConsent identification
      * @param accountId   String representing a PSU`s Account at ASPSP
@@ -112,8 +124,8 @@ public class AccountService {
                        .fail(new MessageError(new TppMessageInformation(ERROR, RESOURCE_UNKNOWN_404))).build();
         }
         boolean isValid = withBalance
-                              ? consentService.isValidAccountByAccess(accountDetails.getIban(), accountDetails.getCurrency(), allowedAccountData.getBody().getBalances())
-                              : consentService.isValidAccountByAccess(accountDetails.getIban(), accountDetails.getCurrency(), allowedAccountData.getBody().getAccounts());
+                              ? consentService.isValidAccountByAccess(consentId, TypeAccess.BALANCE, accountDetails.getIban(), accountDetails.getCurrency())
+                              : consentService.isValidAccountByAccess(consentId, TypeAccess.ACCOUNT, accountDetails.getIban(), accountDetails.getCurrency());
 
         ResponseObject.ResponseBuilder<Xs2aAccountDetails> builder = ResponseObject.builder();
         if (isValid) {
@@ -130,37 +142,78 @@ public class AccountService {
     }
 
     /**
-     * Gets AccountDetails based on accountId, details get checked with provided AIS-consent Balances section
+     * Gets AccountDetails based on accountId, details get checked with provided AIS-consent Balances section.
+     * Consent is validated and its usage is counted by one call to CMS
      *
      * @param consentId String representing an AccountConsent identification
      * @param accountId String representing a PSU`s Account at ASPSP
      * @return List of AccountBalances based on accountId if granted by consent
      */
     public ResponseObject<List<Xs2aBalance>> getBalances(String consentId, String accountId) {
+        Xs2aAccountDetails accountDetails = accountMapper.mapToAccountDetails(accountDetailsCache.getAccountDetails(accountId));
+        if (accountDetails == null) {
+            return ResponseObject.<List<Xs2aBalance>>builder()
+                       .fail(new MessageError(new TppMessageInformation(ERROR, RESOURCE_UNKNOWN_404))).build();
+        }
+        return authoriseConsentUsage(consentId, TypeAccess.BALANCE, accountDetails)
+                   .map(error -> ResponseObject.<List<Xs2aBalance>>builder()
+                                     .fail(new MessageError(new TppMessageInformation(ERROR, error))).build())
+                   .orElseGet(() -> ResponseObject.<List<Xs2aBalance>>builder().body(accountDetails.getBalances()).build());
+    }
+
+    /**
+     * Gets streamed AccountReport with Booked/Pending or both transactions for the time period limited with dateFrom/dateTo variables.
+     * Consent and account are checked immediately, transactions are read from ASPSP and mapped one by one only when the report is written.
+     * Booked and pending transactions are read from ASPSP by separate calls. Successful usage of the consent is logged
+     * only after the report has been written completely
+     *
+     * @param accountId     String representing a PSU`s Account at ASPSP
+     * @param withBalance   boolean representing if the responded AccountDetails should contain. Not applicable since v1.1
+     * @param consentId     String representing an AccountConsent identification
+     * @param dateFrom      ISO Date representing the value of desired start date of AccountReport
+     * @param dateTo        ISO Date representing the value of desired end date of AccountReport (if omitted is set to current date)
+     * @param bookingStatus ENUM representing either one of BOOKED/PENDING or BOTH transaction statuses
+     * @return AccountReport stream, providing transactions of requested booking status
+     */
+    public ResponseObject<Xs2aAccountReportStream> getAccountReportStreamByPeriod(String accountId, boolean withBalance, String consentId, LocalDate dateFrom,
+                                                                                  LocalDate dateTo, Xs2aBookingStatus bookingStatus) {
         ResponseObject<Xs2aAccountAccess> allowedAccountData = consentService.getValidatedConsent(consentId);
         if (allowedAccountData.hasError()) {
-            return ResponseObject.<List<Xs2aBalance>>builder()
+            return ResponseObject.<Xs2aAccountReportStream>builder()
                        .fail(allowedAccountData.getError()).build();
         }
-        Xs2aAccountDetails accountDetails = accountMapper.mapToAccountDetails(accountSpi.readAccountDetails(accountId, new AspspConsentData()).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+
+        Xs2aAccountDetails accountDetails = accountMapper.mapToAccountDetails(accountDetailsCache.getAccountDetails(accountId));
         if (accountDetails == null) {
-            return ResponseObject.<List<Xs2aBalance>>builder()
-                       .fail(new MessageError(new TppMessageInformation(ERROR, RESOURCE_UNKNOWN_404))).build();
+            return ResponseObject.<Xs2aAccountReportStream>builder().fail(new MessageError(new TppMessageInformation(ERROR, RESOURCE_UNKNOWN_404))).build();
         }
-        boolean isValid = consentService.isValidAccountByAccess(accountDetails.getIban(), accountDetails.getCurrency(), allowedAccountData.getBody().getBalances());
-        ResponseObject<List<Xs2aBalance>> response = isValid
-                                                         ? ResponseObject.<List<Xs2aBalance>>builder().body(accountDetails.getBalances()).build()
-                                                         : ResponseObject.<List<Xs2aBalance>>builder()
-                                                               .fail(new MessageError(new TppMessageInformation(ERROR, CONSENT_INVALID))).build();
 
-        aisConsentService.consentActionLog(TPP_ID, consentId, createActionStatus(false, TypeAccess.BALANCE, response));
-        return response;
+        boolean isValid = consentService.isValidAccountByAccess(consentId, TypeAccess.TRANSACTION, accountDetails.getIban(), accountDetails.getCurrency());
+        validatorService.validateAccountIdPeriod(accountId, dateFrom, Optional.ofNullable(dateTo).orElseGet(LocalDate::now));
+
+        if (!isValid) {
+            ResponseObject<Xs2aAccountReportStream> response = ResponseObject.<Xs2aAccountReportStream>builder()
+                                                                   .fail(new MessageError(new TppMessageInformation(ERROR, CONSENT_INVALID))).build();
+            aisConsentService.consentActionLog(TPP_ID, consentId, createActionStatus(withBalance, TypeAccess.TRANSACTION, response));
+            return response;
+        }
+
+        Xs2aAccountReportStream.TransactionSource booked = EnumSet.of(Xs2aBookingStatus.BOOKED, Xs2aBookingStatus.BOTH).contains(bookingStatus)
+                                                               ? consumer -> streamTransactionsByPeriod(accountId, dateFrom, dateTo, true, consumer)
+                                                               : Xs2aAccountReportStream.EMPTY;
+        Xs2aAccountReportStream.TransactionSource pending = EnumSet.of(Xs2aBookingStatus.PENDING, Xs2aBookingStatus.BOTH).contains(bookingStatus)
+                                                                ? consumer -> streamTransactionsByPeriod(accountId, dateFrom, dateTo, false, consumer)
+                                                                : Xs2aAccountReportStream.EMPTY;
+        return ResponseObject.<Xs2aAccountReportStream>builder()
+                   .body(new Xs2aAccountReportStream(booked, pending, () -> aisConsentService.consentActionLog(TPP_ID, consentId, ActionStatus.SUCCESS)))
+                   .build();
     }
 
     /**
      * Gets AccountReport with Booked/Pending or both transactions dependent on request.
      * Uses one of two ways to get transaction from ASPSP: 1. By transactionId, 2. By time period limited with dateFrom/dateTo variables
-     * Checks if all transactions are related to accounts set in AccountConsent Transactions section
+     * Checks if all transactions are related to accounts set in AccountConsent Transactions section. Consent is validated
+     * and its usage is counted by one call to CMS
      *
      * @param consentId     String representing an AccountConsent identification
      * @param accountId     String representing a PSU`s Account at ASPSP
@@ -176,73 +229,69 @@ public class AccountService {
     public ResponseObject<Xs2aAccountReport> getAccountReport(String consentId, String accountId, LocalDate dateFrom,
                                                               LocalDate dateTo, String transactionId, boolean psuInvolved,
                                                               Xs2aBookingStatus bookingStatus, boolean withBalance, boolean deltaList) {
-        ResponseObject<Xs2aAccountAccess> allowedAccountData = consentService.getValidatedConsent(consentId);
-        if (allowedAccountData.hasError()) {
-            return ResponseObject.<Xs2aAccountReport>builder()
-                       .fail(allowedAccountData.getError()).build();
-        }
-
-        Xs2aAccountDetails accountDetails = accountMapper.mapToAccountDetails(accountSpi.readAccountDetails(accountId, new AspspConsentData()).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        Xs2aAccountDetails accountDetails = accountMapper.mapToAccountDetails(accountDetailsCache.getAccountDetails(accountId));
         if (accountDetails == null) {
             return ResponseObject.<Xs2aAccountReport>builder().fail(new MessageError(new TppMessageInformation(ERROR, RESOURCE_UNKNOWN_404))).build();
         }
 
-        boolean isValid = consentService.isValidAccountByAccess(accountDetails.getIban(), accountDetails.getCurrency(), allowedAccountData.getBody().getTransactions());
-        Optional<Xs2aAccountReport> report = getAccountReport(accountId, dateFrom, dateTo, transactionId, bookingStatus);
-
-        ResponseObject<Xs2aAccountReport> response = isValid && report.isPresent()
-                                                         ? ResponseObject.<Xs2aAccountReport>builder().body(report.get()).build()
-                                                         : ResponseObject.<Xs2aAccountReport>builder()
-                                                               .fail(new MessageError(new TppMessageInformation(ERROR, CONSENT_INVALID))).build();
+        Optional<MessageErrorCode> usageError = authoriseConsentUsage(consentId, TypeAccess.TRANSACTION, accountDetails);
+        if (usageError.isPresent()) {
+            return ResponseObject.<Xs2aAccountReport>builder().fail(new MessageError(new TppMessageInformation(ERROR, usageError.get()))).build();
+        }
 
-        aisConsentService.consentActionLog(TPP_ID, consentId, createActionStatus(withBalance, TypeAccess.TRANSACTION, response));
-        return response;
+        return getAccountReport(accountId, dateFrom, dateTo, transactionId, bookingStatus)
+                   .map(report -> ResponseObject.<Xs2aAccountReport>builder().body(report).build())
+                   .orElseGet(() -> ResponseObject.<Xs2aAccountReport>builder()
+                                        .fail(new MessageError(new TppMessageInformation(ERROR, CONSENT_INVALID))).build());
     }
 
     /**
      * Gets AccountReport with Booked/Pending or both transactions dependent on request.
-     * Uses one of two ways to get transaction from ASPSP: 1. By transactionId, 2. By time period limited with dateFrom/dateTo variables
-     * Checks if all transactions are related to accounts set in AccountConsent Transactions section
+     * Uses one of two ways to get transaction from ASPSP: 1. By time period limited with dateFrom/dateTo variables,
+     * 2. As a delta report, containing only transactions booked after the given entry reference or after the last delta report
+     * for this consent and account. The entry reference of the last transaction of a delta report is stored in CMS.
+     * Checks if all transactions are related to accounts set in AccountConsent Transactions section. Consent is validated
+     * and its usage is counted by one call to CMS
      *
-     * @param accountId     String representing a PSU`s Account at ASPSP
-     * @param withBalance   boolean representing if the responded AccountDetails should contain. Not applicable since v1.1
-     * @param consentId     String representing an AccountConsent identification
-     * @param dateFrom      ISO Date representing the value of desired start date of AccountReport
-     * @param dateTo        ISO Date representing the value of desired end date of AccountReport (if omitted is set to current date)
-     * @param bookingStatus ENUM representing either one of BOOKED/PENDING or BOTH transaction statuses
+     * @param accountId          String representing a PSU`s Account at ASPSP
+     * @param withBalance        boolean representing if the responded AccountDetails should contain. Not applicable since v1.1
+     * @param consentId          String representing an AccountConsent identification
+     * @param dateFrom           ISO Date representing the value of desired start date of AccountReport
+     * @param dateTo             ISO Date representing the value of desired end date of AccountReport (if omitted is set to current date)
+     * @param bookingStatus      ENUM representing either one of BOOKED/PENDING or BOTH transaction statuses
+     * @param entryReferenceFrom String representing the entry reference of the last transaction known to TPP, may be null
+     * @param deltaList          boolean representing if only transactions after the last report access are requested
      * @return AccountReport filled with appropriate transaction arrays Booked and Pending. For v1.1 balances sections is added
      */
 
     public ResponseObject<Xs2aAccountReport> getAccountReportByPeriod(String accountId, boolean withBalance, String consentId, LocalDate dateFrom,
-                                                                      LocalDate dateTo, Xs2aBookingStatus bookingStatus) {
-        ResponseObject<Xs2aAccountAccess> allowedAccountData = consentService.getValidatedConsent(consentId);
-        if (allowedAccountData.hasError()) {
-            return ResponseObject.<Xs2aAccountReport>builder()
-                       .fail(allowedAccountData.getError()).build();
-        }
-
-        Xs2aAccountDetails accountDetails = accountMapper.mapToAccountDetails(accountSpi.readAccountDetails(accountId, new AspspConsentData()).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+                                                                      LocalDate dateTo, Xs2aBookingStatus bookingStatus, String entryReferenceFrom,
+                                                                      boolean deltaList) {
+        Xs2aAccountDetails accountDetails = accountMapper.mapToAccountDetails(accountDetailsCache.getAccountDetails(accountId));
         if (accountDetails == null) {
             return ResponseObject.<Xs2aAccountReport>builder().fail(new MessageError(new TppMessageInformation(ERROR, RESOURCE_UNKNOWN_404))).build();
         }
 
-        boolean isValid = consentService.isValidAccountByAccess(accountDetails.getIban(), accountDetails.getCurrency(), allowedAccountData.getBody().getTransactions());
-        Optional<Xs2aAccountReport> report = getAccountReportByPeriod(accountId, dateFrom, dateTo)
-                                                 .map(r -> filterByBookingStatus(r, bookingStatus));
-
-        ResponseObject<Xs2aAccountReport> response = isValid && report.isPresent()
-                                                         ? ResponseObject.<Xs2aAccountReport>builder().body(report.get()).build()
-                                                         : ResponseObject.<Xs2aAccountReport>builder()
-                                                               .fail(new MessageError(new TppMessageInformation(ERROR, CONSENT_INVALID))).build();
+        Optional<MessageErrorCode> usageError = authoriseConsentUsage(consentId, TypeAccess.TRANSACTION, accountDetails);
+        if (usageError.isPresent()) {
+            return ResponseObject.<Xs2aAccountReport>builder().fail(new MessageError(new TppMessageInformation(ERROR, usageError.get()))).build();
+        }
 
-        aisConsentService.consentActionLog(TPP_ID, consentId, createActionStatus(withBalance, TypeAccess.TRANSACTION, response));
-        return response;
+        boolean isDeltaReport = deltaList || StringUtils.isNotBlank(entryReferenceFrom);
+        if (isDeltaReport) {
+            return getDeltaAccountReport(consentId, accountId, dateFrom, dateTo, bookingStatus, entryReferenceFrom);
+        }
+        return getAccountReportByPeriod(accountId, dateFrom, dateTo)
+                   .map(report -> ResponseObject.<Xs2aAccountReport>builder().body(filterByBookingStatus(report, bookingStatus)).build())
+                   .orElseGet(() -> ResponseObject.<Xs2aAccountReport>builder()
+                                        .fail(new MessageError(new TppMessageInformation(ERROR, CONSENT_INVALID))).build());
     }
 
     /**
      * Gets AccountReport with Booked/Pending or both transactions dependent on request.
      * Uses one of two ways to get transaction from ASPSP: 1. By transactionId, 2. By time period limited with dateFrom/dateTo variables
-     * Checks if all transactions are related to accounts set in AccountConsent Transactions section
+     * Checks if all transactions are related to accounts set in AccountConsent Transactions section. Consent is validated
+     * and its usage is counted by one call to CMS
      *
      * @param consentId     String representing an AccountConsent identification
      * @param accountId     String representing a PSU`s Account at
@@ -251,27 +300,45 @@ public class AccountService {
      */
     public ResponseObject<Xs2aAccountReport> getAccountReportByTransactionId(String consentId, String accountId,
                                                                              String transactionId) {
-        ResponseObject<Xs2aAccountAccess> allowedAccountData = consentService.getValidatedConsent(consentId);
-        if (allowedAccountData.hasError()) {
-            return ResponseObject.<Xs2aAccountReport>builder()
-                       .fail(allowedAccountData.getError()).build();
-        }
-
-        Xs2aAccountDetails accountDetails = accountMapper.mapToAccountDetails(accountSpi.readAccountDetails(accountId, new AspspConsentData()).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        Xs2aAccountDetails accountDetails = accountMapper.mapToAccountDetails(accountDetailsCache.getAccountDetails(accountId));
         if (accountDetails == null) {
             return ResponseObject.<Xs2aAccountReport>builder().fail(new MessageError(new TppMessageInformation(ERROR, RESOURCE_UNKNOWN_404))).build();
         }
 
-        boolean isValid = consentService.isValidAccountByAccess(accountDetails.getIban(), accountDetails.getCurrency(), allowedAccountData.getBody().getTransactions());
-        Optional<Xs2aAccountReport> report = getAccountReportByTransaction(transactionId, accountId);
+        Optional<MessageErrorCode> usageError = authoriseConsentUsage(consentId, TypeAccess.TRANSACTION, accountDetails);
+        if (usageError.isPresent()) {
+            return ResponseObject.<Xs2aAccountReport>builder().fail(new MessageError(new TppMessageInformation(ERROR, usageError.get()))).build();
+        }
 
-        ResponseObject<Xs2aAccountReport> response = isValid && report.isPresent()
-                                                         ? ResponseObject.<Xs2aAccountReport>builder().body(report.get()).build()
-                                                         : ResponseObject.<Xs2aAccountReport>builder()
-                                                               .fail(new MessageError(new TppMessageInformation(ERROR, CONSENT_INVALID))).build();
+        return getAccountReportByTransaction(transactionId, accountId)
+                   .map(report -> ResponseObject.<Xs2aAccountReport>builder().body(report).build())
+                   .orElseGet(() -> ResponseObject.<Xs2aAccountReport>builder()
+                                        .fail(new MessageError(new TppMessageInformation(ERROR, CONSENT_INVALID))).build());
+    }
 
-        aisConsentService.consentActionLog(TPP_ID, consentId, createActionStatus(false, TypeAccess.TRANSACTION, response));
-        return response;
+    /**
+     * Gets transaction report spooled for download by a transaction list request. Consent and its access to the
+     * transactions of the account are validated again and the usage of the consent is counted as for the transaction list,
+     * by one call to CMS
+     *
+     * @param consentId  String representing an AccountConsent identification
+     * @param accountId  String representing a PSU`s Account at ASPSP
+     * @param downloadId String representing the identification of the spooled report
+     * @return spooled report file, RESOURCE_UNKNOWN_404 if the report is unknown, expired or belongs to another consent or account
+     */
+    public ResponseObject<TransactionReportFile> getTransactionReportFile(String consentId, String accountId, String downloadId) {
+        Optional<TransactionReportFile> reportFile = transactionReportDownloadService.getReport(consentId, accountId, downloadId);
+        Xs2aAccountDetails accountDetails = reportFile.isPresent()
+                                                ? accountMapper.mapToAccountDetails(accountDetailsCache.getAccountDetails(accountId))
+                                                : null;
+        if (accountDetails == null) {
+            return ResponseObject.<TransactionReportFile>builder().fail(new MessageError(new TppMessageInformation(ERROR, RESOURCE_UNKNOWN_404))).build();
+        }
+
+        return authoriseConsentUsage(consentId, TypeAccess.TRANSACTION, accountDetails)
+                   .map(error -> ResponseObject.<TransactionReportFile>builder()
+                                     .fail(new MessageError(new TppMessageInformation(ERROR, error))).build())
+                   .orElseGet(() -> ResponseObject.<TransactionReportFile>builder().body(reportFile.get()).build());
     }
 
     public Optional<Xs2aAccountDetails> getAccountDetailsByAccountReference(AccountReference reference) {
@@ -311,10 +378,8 @@ public class AccountService {
     private List<Xs2aAccountDetails> getAccountDetailsFromReferences(List<AccountReference> references) {
         return CollectionUtils.isEmpty(references)
                    ? Collections.emptyList()
-                   : references.stream()
-                         .map(this::getAccountDetailsByAccountReference)
-                         .filter(Optional::isPresent)
-                         .map(Optional::get)
+                   : accountDetailsBulkReader.readAccountDetails(accountMapper.mapToSpiAccountReferences(references)).stream()
+                         .map(accountMapper::mapToAccountDetails)
                          .collect(Collectors.toList());
     }
 
@@ -342,6 +407,89 @@ public class AccountService {
         return accountMapper.mapToAccountReport(accountSpi.readTransactionsByPeriod(accountId, dateFrom, dateTo, new AspspConsentData()).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
     }
 
+    /**
+     * Builds a delta report after the entry reference given by TPP or, if there is none, after the transaction cursor stored for this consent and account.
+     * The cursor is advanced only for the latter, after the report has been built. An entry reference unknown to ASPSP is rejected,
+     * while a stale cursor falls back to the period read
+     */
+    private ResponseObject<Xs2aAccountReport> getDeltaAccountReport(String consentId, String accountId, LocalDate dateFrom, LocalDate dateTo,
+                                                                    Xs2aBookingStatus bookingStatus, String entryReferenceFrom) {
+        boolean isImplicitDelta = StringUtils.isBlank(entryReferenceFrom);
+        Optional<List<SpiTransaction>> transactions = isImplicitDelta
+                                                          ? Optional.of(readTransactionsAfterCursor(consentId, accountId, dateFrom, dateTo))
+                                                          : readTransactionsAfter(accountId, entryReferenceFrom);
+
+        ResponseObject<Xs2aAccountReport> response = transactions
+                                                         .map(t -> accountMapper.mapToAccountReport(t)
+                                                                       .orElseGet(() -> new Xs2aAccountReport(new Transactions[]{}, new Transactions[]{})))
+                                                         .map(r -> ResponseObject.<Xs2aAccountReport>builder().body(filterByBookingStatus(r, bookingStatus)).build())
+                                                         .orElseGet(() -> ResponseObject.<Xs2aAccountReport>builder()
+                                                                              .fail(new MessageError(new TppMessageInformation(ERROR, FORMAT_ERROR))).build());
+
+        if (isImplicitDelta) {
+            transactions.flatMap(this::getLastEntryReference)
+                .ifPresent(reference -> aisConsentService.updateTransactionCursor(consentId, accountId, reference));
+        }
+        return response;
+    }
+
+    private List<SpiTransaction> readTransactionsAfterCursor(String consentId, String accountId, LocalDate dateFrom, LocalDate dateTo) {
+        return aisConsentService.getTransactionCursor(consentId, accountId)
+                   .flatMap(reference -> readTransactionsAfter(accountId, reference))
+                   .orElseGet(() -> readTransactionsByPeriod(accountId, dateFrom, dateTo));
+    }
+
+    private Optional<List<SpiTransaction>> readTransactionsAfter(String accountId, String entryReference) {
+        return Optional.ofNullable(accountSpi.readTransactionsAfter(accountId, entryReference, new AspspConsentData()).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+    }
+
+    private List<SpiTransaction> readTransactionsByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo) {
+        validatorService.validateAccountIdPeriod(accountId, dateFrom, Optional.ofNullable(dateTo).orElseGet(LocalDate::now));
+        return Optional.ofNullable(accountSpi.readTransactionsByPeriod(accountId, dateFrom, dateTo, new AspspConsentData()).getPayload()) // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+                   .orElseGet(Collections::emptyList);
+    }
+
+    private Optional<String> getLastEntryReference(List<SpiTransaction> transactions) {
+        // Pending transactions have no place in the booking order yet, so the cursor only moves over booked ones
+        return transactions.stream()
+                   .filter(t -> t.getBookingDate() != null && t.getBookingSequence() != null)
+                   .max(BOOKING_ORDER)
+                   .map(SpiTransaction::getTransactionId);
+    }
+
+    private void streamTransactionsByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, boolean booked, Consumer<Transactions> consumer) {
+        accountSpi.streamTransactionsByPeriod(accountId, dateFrom, dateTo, spiTransaction -> {
+            if ((spiTransaction.getBookingDate() != null) == booked) {
+                consumer.accept(accountMapper.mapToTransaction(spiTransaction));
+            }
+        }, new AspspConsentData()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+    }
+
+    /**
+     * Requests CMS to validate the consent, check its access to the account and count its usage in one call.
+     * CMS logs the consent action itself
+     *
+     * @return error of the consent usage, empty if access is granted
+     */
+    private Optional<MessageErrorCode> authoriseConsentUsage(String consentId, TypeAccess typeAccess, Xs2aAccountDetails accountDetails) {
+        return aisConsentService.authoriseConsentUsage(TPP_ID, consentId, typeAccess, accountDetails.getIban(), accountDetails.getCurrency())
+                   .map(response -> mapToMessageErrorCode(response.getDecision()))
+                   .orElseGet(() -> Optional.of(CONSENT_UNKNOWN_400));
+    }
+
+    private Optional<MessageErrorCode> mapToMessageErrorCode(AisConsentUsageDecision decision) {
+        switch (decision) {
+            case VALID:
+                return Optional.empty();
+            case EXPIRED:
+                return Optional.of(CONSENT_EXPIRED);
+            case ACCESS_EXCEEDED:
+                return Optional.of(ACCESS_EXCEEDED);
+            default:
+                return Optional.of(CONSENT_INVALID);
+        }
+    }
+
     private ActionStatus createActionStatus(boolean withBalance, TypeAccess access, ResponseObject response) {
         return response.hasError()
                    ? consentMapper.mapActionStatusError(response.getError().getTppMessage().getMessageErrorCode(), withBalance, access)
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.account;
+
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import de.adorsys.aspsp.xs2a.spi.service.AccountSpi;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Reads account details for several account references, e.g. for all accounts of a dedicated-account consent.
+ * If the ASPSP connector provides its own multi-reference implementation, it is called once. Otherwise the
+ * references are read in parallel on the bounded SPI executor. In both cases the result keeps the order of
+ * the references, references without matching account are omitted and the first connector error is rethrown.
+ */
+@Slf4j
+@Component
+public class AccountDetailsBulkReader {
+    private final AccountSpi accountSpi;
+    private final Executor spiExecutor;
+    private final boolean bulkReadSupported;
+
+    @Autowired
+    public AccountDetailsBulkReader(AccountSpi accountSpi, @Qualifier("spiExecutor") Executor spiExecutor) {
+        this(accountSpi, spiExecutor, isBulkReadOverridden(accountSpi));
+    }
+
+    AccountDetailsBulkReader(AccountSpi accountSpi, Executor spiExecutor, boolean bulkReadSupported) {
+        this.accountSpi = accountSpi;
+        this.spiExecutor = spiExecutor;
+        this.bulkReadSupported = bulkReadSupported;
+    }
+
+    public List<SpiAccountDetails> readAccountDetails(List<SpiAccountReference> references) {
+        if (references.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (bulkReadSupported || references.size() == 1) {
+            return accountSpi.readAccountDetailsByReferences(references, new AspspConsentData()).getPayload(); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        }
+        List<CompletableFuture<Optional<SpiAccountDetails>>> futures = references.stream()
+                                                                           .map(ref -> CompletableFuture.supplyAsync(() -> readAccountDetails(ref), spiExecutor))
+                                                                           .collect(Collectors.toList());
+        List<SpiAccountDetails> accountDetails = new ArrayList<>(references.size());
+        try {
+            for (CompletableFuture<Optional<SpiAccountDetails>> future : futures) {
+                future.join().ifPresent(accountDetails::add);
+            }
+        } catch (CompletionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw unwrap(e);
+        }
+        return accountDetails;
+    }
+
+    private Optional<SpiAccountDetails> readAccountDetails(SpiAccountReference reference) {
+        return accountSpi.readAccountDetailsByIban(reference.getIban(), new AspspConsentData()).getPayload().stream() // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+                   .filter(spiAcc -> spiAcc.getCurrency() == reference.getCurrency())
+                   .findFirst();
+    }
+
+    private RuntimeException unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return e;
+    }
+
+    private static boolean isBulkReadOverridden(AccountSpi accountSpi) {
+        try {
+            Class<?> declaringClass = ClassUtils.getUserClass(accountSpi)
+                                          .getMethod("readAccountDetailsByReferences", List.class, AspspConsentData.class)
+                                          .getDeclaringClass();
+            boolean overridden = declaringClass != AccountSpi.class;
+            log.info("ASPSP connector {} multi-reference account read, per-reference reads are {}",
+                     overridden ? "supports" : "does not support", overridden ? "not needed" : "executed in parallel");
+            return overridden;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.account;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import de.adorsys.aspsp.xs2a.spi.service.AccountSpi;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-living cache of account details read from ASPSP by account id. It serves consent checks of balance and
+ * transaction requests, that need IBAN and currency of the account before the actual data is read.
+ * Concurrent requests for the same account wait for a single SPI call. Entries, including their balances,
+ * are never older than the configured TTL. Unknown accounts are not cached.
+ */
+@Component
+public class AccountDetailsCache implements PublicMetrics {
+    private static final String METRIC_PREFIX = "cache.account-details.";
+
+    private final AccountSpi accountSpi;
+    private final Cache<String, SpiAccountDetails> cache;
+
+    public AccountDetailsCache(AccountSpi accountSpi,
+                               @Value("${xs2a.account-details-cache.max-size:10000}") long maxSize,
+                               @Value("${xs2a.account-details-cache.ttl.ms:5000}") long ttlMs) {
+        this.accountSpi = accountSpi;
+        this.cache = CacheBuilder.newBuilder()
+                         .maximumSize(maxSize)
+                         .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                         .recordStats()
+                         .build();
+    }
+
+    /**
+     * Returns account details from the cache or reads them from ASPSP
+     *
+     * @param accountId String representation of ASPSP account primary identifier
+     * @return account details or null if account is unknown
+     */
+    public SpiAccountDetails getAccountDetails(String accountId) {
+        try {
+            return cache.get(accountId, () -> accountSpi.readAccountDetails(accountId, new AspspConsentData()).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        } catch (CacheLoader.InvalidCacheLoadException e) {
+            return null;
+        } catch (UncheckedExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        CacheStats stats = cache.stats();
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(METRIC_PREFIX + "size", cache.size()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "hit", stats.hitCount()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "miss", stats.missCount()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "hit.ratio", stats.hitRate()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "eviction", stats.evictionCount()));
+        return metrics;
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.account;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountReport;
+import de.adorsys.aspsp.xs2a.service.mapper.AccountModelMapper;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps transaction reports that are too large to be returned inline as files in a spool directory,
+ * so that they can be downloaded by the TPP with a separate request. Reports are serialised once: the UTF-8 encoded output
+ * is counted in memory up to the inline limit in bytes and only spilled to disk if the limit is exceeded.
+ * Every spooled report is stored together with a metadata file, so the spool directory may be shared by several XS2A nodes
+ * (e.g. a network file system) and the report can be downloaded from any of them.
+ * Spooled files are deleted after the configured TTL. The spool is limited by the number of files and their total size,
+ * reports exceeding these limits are not offered for download. The limits are accounted by every node separately.
+ */
+@Slf4j
+@Service
+public class TransactionReportDownloadService {
+    private static final String FILE_PREFIX = "transactions-";
+    private static final String FILE_SUFFIX = ".json";
+    private static final String METADATA_SUFFIX = ".properties";
+    private static final String CONSENT_ID = "consentId";
+    private static final String ACCOUNT_ID = "accountId";
+    private static final String SIZE = "size";
+    private static final String EXPIRES_AT = "expiresAt";
+    private static final Pattern DOWNLOAD_ID_PATTERN = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+    private final ObjectMapper objectMapper;
+    private final int maxInlineReportSize;
+    private final Path spoolDirectory;
+    private final long ttlMs;
+    private final int maxFiles;
+    private final long maxTotalSize;
+    private final Object spoolLock = new Object();
+    private long spooledSize;
+    private final Map<String, TransactionReportFile> reports = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "transaction-report-cleaner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TransactionReportDownloadService(ObjectMapper objectMapper,
+                                            @Value("${xs2a.transaction-download.max-inline-size.bytes:${application.ais.transaction.max-length}}") int maxInlineReportSize,
+                                            @Value("${xs2a.transaction-download.directory:${java.io.tmpdir}/xs2a-transactions}") String spoolDirectory,
+                                            @Value("${xs2a.transaction-download.ttl.ms:600000}") long ttlMs,
+                                            @Value("${xs2a.transaction-download.max-files:1000}") int maxFiles,
+                                            @Value("${xs2a.transaction-download.max-total-size.bytes:1073741824}") long maxTotalSize) {
+        this.objectMapper = objectMapper;
+        this.maxInlineReportSize = maxInlineReportSize;
+        this.spoolDirectory = Paths.get(spoolDirectory);
+        this.ttlMs = ttlMs;
+        this.maxFiles = maxFiles;
+        this.maxTotalSize = maxTotalSize;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(spoolDirectory);
+        long cleanupInterval = Math.min(ttlMs, TimeUnit.MINUTES.toMillis(1));
+        cleaner.scheduleWithFixedDelay(this::deleteExpiredReports, cleanupInterval, cleanupInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+        reports.keySet().forEach(this::deleteReport);
+    }
+
+    /**
+     * Serialises the report and keeps it as a file, if its UTF-8 encoded size in bytes is larger than the inline report limit
+     * and it fits into the spool limits
+     *
+     * @param consentId String representing an AccountConsent identification
+     * @param accountId String representing a PSU`s Account at ASPSP
+     * @param report    account report to be checked
+     * @return identifier of the spooled report or empty if the report may be returned inline or exceeds the spool limits
+     */
+    public Optional<String> spoolIfExceedsLimit(String consentId, String accountId, Xs2aAccountReport report) {
+        DeferredFileOutputStream output = new DeferredFileOutputStream(maxInlineReportSize, FILE_PREFIX, FILE_SUFFIX, spoolDirectory.toFile());
+        try {
+            objectMapper.writeValue(output, AccountModelMapper.mapToAccountReport(report));
+        } catch (IOException e) {
+            log.error("Can't write transaction report of account {} to spool directory: {}", accountId, e.getMessage());
+            Optional.ofNullable(output.getFile()).ifPresent(File::delete);
+            return Optional.empty();
+        }
+        if (output.isInMemory()) {
+            return Optional.empty();
+        }
+
+        String downloadId = UUID.randomUUID().toString();
+        TransactionReportFile reportFile = new TransactionReportFile(consentId, accountId, getReportPath(downloadId), output.getByteCount(), System.currentTimeMillis() + ttlMs);
+        if (!register(downloadId, reportFile)) {
+            log.warn("Transaction report of account {} with {} bytes exceeds the spool limits and is not offered for download", accountId, reportFile.getSize());
+            deleteFile(output.getFile().toPath());
+            return Optional.empty();
+        }
+        try {
+            Files.move(output.getFile().toPath(), reportFile.getFile(), StandardCopyOption.ATOMIC_MOVE);
+            writeMetadata(downloadId, reportFile);
+        } catch (IOException e) {
+            log.error("Can't store transaction report of account {} in spool directory: {}", accountId, e.getMessage());
+            deleteFile(output.getFile().toPath());
+            deleteReport(downloadId);
+            return Optional.empty();
+        }
+        return Optional.of(downloadId);
+    }
+
+    /**
+     * Returns spooled report, if it exists, is not expired and belongs to given consent and account.
+     * Reports spooled by other nodes sharing the spool directory are found by their metadata files
+     *
+     * @param consentId  String representing an AccountConsent identification
+     * @param accountId  String representing a PSU`s Account at ASPSP
+     * @param downloadId identifier of the spooled report
+     * @return spooled report file
+     */
+    public Optional<TransactionReportFile> getReport(String consentId, String accountId, String downloadId) {
+        return Optional.ofNullable(downloadId)
+                   .filter(id -> DOWNLOAD_ID_PATTERN.matcher(id).matches())
+                   .flatMap(this::findReport)
+                   .filter(report -> report.getConsentId().equals(consentId) && report.getAccountId().equals(accountId))
+                   .filter(report -> !report.isExpired());
+    }
+
+    /**
+     * Copies given part of the report file to the output stream, using zero-copy transfer where the target allows it
+     *
+     * @param report   spooled report file
+     * @param position position of the first byte to be copied
+     * @param count    number of bytes to be copied
+     * @param output   target output stream
+     * @throws IOException if the file can't be read or the output can't be written
+     */
+    public void transfer(TransactionReportFile report, long position, long count, OutputStream output) throws IOException {
+        WritableByteChannel target = Channels.newChannel(output);
+        try (FileChannel source = FileChannel.open(report.getFile(), StandardOpenOption.READ)) {
+            long transferred = 0;
+            while (transferred < count) {
+                long bytes = source.transferTo(position + transferred, count - transferred, target);
+                if (bytes <= 0) {
+                    break;
+                }
+                transferred += bytes;
+            }
+        }
+        output.flush();
+    }
+
+    private void deleteExpiredReports() {
+        reports.entrySet().stream()
+            .filter(entry -> entry.getValue().isExpired())
+            .map(Map.Entry::getKey)
+            .forEach(this::deleteReport);
+
+        try (DirectoryStream<Path> metadataFiles = Files.newDirectoryStream(spoolDirectory, FILE_PREFIX + "*" + METADATA_SUFFIX)) {
+            for (Path metadataFile : metadataFiles) {
+                String fileName = metadataFile.getFileName().toString();
+                String downloadId = fileName.substring(FILE_PREFIX.length(), fileName.length() - METADATA_SUFFIX.length());
+                if (!reports.containsKey(downloadId) && !readMetadata(downloadId).filter(report -> !report.isExpired()).isPresent()) {
+                    deleteFile(getReportPath(downloadId));
+                    deleteFile(metadataFile);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Can't clean up spool directory {}: {}", spoolDirectory, e.getMessage());
+        }
+    }
+
+    private Optional<TransactionReportFile> findReport(String downloadId) {
+        TransactionReportFile report = reports.get(downloadId);
+        return report != null
+                   ? Optional.of(report)
+                   : readMetadata(downloadId);
+    }
+
+    private void writeMetadata(String downloadId, TransactionReportFile report) throws IOException {
+        Properties metadata = new Properties();
+        metadata.setProperty(CONSENT_ID, report.getConsentId());
+        metadata.setProperty(ACCOUNT_ID, report.getAccountId());
+        metadata.setProperty(SIZE, String.valueOf(report.getSize()));
+        metadata.setProperty(EXPIRES_AT, String.valueOf(report.getExpiresAt()));
+        try (OutputStream output = Files.newOutputStream(getMetadataPath(downloadId))) {
+            metadata.store(output, null);
+        }
+    }
+
+    private Optional<TransactionReportFile> readMetadata(String downloadId) {
+        Path metadataPath = getMetadataPath(downloadId);
+        Path reportPath = getReportPath(downloadId);
+        if (!Files.exists(metadataPath) || !Files.exists(reportPath)) {
+            return Optional.empty();
+        }
+        Properties metadata = new Properties();
+        try (InputStream input = Files.newInputStream(metadataPath)) {
+            metadata.load(input);
+            return Optional.of(new TransactionReportFile(metadata.getProperty(CONSENT_ID), metadata.getProperty(ACCOUNT_ID), reportPath,
+                                                         Long.parseLong(metadata.getProperty(SIZE)), Long.parseLong(metadata.getProperty(EXPIRES_AT))));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Can't read metadata of transaction report {}: {}", downloadId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Path getReportPath(String downloadId) {
+        return spoolDirectory.resolve(FILE_PREFIX + downloadId + FILE_SUFFIX);
+    }
+
+    private Path getMetadataPath(String downloadId) {
+        return spoolDirectory.resolve(FILE_PREFIX + downloadId + METADATA_SUFFIX);
+    }
+
+    private boolean register(String downloadId, TransactionReportFile report) {
+        synchronized (spoolLock) {
+            if (reports.size() >= maxFiles || spooledSize + report.getSize() > maxTotalSize) {
+                return false;
+            }
+            spooledSize += report.getSize();
+            reports.put(downloadId, report);
+            return true;
+        }
+    }
+
+    private void deleteReport(String downloadId) {
+        TransactionReportFile report;
+        synchronized (spoolLock) {
+            report = reports.remove(downloadId);
+            if (report != null) {
+                spooledSize -= report.getSize();
+            }
+        }
+        if (report != null) {
+            deleteFile(report.getFile());
+            deleteFile(getMetadataPath(downloadId));
+        }
+    }
+
+    private void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Can't delete transaction report file {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Data
+    public static class TransactionReportFile {
+        private final String consentId;
+        private final String accountId;
+        private final Path file;
+        private final long size;
+        private final long expiresAt;
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.consent;
+
+import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.SpiAccountAccess;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable index of accounts accessible with a consent, compiled once per consent snapshot.
+ * For every access type it holds a hash set of (IBAN, currency) pairs, so that the access check
+ * does not depend on the number of accounts in the consent. IBANs are compared without whitespaces
+ * and case insensitively.
+ */
+public final class AccountAccessIndex {
+    public static final AccountAccessIndex EMPTY = new AccountAccessIndex(Collections.emptyMap());
+
+    private final Map<TypeAccess, Set<String>> accessKeys;
+
+    private AccountAccessIndex(Map<TypeAccess, Set<String>> accessKeys) {
+        this.accessKeys = accessKeys;
+    }
+
+    /**
+     * Compiles index for the account access of a consent
+     *
+     * @param access account access of the consent, may be null
+     * @return index of the account access
+     */
+    public static AccountAccessIndex of(SpiAccountAccess access) {
+        if (access == null) {
+            return EMPTY;
+        }
+        Map<TypeAccess, Set<String>> accessKeys = new EnumMap<>(TypeAccess.class);
+        accessKeys.put(TypeAccess.ACCOUNT, toAccessKeys(access.getAccounts()));
+        accessKeys.put(TypeAccess.BALANCE, toAccessKeys(access.getBalances()));
+        accessKeys.put(TypeAccess.TRANSACTION, toAccessKeys(access.getTransactions()));
+        return new AccountAccessIndex(Collections.unmodifiableMap(accessKeys));
+    }
+
+    /**
+     * Checks whether the account is accessible with given access type
+     *
+     * @param typeAccess type of the requested access
+     * @param iban       IBAN of the account
+     * @param currency   currency of the account, may be null
+     * @return true if the consent contains the account in the section of given access type
+     */
+    public boolean isAccessible(TypeAccess typeAccess, String iban, Currency currency) {
+        return iban != null
+                   && accessKeys.getOrDefault(typeAccess, Collections.emptySet()).contains(toAccessKey(iban, currency));
+    }
+
+    private static Set<String> toAccessKeys(List<SpiAccountReference> references) {
+        return Optional.ofNullable(references)
+                   .map(refs -> refs.stream()
+                                    .filter(ref -> ref.getIban() != null)
+                                    .map(ref -> toAccessKey(ref.getIban(), ref.getCurrency()))
+                                    .collect(Collectors.toSet()))
+                   .map(Collections::unmodifiableSet)
+                   .orElseGet(Collections::emptySet);
+    }
+
+    private static String toAccessKey(String iban, Currency currency) {
+        String currencyCode = Optional.ofNullable(currency)
+                                  .map(Currency::getCurrencyCode)
+                                  .orElse("");
+        return StringUtils.deleteWhitespace(iban).toUpperCase(Locale.ROOT) + ':' + currencyCode;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.consent;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountConsent;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.SpiAccountAccess;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded near-cache of account access of AIS consents read from CMS.
+ * Status and validity of a consent are never served from the cache, as they may be changed in CMS at any time.
+ * Only the index compiled for the account access of the consent is cached. The entry is replaced with every consent
+ * read from CMS, evicted as soon as xs2a changes the consent and lives at most for the configured TTL.
+ * Concurrent reads of a missing entry load the consent from CMS only once.
+ */
+@Component
+public class AisConsentCache implements PublicMetrics {
+    private static final String METRIC_PREFIX = "cache.ais-consent.";
+
+    private final Cache<String, CachedAccess> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong lastServedAgeMs = new AtomicLong();
+    private final AtomicLong maxServedAgeMs = new AtomicLong();
+
+    public AisConsentCache(@Value("${xs2a.consent-cache.max-size:10000}") long maxSize,
+                           @Value("${xs2a.consent-cache.ttl.ms:30000}") long ttlMs) {
+        this.cache = CacheBuilder.newBuilder()
+                         .maximumSize(maxSize)
+                         .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                         .recordStats()
+                         .build();
+    }
+
+    /**
+     * Returns index of account access of the consent from the cache or loads the consent with given loader.
+     * Empty results of the loader are not cached
+     *
+     * @param consentId String representation of identifier of stored consent
+     * @param loader    function reading consent from CMS
+     * @return Account access index of the consent or empty index if consent is unknown
+     */
+    public AccountAccessIndex getAccessIndex(String consentId, Function<String, SpiAccountConsent> loader) {
+        try {
+            CachedAccess cached = cache.get(consentId, () -> load(consentId, loader));
+            recordStaleness(cached.getAgeMs());
+            return cached.getIndex();
+        } catch (InvalidCacheLoadException e) {
+            return AccountAccessIndex.EMPTY;
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Replaces cached account access with the one of the consent just read from CMS.
+     * The compiled index is reused as long as the account access of the consent stays the same
+     *
+     * @param consentId String representation of identifier of stored consent
+     * @param consent   Consent read from CMS, may be null
+     */
+    public void put(String consentId, SpiAccountConsent consent) {
+        if (consentId == null) {
+            return;
+        }
+        if (consent == null) {
+            evict(consentId);
+            return;
+        }
+        CachedAccess cached = cache.getIfPresent(consentId);
+        AccountAccessIndex index = cached != null && Objects.equals(cached.getAccess(), consent.getAccess())
+                                       ? cached.getIndex()
+                                       : AccountAccessIndex.of(consent.getAccess());
+        cache.put(consentId, new CachedAccess(consent.getAccess(), index));
+    }
+
+    /**
+     * Removes account access of the consent from the cache
+     *
+     * @param consentId String representation of identifier of stored consent
+     */
+    public void evict(String consentId) {
+        if (consentId != null) {
+            cache.invalidate(consentId);
+            invalidations.incrementAndGet();
+        }
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        CacheStats stats = cache.stats();
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(METRIC_PREFIX + "size", cache.size()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "hit", stats.hitCount()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "miss", stats.missCount()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "hit.ratio", stats.hitRate()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "eviction", stats.evictionCount()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "invalidation", invalidations.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "staleness.last.ms", lastServedAgeMs.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "staleness.max.ms", maxServedAgeMs.get()));
+        return metrics;
+    }
+
+    private CachedAccess load(String consentId, Function<String, SpiAccountConsent> loader) {
+        SpiAccountConsent loaded = loader.apply(consentId);
+        return loaded == null
+                   ? null
+                   : new CachedAccess(loaded.getAccess(), AccountAccessIndex.of(loaded.getAccess()));
+    }
+
+    private void recordStaleness(long ageMs) {
+        lastServedAgeMs.set(ageMs);
+        maxServedAgeMs.accumulateAndGet(ageMs, Math::max);
+    }
+
+    private static class CachedAccess {
+        private final SpiAccountAccess access;
+        private final AccountAccessIndex index;
+        private final long loadedAt = System.currentTimeMillis();
+
+        CachedAccess(SpiAccountAccess access, AccountAccessIndex index) {
+            this.access = access;
+            this.index = index;
+        }
+
+        SpiAccountAccess getAccess() {
+            return access;
+        }
+
+        AccountAccessIndex getIndex() {
+            return index;
+        }
+
+        long getAgeMs() {
+            return System.currentTimeMillis() - loadedAt;
+        }
+    }
+}
@@ -19,7 +19,9 @@ package de.adorsys.aspsp.xs2a.service.consent;
 import de.adorsys.aspsp.xs2a.config.rest.consent.AisConsentRemoteUrls;
 import de.adorsys.aspsp.xs2a.consent.api.ActionStatus;
 import de.adorsys.aspsp.xs2a.consent.api.AisConsentStatusResponse;
+import de.adorsys.aspsp.xs2a.consent.api.CmsAccountReference;
 import de.adorsys.aspsp.xs2a.consent.api.ConsentActionRequest;
+import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
 import de.adorsys.aspsp.xs2a.consent.api.ais.*;
 import de.adorsys.aspsp.xs2a.domain.account.AccountReference;
 import de.adorsys.aspsp.xs2a.domain.consent.CreateConsentReq;
@@ -51,6 +53,8 @@ public class AisConsentService {
     private final AisConsentRemoteUrls remoteAisConsentUrls;
     private final Xs2aAisConsentMapper aisConsentMapper;
     private final AccountSpi accountSpi;
+    private final AisConsentCache aisConsentCache;
+    private final ConsentActionLogQueue consentActionLogQueue;
 
     /**
      * Sends a POST request to CMS to store created AISconsent
@@ -75,13 +79,26 @@ public class AisConsentService {
     }
 
     /**
-     * Requests CMS to retrieve AIS consent by its identifier
+     * Requests CMS to retrieve AIS consent by its identifier. Status and validity of the consent are always read from CMS,
+     * its account access is refreshed in {@link AisConsentCache}
      *
      * @param consentId String representation of identifier of stored consent
      * @return Response containing AIS Consent
      */
     public SpiAccountConsent getAccountConsentById(String consentId) {
-        return consentRestTemplate.getForEntity(remoteAisConsentUrls.getAisConsentById(), SpiAccountConsent.class, consentId).getBody();
+        SpiAccountConsent consent = readAccountConsentById(consentId);
+        aisConsentCache.put(consentId, consent);
+        return consent;
+    }
+
+    /**
+     * Returns index of account access of AIS consent, compiled once per consent snapshot read from CMS
+     *
+     * @param consentId String representation of identifier of stored consent
+     * @return Account access index of the consent, empty if consent is unknown
+     */
+    public AccountAccessIndex getAccountAccessIndex(String consentId) {
+        return aisConsentCache.getAccessIndex(consentId, this::readAccountConsentById);
     }
 
     /**
@@ -103,17 +120,35 @@ public class AisConsentService {
      */
     public void revokeConsent(String consentId) {
         consentRestTemplate.put(remoteAisConsentUrls.updateAisConsentStatus(), null, consentId, SpiConsentStatus.REVOKED_BY_PSU);
+        aisConsentCache.evict(consentId);
     }
 
     /**
-     * Sends a POST request to CMS to perform decrement of consent usages and report status of the operation held with certain AIS consent
+     * Queues a request to CMS to perform decrement of consent usages and report status of the operation held with certain AIS consent.
+     * Queued actions are sent to CMS in bulks by {@link ConsentActionLogQueue}
      *
      * @param tppId        String representation of TPP`s identifier from TPP Certificate
      * @param consentId    String representation of identifier of stored consent
      * @param actionStatus Enum value representing whether the acition is successful or errors occured
      */
     public void consentActionLog(String tppId, String consentId, ActionStatus actionStatus) {
-        consentRestTemplate.postForEntity(remoteAisConsentUrls.consentActionLog(), new ConsentActionRequest(tppId, consentId, actionStatus), Void.class);
+        consentActionLogQueue.add(new ConsentActionRequest(tppId, consentId, actionStatus));
+    }
+
+    /**
+     * Requests CMS to authorise access to the account with AIS consent and to count the usage in one call, replacing
+     * the consent read and the consent action log of a single account request
+     *
+     * @param tppId      String representation of TPP`s identifier from TPP Certificate
+     * @param consentId  String representation of identifier of stored consent
+     * @param typeAccess Type of the requested access
+     * @param iban       IBAN of the requested account
+     * @param currency   Currency of the requested account, may be null
+     * @return Decision with remaining usages and account access of the consent, empty if consent is unknown
+     */
+    public Optional<AisConsentUsageResponse> authoriseConsentUsage(String tppId, String consentId, TypeAccess typeAccess, String iban, Currency currency) {
+        AisConsentUsageRequest request = new AisConsentUsageRequest(tppId, typeAccess, new CmsAccountReference(iban, currency));
+        return Optional.ofNullable(consentRestTemplate.postForEntity(remoteAisConsentUrls.authoriseConsentUsage(), request, AisConsentUsageResponse.class, consentId).getBody());
     }
 
     /**
@@ -127,6 +162,7 @@ public class AisConsentService {
 
         CreateAisConsentAuthorizationResponse response = consentRestTemplate.postForEntity(remoteAisConsentUrls.createAisConsentAuthorization(),
             request, CreateAisConsentAuthorizationResponse.class, consentId).getBody();
+        aisConsentCache.evict(consentId);
 
         return Optional.ofNullable(response)
                    .map(CreateAisConsentAuthorizationResponse::getAuthorizationId);
@@ -156,6 +192,34 @@ public class AisConsentService {
         final AisConsentAuthorizationRequest request = aisConsentMapper.mapToAisConsentAuthorizationRequest(updatePsuData);
 
         consentRestTemplate.put(remoteAisConsentUrls.updateAisConsentAuthorization(), request, AisConsentAuthorizationResponse.class, consentId, authorizationId);
+        aisConsentCache.evict(consentId);
+    }
+
+    /**
+     * Requests CMS to retrieve entry reference of the last transaction reported to TPP for the account within the consent
+     *
+     * @param consentId String representation of identifier of stored consent
+     * @param accountId String representation of ASPSP account primary identifier
+     * @return Entry reference of the last reported transaction, empty if no delta report was done yet
+     */
+    public Optional<String> getTransactionCursor(String consentId, String accountId) {
+        return Optional.ofNullable(consentRestTemplate.getForEntity(remoteAisConsentUrls.transactionCursor(), AisTransactionCursorInfo.class, consentId, accountId).getBody())
+                   .map(AisTransactionCursorInfo::getEntryReference);
+    }
+
+    /**
+     * Sends a PUT request to CMS to store entry reference of the last transaction reported to TPP for the account within the consent
+     *
+     * @param consentId      String representation of identifier of stored consent
+     * @param accountId      String representation of ASPSP account primary identifier
+     * @param entryReference Entry reference of the last reported transaction
+     */
+    public void updateTransactionCursor(String consentId, String accountId, String entryReference) {
+        consentRestTemplate.put(remoteAisConsentUrls.transactionCursor(), new AisTransactionCursorInfo(entryReference), consentId, accountId);
+    }
+
+    private SpiAccountConsent readAccountConsentById(String consentId) {
+        return consentRestTemplate.getForEntity(remoteAisConsentUrls.getAisConsentById(), SpiAccountConsent.class, consentId).getBody();
     }
 
     private boolean isDirectAccessRequest(CreateConsentReq request) {
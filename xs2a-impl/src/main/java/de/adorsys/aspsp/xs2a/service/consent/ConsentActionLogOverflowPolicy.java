@@ -0,0 +1,35 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.consent;
+
+/**
+ * Defines what happens to a consent action when the write-behind queue is full
+ */
+public enum ConsentActionLogOverflowPolicy {
+    /**
+     * Request thread waits until the queue has free capacity
+     */
+    BLOCK,
+    /**
+     * Request thread sends the action to CMS by itself, as it was done before the queue was introduced
+     */
+    SEND_SYNC,
+    /**
+     * Action is dropped and counted in metrics
+     */
+    DROP
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.consent;
+
+import de.adorsys.aspsp.xs2a.config.rest.consent.AisConsentRemoteUrls;
+import de.adorsys.aspsp.xs2a.consent.api.ConsentActionRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind pipeline for consent action logs. Actions are put into a bounded in-memory queue by request threads
+ * and sent to CMS in bulks by a single background sender, either when the flush size is reached or when the flush
+ * interval elapses. Bulks that CMS fails to accept are retried by the sender with exponential backoff up to the configured
+ * number of retries. Remaining actions and pending retries are sent to CMS on shutdown.
+ */
+@Slf4j
+@Component
+public class ConsentActionLogQueue implements PublicMetrics {
+    private static final String METRIC_PREFIX = "consent-action-log.";
+
+    private final RestTemplate consentRestTemplate;
+    private final AisConsentRemoteUrls remoteAisConsentUrls;
+    private final BlockingQueue<ConsentActionRequest> queue;
+    private final int flushSize;
+    private final long flushIntervalMs;
+    private final ConsentActionLogOverflowPolicy overflowPolicy;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "consent-action-log-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Set<Retry> pendingRetries = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public ConsentActionLogQueue(@Qualifier("consentRestTemplate") RestTemplate consentRestTemplate,
+                                 AisConsentRemoteUrls remoteAisConsentUrls,
+                                 @Value("${xs2a.consent-action-log.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${xs2a.consent-action-log.flush-size:200}") int flushSize,
+                                 @Value("${xs2a.consent-action-log.flush-interval.ms:500}") long flushIntervalMs,
+                                 @Value("${xs2a.consent-action-log.overflow-policy:SEND_SYNC}") ConsentActionLogOverflowPolicy overflowPolicy,
+                                 @Value("${xs2a.consent-action-log.max-retries:3}") int maxRetries,
+                                 @Value("${xs2a.consent-action-log.retry-backoff.ms:1000}") long retryBackoffMs) {
+        this.consentRestTemplate = consentRestTemplate;
+        this.remoteAisConsentUrls = remoteAisConsentUrls;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.flushSize = flushSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.overflowPolicy = overflowPolicy;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        sender.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Puts consent action into the queue, applying configured overflow policy if the queue is full
+     *
+     * @param request consent action to be sent to CMS
+     */
+    public void add(ConsentActionRequest request) {
+        if (!queue.offer(request)) {
+            handleOverflow(request);
+        }
+        if (sender.isShutdown()) {
+            flushSafely();
+            runPendingRetries();
+        } else if (queue.size() >= flushSize && flushScheduled.compareAndSet(false, true)) {
+            sender.execute(() -> {
+                flushScheduled.set(false);
+                flushSafely();
+            });
+        }
+    }
+
+    /**
+     * Stops background sender and sends all queued actions and pending retries to CMS
+     */
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdown();
+        try {
+            if (!sender.awaitTermination(flushIntervalMs * 2, TimeUnit.MILLISECONDS)) {
+                sender.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            sender.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("Draining {} consent actions and {} pending retries on shutdown", queue.size(), pendingRetries.size());
+        new ArrayList<>(pendingRetries).forEach(Retry::run);
+        flushSafely();
+        runPendingRetries();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(METRIC_PREFIX + "queue.size", queue.size()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "sent", sent.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "retried", retried.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "failed", failed.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "dropped", dropped.get()));
+        return metrics;
+    }
+
+    private void handleOverflow(ConsentActionRequest request) {
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    queue.put(request);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                }
+                break;
+            case DROP:
+                log.warn("Consent action queue is full, action for consent {} is dropped", request.getConsentId());
+                dropped.incrementAndGet();
+                break;
+            default:
+                send(Collections.singletonList(request));
+        }
+    }
+
+    private synchronized void flushSafely() {
+        List<ConsentActionRequest> batch = new ArrayList<>(flushSize);
+        while (queue.drainTo(batch, flushSize) > 0) {
+            send(batch);
+            batch = new ArrayList<>(flushSize);
+        }
+    }
+
+    private void send(List<ConsentActionRequest> batch) {
+        send(batch, 0);
+    }
+
+    private void send(List<ConsentActionRequest> batch, int attempt) {
+        try {
+            consentRestTemplate.postForEntity(remoteAisConsentUrls.consentActionLogs(), batch, Void.class);
+            sent.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            if (attempt < maxRetries) {
+                long backoffMs = retryBackoffMs << attempt;
+                retried.addAndGet(batch.size());
+                log.warn("Failed to send {} consent actions to CMS, retrying in {} ms: {}", batch.size(), backoffMs, e.getMessage());
+                scheduleRetry(batch, attempt + 1, backoffMs);
+            } else {
+                failed.addAndGet(batch.size());
+                log.error("Failed to send {} consent actions to CMS after {} attempts: {}", batch.size(), attempt + 1, e.getMessage());
+            }
+        }
+    }
+
+    private void scheduleRetry(List<ConsentActionRequest> batch, int attempt, long backoffMs) {
+        Retry retry = new Retry(batch, attempt, System.currentTimeMillis() + backoffMs);
+        pendingRetries.add(retry);
+        try {
+            sender.schedule(retry, backoffMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Sender is shut down, so the retry stays pending until the thread draining the queue runs it
+            log.debug("Sender is shut down, retry of {} consent actions is left to the draining thread", batch.size());
+        }
+    }
+
+    /**
+     * Runs retries left after the sender was shut down, waiting for the backoff of each one without holding
+     * the monitor of the queue
+     */
+    private void runPendingRetries() {
+        Optional<Retry> next;
+        while ((next = pendingRetries.stream().min(Comparator.comparingLong(Retry::getDueAt))).isPresent()) {
+            Retry retry = next.get();
+            long delayMs = retry.getDueAt() - System.currentTimeMillis();
+            if (delayMs > 0) {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            retry.run();
+        }
+    }
+
+    /**
+     * Retry of a failed bulk, run once either by the sender or by the thread shutting the queue down.
+     * Retries hold the monitor of the queue like flushes while sending, so that shutdown waits for a running retry.
+     */
+    private class Retry implements Runnable {
+        private final List<ConsentActionRequest> batch;
+        private final int attempt;
+        private final long dueAt;
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        Retry(List<ConsentActionRequest> batch, int attempt, long dueAt) {
+            this.batch = batch;
+            this.attempt = attempt;
+            this.dueAt = dueAt;
+        }
+
+        long getDueAt() {
+            return dueAt;
+        }
+
+        @Override
+        public void run() {
+            pendingRetries.remove(this);
+            if (started.compareAndSet(false, true)) {
+                synchronized (ConsentActionLogQueue.this) {
+                    send(batch, attempt);
+                }
+            }
+        }
+    }
+}
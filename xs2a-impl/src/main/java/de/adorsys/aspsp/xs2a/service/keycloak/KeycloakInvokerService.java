@@ -19,6 +19,7 @@ package de.adorsys.aspsp.xs2a.service.keycloak;
 import de.adorsys.aspsp.xs2a.config.KeycloakConfigProperties;
 import de.adorsys.aspsp.xs2a.config.rest.BearerToken;
 import de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -30,12 +31,18 @@ import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant.BEARER_TOKEN_PREFIX;
 
 @Service
 public class KeycloakInvokerService {
+    private static final String GRANT_TYPE = "grant_type";
+    private static final String REFRESH_TOKEN = "refresh_token";
+    private static final String EXPIRES_IN = "expires_in";
+    private static final String REFRESH_EXPIRES_IN = "refresh_expires_in";
+
     @Autowired
     private BearerToken bearerToken;
     @Autowired
@@ -71,8 +78,47 @@ public class KeycloakInvokerService {
                    .orElse(null);
     }
 
+    /**
+     * Obtains token of the technical xs2a user by password grant
+     *
+     * @return Keycloak token with its refresh token and expiration times or null if Keycloak returned no token
+     */
+    public KeycloakToken obtainToken() {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("username", keycloakUsername);
+        params.add("password", keycloakPassword);
+        params.add(GRANT_TYPE, "password");
+
+        return Optional.ofNullable(requestToken(params))
+                   .map(this::toKeycloakToken)
+                   .orElse(null);
+    }
+
+    /**
+     * Obtains new token by refresh token grant
+     *
+     * @param refreshToken refresh token issued together with previous token
+     * @return Keycloak token with its refresh token and expiration times or null if Keycloak returned no token
+     */
+    public KeycloakToken refreshToken(String refreshToken) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add(REFRESH_TOKEN, refreshToken);
+        params.add(GRANT_TYPE, REFRESH_TOKEN);
+
+        return Optional.ofNullable(requestToken(params))
+                   .map(this::toKeycloakToken)
+                   .orElse(null);
+    }
+
     private String doObtainAccessToken(MultiValueMap<String, String> params) {
-        params.add("grant_type", "password");
+        params.add(GRANT_TYPE, "password");
+
+        return Optional.ofNullable(requestToken(params))
+                   .map(body -> body.get(AuthorizationConstant.ACCESS_TOKEN))
+                   .orElse(null);
+    }
+
+    private Map<String, String> requestToken(MultiValueMap<String, String> params) {
         params.add("client_id", keycloakConfig.getResource());
         params.add("client_secret", keycloakConfig.getCredentials().getSecret());
 
@@ -83,8 +129,22 @@ public class KeycloakInvokerService {
             new ParameterizedTypeReference<HashMap<String, String>>() {
             });
 
-        return Optional.ofNullable(response.getBody())
-                   .map(body -> body.get(AuthorizationConstant.ACCESS_TOKEN))
-                   .orElse(null);
+        return response.getBody();
+    }
+
+    private KeycloakToken toKeycloakToken(Map<String, String> body) {
+        String accessToken = body.get(AuthorizationConstant.ACCESS_TOKEN);
+        if (accessToken == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        return new KeycloakToken(accessToken,
+            body.get(REFRESH_TOKEN),
+            now + toMillis(body.get(EXPIRES_IN)),
+            now + toMillis(body.get(REFRESH_EXPIRES_IN)));
+    }
+
+    private long toMillis(String seconds) {
+        return NumberUtils.toLong(seconds) * 1000;
     }
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.service.keycloak;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant.AUTHORIZATION_HEADER;
+import static de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant.BEARER_TOKEN_PREFIX;
+
+/**
+ * Keeps access token of the technical xs2a user, so that REDIRECT and EMBEDDED requests do not obtain a new token
+ * from Keycloak each time. Cached token is used until shortly before its expiration and is refreshed in background
+ * with its refresh token. Concurrent refreshes share one call to Keycloak.
+ */
+@Slf4j
+@Component
+public class KeycloakTokenManager implements PublicMetrics {
+    private static final String METRIC_PREFIX = "keycloak.token.";
+
+    private final KeycloakInvokerService keycloakInvokerService;
+    private final long minValidityMs;
+    private final long refreshAheadMs;
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "keycloak-token-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<CompletableFuture<KeycloakToken>> inFlightRefresh = new AtomicReference<>();
+    private volatile KeycloakToken currentToken;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong failedRefreshes = new AtomicLong();
+    private final AtomicLong lastRefreshLatencyMs = new AtomicLong();
+    private final AtomicLong maxRefreshLatencyMs = new AtomicLong();
+
+    public KeycloakTokenManager(KeycloakInvokerService keycloakInvokerService,
+                                @Value("${xs2a.keycloak-token.min-validity.ms:5000}") long minValidityMs,
+                                @Value("${xs2a.keycloak-token.refresh-ahead.ms:30000}") long refreshAheadMs) {
+        this.keycloakInvokerService = keycloakInvokerService;
+        this.minValidityMs = minValidityMs;
+        this.refreshAheadMs = refreshAheadMs;
+    }
+
+    /**
+     * Returns cached access token of the technical xs2a user or obtains a new one, if there is no token valid
+     * for at least the configured minimal validity
+     *
+     * @return Authorization header with bearer token or null if Keycloak returned no token
+     */
+    public String getAccessToken() {
+        KeycloakToken token = currentToken;
+        if (token != null && token.isValidFor(minValidityMs)) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            token = refresh();
+        }
+        return Optional.ofNullable(token)
+                   .map(t -> AUTHORIZATION_HEADER + ": " + BEARER_TOKEN_PREFIX + t.getAccessToken())
+                   .orElse(null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        long requests = hits.get() + misses.get();
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(METRIC_PREFIX + "hit", hits.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "miss", misses.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "hit.ratio", requests == 0 ? 0.0 : (double) hits.get() / requests));
+        metrics.add(new Metric<>(METRIC_PREFIX + "refresh", refreshes.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "refresh.failed", failedRefreshes.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "refresh.latency.last.ms", lastRefreshLatencyMs.get()));
+        metrics.add(new Metric<>(METRIC_PREFIX + "refresh.latency.max.ms", maxRefreshLatencyMs.get()));
+        return metrics;
+    }
+
+    /**
+     * Obtains new token, joining the refresh already started by another thread if there is one
+     */
+    KeycloakToken refresh() {
+        CompletableFuture<KeycloakToken> refresh = new CompletableFuture<>();
+        while (!inFlightRefresh.compareAndSet(null, refresh)) {
+            CompletableFuture<KeycloakToken> inFlight = inFlightRefresh.get();
+            if (inFlight != null) {
+                return inFlight.join();
+            }
+        }
+        try {
+            KeycloakToken token = doRefresh();
+            refresh.complete(token);
+            return token;
+        } catch (RuntimeException e) {
+            refresh.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRefresh.set(null);
+        }
+    }
+
+    private KeycloakToken doRefresh() {
+        long start = System.currentTimeMillis();
+        KeycloakToken previous = currentToken;
+        try {
+            KeycloakToken token = null;
+            if (previous != null && previous.isRefreshable()) {
+                token = refreshOrNull(previous.getRefreshToken());
+            }
+            if (token == null) {
+                token = keycloakInvokerService.obtainToken();
+            }
+            currentToken = token;
+            refreshes.incrementAndGet();
+            scheduleRefresh(token);
+            return token;
+        } catch (RuntimeException e) {
+            failedRefreshes.incrementAndGet();
+            throw e;
+        } finally {
+            long latency = System.currentTimeMillis() - start;
+            lastRefreshLatencyMs.set(latency);
+            maxRefreshLatencyMs.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    private KeycloakToken refreshOrNull(String refreshToken) {
+        try {
+            return keycloakInvokerService.refreshToken(refreshToken);
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh Keycloak token, obtaining a new one: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void scheduleRefresh(KeycloakToken token) {
+        if (token == null || refresher.isShutdown()) {
+            return;
+        }
+        long validityMs = token.getExpiresAt() - System.currentTimeMillis();
+        if (validityMs <= 0) {
+            return;
+        }
+        long delay = validityMs > refreshAheadMs
+                         ? validityMs - refreshAheadMs
+                         : validityMs / 2;
+        refresher.schedule(this::refreshInBackground, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshInBackground() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Background refresh of Keycloak token failed: {}", e.getMessage());
+        }
+    }
+}
@@ -121,7 +121,7 @@ public class AccountMapper {
                    .orElseGet(Collections::emptyList);
     }
 
-    private Transactions mapToTransaction(SpiTransaction spiTransaction) {
+    public Transactions mapToTransaction(SpiTransaction spiTransaction) {
         return Optional.ofNullable(spiTransaction)
                    .map(t -> {
                        Transactions transactions = new Transactions();
@@ -140,6 +140,7 @@ public class AccountMapper {
                        transactions.setMandateId(t.getMandateId());
                        transactions.setPurposeCode(new Xs2aPurposeCode(t.getPurposeCode()));
                        transactions.setTransactionId(t.getTransactionId());
+                       transactions.setEntryReference(t.getTransactionId());
                        transactions.setRemittanceInformationStructured(t.getRemittanceInformationStructured());
                        transactions.setRemittanceInformationUnstructured(t.getRemittanceInformationUnstructured());
                        return transactions;
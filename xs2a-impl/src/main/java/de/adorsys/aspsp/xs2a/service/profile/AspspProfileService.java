@@ -43,6 +43,7 @@ public class AspspProfileService {
     @Qualifier("aspspProfileRestTemplate")
     private final RestTemplate aspspProfileRestTemplate;
     private final AspspProfileRemoteUrls aspspProfileRemoteUrls;
+    private final AspspSettingsSnapshot aspspSettingsSnapshot;
 
     /**
      * Gets a list of payment products allowed by current ASPSP from ASPSP profile service
@@ -179,7 +180,6 @@ public class AspspProfileService {
     }
 
     private AspspSettings readAspspSettings() {
-        return aspspProfileRestTemplate.exchange(
-            aspspProfileRemoteUrls.getAspspSettings(), HttpMethod.GET, null, AspspSettings.class).getBody();
+        return aspspSettingsSnapshot.getSettings();
     }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.profile;
+
+import de.adorsys.aspsp.snapshot.VersionedResourceSnapshot;
+import de.adorsys.aspsp.xs2a.config.rest.profile.AspspProfileRemoteUrls;
+import de.adorsys.aspsp.xs2a.domain.aspsp.AspspSettings;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot of ASPSP settings read from ASPSP profile service, refreshed in background by its own daemon thread,
+ * so request threads read settings from memory only.
+ */
+@Component
+public class AspspSettingsSnapshot extends VersionedResourceSnapshot<AspspSettings> {
+    private final long refreshIntervalMs;
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "aspsp-profile-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AspspSettingsSnapshot(@Qualifier("aspspProfileRestTemplate") RestTemplate aspspProfileRestTemplate,
+                                 AspspProfileRemoteUrls aspspProfileRemoteUrls,
+                                 @Value("${xs2a.aspsp-profile.refresh-interval.ms:5000}") long refreshIntervalMs) {
+        super("aspsp-profile", aspspProfileRestTemplate, aspspProfileRemoteUrls.getAspspSettings(), AspspSettings.class);
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        refresher.scheduleWithFixedDelay(this::refreshSafely, 0, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Returns current snapshot of ASPSP settings. Settings are read synchronously only if no snapshot was loaded yet
+     *
+     * @return ASPSP settings
+     */
+    public AspspSettings getSettings() {
+        return get();
+    }
+}
@@ -20,10 +20,15 @@ import de.adorsys.aspsp.xs2a.domain.Links;
 import de.adorsys.aspsp.xs2a.domain.ResponseObject;
 import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountDetails;
 import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountReport;
+import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountReportStream;
+import de.adorsys.aspsp.xs2a.service.account.TransactionReportDownloadService;
 import de.adorsys.aspsp.xs2a.web12.AccountController12;
 import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -35,6 +40,8 @@ import java.util.stream.Collectors;
 @Aspect
 @Component
 public class AccountAspect extends AbstractLinkAspect<AccountController12> {
+    @Autowired
+    private TransactionReportDownloadService transactionReportDownloadService;
 
     @AfterReturning(pointcut = "execution(* de.adorsys.aspsp.xs2a.service.AccountService.getAccountDetails(..)) && args(consentId, accountId, withBalance)", returning = "result", argNames = "result,consentId,accountId,withBalance")
     public ResponseObject<Xs2aAccountDetails> getAccountDetailsAspect(ResponseObject<Xs2aAccountDetails> result, String consentId, String accountId, boolean withBalance) {
@@ -56,11 +63,39 @@ public class AccountAspect extends AbstractLinkAspect<AccountController12> {
         return enrichErrorTextMessage(result);
     }
 
-    @AfterReturning(pointcut = "execution(* de.adorsys.aspsp.xs2a.service.AccountService.getAccountReportByPeriod(..)) && args(accountId, withBalance, ..)", returning = "result", argNames = "result,accountId,withBalance")
-    public ResponseObject<Xs2aAccountReport> getAccountReportByPeriodAspect(ResponseObject<Xs2aAccountReport> result, String accountId, boolean withBalance) {
+    /**
+     * Replaces the transactions of a report exceeding the inline limit by the link to download the spooled report
+     */
+    @SuppressWarnings("unchecked")
+    @Around(value = "execution(* de.adorsys.aspsp.xs2a.service.AccountService.getAccountReportByPeriod(..)) && args(accountId, withBalance, consentId, ..)", argNames = "pjp,accountId,withBalance,consentId")
+    public ResponseObject<Xs2aAccountReport> getAccountReportByPeriodAspect(ProceedingJoinPoint pjp, String accountId, boolean withBalance, String consentId) throws Throwable {
+        ResponseObject<Xs2aAccountReport> result = (ResponseObject<Xs2aAccountReport>) pjp.proceed();
+        if (result.hasError()) {
+            return enrichErrorTextMessage(result);
+        }
+        Xs2aAccountReport accountReport = result.getBody();
+        Links links = new Links();
+        links.setViewAccount(buildPath("/v1/accounts/{accountId}", accountId));
+
+        Optional<String> downloadId = transactionReportDownloadService.spoolIfExceedsLimit(consentId, accountId, accountReport);
+        if (!downloadId.isPresent()) {
+            accountReport.setLinks(links);
+            return result;
+        }
+        links.setDownload(buildPath("/v1/accounts/{accountId}/transactions/download/{downloadId}", accountId, downloadId.get()));
+        Xs2aAccountReport downloadReport = new Xs2aAccountReport(null, null);
+        downloadReport.setLinks(links);
+        return ResponseObject.<Xs2aAccountReport>builder()
+                   .body(downloadReport)
+                   .build();
+    }
+
+    @AfterReturning(pointcut = "execution(* de.adorsys.aspsp.xs2a.service.AccountService.getAccountReportStreamByPeriod(..)) && args(accountId, withBalance, ..)", returning = "result", argNames = "result,accountId,withBalance")
+    public ResponseObject<Xs2aAccountReportStream> getAccountReportStreamByPeriodAspect(ResponseObject<Xs2aAccountReportStream> result, String accountId, boolean withBalance) {
         if (!result.hasError()) {
-            Xs2aAccountReport accountReport = result.getBody();
-            accountReport.setLinks(buildLinksForAccountReport(accountReport, accountId));
+            Links links = new Links();
+            links.setViewAccount(buildPath("/v1/accounts/{accountId}", accountId));
+            result.getBody().setLinks(links);
             return result;
         }
         return enrichErrorTextMessage(result);
@@ -78,20 +113,6 @@ public class AccountAspect extends AbstractLinkAspect<AccountController12> {
         return enrichErrorTextMessage(result);
     }
 
-    private Links buildLinksForAccountReport(Xs2aAccountReport accountReport, String accountId) {
-        Links links = new Links();
-        links.setViewAccount(buildPath("/v1/accounts/{accountId}", accountId));
-
-        Optional<String> optionalAccount = jsonConverter.toJson(accountReport);
-        String jsonReport = optionalAccount.orElse("");
-
-        if (jsonReport.length() > maxNumberOfCharInTransactionJson) {
-            // todo further we should implement real flow for downloading file
-            links.setDownload(buildPath("/v1/accounts/{accountId}/transactions/download", accountId));
-        }
-        return links;
-    }
-
     private Map<String, List<Xs2aAccountDetails>> setLinksToAccountsMap(Map<String, List<Xs2aAccountDetails>> map, boolean withBalance) {
         map.entrySet().forEach(list -> updateAccountLinks(list.getValue(), withBalance));
         return map;
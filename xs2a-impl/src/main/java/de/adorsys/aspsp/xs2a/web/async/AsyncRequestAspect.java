@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.web.async;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Moves handling of AIS and PIS requests from servlet container threads to the request executor, if async mode is enabled.
+ * The whole controller method, including service calls, link aspects and response mapping, is executed by the worker thread,
+ * while the container thread is released as soon as the task is submitted.
+ */
+@Aspect
+@Component
+public class AsyncRequestAspect {
+    // Request mappings are mostly declared on default methods of the generated API interfaces, so endpoints are matched
+    // by declaring type. An or-ed target() check is not used, as Spring resolves it statically by its last branch only.
+    static final String CONTROLLER_ENDPOINTS = "execution(public org.springframework.http.ResponseEntity"
+                                                   + " (de.adorsys.psd2.api.AccountApi+ || de.adorsys.psd2.api.PaymentApi+ || de.adorsys.psd2.api.ConsentApi+).*(..))";
+
+    private final AsyncTaskExecutor requestExecutor;
+    private final boolean enabled;
+    private final long timeoutMs;
+
+    public AsyncRequestAspect(@Qualifier("requestExecutor") AsyncTaskExecutor requestExecutor,
+                              @Value("${xs2a.async.enabled:false}") boolean enabled,
+                              @Value("${xs2a.async.timeout.ms:60000}") long timeoutMs) {
+        this.requestExecutor = requestExecutor;
+        this.enabled = enabled;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Around(CONTROLLER_ENDPOINTS)
+    public Object invokeAsync(ProceedingJoinPoint pjp) throws Throwable {
+        if (!enabled) {
+            return pjp.proceed();
+        }
+        return AsyncResponseEntityReturnValueHandler.async(new WebAsyncTask<>(timeoutMs, requestExecutor, () -> proceed(pjp)));
+    }
+
+    private Object proceed(ProceedingJoinPoint pjp) throws Exception {
+        try {
+            return pjp.proceed();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.web.async;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Starts async request processing for controller methods, which are bound to return {@link ResponseEntity}
+ * by generated API interfaces, but hand over a {@link WebAsyncTask} as the body of the response entity.
+ * The response entity produced by the task is then handled by Spring MVC in the usual way.
+ */
+public class AsyncResponseEntityReturnValueHandler implements AsyncHandlerMethodReturnValueHandler {
+    /**
+     * Wraps given task into response entity, that can be returned by controller method
+     *
+     * @param task async task producing the actual response entity
+     * @return response entity carrying the task
+     */
+    public static ResponseEntity<WebAsyncTask<?>> async(WebAsyncTask<?> task) {
+        return ResponseEntity.ok(task);
+    }
+
+    @Override
+    public boolean isAsyncReturnValue(Object returnValue, MethodParameter returnType) {
+        return returnValue instanceof ResponseEntity
+                   && ((ResponseEntity<?>) returnValue).getBody() instanceof WebAsyncTask;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return ResponseEntity.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        WebAsyncTask<?> task = (WebAsyncTask<?>) ((ResponseEntity<?>) returnValue).getBody();
+        WebAsyncUtils.getAsyncManager(webRequest)
+            .startCallableProcessing(task, mavContainer);
+    }
+}
@@ -16,33 +16,48 @@
 
 package de.adorsys.aspsp.xs2a.web12;
 
-import de.adorsys.aspsp.xs2a.domain.Xs2aBookingStatus;
 import de.adorsys.aspsp.xs2a.domain.ResponseObject;
+import de.adorsys.aspsp.xs2a.domain.Xs2aBookingStatus;
 import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountReport;
 import de.adorsys.aspsp.xs2a.service.AccountService;
+import de.adorsys.aspsp.xs2a.service.account.TransactionReportDownloadService;
+import de.adorsys.aspsp.xs2a.service.account.TransactionReportDownloadService.TransactionReportFile;
 import de.adorsys.aspsp.xs2a.service.mapper.AccountModelMapper;
 import de.adorsys.aspsp.xs2a.service.mapper.ResponseMapper;
 import de.adorsys.psd2.api.AccountApi;
 import de.adorsys.psd2.model.*;
 import io.swagger.annotations.*;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @RestController
-@AllArgsConstructor
+@RequiredArgsConstructor
 @Api(tags = "AISP, Accounts 1.2", description = "Provides access to the Psu account")
 public class AccountController12 implements AccountApi {
 
     private final AccountService accountService;
     private final ResponseMapper responseMapper;
+    private final TransactionReportDownloadService transactionReportDownloadService;
+    @Value("${xs2a.transaction-report.streaming.enabled:false}")
+    private boolean transactionReportStreaming;
 
     @Override
     public ResponseEntity<?> getAccountList(UUID xRequestID, String consentID, Boolean withBalance, String digest, String signature, byte[] tpPSignatureCertificate, String psUIPAddress, Object psUIPPort, String psUAccept, String psUAcceptCharset, String psUAcceptEncoding, String psUAcceptLanguage, String psUUserAgent, String psUHttpMethod, UUID psUDeviceID, String psUGeoLocation) {
@@ -104,15 +119,82 @@ public class AccountController12 implements AccountApi {
 
     @Override
     public ResponseEntity<?> getTransactionList(String accountId, String bookingStatus, UUID xRequestID, String consentID, LocalDate dateFrom, LocalDate dateTo, String entryReferenceFrom, Boolean deltaList, Boolean withBalance, String digest, String signature, byte[] tpPSignatureCertificate, String psUIPAddress, Object psUIPPort, String psUAccept, String psUAcceptCharset, String psUAcceptEncoding, String psUAcceptLanguage, String psUUserAgent, String psUHttpMethod, UUID psUDeviceID, String psUGeoLocation) {
-                ResponseObject<Xs2aAccountReport> responseObject =
-            accountService.getAccountReportByPeriod(accountId, Optional.ofNullable(withBalance).orElse(false), consentID, dateFrom, dateTo, Xs2aBookingStatus.forValue(bookingStatus));
+        boolean isDeltaReport = Optional.ofNullable(deltaList).orElse(false);
+        if (transactionReportStreaming && !isDeltaReport && StringUtils.isBlank(entryReferenceFrom)) {
+            return responseMapper.ok(accountService.getAccountReportStreamByPeriod(accountId, Optional.ofNullable(withBalance).orElse(false), consentID, dateFrom, dateTo, Xs2aBookingStatus.forValue(bookingStatus)));
+        }
+        ResponseObject<Xs2aAccountReport> responseObject =
+            accountService.getAccountReportByPeriod(accountId, Optional.ofNullable(withBalance).orElse(false), consentID, dateFrom, dateTo, Xs2aBookingStatus.forValue(bookingStatus), entryReferenceFrom, isDeltaReport);
         return responseMapper.ok(responseObject, AccountModelMapper::mapToAccountReport);
     }
 
+    @ApiOperation(value = "Download Transaction List", nickname = "downloadTransactionList", notes = "Downloads a transaction report, which was too large to be returned inline. The link is provided in the \"download\" link of the transaction list. Single byte ranges are supported.", authorizations = {
+        @Authorization(value = "BearerAuthOAuth")}, tags = {"Account Information Service (AIS)",})
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = AccountReport.class),
+        @ApiResponse(code = 206, message = "Partial Content"),
+        @ApiResponse(code = 404, message = "Not found", response = TppMessages404.class),
+        @ApiResponse(code = 416, message = "Requested Range Not Satisfiable")})
+    @GetMapping(value = "/v1/accounts/{account-id}/transactions/download/{download-id}")
+    public ResponseEntity<?> downloadTransactionList(@PathVariable("account-id") String accountId,
+                                                     @PathVariable("download-id") String downloadId,
+                                                     @RequestHeader(value = "Consent-ID") String consentID,
+                                                     @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                     HttpServletResponse response) throws IOException {
+        ResponseObject<TransactionReportFile> report = accountService.getTransactionReportFile(consentID, accountId, downloadId);
+        if (report.hasError()) {
+            return responseMapper.ok(report);
+        }
+
+        TransactionReportFile reportFile = report.getBody();
+        long size = reportFile.getSize();
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        List<HttpRange> ranges = parseRanges(range);
+        if (ranges.size() == 1) {
+            HttpRange httpRange = ranges.get(0);
+            if (!isSatisfiable(httpRange, size)) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return new ResponseEntity<>(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            }
+            long start = httpRange.getRangeStart(size);
+            long end = httpRange.getRangeEnd(size);
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            writeReport(reportFile, start, end - start + 1, response);
+        } else {
+            response.setStatus(HttpStatus.OK.value());
+            writeReport(reportFile, 0, size, response);
+        }
+        return null;
+    }
+
     @Override
     public ResponseEntity<?> getTransactionDetails(String accountId, String resourceId, UUID xRequestID, String consentID, String digest, String signature, byte[] tpPSignatureCertificate, String psUIPAddress, Object psUIPPort, String psUAccept, String psUAcceptCharset, String psUAcceptEncoding, String psUAcceptLanguage, String psUUserAgent, String psUHttpMethod, UUID psUDeviceID, String psUGeoLocation) {
         ResponseObject<Xs2aAccountReport> responseObject =
             accountService.getAccountReportByTransactionId(consentID, accountId, resourceId);
         return responseMapper.ok(responseObject, AccountModelMapper::mapToAccountReport);
     }
+
+    private void writeReport(TransactionReportFile reportFile, long position, long count, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        response.setContentLengthLong(count);
+        transactionReportDownloadService.transfer(reportFile, position, count, response.getOutputStream());
+    }
+
+    private List<HttpRange> parseRanges(String range) {
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    private boolean isSatisfiable(HttpRange range, long size) {
+        try {
+            long start = range.getRangeStart(size);
+            return start < size && start <= range.getRangeEnd(size);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.aspsp.xs2a.config.WebConfig;
+import de.adorsys.aspsp.xs2a.domain.Links;
+import de.adorsys.aspsp.xs2a.domain.Transactions;
+import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountReportStream;
+import de.adorsys.aspsp.xs2a.exception.ResponseStreamAbortedException;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class AccountReportStreamHttpMessageConverterTest {
+    private static final LocalDate BOOKING_DATE = LocalDate.parse("2018-10-01");
+
+    private final ObjectMapper objectMapper = new WebConfig().objectMapper();
+    private final AccountReportStreamHttpMessageConverter converter = new AccountReportStreamHttpMessageConverter(objectMapper);
+
+    @Test
+    public void write_bookedAndPending() throws IOException {
+        //Given:
+        AtomicBoolean completed = new AtomicBoolean();
+        Xs2aAccountReportStream report = new Xs2aAccountReportStream(
+            consumer -> Arrays.asList(getTransaction("1", BOOKING_DATE), getTransaction("3", BOOKING_DATE)).forEach(consumer),
+            consumer -> consumer.accept(getTransaction("2", null)),
+            () -> completed.set(true));
+        Links links = new Links();
+        links.setViewAccount("http://localhost/v1/accounts/11111");
+        report.setLinks(links);
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        //When:
+        converter.write(report, MediaType.APPLICATION_JSON, outputMessage);
+
+        //Then:
+        JsonNode json = objectMapper.readTree(outputMessage.getBodyAsString());
+        assertThat(json.get("booked")).hasSize(2);
+        assertThat(json.get("booked").get(0).get("transactionId").asText()).isEqualTo("1");
+        assertThat(json.get("booked").get(1).get("transactionId").asText()).isEqualTo("3");
+        assertThat(json.get("pending")).hasSize(1);
+        assertThat(json.get("pending").get(0).get("transactionId").asText()).isEqualTo("2");
+        assertThat(json.get("_links").get("viewAccount").asText()).isEqualTo("http://localhost/v1/accounts/11111");
+        assertThat(completed.get()).isTrue();
+    }
+
+    @Test
+    public void write_failureAbortsStream() throws IOException {
+        //Given:
+        AtomicBoolean completed = new AtomicBoolean();
+        Xs2aAccountReportStream report = new Xs2aAccountReportStream(
+            consumer -> {
+                consumer.accept(getTransaction("1", BOOKING_DATE));
+                throw new IllegalStateException("ASPSP connection lost");
+            },
+            Xs2aAccountReportStream.EMPTY,
+            () -> completed.set(true));
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        //When:
+        Throwable thrown = catchThrowable(() -> converter.write(report, MediaType.APPLICATION_JSON, outputMessage));
+
+        //Then:
+        assertThat(thrown).isInstanceOf(ResponseStreamAbortedException.class);
+        assertThat(thrown.getCause()).isInstanceOf(IllegalStateException.class);
+        assertThat(outputMessage.getBodyAsString()).doesNotEndWith("}");
+        assertThat(completed.get()).isFalse();
+    }
+
+    @Test
+    public void write_emptyListsAreOmitted() throws IOException {
+        //Given:
+        Xs2aAccountReportStream report = new Xs2aAccountReportStream(Xs2aAccountReportStream.EMPTY, Xs2aAccountReportStream.EMPTY, () -> {
+        });
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        //When:
+        converter.write(report, MediaType.APPLICATION_JSON, outputMessage);
+
+        //Then:
+        assertThat(outputMessage.getBodyAsString()).isEqualTo("{}");
+    }
+
+    @Test
+    public void canWrite_onlyReportStream() {
+        assertThat(converter.canWrite(Xs2aAccountReportStream.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canWrite(Transactions.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canRead(Xs2aAccountReportStream.class, MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    private Transactions getTransaction(String transactionId, LocalDate bookingDate) {
+        Transactions transaction = new Transactions();
+        transaction.setTransactionId(transactionId);
+        transaction.setBookingDate(bookingDate);
+        return transaction;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.config.rest;
+
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class BearerTokenInterceptorTest {
+    private static final String URL = "http://localhost:28080/api/v1/accounts";
+    private static final String FIRST_TOKEN = "first-token";
+    private static final String SECOND_TOKEN = "second-token";
+
+    @Test
+    public void intercept_resolvesTokenForEachRequest() {
+        //Given:
+        AtomicReference<String> currentToken = new AtomicReference<>(FIRST_TOKEN);
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new BearerTokenInterceptor(currentToken::get));
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo(URL)).andExpect(method(HttpMethod.GET))
+            .andExpect(header("Authorization", "Bearer " + FIRST_TOKEN))
+            .andRespond(withSuccess());
+        server.expect(requestTo(URL)).andExpect(method(HttpMethod.GET))
+            .andExpect(header("Authorization", "Bearer " + SECOND_TOKEN))
+            .andRespond(withSuccess());
+
+        //When:
+        restTemplate.getForEntity(URL, Void.class);
+        currentToken.set(SECOND_TOKEN);
+        restTemplate.getForEntity(URL, Void.class);
+
+        //Then:
+        server.verify();
+    }
+}
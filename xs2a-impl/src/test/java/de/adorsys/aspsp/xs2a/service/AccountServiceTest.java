@@ -17,14 +17,22 @@
 package de.adorsys.aspsp.xs2a.service;
 
 import de.adorsys.aspsp.xs2a.consent.api.ActionStatus;
+import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentUsageDecision;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentUsageResponse;
 import de.adorsys.aspsp.xs2a.domain.*;
 import de.adorsys.aspsp.xs2a.domain.account.AccountReference;
 import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountDetails;
 import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountReport;
+import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountReportStream;
 import de.adorsys.aspsp.xs2a.domain.consent.Xs2aAccountAccess;
 import de.adorsys.aspsp.xs2a.domain.consent.Xs2aAccountAccessType;
 import de.adorsys.aspsp.xs2a.exception.MessageCategory;
 import de.adorsys.aspsp.xs2a.exception.MessageError;
+import de.adorsys.aspsp.xs2a.service.account.AccountDetailsBulkReader;
+import de.adorsys.aspsp.xs2a.service.account.AccountDetailsCache;
+import de.adorsys.aspsp.xs2a.service.account.TransactionReportDownloadService;
+import de.adorsys.aspsp.xs2a.service.account.TransactionReportDownloadService.TransactionReportFile;
 import de.adorsys.aspsp.xs2a.service.consent.AisConsentService;
 import de.adorsys.aspsp.xs2a.service.mapper.AccountMapper;
 import de.adorsys.aspsp.xs2a.service.mapper.consent.Xs2aAisConsentMapper;
@@ -44,14 +52,16 @@ import org.mockito.runners.MockitoJUnitRunner;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static de.adorsys.aspsp.xs2a.domain.MessageErrorCode.*;
 import static de.adorsys.aspsp.xs2a.service.mapper.AccountModelMapper.mapToAccountDetails;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.when;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
 public class AccountServiceTest {
@@ -67,6 +77,8 @@ public class AccountServiceTest {
     private final String CONSENT_ID_WT = "777999777";
     private final String WRONG_CONSENT_ID = "Wromg consent id";
     private final String TRANSACTION_ID = "0001";
+    private final String WRONG_TRANSACTION_ID = "Wrong transaction";
+    private final String DOWNLOAD_ID = "download id";
     private final LocalDate DATE = LocalDate.parse("2019-03-03");
     private final AspspConsentData ASPSP_CONSENT_DATA = new AspspConsentData();
 
@@ -85,6 +97,12 @@ public class AccountServiceTest {
     private ValueValidatorService valueValidatorService;
     @Mock
     private Xs2aAisConsentMapper aisConsentMapper;
+    @Mock
+    private AccountDetailsBulkReader accountDetailsBulkReader;
+    @Mock
+    private AccountDetailsCache accountDetailsCache;
+    @Mock
+    private TransactionReportDownloadService transactionReportDownloadService;
 
     @Before
     public void setUp() {
@@ -102,13 +120,20 @@ public class AccountServiceTest {
         when(accountMapper.mapToAccountDetailNoBalances(null)).thenReturn(null);
         //AisReporting
         doNothing().when(aisConsentService).consentActionLog(anyString(), anyString(), any(ActionStatus.class));
+        //ConsentUsage
+        when(aisConsentService.authoriseConsentUsage(anyString(), anyString(), any(TypeAccess.class), anyString(), any(Currency.class))).thenReturn(Optional.empty());
+        when(aisConsentService.authoriseConsentUsage(anyString(), eq(CONSENT_ID_WOB), any(TypeAccess.class), anyString(), any(Currency.class))).thenReturn(getUsageResponse(AisConsentUsageDecision.ACCOUNT_NOT_COVERED));
+        when(aisConsentService.authoriseConsentUsage(anyString(), eq(CONSENT_ID_WB), eq(TypeAccess.BALANCE), eq(IBAN), eq(CURRENCY))).thenReturn(getUsageResponse(AisConsentUsageDecision.VALID));
+        when(aisConsentService.authoriseConsentUsage(anyString(), eq(CONSENT_ID_WT), eq(TypeAccess.TRANSACTION), eq(IBAN), eq(CURRENCY))).thenReturn(getUsageResponse(AisConsentUsageDecision.VALID));
         //getAccountDetailsByAccountId_WoB_Success
         when(accountSpi.readAccountDetails(ACCOUNT_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(getSpiAccountDetails(ACCOUNT_ID, IBAN), ASPSP_CONSENT_DATA));
+        when(accountDetailsCache.getAccountDetails(ACCOUNT_ID)).thenReturn(getSpiAccountDetails(ACCOUNT_ID, IBAN));
         when(consentService.getValidatedConsent(CONSENT_ID_WOB)).thenReturn(getAccessResponse(getReferences(IBAN, IBAN_1), null, null, false, false));
-        when(consentService.isValidAccountByAccess(IBAN, CURRENCY, getReferences(IBAN, IBAN_1))).thenReturn(true);
+        when(consentService.isValidAccountByAccess(CONSENT_ID_WOB, TypeAccess.ACCOUNT, IBAN, CURRENCY)).thenReturn(true);
         //getAccountDetailsByAccountId_WB_Success
         when(consentService.getValidatedConsent(CONSENT_ID_WB)).thenReturn(getAccessResponse(getReferences(IBAN, IBAN_1), getReferences(IBAN, IBAN_1), null, false, false));
-        when(consentService.isValidAccountByAccess(IBAN, CURRENCY, getReferences(IBAN, IBAN_1))).thenReturn(true);
+        when(consentService.isValidAccountByAccess(CONSENT_ID_WB, TypeAccess.ACCOUNT, IBAN, CURRENCY)).thenReturn(true);
+        when(consentService.isValidAccountByAccess(CONSENT_ID_WB, TypeAccess.BALANCE, IBAN, CURRENCY)).thenReturn(true);
         //getAccountDetailsByAccountId_Failure_wrongAccount
         when(accountSpi.readAccountDetails(WRONG_ACCOUNT_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(null, ASPSP_CONSENT_DATA));
         //getAccountDetailsByAccountId_Failure_wrongConsent
@@ -117,11 +142,15 @@ public class AccountServiceTest {
         //getAccountDetailsListByConsent_Success
         when(accountSpi.readAccountDetailsByIban(IBAN, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Collections.singletonList(getSpiAccountDetails(ACCOUNT_ID, IBAN)), ASPSP_CONSENT_DATA));
         when(accountSpi.readAccountDetailsByIban(IBAN_1, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Collections.singletonList(getSpiAccountDetails(ACCOUNT_ID_1, IBAN_1)), ASPSP_CONSENT_DATA));
+        when(accountMapper.mapToSpiAccountReferences(getReferences(IBAN, IBAN_1))).thenReturn(getSpiReferences(IBAN, IBAN_1));
+        when(accountDetailsBulkReader.readAccountDetails(getSpiReferences(IBAN, IBAN_1))).thenReturn(Arrays.asList(getSpiAccountDetails(ACCOUNT_ID, IBAN), getSpiAccountDetails(ACCOUNT_ID_1, IBAN_1)));
 
         when(accountSpi.readAccountDetails(WRONG_ACCOUNT_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(null, ASPSP_CONSENT_DATA));
 
         //getAccountReport_ByTransactionId_Success
         when(consentService.getValidatedConsent(CONSENT_ID_WT)).thenReturn(getAccessResponse(getReferences(IBAN, IBAN_1), null, getReferences(IBAN, IBAN_1), false, false));
+        when(consentService.isValidAccountByAccess(CONSENT_ID_WT, TypeAccess.ACCOUNT, IBAN, CURRENCY)).thenReturn(true);
+        when(consentService.isValidAccountByAccess(CONSENT_ID_WT, TypeAccess.TRANSACTION, IBAN, CURRENCY)).thenReturn(true);
         when(accountSpi.readTransactionById(TRANSACTION_ID, ACCOUNT_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Optional.of(getSpiTransaction()), ASPSP_CONSENT_DATA));
 
         when(accountSpi.readTransactionsByPeriod(ACCOUNT_ID, DATE, DATE, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Collections.singletonList(getSpiTransaction()), ASPSP_CONSENT_DATA));
@@ -170,6 +199,7 @@ public class AccountServiceTest {
         assertThat(response.hasError()).isEqualTo(true);
         assertThat(response.getError().getTransactionStatus()).isEqualTo(Xs2aTransactionStatus.RJCT);
         assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_UNKNOWN_403);
+        verify(accountSpi, never()).readAccountDetails(anyString(), any(AspspConsentData.class));
     }
 
     //Get AccountsList By Consent
@@ -241,7 +271,54 @@ public class AccountServiceTest {
         //Then:
         assertThat(response.hasError()).isEqualTo(true);
         assertThat(response.getError().getTransactionStatus()).isEqualTo(Xs2aTransactionStatus.RJCT);
-        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_UNKNOWN_403);
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_UNKNOWN_400);
+    }
+
+    @Test
+    public void getBalances_Failure_Expired_Consent() {
+        //Given:
+        when(aisConsentService.authoriseConsentUsage(anyString(), eq(CONSENT_ID_WB), eq(TypeAccess.BALANCE), eq(IBAN), eq(CURRENCY))).thenReturn(getUsageResponse(AisConsentUsageDecision.EXPIRED));
+
+        //When:
+        ResponseObject<List<Xs2aBalance>> response = accountService.getBalances(CONSENT_ID_WB, ACCOUNT_ID);
+
+        //Then:
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_EXPIRED);
+    }
+
+    @Test
+    public void getBalances_Failure_Not_Authorised_Consent() {
+        //Given:
+        when(aisConsentService.authoriseConsentUsage(anyString(), eq(CONSENT_ID_WB), eq(TypeAccess.BALANCE), eq(IBAN), eq(CURRENCY))).thenReturn(getUsageResponse(AisConsentUsageDecision.INVALID));
+
+        //When:
+        ResponseObject<List<Xs2aBalance>> response = accountService.getBalances(CONSENT_ID_WB, ACCOUNT_ID);
+
+        //Then:
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_INVALID);
+    }
+
+    @Test
+    public void getBalances_Failure_Access_Exceeded() {
+        //Given:
+        when(aisConsentService.authoriseConsentUsage(anyString(), eq(CONSENT_ID_WB), eq(TypeAccess.BALANCE), eq(IBAN), eq(CURRENCY))).thenReturn(getUsageResponse(AisConsentUsageDecision.ACCESS_EXCEEDED));
+
+        //When:
+        ResponseObject<List<Xs2aBalance>> response = accountService.getBalances(CONSENT_ID_WB, ACCOUNT_ID);
+
+        //Then:
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(ACCESS_EXCEEDED);
+    }
+
+    @Test
+    public void getBalances_OneCmsCallForConsentAndUsage() {
+        //When:
+        accountService.getBalances(CONSENT_ID_WB, ACCOUNT_ID);
+
+        //Then:
+        verify(aisConsentService).authoriseConsentUsage(anyString(), eq(CONSENT_ID_WB), eq(TypeAccess.BALANCE), eq(IBAN), eq(CURRENCY));
+        verify(consentService, never()).getValidatedConsent(anyString());
+        verify(aisConsentService, never()).consentActionLog(anyString(), anyString(), any(ActionStatus.class));
     }
 
     @Test
@@ -273,7 +350,8 @@ public class AccountServiceTest {
 
         //Then:
         assertThat(response.hasError()).isEqualTo(true);
-        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_UNKNOWN_403);
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_UNKNOWN_400);
+        verify(accountSpi, never()).readTransactionById(any(), any(), any());
     }
 
     @Test
@@ -286,6 +364,60 @@ public class AccountServiceTest {
         assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(RESOURCE_UNKNOWN_404);
     }
 
+    //Download Transaction Report
+    @Test
+    public void getTransactionReportFile_Success() {
+        //Given:
+        TransactionReportFile reportFile = new TransactionReportFile(CONSENT_ID_WT, ACCOUNT_ID, null, 100, Long.MAX_VALUE);
+        when(transactionReportDownloadService.getReport(CONSENT_ID_WT, ACCOUNT_ID, DOWNLOAD_ID)).thenReturn(Optional.of(reportFile));
+
+        //When:
+        ResponseObject<TransactionReportFile> response = accountService.getTransactionReportFile(CONSENT_ID_WT, ACCOUNT_ID, DOWNLOAD_ID);
+
+        //Then:
+        assertThat(response.getBody()).isEqualTo(reportFile);
+        verify(aisConsentService).authoriseConsentUsage(anyString(), eq(CONSENT_ID_WT), eq(TypeAccess.TRANSACTION), eq(IBAN), eq(CURRENCY));
+    }
+
+    @Test
+    public void getTransactionReportFile_Failure_Wrong_Consent() {
+        //Given:
+        TransactionReportFile reportFile = new TransactionReportFile(WRONG_CONSENT_ID, ACCOUNT_ID, null, 100, Long.MAX_VALUE);
+        when(transactionReportDownloadService.getReport(WRONG_CONSENT_ID, ACCOUNT_ID, DOWNLOAD_ID)).thenReturn(Optional.of(reportFile));
+
+        //When:
+        ResponseObject<TransactionReportFile> response = accountService.getTransactionReportFile(WRONG_CONSENT_ID, ACCOUNT_ID, DOWNLOAD_ID);
+
+        //Then:
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_UNKNOWN_400);
+    }
+
+    @Test
+    public void getTransactionReportFile_Failure_Unknown_Download() {
+        //Given:
+        when(transactionReportDownloadService.getReport(CONSENT_ID_WT, ACCOUNT_ID, DOWNLOAD_ID)).thenReturn(Optional.empty());
+
+        //When:
+        ResponseObject<TransactionReportFile> response = accountService.getTransactionReportFile(CONSENT_ID_WT, ACCOUNT_ID, DOWNLOAD_ID);
+
+        //Then:
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(RESOURCE_UNKNOWN_404);
+        verify(aisConsentService, never()).authoriseConsentUsage(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void getTransactionReportFile_Failure_Consent_Without_Transactions() {
+        //Given:
+        TransactionReportFile reportFile = new TransactionReportFile(CONSENT_ID_WOB, ACCOUNT_ID, null, 100, Long.MAX_VALUE);
+        when(transactionReportDownloadService.getReport(CONSENT_ID_WOB, ACCOUNT_ID, DOWNLOAD_ID)).thenReturn(Optional.of(reportFile));
+
+        //When:
+        ResponseObject<TransactionReportFile> response = accountService.getTransactionReportFile(CONSENT_ID_WOB, ACCOUNT_ID, DOWNLOAD_ID);
+
+        //Then:
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_INVALID);
+    }
+
     //Get Transactions By Period
     @Test
     public void getAccountReport_ByPeriod_Success() {
@@ -316,10 +448,221 @@ public class AccountServiceTest {
         //Then:
         assertThat(response.hasError()).isEqualTo(true);
         assertThat(response.getError().getTransactionStatus()).isEqualTo(Xs2aTransactionStatus.RJCT);
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_UNKNOWN_400);
+        verify(accountSpi, never()).readTransactionsByPeriod(any(), any(), any(), any());
+    }
+
+    @Test
+    public void getAccountReportByPeriod_Failure_Account_Not_Covered() {
+        //When:
+        ResponseObject<Xs2aAccountReport> response = accountService.getAccountReportByPeriod(ACCOUNT_ID, false, CONSENT_ID_WOB, DATE, DATE, Xs2aBookingStatus.BOTH, null, true);
+
+        //Then:
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_INVALID);
+        verify(aisConsentService, never()).getTransactionCursor(any(), any());
+        verify(aisConsentService, never()).consentActionLog(anyString(), anyString(), any(ActionStatus.class));
+    }
+
+    @Test
+    public void getAccountReportByPeriod_DeltaAfterStoredCursor() {
+        //Given:
+        SpiTransaction newTransaction = new SpiTransaction("0002", null, null, null, DATE, DATE, new SpiAmount(CURRENCY, BigDecimal.ONE), null,
+            null, null, null, null, null, null, null, null, null);
+        newTransaction.setBookingSequence(2L);
+        when(aisConsentService.getTransactionCursor(CONSENT_ID_WT, ACCOUNT_ID)).thenReturn(Optional.of(TRANSACTION_ID));
+        when(accountSpi.readTransactionsAfter(ACCOUNT_ID, TRANSACTION_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Collections.singletonList(newTransaction), ASPSP_CONSENT_DATA));
+        when(accountMapper.mapToAccountReport(Collections.singletonList(newTransaction))).thenReturn(Optional.of(getReport()));
+
+        //When:
+        ResponseObject<Xs2aAccountReport> response = accountService.getAccountReportByPeriod(ACCOUNT_ID, false, CONSENT_ID_WT, null, null, Xs2aBookingStatus.BOTH, null, true);
+
+        //Then:
+        assertThat(response.getError()).isEqualTo(null);
+        verify(accountSpi, never()).readTransactionsByPeriod(any(), any(), any(), any());
+        verify(aisConsentService).updateTransactionCursor(CONSENT_ID_WT, ACCOUNT_ID, "0002");
+    }
+
+    @Test
+    public void getAccountReportByPeriod_DeltaCursorSkipsPendingTransactions() {
+        //Given:
+        SpiTransaction firstBooked = getDeltaTransaction("0003", DATE, 3L);
+        SpiTransaction lastBooked = getDeltaTransaction("0005", DATE, 5L);
+        SpiTransaction pending = getDeltaTransaction("0006", null, null);
+        List<SpiTransaction> transactions = Arrays.asList(lastBooked, pending, firstBooked);
+        when(aisConsentService.getTransactionCursor(CONSENT_ID_WT, ACCOUNT_ID)).thenReturn(Optional.of(TRANSACTION_ID));
+        when(accountSpi.readTransactionsAfter(ACCOUNT_ID, TRANSACTION_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(transactions, ASPSP_CONSENT_DATA));
+        when(accountMapper.mapToAccountReport(transactions)).thenReturn(Optional.of(getReport()));
+
+        //When:
+        accountService.getAccountReportByPeriod(ACCOUNT_ID, false, CONSENT_ID_WT, null, null, Xs2aBookingStatus.BOTH, null, true);
+
+        //Then:
+        verify(aisConsentService).updateTransactionCursor(CONSENT_ID_WT, ACCOUNT_ID, "0005");
+    }
+
+    @Test
+    public void getAccountReportByPeriod_PendingOnlyDeltaKeepsCursor() {
+        //Given:
+        List<SpiTransaction> transactions = Collections.singletonList(getDeltaTransaction("0006", null, null));
+        when(aisConsentService.getTransactionCursor(CONSENT_ID_WT, ACCOUNT_ID)).thenReturn(Optional.of(TRANSACTION_ID));
+        when(accountSpi.readTransactionsAfter(ACCOUNT_ID, TRANSACTION_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(transactions, ASPSP_CONSENT_DATA));
+        when(accountMapper.mapToAccountReport(transactions)).thenReturn(Optional.of(getReport()));
+
+        //When:
+        accountService.getAccountReportByPeriod(ACCOUNT_ID, false, CONSENT_ID_WT, null, null, Xs2aBookingStatus.BOTH, null, true);
+
+        //Then:
+        verify(aisConsentService, never()).updateTransactionCursor(any(), any(), any());
+    }
+
+    @Test
+    public void getAccountReportByPeriod_EmptyDeltaKeepsCursor() {
+        //Given:
+        when(accountSpi.readTransactionsAfter(ACCOUNT_ID, TRANSACTION_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Collections.emptyList(), ASPSP_CONSENT_DATA));
+        when(accountMapper.mapToAccountReport(Collections.emptyList())).thenReturn(Optional.empty());
+
+        //When:
+        ResponseObject<Xs2aAccountReport> response = accountService.getAccountReportByPeriod(ACCOUNT_ID, false, CONSENT_ID_WT, null, null, Xs2aBookingStatus.BOTH, TRANSACTION_ID, false);
+
+        //Then:
+        assertThat(response.getError()).isEqualTo(null);
+        assertThat(response.getBody().getBooked()).isEmpty();
+        verify(aisConsentService, never()).getTransactionCursor(any(), any());
+        verify(aisConsentService, never()).updateTransactionCursor(any(), any(), any());
+    }
+
+    @Test
+    public void getAccountReportByPeriod_ExplicitEntryReferenceKeepsCursor() {
+        //Given:
+        SpiTransaction newTransaction = new SpiTransaction("0002", null, null, null, DATE, DATE, new SpiAmount(CURRENCY, BigDecimal.ONE), null,
+            null, null, null, null, null, null, null, null, null);
+        when(accountSpi.readTransactionsAfter(ACCOUNT_ID, TRANSACTION_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Collections.singletonList(newTransaction), ASPSP_CONSENT_DATA));
+        when(accountMapper.mapToAccountReport(Collections.singletonList(newTransaction))).thenReturn(Optional.of(getReport()));
+
+        //When:
+        ResponseObject<Xs2aAccountReport> response = accountService.getAccountReportByPeriod(ACCOUNT_ID, false, CONSENT_ID_WT, null, null, Xs2aBookingStatus.BOTH, TRANSACTION_ID, true);
+
+        //Then:
+        assertThat(response.getError()).isEqualTo(null);
+        verify(aisConsentService, never()).updateTransactionCursor(any(), any(), any());
+    }
+
+    @Test
+    public void getAccountReportByPeriod_UnknownEntryReference() {
+        //Given:
+        when(accountSpi.readTransactionsAfter(ACCOUNT_ID, WRONG_TRANSACTION_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(null, ASPSP_CONSENT_DATA));
+
+        //When:
+        ResponseObject<Xs2aAccountReport> response = accountService.getAccountReportByPeriod(ACCOUNT_ID, false, CONSENT_ID_WT, null, null, Xs2aBookingStatus.BOTH, WRONG_TRANSACTION_ID, false);
+
+        //Then:
+        assertThat(response.hasError()).isEqualTo(true);
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(FORMAT_ERROR);
+        verify(accountSpi, never()).readTransactionsByPeriod(any(), any(), any(), any());
+        verify(aisConsentService, never()).updateTransactionCursor(any(), any(), any());
+    }
+
+    @Test
+    public void getAccountReportByPeriod_FailedMappingKeepsCursor() {
+        //Given:
+        SpiTransaction newTransaction = new SpiTransaction("0002", null, null, null, DATE, DATE, new SpiAmount(CURRENCY, BigDecimal.ONE), null,
+            null, null, null, null, null, null, null, null, null);
+        newTransaction.setBookingSequence(2L);
+        when(aisConsentService.getTransactionCursor(CONSENT_ID_WT, ACCOUNT_ID)).thenReturn(Optional.of(TRANSACTION_ID));
+        when(accountSpi.readTransactionsAfter(ACCOUNT_ID, TRANSACTION_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Collections.singletonList(newTransaction), ASPSP_CONSENT_DATA));
+        when(accountMapper.mapToAccountReport(Collections.singletonList(newTransaction))).thenThrow(new IllegalStateException("mapping failed"));
+
+        //When:
+        Throwable thrown = catchThrowable(() -> accountService.getAccountReportByPeriod(ACCOUNT_ID, false, CONSENT_ID_WT, null, null, Xs2aBookingStatus.BOTH, null, true));
+
+        //Then:
+        assertThat(thrown).isInstanceOf(IllegalStateException.class);
+        verify(aisConsentService, never()).updateTransactionCursor(any(), any(), any());
+    }
+
+    @Test
+    public void getAccountReportStreamByPeriod_BookedOnly() {
+        //Given:
+        SpiTransaction booked = getSpiTransaction();
+        SpiTransaction pending = new SpiTransaction("0002", null, null, null, null, DATE, new SpiAmount(CURRENCY, BigDecimal.ONE), null,
+            null, null, null, null, null, null, null, null, null);
+        doAnswer(invocation -> {
+            Consumer<SpiTransaction> consumer = (Consumer<SpiTransaction>) invocation.getArguments()[3];
+            consumer.accept(booked);
+            consumer.accept(pending);
+            return new SpiResponse<Void>(null, ASPSP_CONSENT_DATA);
+        }).when(accountSpi).streamTransactionsByPeriod(eq(ACCOUNT_ID), eq(DATE), eq(DATE), any(), any(AspspConsentData.class));
+        when(accountMapper.mapToTransaction(booked)).thenReturn(getTransaction());
+        List<Transactions> streamed = new ArrayList<>();
+
+        //When:
+        ResponseObject<Xs2aAccountReportStream> response = accountService.getAccountReportStreamByPeriod(ACCOUNT_ID, false, CONSENT_ID_WT, DATE, DATE, Xs2aBookingStatus.BOOKED);
+        response.getBody().getBooked().forEach(streamed::add);
+        response.getBody().getPending().forEach(streamed::add);
+
+        //Then:
+        assertThat(response.getError()).isEqualTo(null);
+        assertThat(streamed).containsExactly(getTransaction());
+        verify(accountSpi, times(1)).streamTransactionsByPeriod(eq(ACCOUNT_ID), eq(DATE), eq(DATE), any(), any(AspspConsentData.class));
+    }
+
+    @Test
+    public void getAccountReportStreamByPeriod_PendingReadBySecondPass() {
+        //Given:
+        SpiTransaction booked = getSpiTransaction();
+        SpiTransaction pending = new SpiTransaction("0002", null, null, null, null, DATE, new SpiAmount(CURRENCY, BigDecimal.ONE), null,
+            null, null, null, null, null, null, null, null, null);
+        doAnswer(invocation -> {
+            Consumer<SpiTransaction> consumer = (Consumer<SpiTransaction>) invocation.getArguments()[3];
+            consumer.accept(pending);
+            consumer.accept(booked);
+            return new SpiResponse<Void>(null, ASPSP_CONSENT_DATA);
+        }).when(accountSpi).streamTransactionsByPeriod(eq(ACCOUNT_ID), eq(DATE), eq(DATE), any(), any(AspspConsentData.class));
+        Transactions pendingTransaction = new Transactions();
+        pendingTransaction.setTransactionId("0002");
+        when(accountMapper.mapToTransaction(booked)).thenReturn(getTransaction());
+        when(accountMapper.mapToTransaction(pending)).thenReturn(pendingTransaction);
+        List<Transactions> streamedBooked = new ArrayList<>();
+        List<Transactions> streamedPending = new ArrayList<>();
+
+        //When:
+        ResponseObject<Xs2aAccountReportStream> response = accountService.getAccountReportStreamByPeriod(ACCOUNT_ID, false, CONSENT_ID_WT, DATE, DATE, Xs2aBookingStatus.BOTH);
+        response.getBody().getBooked().forEach(streamedBooked::add);
+        response.getBody().getPending().forEach(streamedPending::add);
+
+        //Then:
+        assertThat(streamedBooked).containsExactly(getTransaction());
+        assertThat(streamedPending).containsExactly(pendingTransaction);
+        verify(accountSpi, times(2)).streamTransactionsByPeriod(eq(ACCOUNT_ID), eq(DATE), eq(DATE), any(), any(AspspConsentData.class));
+    }
+
+    @Test
+    public void getAccountReportStreamByPeriod_UsageLoggedAfterCompleteWrite() {
+        //When:
+        ResponseObject<Xs2aAccountReportStream> response = accountService.getAccountReportStreamByPeriod(ACCOUNT_ID, false, CONSENT_ID_WT, DATE, DATE, Xs2aBookingStatus.BOTH);
+
+        //Then:
+        verify(aisConsentService, never()).consentActionLog(anyString(), anyString(), any(ActionStatus.class));
+        response.getBody().getCompletionCallback().run();
+        verify(aisConsentService).consentActionLog(anyString(), eq(CONSENT_ID_WT), eq(ActionStatus.SUCCESS));
+    }
+
+    @Test
+    public void getAccountReportStreamByPeriod_Failure_Wrong_Consent() {
+        //When:
+        ResponseObject<Xs2aAccountReportStream> response = accountService.getAccountReportStreamByPeriod(ACCOUNT_ID, false, WRONG_CONSENT_ID, DATE, DATE, Xs2aBookingStatus.BOTH);
+
+        //Then:
+        assertThat(response.hasError()).isEqualTo(true);
         assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_UNKNOWN_403);
+        verify(accountSpi, never()).streamTransactionsByPeriod(any(), any(), any(), any(), any());
     }
 
     //Test Stuff
+    private Optional<AisConsentUsageResponse> getUsageResponse(AisConsentUsageDecision decision) {
+        return Optional.of(new AisConsentUsageResponse(decision, null, 0, null));
+    }
+
     private ResponseObject<Xs2aAccountAccess> getAccessResponse(List<AccountReference> accounts, List<AccountReference> balances, List<AccountReference> transactions, boolean allAccounts, boolean allPsd2) {
         return ResponseObject.<Xs2aAccountAccess>builder().body(getAccessForMock(accounts, balances, transactions, allAccounts, allPsd2)).build();
     }
@@ -424,6 +767,13 @@ public class AccountServiceTest {
         return transaction;
     }
 
+    private SpiTransaction getDeltaTransaction(String transactionId, LocalDate bookingDate, Long bookingSequence) {
+        SpiTransaction transaction = new SpiTransaction(transactionId, null, null, null, bookingDate, DATE, new SpiAmount(CURRENCY, BigDecimal.ONE), null,
+            null, null, null, null, null, null, null, null, null);
+        transaction.setBookingSequence(bookingSequence);
+        return transaction;
+    }
+
     private SpiTransaction getSpiTransaction() {
         Transactions t = getTransaction();
         return new SpiTransaction(t.getTransactionId(), null, null, null, t.getBookingDate(),
@@ -442,6 +792,14 @@ public class AccountServiceTest {
         return Arrays.asList(getReference(iban), getReference(iban1));
     }
 
+    private List<SpiAccountReference> getSpiReferences(String iban, String iban1) {
+        return Arrays.asList(getSpiReference(iban), getSpiReference(iban1));
+    }
+
+    private SpiAccountReference getSpiReference(String iban) {
+        return new SpiAccountReference(iban, null, null, null, null, iban.equals(IBAN) ? CURRENCY : CURRENCY_1);
+    }
+
     private AccountReference getReference(String iban) {
         AccountReference reference = new AccountReference();
         reference.setIban(iban);
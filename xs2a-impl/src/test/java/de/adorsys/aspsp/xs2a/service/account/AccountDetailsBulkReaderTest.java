@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.account;
+
+import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import de.adorsys.aspsp.xs2a.spi.service.AccountSpi;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AccountDetailsBulkReaderTest {
+    private static final String IBAN = "DE123456789";
+    private static final String IBAN_1 = "DE987654321";
+    private static final String UNKNOWN_IBAN = "DE000000000";
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @Mock
+    private AccountSpi accountSpi;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        when(accountSpi.readAccountDetailsByIban(eq(IBAN), any(AspspConsentData.class)))
+            .thenAnswer(invocation -> {
+                Thread.sleep(50);
+                return new SpiResponse<>(Arrays.asList(getSpiAccountDetails("1", IBAN, USD), getSpiAccountDetails("2", IBAN, EUR)), new AspspConsentData());
+            });
+        when(accountSpi.readAccountDetailsByIban(eq(IBAN_1), any(AspspConsentData.class)))
+            .thenReturn(new SpiResponse<>(Collections.singletonList(getSpiAccountDetails("3", IBAN_1, EUR)), new AspspConsentData()));
+        when(accountSpi.readAccountDetailsByIban(eq(UNKNOWN_IBAN), any(AspspConsentData.class)))
+            .thenReturn(new SpiResponse<>(Collections.emptyList(), new AspspConsentData()));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void readAccountDetails_parallelKeepsOrderAndSkipsMissing() {
+        //Given:
+        AccountDetailsBulkReader reader = new AccountDetailsBulkReader(accountSpi, executor, false);
+        List<SpiAccountReference> references = Arrays.asList(getReference(IBAN, EUR), getReference(UNKNOWN_IBAN, EUR), getReference(IBAN_1, EUR));
+        //When:
+        List<SpiAccountDetails> details = reader.readAccountDetails(references);
+        //Then:
+        assertThat(details).extracting(SpiAccountDetails::getId).containsExactly("2", "3");
+        verify(accountSpi, never()).readAccountDetailsByReferences(any(), any());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void readAccountDetails_parallelRethrowsConnectorError() {
+        //Given:
+        when(accountSpi.readAccountDetailsByIban(eq(IBAN_1), any(AspspConsentData.class))).thenThrow(new IllegalStateException("ASPSP is not available"));
+        AccountDetailsBulkReader reader = new AccountDetailsBulkReader(accountSpi, executor, false);
+        //When:
+        reader.readAccountDetails(Arrays.asList(getReference(IBAN, EUR), getReference(IBAN_1, EUR)));
+    }
+
+    @Test
+    public void readAccountDetails_usesConnectorBulkRead() {
+        //Given:
+        List<SpiAccountReference> references = Arrays.asList(getReference(IBAN, EUR), getReference(IBAN_1, EUR));
+        when(accountSpi.readAccountDetailsByReferences(eq(references), any(AspspConsentData.class)))
+            .thenReturn(new SpiResponse<>(Arrays.asList(getSpiAccountDetails("2", IBAN, EUR), getSpiAccountDetails("3", IBAN_1, EUR)), new AspspConsentData()));
+        AccountDetailsBulkReader reader = new AccountDetailsBulkReader(accountSpi, executor, true);
+        //When:
+        List<SpiAccountDetails> details = reader.readAccountDetails(references);
+        //Then:
+        assertThat(details).extracting(SpiAccountDetails::getId).containsExactly("2", "3");
+        verify(accountSpi, never()).readAccountDetailsByIban(any(), any());
+    }
+
+    private SpiAccountReference getReference(String iban, Currency currency) {
+        return new SpiAccountReference(iban, null, null, null, null, currency);
+    }
+
+    private SpiAccountDetails getSpiAccountDetails(String id, String iban, Currency currency) {
+        return new SpiAccountDetails(id, iban, null, null, null, null, currency, null, null, null, null, null);
+    }
+}
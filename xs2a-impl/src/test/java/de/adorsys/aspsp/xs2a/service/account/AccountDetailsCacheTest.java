@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.account;
+
+import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import de.adorsys.aspsp.xs2a.spi.service.AccountSpi;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AccountDetailsCacheTest {
+    private static final String ACCOUNT_ID = "33333-999999999";
+    private static final String UNKNOWN_ACCOUNT_ID = "unknown";
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    @Mock
+    private AccountSpi accountSpi;
+
+    @Before
+    public void setUp() {
+        when(accountSpi.readAccountDetails(eq(ACCOUNT_ID), any(AspspConsentData.class)))
+            .thenAnswer(invocation -> {
+                Thread.sleep(50);
+                return new SpiResponse<>(getSpiAccountDetails(), new AspspConsentData());
+            });
+        when(accountSpi.readAccountDetails(eq(UNKNOWN_ACCOUNT_ID), any(AspspConsentData.class)))
+            .thenReturn(new SpiResponse<>(null, new AspspConsentData()));
+    }
+
+    @Test
+    public void getAccountDetails_concurrentRequestsLoadOnce() {
+        //Given:
+        AccountDetailsCache cache = new AccountDetailsCache(accountSpi, 100, 60000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        //When:
+        List<SpiAccountDetails> details = IntStream.range(0, 4)
+                                              .mapToObj(i -> CompletableFuture.supplyAsync(() -> cache.getAccountDetails(ACCOUNT_ID), executor))
+                                              .collect(Collectors.toList())
+                                              .stream()
+                                              .map(CompletableFuture::join)
+                                              .collect(Collectors.toList());
+        executor.shutdownNow();
+        //Then:
+        assertThat(details).containsOnly(getSpiAccountDetails());
+        verify(accountSpi, times(1)).readAccountDetails(eq(ACCOUNT_ID), any(AspspConsentData.class));
+    }
+
+    @Test
+    public void getAccountDetails_reloadsAfterTtl() throws InterruptedException {
+        //Given:
+        AccountDetailsCache cache = new AccountDetailsCache(accountSpi, 100, 10);
+        cache.getAccountDetails(ACCOUNT_ID);
+        //When:
+        Thread.sleep(20);
+        cache.getAccountDetails(ACCOUNT_ID);
+        //Then:
+        verify(accountSpi, times(2)).readAccountDetails(eq(ACCOUNT_ID), any(AspspConsentData.class));
+    }
+
+    @Test
+    public void getAccountDetails_unknownAccountIsNotCached() {
+        //Given:
+        AccountDetailsCache cache = new AccountDetailsCache(accountSpi, 100, 60000);
+        //When:
+        SpiAccountDetails first = cache.getAccountDetails(UNKNOWN_ACCOUNT_ID);
+        SpiAccountDetails second = cache.getAccountDetails(UNKNOWN_ACCOUNT_ID);
+        //Then:
+        assertThat(first).isNull();
+        assertThat(second).isNull();
+        verify(accountSpi, times(2)).readAccountDetails(eq(UNKNOWN_ACCOUNT_ID), any(AspspConsentData.class));
+    }
+
+    private SpiAccountDetails getSpiAccountDetails() {
+        return new SpiAccountDetails(ACCOUNT_ID, "DE123456789", null, null, null, null, EUR, null, null, null, null, null);
+    }
+}
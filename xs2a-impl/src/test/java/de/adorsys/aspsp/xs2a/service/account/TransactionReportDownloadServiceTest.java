@@ -0,0 +1,211 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.account;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.aspsp.xs2a.config.WebConfig;
+import de.adorsys.aspsp.xs2a.domain.Transactions;
+import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountReport;
+import de.adorsys.aspsp.xs2a.service.account.TransactionReportDownloadService.TransactionReportFile;
+import de.adorsys.aspsp.xs2a.service.mapper.AccountModelMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransactionReportDownloadServiceTest {
+    private static final String CONSENT_ID = "consent-1";
+    private static final String ACCOUNT_ID = "account-1";
+    private static final int MAX_INLINE_SIZE = 1000;
+    private static final int MAX_FILES = 2;
+    private static final long MAX_TOTAL_SIZE = 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ObjectMapper objectMapper = new WebConfig().objectMapper();
+    private TransactionReportDownloadService downloadService;
+
+    @Before
+    public void setUp() throws IOException {
+        downloadService = new TransactionReportDownloadService(objectMapper, MAX_INLINE_SIZE, temporaryFolder.getRoot().getPath(), 60000, MAX_FILES, MAX_TOTAL_SIZE);
+        downloadService.start();
+    }
+
+    @After
+    public void tearDown() {
+        downloadService.shutdown();
+    }
+
+    @Test
+    public void spoolIfExceedsLimit_smallReportIsNotSpooled() {
+        //When:
+        Optional<String> downloadId = downloadService.spoolIfExceedsLimit(CONSENT_ID, ACCOUNT_ID, getReport(1));
+
+        //Then:
+        assertThat(downloadId.isPresent()).isFalse();
+        assertThat(temporaryFolder.getRoot().list()).isEmpty();
+    }
+
+    @Test
+    public void spoolIfExceedsLimit_largeReportIsSpooled() throws IOException {
+        //Given:
+        Xs2aAccountReport report = getReport(100);
+
+        //When:
+        String downloadId = downloadService.spoolIfExceedsLimit(CONSENT_ID, ACCOUNT_ID, report).get();
+
+        //Then:
+        TransactionReportFile reportFile = downloadService.getReport(CONSENT_ID, ACCOUNT_ID, downloadId).get();
+        assertThat(reportFile.getSize()).isGreaterThan(MAX_INLINE_SIZE);
+        assertThat(new String(Files.readAllBytes(reportFile.getFile()), StandardCharsets.UTF_8))
+            .isEqualTo(objectMapper.writeValueAsString(AccountModelMapper.mapToAccountReport(report)));
+    }
+
+    @Test
+    public void spoolIfExceedsLimit_reportBeyondFileLimitIsNotSpooled() {
+        //Given:
+        downloadService.spoolIfExceedsLimit(CONSENT_ID, ACCOUNT_ID, getReport(100));
+        downloadService.spoolIfExceedsLimit(CONSENT_ID, ACCOUNT_ID, getReport(100));
+
+        //When:
+        Optional<String> downloadId = downloadService.spoolIfExceedsLimit(CONSENT_ID, ACCOUNT_ID, getReport(100));
+
+        //Then:
+        assertThat(downloadId.isPresent()).isFalse();
+        assertThat(temporaryFolder.getRoot().list((dir, name) -> name.endsWith(".json"))).hasSize(MAX_FILES);
+    }
+
+    @Test
+    public void spoolIfExceedsLimit_limitIsCountedInEncodedBytes() {
+        //Given:
+        Transactions transaction = getTransaction(1);
+        transaction.setRemittanceInformationUnstructured(StringUtils.repeat("\u00fc", MAX_INLINE_SIZE * 2 / 3));
+        Xs2aAccountReport report = new Xs2aAccountReport(new Transactions[]{transaction}, new Transactions[]{});
+
+        //When:
+        Optional<String> downloadId = downloadService.spoolIfExceedsLimit(CONSENT_ID, ACCOUNT_ID, report);
+
+        //Then:
+        assertThat(downloadId.isPresent()).isTrue();
+    }
+
+    @Test
+    public void spoolIfExceedsLimit_reportBeyondSizeLimitIsNotSpooled() throws IOException {
+        //Given:
+        downloadService.shutdown();
+        downloadService = new TransactionReportDownloadService(objectMapper, MAX_INLINE_SIZE, temporaryFolder.getRoot().getPath(), 60000, MAX_FILES, MAX_INLINE_SIZE * 2);
+        downloadService.start();
+
+        //When:
+        Optional<String> downloadId = downloadService.spoolIfExceedsLimit(CONSENT_ID, ACCOUNT_ID, getReport(100));
+
+        //Then:
+        assertThat(downloadId.isPresent()).isFalse();
+        assertThat(temporaryFolder.getRoot().list()).isEmpty();
+    }
+
+    @Test
+    public void getReport_otherConsentIsRejected() {
+        //Given:
+        String downloadId = downloadService.spoolIfExceedsLimit(CONSENT_ID, ACCOUNT_ID, getReport(100)).get();
+
+        //When:
+        Optional<TransactionReportFile> reportFile = downloadService.getReport("consent-2", ACCOUNT_ID, downloadId);
+
+        //Then:
+        assertThat(reportFile.isPresent()).isFalse();
+    }
+
+    @Test
+    public void getReport_invalidDownloadIdIsRejected() {
+        //When:
+        Optional<TransactionReportFile> reportFile = downloadService.getReport(CONSENT_ID, ACCOUNT_ID, "../" + CONSENT_ID);
+
+        //Then:
+        assertThat(reportFile.isPresent()).isFalse();
+    }
+
+    @Test
+    public void getReport_spooledByOtherNodeSharingDirectory() throws IOException {
+        //Given:
+        String downloadId = downloadService.spoolIfExceedsLimit(CONSENT_ID, ACCOUNT_ID, getReport(100)).get();
+        TransactionReportFile spooledReport = downloadService.getReport(CONSENT_ID, ACCOUNT_ID, downloadId).get();
+        TransactionReportDownloadService otherNode = new TransactionReportDownloadService(objectMapper, MAX_INLINE_SIZE, temporaryFolder.getRoot().getPath(), 60000, MAX_FILES, MAX_TOTAL_SIZE);
+
+        //When:
+        Optional<TransactionReportFile> reportFile = otherNode.getReport(CONSENT_ID, ACCOUNT_ID, downloadId);
+
+        //Then:
+        assertThat(reportFile.isPresent()).isTrue();
+        assertThat(reportFile.get()).isEqualTo(spooledReport);
+        assertThat(otherNode.getReport("consent-2", ACCOUNT_ID, downloadId).isPresent()).isFalse();
+    }
+
+    @Test
+    public void transfer_range() throws IOException {
+        //Given:
+        String downloadId = downloadService.spoolIfExceedsLimit(CONSENT_ID, ACCOUNT_ID, getReport(100)).get();
+        TransactionReportFile reportFile = downloadService.getReport(CONSENT_ID, ACCOUNT_ID, downloadId).get();
+        byte[] content = Files.readAllBytes(reportFile.getFile());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        //When:
+        downloadService.transfer(reportFile, 10, 20, output);
+
+        //Then:
+        assertThat(output.toByteArray()).isEqualTo(Arrays.copyOfRange(content, 10, 30));
+    }
+
+    @Test
+    public void shutdown_deletesSpooledFiles() {
+        //Given:
+        downloadService.spoolIfExceedsLimit(CONSENT_ID, ACCOUNT_ID, getReport(100));
+
+        //When:
+        downloadService.shutdown();
+
+        //Then:
+        assertThat(temporaryFolder.getRoot().list()).isEmpty();
+    }
+
+    private Xs2aAccountReport getReport(int numberOfTransactions) {
+        Transactions[] booked = IntStream.range(0, numberOfTransactions)
+                                    .mapToObj(this::getTransaction)
+                                    .toArray(Transactions[]::new);
+        return new Xs2aAccountReport(booked, new Transactions[]{});
+    }
+
+    private Transactions getTransaction(int number) {
+        Transactions transaction = new Transactions();
+        transaction.setTransactionId("transaction-" + number);
+        transaction.setCreditorName("Creditor " + number);
+        return transaction;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.consent;
+
+import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.SpiAccountAccess;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AccountAccessIndexTest {
+    private static final String IBAN = "DE89370400440532013000";
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @Test
+    public void isAccessible_perAccessType() {
+        //Given:
+        AccountAccessIndex index = AccountAccessIndex.of(new SpiAccountAccess(
+            Collections.singletonList(getReference(IBAN, EUR)), Collections.emptyList(), null, null, null));
+        //Then:
+        assertThat(index.isAccessible(TypeAccess.ACCOUNT, IBAN, EUR)).isTrue();
+        assertThat(index.isAccessible(TypeAccess.BALANCE, IBAN, EUR)).isFalse();
+        assertThat(index.isAccessible(TypeAccess.TRANSACTION, IBAN, EUR)).isFalse();
+    }
+
+    @Test
+    public void isAccessible_matchesCurrencyAndNormalisedIban() {
+        //Given:
+        AccountAccessIndex index = AccountAccessIndex.of(new SpiAccountAccess(
+            Collections.singletonList(getReference("de89 3704 0044 0532 0130 00", EUR)), null, null, null, null));
+        //Then:
+        assertThat(index.isAccessible(TypeAccess.ACCOUNT, IBAN, EUR)).isTrue();
+        assertThat(index.isAccessible(TypeAccess.ACCOUNT, IBAN, USD)).isFalse();
+        assertThat(index.isAccessible(TypeAccess.ACCOUNT, IBAN, null)).isFalse();
+        assertThat(index.isAccessible(TypeAccess.ACCOUNT, null, EUR)).isFalse();
+    }
+
+    @Test
+    public void isAccessible_largeConsent() {
+        //Given:
+        List<SpiAccountReference> references = IntStream.range(0, 1000)
+                                                   .mapToObj(i -> getReference(String.format("DE%020d", i), EUR))
+                                                   .collect(Collectors.toList());
+        AccountAccessIndex index = AccountAccessIndex.of(new SpiAccountAccess(null, null, references, null, null));
+        //Then:
+        assertThat(index.isAccessible(TypeAccess.TRANSACTION, String.format("DE%020d", 999), EUR)).isTrue();
+        assertThat(index.isAccessible(TypeAccess.TRANSACTION, String.format("DE%020d", 1000), EUR)).isFalse();
+    }
+
+    @Test
+    public void emptyIndexForConsentWithoutAccess() {
+        assertThat(AccountAccessIndex.of(null)).isSameAs(AccountAccessIndex.EMPTY);
+        assertThat(AccountAccessIndex.EMPTY.isAccessible(TypeAccess.ACCOUNT, IBAN, EUR)).isFalse();
+    }
+
+    private SpiAccountReference getReference(String iban, Currency currency) {
+        return new SpiAccountReference(iban, null, null, null, null, currency);
+    }
+}
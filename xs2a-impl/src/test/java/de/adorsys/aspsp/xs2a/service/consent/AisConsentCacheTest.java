@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.consent;
+
+import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountConsent;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.SpiAccountAccess;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.SpiConsentStatus;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AisConsentCacheTest {
+    private static final String CONSENT_ID = "c966f143-f6a2-41db-9036-8abaeeef3af7";
+    private static final String UNKNOWN_CONSENT_ID = "unknown";
+    private static final String IBAN = "DE89370400440532013000";
+    private static final String OTHER_IBAN = "DE52500105173911841934";
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    private AisConsentCache aisConsentCache;
+    private AtomicInteger loads;
+    private Function<String, SpiAccountConsent> loader;
+
+    @Before
+    public void setUp() {
+        aisConsentCache = new AisConsentCache(100, 60000);
+        loads = new AtomicInteger();
+        loader = id -> {
+            loads.incrementAndGet();
+            return CONSENT_ID.equals(id)
+                       ? getSpiConsent(IBAN)
+                       : null;
+        };
+    }
+
+    @Test
+    public void getAccessIndex_loadsOnce() {
+        //When:
+        AccountAccessIndex first = aisConsentCache.getAccessIndex(CONSENT_ID, loader);
+        AccountAccessIndex second = aisConsentCache.getAccessIndex(CONSENT_ID, loader);
+        //Then:
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(second).isSameAs(first);
+        assertThat(first.isAccessible(TypeAccess.BALANCE, IBAN, EUR)).isTrue();
+    }
+
+    @Test
+    public void getAccessIndex_unknownConsentIsNotCached() {
+        //When:
+        AccountAccessIndex first = aisConsentCache.getAccessIndex(UNKNOWN_CONSENT_ID, loader);
+        AccountAccessIndex second = aisConsentCache.getAccessIndex(UNKNOWN_CONSENT_ID, loader);
+        //Then:
+        assertThat(first).isSameAs(AccountAccessIndex.EMPTY);
+        assertThat(second).isSameAs(AccountAccessIndex.EMPTY);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test(expected = ResourceAccessException.class)
+    public void getAccessIndex_loaderFailureIsPropagated() {
+        //When:
+        aisConsentCache.getAccessIndex(CONSENT_ID, id -> {
+            throw new ResourceAccessException("Connection refused");
+        });
+    }
+
+    @Test
+    public void getAccessIndex_concurrentReadsLoadOnce() throws Exception {
+        //Given:
+        CountDownLatch loading = new CountDownLatch(1);
+        Function<String, SpiAccountConsent> slowLoader = id -> {
+            loads.incrementAndGet();
+            try {
+                loading.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return getSpiConsent(IBAN);
+        };
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        List<Future<AccountAccessIndex>> results = new ArrayList<>();
+        //When:
+        for (int i = 0; i < 4; i++) {
+            results.add(readers.submit(() -> aisConsentCache.getAccessIndex(CONSENT_ID, slowLoader)));
+        }
+        loading.countDown();
+        //Then:
+        for (Future<AccountAccessIndex> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(results.get(0).get());
+        }
+        readers.shutdown();
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void put_replacesAccessOfConsentReadFromCms() {
+        //Given:
+        aisConsentCache.getAccessIndex(CONSENT_ID, loader);
+        //When:
+        aisConsentCache.put(CONSENT_ID, getSpiConsent(OTHER_IBAN));
+        AccountAccessIndex actual = aisConsentCache.getAccessIndex(CONSENT_ID, loader);
+        //Then:
+        assertThat(actual.isAccessible(TypeAccess.BALANCE, IBAN, EUR)).isFalse();
+        assertThat(actual.isAccessible(TypeAccess.BALANCE, OTHER_IBAN, EUR)).isTrue();
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void put_keepsIndexOfSameAccess() {
+        //Given:
+        AccountAccessIndex first = aisConsentCache.getAccessIndex(CONSENT_ID, loader);
+        //When:
+        aisConsentCache.put(CONSENT_ID, getSpiConsent(IBAN));
+        //Then:
+        assertThat(aisConsentCache.getAccessIndex(CONSENT_ID, loader)).isSameAs(first);
+    }
+
+    @Test
+    public void put_unknownConsentEvicts() {
+        //Given:
+        aisConsentCache.getAccessIndex(CONSENT_ID, loader);
+        //When:
+        aisConsentCache.put(CONSENT_ID, null);
+        aisConsentCache.getAccessIndex(CONSENT_ID, loader);
+        //Then:
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void evict_forcesReload() {
+        //Given:
+        aisConsentCache.getAccessIndex(CONSENT_ID, loader);
+        //When:
+        aisConsentCache.evict(CONSENT_ID);
+        aisConsentCache.getAccessIndex(CONSENT_ID, loader);
+        //Then:
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private SpiAccountConsent getSpiConsent(String iban) {
+        List<SpiAccountReference> references = Collections.singletonList(new SpiAccountReference(iban, null, null, null, null, EUR));
+        SpiAccountAccess access = new SpiAccountAccess(references, references, references, null, null);
+        return new SpiAccountConsent(CONSENT_ID, access, false, LocalDate.now().plusDays(1), 2, null, SpiConsentStatus.VALID, false, false, null, "tpp");
+    }
+}
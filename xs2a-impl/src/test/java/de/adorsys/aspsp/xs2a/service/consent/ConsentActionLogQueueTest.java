@@ -0,0 +1,183 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.consent;
+
+import de.adorsys.aspsp.xs2a.config.rest.consent.AisConsentRemoteUrls;
+import de.adorsys.aspsp.xs2a.consent.api.ActionStatus;
+import de.adorsys.aspsp.xs2a.consent.api.ConsentActionRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConsentActionLogQueueTest {
+    private static final String ACTIONS_URL = "http://localhost:38080/api/v1/ais/consent/actions";
+    private static final String TPP_ID = "This is a test TppId";
+    private static final long LONG_FLUSH_INTERVAL = 60000;
+    private static final int MAX_RETRIES = 2;
+    private static final long RETRY_BACKOFF = 10;
+
+    @Mock
+    private RestTemplate consentRestTemplate;
+    @Mock
+    private AisConsentRemoteUrls remoteAisConsentUrls;
+    @Captor
+    private ArgumentCaptor<List<ConsentActionRequest>> batchCaptor;
+
+    @Before
+    public void setUp() {
+        when(remoteAisConsentUrls.consentActionLogs()).thenReturn(ACTIONS_URL);
+    }
+
+    @Test
+    public void shutdown_drainsQueueInBulks() {
+        //Given:
+        ConsentActionLogQueue queue = new ConsentActionLogQueue(consentRestTemplate, remoteAisConsentUrls, 100, 2, LONG_FLUSH_INTERVAL, ConsentActionLogOverflowPolicy.DROP, MAX_RETRIES, RETRY_BACKOFF);
+        queue.add(getRequest("consent-1"));
+        //When:
+        queue.shutdown();
+        //Then:
+        verify(consentRestTemplate).postForEntity(eq(ACTIONS_URL), batchCaptor.capture(), eq(Void.class));
+        assertThat(batchCaptor.getValue()).containsExactly(getRequest("consent-1"));
+    }
+
+    @Test
+    public void add_sendsSynchronouslyWhenQueueIsFull() {
+        //Given:
+        ConsentActionLogQueue queue = new ConsentActionLogQueue(consentRestTemplate, remoteAisConsentUrls, 1, 10, LONG_FLUSH_INTERVAL, ConsentActionLogOverflowPolicy.SEND_SYNC, MAX_RETRIES, RETRY_BACKOFF);
+        //When:
+        queue.add(getRequest("consent-1"));
+        queue.add(getRequest("consent-2"));
+        //Then:
+        verify(consentRestTemplate).postForEntity(eq(ACTIONS_URL), batchCaptor.capture(), eq(Void.class));
+        assertThat(batchCaptor.getValue()).containsExactly(getRequest("consent-2"));
+    }
+
+    @Test
+    public void add_dropsWhenQueueIsFull() {
+        //Given:
+        ConsentActionLogQueue queue = new ConsentActionLogQueue(consentRestTemplate, remoteAisConsentUrls, 1, 10, LONG_FLUSH_INTERVAL, ConsentActionLogOverflowPolicy.DROP, MAX_RETRIES, RETRY_BACKOFF);
+        //When:
+        queue.add(getRequest("consent-1"));
+        queue.add(getRequest("consent-2"));
+        queue.shutdown();
+        //Then:
+        verify(consentRestTemplate, times(1)).postForEntity(eq(ACTIONS_URL), anyListOf(ConsentActionRequest.class), eq(Void.class));
+        assertThat(queue.metrics().stream()
+                       .anyMatch(m -> m.getName().equals("consent-action-log.dropped") && m.getValue().longValue() == 1)).isTrue();
+    }
+
+    @Test
+    public void send_retriesFailedBulk() {
+        //Given:
+        when(consentRestTemplate.postForEntity(eq(ACTIONS_URL), anyListOf(ConsentActionRequest.class), eq(Void.class)))
+            .thenThrow(new RestClientException("CMS unavailable"))
+            .thenReturn(null);
+        ConsentActionLogQueue queue = new ConsentActionLogQueue(consentRestTemplate, remoteAisConsentUrls, 100, 1, LONG_FLUSH_INTERVAL, ConsentActionLogOverflowPolicy.DROP, MAX_RETRIES, RETRY_BACKOFF);
+        //When:
+        queue.add(getRequest("consent-1"));
+        verify(consentRestTemplate, timeout(5000).times(2)).postForEntity(eq(ACTIONS_URL), batchCaptor.capture(), eq(Void.class));
+        queue.shutdown();
+        //Then:
+        assertThat(batchCaptor.getAllValues()).containsOnly(Collections.singletonList(getRequest("consent-1")));
+        assertThat(getMetric(queue, "retried")).isEqualTo(1);
+        assertThat(getMetric(queue, "sent")).isEqualTo(1);
+        assertThat(getMetric(queue, "failed")).isEqualTo(0);
+    }
+
+    @Test
+    public void send_givesUpAfterMaxRetries() {
+        //Given:
+        when(consentRestTemplate.postForEntity(eq(ACTIONS_URL), anyListOf(ConsentActionRequest.class), eq(Void.class)))
+            .thenThrow(new RestClientException("CMS unavailable"));
+        ConsentActionLogQueue queue = new ConsentActionLogQueue(consentRestTemplate, remoteAisConsentUrls, 100, 1, LONG_FLUSH_INTERVAL, ConsentActionLogOverflowPolicy.DROP, MAX_RETRIES, RETRY_BACKOFF);
+        //When:
+        queue.add(getRequest("consent-1"));
+        verify(consentRestTemplate, timeout(5000).times(MAX_RETRIES + 1)).postForEntity(eq(ACTIONS_URL), anyListOf(ConsentActionRequest.class), eq(Void.class));
+        queue.shutdown();
+        //Then:
+        assertThat(getMetric(queue, "retried")).isEqualTo(MAX_RETRIES);
+        assertThat(getMetric(queue, "failed")).isEqualTo(1);
+    }
+
+    @Test
+    public void shutdown_sendsPendingRetries() {
+        //Given:
+        when(consentRestTemplate.postForEntity(eq(ACTIONS_URL), anyListOf(ConsentActionRequest.class), eq(Void.class)))
+            .thenThrow(new RestClientException("CMS unavailable"))
+            .thenReturn(null);
+        ConsentActionLogQueue queue = new ConsentActionLogQueue(consentRestTemplate, remoteAisConsentUrls, 100, 1, 100, ConsentActionLogOverflowPolicy.DROP, MAX_RETRIES, LONG_FLUSH_INTERVAL);
+        queue.add(getRequest("consent-1"));
+        verify(consentRestTemplate, timeout(5000)).postForEntity(eq(ACTIONS_URL), anyListOf(ConsentActionRequest.class), eq(Void.class));
+        //When:
+        queue.shutdown();
+        //Then:
+        verify(consentRestTemplate, times(2)).postForEntity(eq(ACTIONS_URL), anyListOf(ConsentActionRequest.class), eq(Void.class));
+        assertThat(getMetric(queue, "sent")).isEqualTo(1);
+    }
+
+    @Test
+    public void shutdown_waitsForRetryBackoffWithoutBlockingFlushes() throws InterruptedException {
+        //Given:
+        long retryBackoff = 3000;
+        when(consentRestTemplate.postForEntity(eq(ACTIONS_URL), anyListOf(ConsentActionRequest.class), eq(Void.class)))
+            .thenThrow(new RestClientException("CMS unavailable"))
+            .thenReturn(null);
+        ConsentActionLogQueue queue = new ConsentActionLogQueue(consentRestTemplate, remoteAisConsentUrls, 100, 100, LONG_FLUSH_INTERVAL, ConsentActionLogOverflowPolicy.DROP, MAX_RETRIES, retryBackoff);
+        queue.add(getRequest("consent-1"));
+        Thread shutdown = new Thread(queue::shutdown);
+        shutdown.start();
+        verify(consentRestTemplate, timeout(5000)).postForEntity(eq(ACTIONS_URL), anyListOf(ConsentActionRequest.class), eq(Void.class));
+        //When:
+        Thread lateAction = new Thread(() -> queue.add(getRequest("consent-2")));
+        lateAction.start();
+        //Then:
+        verify(consentRestTemplate, timeout(retryBackoff / 3)).postForEntity(ACTIONS_URL, Collections.singletonList(getRequest("consent-2")), Void.class);
+        shutdown.join();
+        lateAction.join();
+        verify(consentRestTemplate, times(2)).postForEntity(ACTIONS_URL, Collections.singletonList(getRequest("consent-1")), Void.class);
+        assertThat(getMetric(queue, "sent")).isEqualTo(2);
+    }
+
+    private long getMetric(ConsentActionLogQueue queue, String name) {
+        return queue.metrics().stream()
+                   .filter(m -> m.getName().equals("consent-action-log." + name))
+                   .map(Metric::getValue)
+                   .findFirst()
+                   .map(Number::longValue)
+                   .orElse(-1L);
+    }
+
+    private ConsentActionRequest getRequest(String consentId) {
+        return new ConsentActionRequest(TPP_ID, consentId, ActionStatus.SUCCESS);
+    }
+}
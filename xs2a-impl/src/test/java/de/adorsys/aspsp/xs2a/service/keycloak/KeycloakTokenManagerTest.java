@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.service.keycloak;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KeycloakTokenManagerTest {
+    private static final String ACCESS_TOKEN = "access-token";
+    private static final String REFRESHED_ACCESS_TOKEN = "refreshed-access-token";
+    private static final String REFRESH_TOKEN = "refresh-token";
+    private static final String AUTHORIZATION = "Authorization: Bearer ";
+    private static final long MIN_VALIDITY = 5000;
+    private static final long REFRESH_AHEAD = 30000;
+
+    @Mock
+    private KeycloakInvokerService keycloakInvokerService;
+
+    private KeycloakTokenManager keycloakTokenManager;
+
+    @Before
+    public void setUp() {
+        keycloakTokenManager = new KeycloakTokenManager(keycloakInvokerService, MIN_VALIDITY, REFRESH_AHEAD);
+    }
+
+    @After
+    public void tearDown() {
+        keycloakTokenManager.shutdown();
+    }
+
+    @Test
+    public void getAccessToken_cachedUntilExpiration() {
+        //Given:
+        when(keycloakInvokerService.obtainToken()).thenReturn(getToken(ACCESS_TOKEN, 300000));
+        //When:
+        String first = keycloakTokenManager.getAccessToken();
+        String second = keycloakTokenManager.getAccessToken();
+        //Then:
+        assertThat(first).isEqualTo(AUTHORIZATION + ACCESS_TOKEN);
+        assertThat(second).isEqualTo(first);
+        verify(keycloakInvokerService, times(1)).obtainToken();
+        assertThat(keycloakTokenManager.metrics().stream()
+                       .anyMatch(m -> m.getName().equals("keycloak.token.hit") && m.getValue().longValue() == 1)).isTrue();
+    }
+
+    @Test
+    public void getAccessToken_expiringTokenIsRefreshedWithRefreshToken() {
+        //Given:
+        when(keycloakInvokerService.obtainToken()).thenReturn(getToken(ACCESS_TOKEN, MIN_VALIDITY / 2));
+        when(keycloakInvokerService.refreshToken(REFRESH_TOKEN)).thenReturn(getToken(REFRESHED_ACCESS_TOKEN, 300000));
+        keycloakTokenManager.getAccessToken();
+        //When:
+        String token = keycloakTokenManager.getAccessToken();
+        //Then:
+        assertThat(token).isEqualTo(AUTHORIZATION + REFRESHED_ACCESS_TOKEN);
+        verify(keycloakInvokerService, times(1)).obtainToken();
+    }
+
+    @Test
+    public void getAccessToken_failedRefreshFallsBackToPasswordGrant() {
+        //Given:
+        when(keycloakInvokerService.obtainToken())
+            .thenReturn(getToken(ACCESS_TOKEN, MIN_VALIDITY / 2))
+            .thenReturn(getToken(REFRESHED_ACCESS_TOKEN, 300000));
+        when(keycloakInvokerService.refreshToken(REFRESH_TOKEN)).thenThrow(new IllegalStateException("invalid_grant"));
+        keycloakTokenManager.getAccessToken();
+        //When:
+        String token = keycloakTokenManager.getAccessToken();
+        //Then:
+        assertThat(token).isEqualTo(AUTHORIZATION + REFRESHED_ACCESS_TOKEN);
+        verify(keycloakInvokerService, times(2)).obtainToken();
+    }
+
+    @Test
+    public void getAccessToken_concurrentRequestsShareOneRefresh() throws Exception {
+        //Given:
+        CountDownLatch keycloakCalled = new CountDownLatch(1);
+        CountDownLatch keycloakResponds = new CountDownLatch(1);
+        when(keycloakInvokerService.obtainToken()).thenAnswer(invocation -> {
+            keycloakCalled.countDown();
+            keycloakResponds.await(5, TimeUnit.SECONDS);
+            return getToken(ACCESS_TOKEN, 300000);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        //When:
+        List<Future<String>> tokens = new ArrayList<>();
+        tokens.add(executor.submit(keycloakTokenManager::getAccessToken));
+        keycloakCalled.await(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 3; i++) {
+            tokens.add(executor.submit(keycloakTokenManager::getAccessToken));
+        }
+        Thread.sleep(100);
+        keycloakResponds.countDown();
+        //Then:
+        for (Future<String> token : tokens) {
+            assertThat(token.get(5, TimeUnit.SECONDS)).isEqualTo(AUTHORIZATION + ACCESS_TOKEN);
+        }
+        verify(keycloakInvokerService, times(1)).obtainToken();
+        executor.shutdown();
+    }
+
+    private KeycloakToken getToken(String accessToken, long validityMs) {
+        long now = System.currentTimeMillis();
+        return new KeycloakToken(accessToken, REFRESH_TOKEN, now + validityMs, now + 1800000);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.web.async;
+
+import de.adorsys.aspsp.xs2a.domain.ResponseObject;
+import de.adorsys.aspsp.xs2a.service.AccountService;
+import de.adorsys.aspsp.xs2a.service.account.TransactionReportDownloadService;
+import de.adorsys.aspsp.xs2a.service.mapper.ResponseMapper;
+import de.adorsys.aspsp.xs2a.web12.AccountController12;
+import de.adorsys.aspsp.xs2a.web12.ConsentController12;
+import de.adorsys.aspsp.xs2a.web12.PaymentController12;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks {@link AsyncRequestAspect} against the real controllers, which get their request mappings from generated API interfaces
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncRequestAspectControllerTest {
+    private static final String CONSENT_ID = "consent id";
+    private static final String ACCOUNT_ID = "account id";
+
+    @Mock
+    private AccountService accountService;
+    @Mock
+    private ResponseMapper responseMapper;
+    @Mock
+    private TransactionReportDownloadService transactionReportDownloadService;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new AccountController12(accountService, responseMapper, transactionReportDownloadService));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new AsyncRequestAspect(new SimpleAsyncTaskExecutor(), true, 5000));
+        mockMvc = MockMvcBuilders.standaloneSetup((Object) proxyFactory.getProxy())
+                      .setCustomReturnValueHandlers(new AsyncResponseEntityReturnValueHandler())
+                      .build();
+    }
+
+    @Test
+    public void getBalances_isHandledAsync() throws Exception {
+        //Given:
+        doReturn(ResponseObject.builder().build()).when(accountService).getBalances(CONSENT_ID, ACCOUNT_ID);
+        doReturn(ResponseEntity.ok("{}")).when(responseMapper).ok(any(ResponseObject.class), any(Function.class));
+        //When:
+        MvcResult result = mockMvc.perform(get("/v1/accounts/{account-id}/balances", ACCOUNT_ID)
+                                               .header("X-Request-ID", UUID.randomUUID().toString())
+                                               .header("Consent-ID", CONSENT_ID))
+                               .andExpect(request().asyncStarted())
+                               .andReturn();
+        //Then:
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    public void pointcut_matchesAllEndpointsOfAisAndPisControllers() {
+        //When:
+        List<String> notMatched = Arrays.asList(AccountController12.class, PaymentController12.class, ConsentController12.class).stream()
+                                      .flatMap(controller -> Arrays.stream(controller.getMethods())
+                                                                 .filter(method -> AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class) != null)
+                                                                 .filter(method -> !matches(controller, method))
+                                                                 .map(method -> controller.getSimpleName() + "." + method.getName()))
+                                      .collect(Collectors.toList());
+        //Then:
+        assertThat(notMatched).isEmpty();
+    }
+
+    private boolean matches(Class<?> controller, Method method) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(AsyncRequestAspect.CONTROLLER_ENDPOINTS);
+        return pointcut.matches(method, controller);
+    }
+}
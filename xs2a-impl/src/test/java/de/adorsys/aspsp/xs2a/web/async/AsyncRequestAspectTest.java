@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.web.async;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncRequestAspectTest {
+    private static final ResponseEntity<String> RESPONSE = ResponseEntity.ok("body");
+
+    @Mock
+    private AsyncTaskExecutor requestExecutor;
+    @Mock
+    private ProceedingJoinPoint pjp;
+
+    @Test
+    public void invokeAsync_disabled() throws Throwable {
+        //Given:
+        when(pjp.proceed()).thenReturn(RESPONSE);
+        AsyncRequestAspect aspect = new AsyncRequestAspect(requestExecutor, false, 1000);
+        //When:
+        Object result = aspect.invokeAsync(pjp);
+        //Then:
+        assertThat(result).isSameAs(RESPONSE);
+    }
+
+    @Test
+    public void invokeAsync_enabled() throws Throwable {
+        //Given:
+        when(pjp.proceed()).thenReturn(RESPONSE);
+        AsyncRequestAspect aspect = new AsyncRequestAspect(requestExecutor, true, 1000);
+        //When:
+        Object result = aspect.invokeAsync(pjp);
+        //Then:
+        verify(pjp, never()).proceed();
+        assertThat(new AsyncResponseEntityReturnValueHandler().isAsyncReturnValue(result, null)).isTrue();
+        WebAsyncTask<?> task = (WebAsyncTask<?>) ((ResponseEntity<?>) result).getBody();
+        assertThat(task.getExecutor()).isSameAs(requestExecutor);
+        assertThat(task.getTimeout()).isEqualTo(1000);
+        assertThat(task.getCallable().call()).isSameAs(RESPONSE);
+    }
+
+    @Test
+    public void isAsyncReturnValue_plainResponse() {
+        assertThat(new AsyncResponseEntityReturnValueHandler().isAsyncReturnValue(RESPONSE, null)).isFalse();
+    }
+}
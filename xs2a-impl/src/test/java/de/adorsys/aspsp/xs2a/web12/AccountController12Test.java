@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web12;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.aspsp.xs2a.domain.ResponseObject;
+import de.adorsys.aspsp.xs2a.domain.TppMessageInformation;
+import de.adorsys.aspsp.xs2a.domain.Transactions;
+import de.adorsys.aspsp.xs2a.domain.account.Xs2aAccountReport;
+import de.adorsys.aspsp.xs2a.exception.MessageError;
+import de.adorsys.aspsp.xs2a.service.AccountService;
+import de.adorsys.aspsp.xs2a.service.account.TransactionReportDownloadService;
+import de.adorsys.aspsp.xs2a.service.account.TransactionReportDownloadService.TransactionReportFile;
+import de.adorsys.aspsp.xs2a.service.mapper.ResponseMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static de.adorsys.aspsp.xs2a.domain.MessageErrorCode.RESOURCE_UNKNOWN_404;
+import static de.adorsys.aspsp.xs2a.exception.MessageCategory.ERROR;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AccountController12Test {
+    private static final String CONSENT_ID = "consent-1";
+    private static final String ACCOUNT_ID = "account-1";
+    private static final String WRONG_DOWNLOAD_ID = "wrong download id";
+    private static final String DOWNLOAD_PATH = "/v1/accounts/{account-id}/transactions/download/{download-id}";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private AccountService accountService;
+    @Mock
+    private ResponseMapper responseMapper;
+
+    private TransactionReportDownloadService downloadService;
+    private MockMvc mockMvc;
+    private String downloadId;
+    private byte[] content;
+
+    @Before
+    public void setUp() throws IOException {
+        downloadService = new TransactionReportDownloadService(new ObjectMapper(), 100, temporaryFolder.getRoot().getPath(), 60000, 10, 1024 * 1024);
+        downloadService.start();
+        downloadId = downloadService.spoolIfExceedsLimit(CONSENT_ID, ACCOUNT_ID, getReport()).get();
+        TransactionReportFile reportFile = downloadService.getReport(CONSENT_ID, ACCOUNT_ID, downloadId).get();
+        content = Files.readAllBytes(reportFile.getFile());
+        when(accountService.getTransactionReportFile(CONSENT_ID, ACCOUNT_ID, downloadId))
+            .thenReturn(ResponseObject.<TransactionReportFile>builder().body(reportFile).build());
+        mockMvc = MockMvcBuilders.standaloneSetup(new AccountController12(accountService, responseMapper, downloadService)).build();
+    }
+
+    @After
+    public void tearDown() {
+        downloadService.shutdown();
+    }
+
+    @Test
+    public void downloadTransactionList_wholeReport() throws Exception {
+        //When Then:
+        mockMvc.perform(get(DOWNLOAD_PATH, ACCOUNT_ID, downloadId)
+                            .header("Consent-ID", CONSENT_ID))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(content().bytes(content));
+    }
+
+    @Test
+    public void downloadTransactionList_range() throws Exception {
+        //When Then:
+        mockMvc.perform(get(DOWNLOAD_PATH, ACCOUNT_ID, downloadId)
+                            .header("Consent-ID", CONSENT_ID)
+                            .header(HttpHeaders.RANGE, "bytes=10-29"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-29/" + content.length))
+            .andExpect(content().bytes(Arrays.copyOfRange(content, 10, 30)));
+    }
+
+    @Test
+    public void downloadTransactionList_unsatisfiableRange() throws Exception {
+        //When Then:
+        mockMvc.perform(get(DOWNLOAD_PATH, ACCOUNT_ID, downloadId)
+                            .header("Consent-ID", CONSENT_ID)
+                            .header(HttpHeaders.RANGE, "bytes=" + content.length + "-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + content.length));
+    }
+
+    @Test
+    public void downloadTransactionList_unknownDownloadId() throws Exception {
+        //Given:
+        ResponseObject<TransactionReportFile> notFound = ResponseObject.<TransactionReportFile>builder()
+                                                             .fail(new MessageError(new TppMessageInformation(ERROR, RESOURCE_UNKNOWN_404))).build();
+        when(accountService.getTransactionReportFile(CONSENT_ID, ACCOUNT_ID, WRONG_DOWNLOAD_ID)).thenReturn(notFound);
+        when(responseMapper.ok(any())).thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+
+        //When Then:
+        mockMvc.perform(get(DOWNLOAD_PATH, ACCOUNT_ID, WRONG_DOWNLOAD_ID)
+                            .header("Consent-ID", CONSENT_ID))
+            .andExpect(status().isNotFound());
+    }
+
+    private Xs2aAccountReport getReport() {
+        Transactions[] booked = IntStream.range(0, 10)
+                                    .mapToObj(this::getTransaction)
+                                    .toArray(Transactions[]::new);
+        return new Xs2aAccountReport(booked, new Transactions[]{});
+    }
+
+    private Transactions getTransaction(int number) {
+        Transactions transaction = new Transactions();
+        transaction.setTransactionId("transaction-" + number);
+        return transaction;
+    }
+}